@@ -0,0 +1,50 @@
+package com.example.s3upload.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * 基准测试入口
+ *
+ * 接受与JMH命令行完全相同的参数，区别在于默认以JSON格式把结果写入 jmh-result.json，
+ * 便于保存各版本的结果并进行对比；显式传入 -rf / -rff 时以命令行为准。
+ *
+ * 示例：
+ *   java -jar target/benchmarks.jar                          # 运行全部基准测试
+ *   java -jar target/benchmarks.jar UploadRequest -p payloadSize=65536
+ *   java -jar target/benchmarks.jar -rff results/1.0.0.json  # 指定结果文件
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+public class BenchmarkRunner {
+
+    /**
+     * 默认结果文件
+     */
+    private static final String DEFAULT_RESULT_FILE = "jmh-result.json";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        // 帮助、列出基准测试等非运行类命令交给JMH自带的入口处理
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListWithParams()
+                || commandLine.shouldListProfilers() || commandLine.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            options.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            options.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(options.build()).run();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.s3upload.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 进程内假S3服务
+ *
+ * 只实现上传基准测试需要的请求，不保存任何内容，响应尽可能快，
+ * 使端到端基准测试测量的主要是本服务和SDK自身的开销：
+ * - PUT：读完请求体并返回内容的MD5作为ETag（SDK会校验ETag）
+ * - HEAD：对象一律不存在（404）
+ * - 其他请求：200空响应
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+public class FakeS3Server implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "fake-s3");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 在本机随机端口上启动假S3服务
+     *
+     * @throws IOException 端口绑定失败时抛出
+     */
+    public FakeS3Server() throws IOException {
+        // 默认启用Nagle算法时，小响应会等待延迟确认，单次请求增加数十毫秒
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    /**
+     * 假S3服务的终端点URL
+     *
+     * @return 形如 http://127.0.0.1:端口 的URL
+     */
+    public String endpoint() {
+        InetSocketAddress address = server.getAddress();
+        return "http://" + address.getAddress().getHostAddress() + ":" + address.getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+                    boolean chunked = contentSha256 != null && contentSha256.startsWith("STREAMING-");
+                    exchange.getResponseHeaders().add("ETag", "\"" + md5Hex(chunked ? new AwsChunkedInputStream(body) : body) + "\"");
+                    exchange.sendResponseHeaders(200, -1);
+                }
+                case "HEAD" -> exchange.sendResponseHeaders(404, -1);
+                default -> {
+                    body.transferTo(OutputStream.nullOutputStream());
+                    exchange.sendResponseHeaders(200, -1);
+                }
+            }
+        }
+    }
+
+    private static String md5Hex(InputStream content) throws IOException {
+        try {
+            MessageDigest md5 = MessageDigest.getInstance("MD5");
+            new DigestInputStream(content, md5).transferTo(OutputStream.nullOutputStream());
+            return HexFormat.of().formatHex(md5.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 解码SDK通过HTTP发送的aws-chunked请求体：每块为 "十六进制长度;chunk-signature=...\r\n数据\r\n"，
+     * 以长度为0的块结束
+     */
+    private static class AwsChunkedInputStream extends InputStream {
+        private final InputStream in;
+        private long remaining;
+        private boolean finished;
+
+        AwsChunkedInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (remaining == 0 && !nextChunk()) {
+                return -1;
+            }
+            int count = in.read(b, off, (int) Math.min(len, remaining));
+            if (count < 0) {
+                throw new IOException("aws-chunked请求体被截断");
+            }
+            remaining -= count;
+            if (remaining == 0) {
+                in.readNBytes(2);
+            }
+            return count;
+        }
+
+        private boolean nextChunk() throws IOException {
+            if (finished) {
+                return false;
+            }
+            StringBuilder header = new StringBuilder();
+            int c;
+            while ((c = in.read()) != '\n') {
+                if (c < 0) {
+                    throw new IOException("aws-chunked请求体被截断");
+                }
+                header.append((char) c);
+            }
+            remaining = Long.parseLong(header.toString().split(";")[0].trim(), 16);
+            if (remaining == 0) {
+                finished = true;
+                in.transferTo(OutputStream.nullOutputStream());
+                return false;
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.s3upload.benchmark;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3UploadRequest;
+import com.example.s3upload.service.S3OperationMetrics;
+import com.example.s3upload.support.SpooledUploadContent;
+import com.example.s3upload.support.StreamingUploadRequestReader;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传请求解析基准测试
+ *
+ * 覆盖每个Base64上传请求都会经过的步骤，按文件大小（payloadSize，解码后的字节数）参数化：
+ * - jacksonDeserialize：将整个JSON请求体反序列化为 {@link S3UploadRequest}（批量上传接口的方式）
+ * - base64Decode：使用 {@link Base64#getDecoder()} 解码fileContent（S3Service.uploadFile的方式）
+ * - streamingRead：使用 {@link StreamingUploadRequestReader} 增量解析并解码到暂存文件（/upload接口的方式）
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadRequestBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int payloadSize;
+
+    private ObjectMapper objectMapper;
+    private ValidatorFactory validatorFactory;
+    private StreamingUploadRequestReader streamingReader;
+    private byte[] requestJson;
+    private String fileContent;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        streamingReader = new StreamingUploadRequestReader(
+            objectMapper, validatorFactory.getValidator(), new S3OperationMetrics(new SimpleMeterRegistry()),
+            new S3Properties());
+
+        byte[] content = new byte[payloadSize];
+        new Random(42).nextBytes(content);
+        fileContent = Base64.getEncoder().encodeToString(content);
+        requestJson = objectMapper.writeValueAsBytes(Map.of(
+            "fileName", "benchmark.bin",
+            "pathPrefix", "benchmarks/",
+            "contentType", "application/octet-stream",
+            "overwrite", true,
+            "fileContent", fileContent
+        ));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public S3UploadRequest jacksonDeserialize() throws IOException {
+        return objectMapper.readValue(requestJson, S3UploadRequest.class);
+    }
+
+    @Benchmark
+    public byte[] base64Decode() {
+        return Base64.getDecoder().decode(fileContent);
+    }
+
+    @Benchmark
+    public long streamingRead() throws IOException {
+        try (SpooledUploadContent content = streamingReader.read(new ByteArrayInputStream(requestJson))) {
+            return content.getUploadRequest().getContentLength();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.s3upload.benchmark;
+
+import com.example.s3upload.dto.S3UploadResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传响应序列化基准测试
+ *
+ * 测量成功和失败两种 {@link S3UploadResponse} 序列化为JSON的开销，
+ * ObjectMapper与Spring MVC使用的配置方式相同（包括JavaTimeModule）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UploadResponseBenchmark {
+
+    private ObjectMapper objectMapper;
+    private S3UploadResponse successResponse;
+    private S3UploadResponse failureResponse;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        successResponse = S3UploadResponse.success(
+            "uploads/2024/01/15/0b7c6e4e-4a53-4c55-9d0c-3f4f2b0f8a61_report.pdf",
+            "https://bucket.s3.us-east-1.amazonaws.com/uploads%2F2024%2F01%2F15%2F0b7c6e4e-4a53-4c55-9d0c-3f4f2b0f8a61_report.pdf",
+            1_048_576L,
+            "application/pdf",
+            "bucket"
+        );
+        successResponse.setFileName("report.pdf");
+        successResponse.setThroughputBytesPerSecond(52_428_800L);
+        successResponse.setUploadTime(LocalDateTime.of(2024, 1, 15, 10, 30));
+
+        failureResponse = S3UploadResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+    }
+
+    @Benchmark
+    public byte[] serializeSuccess() throws IOException {
+        return objectMapper.writeValueAsBytes(successResponse);
+    }
+
+    @Benchmark
+    public byte[] serializeFailure() throws IOException {
+        return objectMapper.writeValueAsBytes(failureResponse);
+    }
+}
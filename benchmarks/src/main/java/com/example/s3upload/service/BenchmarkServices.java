@@ -0,0 +1,78 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.lang.Nullable;
+import software.amazon.awssdk.services.s3.S3Client;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 基准测试使用的S3Service及其依赖
+ *
+ * 不启动Spring容器，按与Spring相同的依赖关系手工组装，避免容器启动和代理带来的干扰。
+ *
+ * @param service 组装好的S3Service
+ * @param s3Client S3客户端，不访问S3的基准测试中为null
+ * @param executor S3并行传输线程池
+ * @author Generated
+ * @version 1.0.0
+ */
+record BenchmarkServices(S3Service service, @Nullable S3Client s3Client, ExecutorService executor)
+        implements AutoCloseable {
+
+    /**
+     * 创建基准测试使用的配置
+     *
+     * @param endpointUrl 自定义终端点，为null时使用标准AWS S3 URL
+     * @return S3配置属性
+     */
+    static S3Properties properties(@Nullable String endpointUrl) {
+        S3Properties properties = new S3Properties();
+        properties.setAccessKey("benchmark-access-key");
+        properties.setSecretKey("benchmark-secret-key");
+        properties.setRegion("us-east-1");
+        properties.setBucketName("benchmark-bucket");
+        properties.setEndpointUrl(endpointUrl);
+        properties.setPathStyleAccess(endpointUrl != null);
+        return properties;
+    }
+
+    /**
+     * 组装S3Service
+     *
+     * @param properties S3配置属性
+     * @param s3Client S3客户端，可以为null
+     * @return 基准测试服务，使用完毕后需要关闭
+     */
+    static BenchmarkServices create(S3Properties properties, @Nullable S3Client s3Client) {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        S3OperationMetrics metrics = new S3OperationMetrics(new SimpleMeterRegistry());
+        S3MetadataCache metadataCache = new S3MetadataCache(properties);
+        S3RequestHedger requestHedger = new S3RequestHedger(properties, executor, metrics);
+        S3Service service = new S3Service(
+            s3Client,
+            null,
+            null,
+            properties,
+            new S3MultipartUploader(s3Client, properties, executor, new S3ContentCompressor(properties), metrics,
+                requestHedger),
+            new S3BulkDeleter(s3Client, properties, executor, metadataCache, metrics),
+            metadataCache,
+            metrics,
+            executor,
+            requestHedger,
+            new S3KeyLayout(properties)
+        );
+        return new BenchmarkServices(service, s3Client, executor);
+    }
+
+    @Override
+    public void close() {
+        if (s3Client != null) {
+            s3Client.close();
+        }
+        executor.shutdownNow();
+    }
+}
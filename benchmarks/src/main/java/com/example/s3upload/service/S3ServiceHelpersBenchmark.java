@@ -0,0 +1,84 @@
+package com.example.s3upload.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S3Service辅助方法基准测试
+ *
+ * 测量每次上传都会调用的键生成、内容类型推断和URL生成。
+ * 这些方法是S3Service的包级方法，因此本类与S3Service位于同一个包中。
+ * 辅助方法不访问S3，使用不带客户端的S3Service即可。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class S3ServiceHelpersBenchmark {
+
+    private BenchmarkServices awsServices;
+    private BenchmarkServices endpointServices;
+
+    @Setup
+    public void setUp() {
+        awsServices = BenchmarkServices.create(BenchmarkServices.properties(null), null);
+        endpointServices = BenchmarkServices.create(BenchmarkServices.properties("http://localhost:9000"), null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        awsServices.close();
+        endpointServices.close();
+    }
+
+    @Benchmark
+    public String buildS3KeyWithDatePrefix() {
+        return awsServices.service().buildS3Key(null, "report.pdf");
+    }
+
+    @Benchmark
+    public String buildS3KeyWithPathPrefix() {
+        return awsServices.service().buildS3Key("images/avatars", "photo.jpg");
+    }
+
+    @Benchmark
+    public String determineContentTypeProvided() {
+        return awsServices.service().determineContentType(" image/png ", "photo.png");
+    }
+
+    @Benchmark
+    public String determineContentTypeByExtension() {
+        return awsServices.service().determineContentType(null, "Quarterly Report.XLSX");
+    }
+
+    @Benchmark
+    public String determineContentTypeUnknown() {
+        return awsServices.service().determineContentType(null, "archive.tar.zst");
+    }
+
+    @Benchmark
+    public String generateFileUrlAws() {
+        return awsServices.service().generateFileUrl("uploads/2024/01/15/0b7c6e4e_季度 报告.pdf");
+    }
+
+    @Benchmark
+    public String generateFileUrlCustomEndpoint() {
+        return endpointServices.service().generateFileUrl("uploads/2024/01/15/0b7c6e4e_季度 报告.pdf");
+    }
+}
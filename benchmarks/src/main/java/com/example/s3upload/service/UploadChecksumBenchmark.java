@@ -0,0 +1,89 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.benchmark.FakeS3Server;
+import com.example.s3upload.config.S3Config;
+import com.example.s3upload.config.S3HttpPoolMetrics;
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3UploadRequest;
+import com.example.s3upload.dto.S3UploadResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上传校验和开销基准测试
+ *
+ * 与 {@link UploadFileBenchmark} 相同的端到端上传路径，按 {@code aws.s3.checksum.algorithm}
+ * 分别测量不发送校验和（NONE）和各灵活校验和算法的上传吞吐量。
+ * 校验和由SDK在发送请求体时增量计算，吞吐量之差即为各算法的计算开销。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UploadChecksumBenchmark {
+
+    @Param({"NONE", "CRC32", "CRC32C", "SHA256"})
+    private S3Properties.Checksum.Algorithm algorithm;
+
+    @Param({"65536", "1048576", "8388608"})
+    private int payloadSize;
+
+    private FakeS3Server fakeS3;
+    private BenchmarkServices services;
+    private S3UploadRequest uploadRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fakeS3 = new FakeS3Server();
+
+        S3Properties properties = BenchmarkServices.properties(fakeS3.endpoint());
+        properties.getChecksum().setAlgorithm(algorithm);
+        S3Config s3Config = new S3Config(properties, new S3HttpPoolMetrics(new SimpleMeterRegistry()));
+        services = BenchmarkServices.create(properties, s3Config.s3Client());
+
+        byte[] content = new byte[payloadSize];
+        new Random(42).nextBytes(content);
+        uploadRequest = new S3UploadRequest();
+        uploadRequest.setFileName("benchmark.bin");
+        uploadRequest.setPathPrefix("benchmarks/");
+        uploadRequest.setOverwrite(true);
+        uploadRequest.setFileContent(Base64.getEncoder().encodeToString(content));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.close();
+        fakeS3.close();
+    }
+
+    @Benchmark
+    public S3UploadResponse uploadFile() {
+        S3UploadResponse response = services.service().uploadFile(uploadRequest);
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("上传失败: " + response.getMessage());
+        }
+        return response;
+    }
+}
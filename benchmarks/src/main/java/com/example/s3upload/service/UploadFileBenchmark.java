@@ -0,0 +1,87 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.benchmark.FakeS3Server;
+import com.example.s3upload.config.S3Config;
+import com.example.s3upload.config.S3HttpPoolMetrics;
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3UploadRequest;
+import com.example.s3upload.dto.S3UploadResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * S3Service.uploadFile端到端基准测试
+ *
+ * 使用进程内的 {@link FakeS3Server} 作为S3终端点，测量从Base64解码、键生成到SDK签名、
+ * HTTP传输和响应构建的完整上传路径。S3客户端由 {@link S3Config} 按默认配置创建，
+ * 与生产环境使用相同的HTTP实现和连接池设置。
+ *
+ * overwrite=true，因此不会发出存在性检查的headObject请求。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UploadFileBenchmark {
+
+    @Param({"1024", "65536", "1048576"})
+    private int payloadSize;
+
+    private FakeS3Server fakeS3;
+    private BenchmarkServices services;
+    private S3UploadRequest uploadRequest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fakeS3 = new FakeS3Server();
+
+        S3Properties properties = BenchmarkServices.properties(fakeS3.endpoint());
+        S3Config s3Config = new S3Config(properties, new S3HttpPoolMetrics(new SimpleMeterRegistry()));
+        services = BenchmarkServices.create(properties, s3Config.s3Client());
+
+        byte[] content = new byte[payloadSize];
+        new Random(42).nextBytes(content);
+        uploadRequest = new S3UploadRequest();
+        uploadRequest.setFileName("benchmark.bin");
+        uploadRequest.setPathPrefix("benchmarks/");
+        uploadRequest.setOverwrite(true);
+        uploadRequest.setFileContent(Base64.getEncoder().encodeToString(content));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        services.close();
+        fakeS3.close();
+    }
+
+    @Benchmark
+    public S3UploadResponse uploadFile() {
+        S3UploadResponse response = services.service().uploadFile(uploadRequest);
+        if (!response.isSuccess()) {
+            throw new IllegalStateException("上传失败: " + response.getMessage());
+        }
+        return response;
+    }
+}
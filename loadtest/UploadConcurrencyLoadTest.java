@@ -0,0 +1,285 @@
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 上传并发能力负载测试
+ *
+ * 用于对比平台线程模式与虚拟线程模式下服务能同时处理的慢速上传数量。
+ * 测试程序包含一个进程内的假S3服务（模拟S3延迟），并以指定并发数向
+ * /api/s3/upload/stream 发送限速的上传请求（模拟慢速客户端），最后输出：
+ * - 客户端视角的最大同时在途请求数、成功/失败数、总耗时和延迟分位数
+ * - 假S3视角的最大同时在途PUT请求数（即真正同时进行中的上传）
+ *
+ * 运行方式（无需编译，Java 17+）：
+ *
+ *   # 1. 启动负载测试，它会先启动假S3并等待服务就绪
+ *   java loadtest/UploadConcurrencyLoadTest.java --concurrency 2000 --size 262144 --client-rate 65536 --s3-latency-ms 500
+ *
+ *   # 2. 在另一个终端中以平台线程模式启动服务，指向假S3
+ *   java -jar target/s3-upload-demo-1.0.0-SNAPSHOT-exec.jar --spring.profiles.active=dev \
+ *        --aws.s3.endpoint-url=http://localhost:9900 --aws.s3.http.max-connections=2000
+ *
+ *   # 3. 重复以上步骤，以虚拟线程模式（Java 21）启动服务并对比结果
+ *   java -jar target/s3-upload-demo-1.0.0-SNAPSHOT-exec.jar --spring.profiles.active=dev \
+ *        --aws.s3.endpoint-url=http://localhost:9900 --aws.s3.http.max-connections=2000 \
+ *        --spring.threads.virtual.enabled=true
+ *
+ * 注意：流式上传在传输期间一直占用一个S3连接，同时发往S3的请求数同样受连接池大小限制，
+ * 对比时应通过 --aws.s3.http.max-connections 将其设置得足够大（例如等于并发数）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+public class UploadConcurrencyLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String serviceUrl = options.getOrDefault("url", "http://localhost:8087");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "1000"));
+        int size = Integer.parseInt(options.getOrDefault("size", "262144"));
+        int clientRate = Integer.parseInt(options.getOrDefault("client-rate", "65536"));
+        int s3Port = Integer.parseInt(options.getOrDefault("s3-port", "9900"));
+        long s3LatencyMillis = Long.parseLong(options.getOrDefault("s3-latency-ms", "500"));
+
+        FakeS3 fakeS3 = new FakeS3(s3Port, s3LatencyMillis);
+        fakeS3.start();
+        System.out.printf("假S3已启动: http://localhost:%d, 模拟延迟: %d ms%n", s3Port, s3LatencyMillis);
+
+        HttpClient client = HttpClient.newBuilder()
+            .executor(Executors.newCachedThreadPool())
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+        waitForService(client, serviceUrl);
+
+        System.out.printf("开始测试: 并发数=%d, 文件大小=%d 字节, 客户端发送速率=%d 字节/秒%n",
+                concurrency, size, clientRate);
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(serviceUrl + "/api/s3/upload/stream?fileName=load-" + i + ".bin&overwrite=true"))
+                .header("Content-Type", "application/octet-stream")
+                .timeout(Duration.ofMinutes(10))
+                .PUT(HttpRequest.BodyPublishers.fromPublisher(
+                    HttpRequest.BodyPublishers.ofInputStream(() -> new ThrottledInputStream(size, clientRate)), size))
+                .build();
+
+            long requestStart = System.nanoTime();
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    inFlight.decrementAndGet();
+                    latencies.add((System.nanoTime() - requestStart) / 1_000_000);
+                    if (error == null && response.statusCode() == 201) {
+                        succeeded.incrementAndGet();
+                    } else {
+                        failed.incrementAndGet();
+                    }
+                    return null;
+                }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        long elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        System.out.println("========== 测试结果 ==========");
+        System.out.printf("总耗时:                  %d ms%n", elapsedMillis);
+        System.out.printf("成功 / 失败:             %d / %d%n", succeeded.get(), failed.get());
+        System.out.printf("吞吐量:                  %.1f 次上传/秒%n", succeeded.get() * 1000.0 / Math.max(elapsedMillis, 1));
+        System.out.printf("客户端最大在途请求数:    %d%n", maxInFlight.get());
+        System.out.printf("S3最大同时在途上传数:    %d%n", fakeS3.maxInFlight.get());
+        System.out.printf("延迟 p50 / p99 / max:    %d / %d / %d ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.99), percentile(sorted, 1.0));
+
+        fakeS3.stop();
+        System.exit(0);
+    }
+
+    private static void waitForService(HttpClient client, String serviceUrl) throws InterruptedException {
+        HttpRequest health = HttpRequest.newBuilder(URI.create(serviceUrl + "/api/s3/health")).GET().build();
+        System.out.println("等待服务就绪: " + serviceUrl);
+        while (true) {
+            try {
+                if (client.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // 服务尚未启动
+            }
+            Thread.sleep(1000);
+        }
+    }
+
+    private static long percentile(List<Long> sorted, double p) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+
+    /**
+     * 按固定速率产生数据的输入流，模拟慢速客户端
+     */
+    static class ThrottledInputStream extends InputStream {
+        private static final int CHUNK = 8192;
+        private final long startNanos = System.nanoTime();
+        private final int size;
+        private final int bytesPerSecond;
+        private int position;
+
+        ThrottledInputStream(int size, int bytesPerSecond) {
+            this.size = size;
+            this.bytesPerSecond = bytesPerSecond;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= size) {
+                return -1;
+            }
+            long allowedAt = startNanos + position * 1_000_000_000L / bytesPerSecond;
+            long waitNanos = allowedAt - System.nanoTime();
+            if (waitNanos > 0) {
+                try {
+                    Thread.sleep(waitNanos / 1_000_000, (int) (waitNanos % 1_000_000));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+            }
+            int count = Math.min(Math.min(len, CHUNK), size - position);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) (position + i);
+            }
+            position += count;
+            return count;
+        }
+    }
+
+    /**
+     * 进程内假S3服务，只支持负载测试需要的请求，并统计同时在途的PUT请求数
+     */
+    static class FakeS3 {
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        private final HttpServer server;
+        private final ExecutorService executor = Executors.newCachedThreadPool();
+
+        FakeS3(int port, long latencyMillis) throws IOException {
+            server = HttpServer.create(new InetSocketAddress(port), 4096);
+            server.setExecutor(executor);
+            server.createContext("/", exchange -> {
+                String method = exchange.getRequestMethod();
+                String path = exchange.getRequestURI().getPath();
+                try (InputStream body = exchange.getRequestBody()) {
+                    if ("HEAD".equals(method) && path.indexOf('/', 1) > 0) {
+                        // 对象不存在（上传前的存在性检查）
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    if ("PUT".equals(method)) {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        try {
+                            // SDK会用ETag校验PUT内容的MD5，因此需要返回真实的MD5
+                            MessageDigest md5 = MessageDigest.getInstance("MD5");
+                            String contentSha256 = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+                            InputStream content = contentSha256 != null && contentSha256.startsWith("STREAMING-")
+                                ? decodeAwsChunked(body) : body;
+                            new DigestInputStream(content, md5).transferTo(OutputStream.nullOutputStream());
+                            Thread.sleep(latencyMillis);
+                            exchange.getResponseHeaders().add("ETag", "\"" + HexFormat.of().formatHex(md5.digest()) + "\"");
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } catch (NoSuchAlgorithmException e) {
+                            throw new IllegalStateException(e);
+                        } finally {
+                            inFlight.decrementAndGet();
+                        }
+                    }
+                    exchange.sendResponseHeaders(200, -1);
+                } finally {
+                    exchange.close();
+                }
+            });
+        }
+
+        /**
+         * 解码SDK通过HTTP发送的aws-chunked请求体：每块为 "十六进制长度;chunk-signature=...\r\n数据\r\n"
+         */
+        private static InputStream decodeAwsChunked(InputStream body) throws IOException {
+            ByteArrayOutputStream decoded = new ByteArrayOutputStream();
+            while (true) {
+                StringBuilder header = new StringBuilder();
+                int c;
+                while ((c = body.read()) != '\n') {
+                    if (c < 0) {
+                        throw new IOException("aws-chunked请求体被截断");
+                    }
+                    header.append((char) c);
+                }
+                int size = Integer.parseInt(header.toString().split(";")[0].trim(), 16);
+                if (size == 0) {
+                    return new ByteArrayInputStream(decoded.toByteArray());
+                }
+                decoded.write(body.readNBytes(size));
+                body.readNBytes(2);
+            }
+        }
+
+        void start() {
+            server.start();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+}
@@ -2,18 +2,47 @@ package com.example.s3upload.config;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
 import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.core.retry.RetryMode;
+import software.amazon.awssdk.core.retry.RetryPolicy;
+import software.amazon.awssdk.core.retry.backoff.EqualJitterBackoffStrategy;
+import software.amazon.awssdk.core.retry.backoff.FullJitterBackoffStrategy;
+import software.amazon.awssdk.core.retry.conditions.TokenBucketExceptionCostFunction;
+import software.amazon.awssdk.core.retry.conditions.TokenBucketRetryCondition;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.S3ClientBuilder;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSessionContext;
 import java.net.URI;
+import java.security.GeneralSecurityException;
 import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * AWS S3配置类
@@ -36,6 +65,7 @@ import java.time.Duration;
 public class S3Config {
 
     private final S3Properties s3Properties;
+    private final S3HttpPoolMetrics poolMetrics;
 
     /**
      * 创建AWS S3客户端Bean
@@ -45,6 +75,7 @@ public class S3Config {
      * - 认证凭据（访问密钥和秘密密钥）
      * - 区域设置
      * - 超时配置
+     * - HTTP实现和连接池配置（aws.s3.http）
      * - 自定义终端点（如果配置了的话）
      * - 路径样式访问（如果启用的话）
      * 
@@ -73,18 +104,33 @@ public class S3Config {
             log.debug("AWS凭据创建成功");
 
             // 配置客户端超时设置
-            ClientOverrideConfiguration clientConfig = ClientOverrideConfiguration.builder()
+            ClientOverrideConfiguration.Builder clientConfig = ClientOverrideConfiguration.builder()
                 .apiCallTimeout(Duration.ofMillis(s3Properties.getConnectionTimeout()))
                 .apiCallAttemptTimeout(Duration.ofMillis(s3Properties.getReadTimeout()))
-                .build();
+                .retryPolicy(retryPolicy(s3Properties.getRetry()));
             log.debug("客户端超时配置创建成功: 连接超时={}ms, 读取超时={}ms", 
                      s3Properties.getConnectionTimeout(), s3Properties.getReadTimeout());
+            log.info("S3请求重试策略: 模式={}, 最大尝试次数={}, 重试预算={}",
+                    s3Properties.getRetry().getMode(), s3Properties.getRetry().getMaxAttempts(),
+                    s3Properties.getRetry().getRetryBudget());
 
             // 构建S3客户端
             S3ClientBuilder clientBuilder = S3Client.builder()
                 .region(Region.of(s3Properties.getRegion()))
-                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials))
-                .overrideConfiguration(clientConfig);
+                .credentialsProvider(StaticCredentialsProvider.create(awsCredentials));
+
+            // 选择HTTP实现，有连接池的实现同时挂上连接池指标
+            S3Properties.Http http = s3Properties.getHttp();
+            if (http.getTransport() == S3Properties.Transport.URL_CONNECTION) {
+                clientBuilder.httpClientBuilder(UrlConnectionHttpClient.builder()
+                    .connectionTimeout(http.getConnectionTimeout())
+                    .socketTimeout(http.getSocketTimeout()));
+            } else {
+                clientBuilder.httpClientBuilder(apacheHttpClientBuilder(http));
+                clientConfig.addMetricPublisher(poolMetrics.register("sync", "apache"));
+            }
+            clientBuilder.overrideConfiguration(clientConfig.build());
+            log.info("同步S3客户端HTTP实现: {}, 最大连接数={}", http.getTransport(), http.getMaxConnections());
 
             // 如果配置了自定义终端点，则使用它（通常用于本地测试或私有云）
             if (s3Properties.getEndpointUrl() != null && !s3Properties.getEndpointUrl().trim().isEmpty()) {
@@ -114,6 +160,311 @@ public class S3Config {
         }
     }
 
+    /**
+     * 创建AWS S3异步客户端Bean
+     * 
+     * 仅在启用异步模式（aws.s3.async.enabled=true）时创建。
+     * 异步客户端基于Netty NIO或CRT（aws.s3.http.async-transport），S3请求在途期间不占用任何线程，
+     * 与同步客户端共享认证、区域、超时、终端点和路径样式配置。
+     * 
+     * @return 配置好的S3AsyncClient实例，如果未启用异步模式或配置无效则返回null
+     */
+    @Bean(destroyMethod = "close")
+    public S3AsyncClient s3AsyncClient() {
+        if (!s3Properties.getAsync().isEnabled()) {
+            log.info("S3异步模式未启用，跳过S3AsyncClient初始化");
+            return null;
+        }
+
+        if (!s3Properties.isValid()) {
+            log.error("S3配置不完整，无法创建S3异步客户端。缺失的配置项: {}", 
+                     s3Properties.getMissingConfigurations());
+            return null;
+        }
+
+        try {
+            S3Properties.Async async = s3Properties.getAsync();
+            S3Properties.Http http = s3Properties.getHttp();
+            boolean crt = http.getAsyncTransport() == S3Properties.AsyncTransport.CRT;
+
+            S3AsyncClientBuilder clientBuilder = S3AsyncClient.builder()
+                .region(Region.of(s3Properties.getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(
+                    s3Properties.getAccessKey(),
+                    s3Properties.getSecretKey()
+                )))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                    .apiCallTimeout(Duration.ofMillis(s3Properties.getConnectionTimeout()))
+                    .apiCallAttemptTimeout(Duration.ofMillis(s3Properties.getReadTimeout()))
+                    .retryPolicy(retryPolicy(s3Properties.getRetry()))
+                    .addMetricPublisher(poolMetrics.register("async", crt ? "crt" : "netty"))
+                    .build());
+
+            if (crt) {
+                clientBuilder.httpClientBuilder(crtHttpClientBuilder(http, async));
+            } else {
+                clientBuilder.httpClientBuilder(nettyHttpClientBuilder(http, async));
+            }
+
+            if (s3Properties.getEndpointUrl() != null && !s3Properties.getEndpointUrl().trim().isEmpty()) {
+                clientBuilder.endpointOverride(URI.create(s3Properties.getEndpointUrl()));
+            }
+
+            if (s3Properties.isPathStyleAccess()) {
+                clientBuilder.forcePathStyle(true);
+            }
+
+            S3AsyncClient s3AsyncClient = clientBuilder.build();
+            log.info("AWS S3异步客户端初始化成功! HTTP实现={}, 最大并发连接数={}",
+                    http.getAsyncTransport(), async.getMaxConcurrency());
+            return s3AsyncClient;
+
+        } catch (Exception e) {
+            log.error("创建S3异步客户端时发生错误: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 创建S3预签名器Bean
+     *
+     * 预签名在本地完成签名计算，不发送任何请求；与S3客户端使用相同的认证、区域、
+     * 终端点和路径样式配置，保证生成的URL与服务端直接上传时访问的是同一个对象。
+     *
+     * @return 配置好的S3Presigner实例，如果配置无效则返回null
+     */
+    @Bean(destroyMethod = "close")
+    public S3Presigner s3Presigner() {
+        if (!s3Properties.isValid()) {
+            log.error("S3配置不完整，无法创建S3预签名器。缺失的配置项: {}",
+                     s3Properties.getMissingConfigurations());
+            return null;
+        }
+
+        try {
+            S3Presigner.Builder presignerBuilder = S3Presigner.builder()
+                .region(Region.of(s3Properties.getRegion()))
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create(
+                    s3Properties.getAccessKey(),
+                    s3Properties.getSecretKey()
+                )))
+                .serviceConfiguration(S3Configuration.builder()
+                    .pathStyleAccessEnabled(s3Properties.isPathStyleAccess())
+                    .build());
+
+            if (s3Properties.getEndpointUrl() != null && !s3Properties.getEndpointUrl().trim().isEmpty()) {
+                presignerBuilder.endpointOverride(URI.create(s3Properties.getEndpointUrl()));
+            }
+
+            S3Presigner s3Presigner = presignerBuilder.build();
+            log.info("AWS S3预签名器初始化成功! 上传URL有效期={}", s3Properties.getPresign().getExpiry());
+            return s3Presigner;
+
+        } catch (Exception e) {
+            log.error("创建S3预签名器时发生错误: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+
+    /**
+     * 创建Apache HTTP客户端构建器（同步客户端默认实现）
+     * 
+     * @param http HTTP传输层配置
+     * @return 配置好连接池、超时和TLS会话缓存的构建器
+     * @throws GeneralSecurityException 创建TLS上下文失败时抛出
+     */
+    private static ApacheHttpClient.Builder apacheHttpClientBuilder(S3Properties.Http http)
+            throws GeneralSecurityException {
+        ApacheHttpClient.Builder builder = ApacheHttpClient.builder()
+            .maxConnections(http.getMaxConnections())
+            .connectionTimeout(http.getConnectionTimeout())
+            .socketTimeout(http.getSocketTimeout())
+            .connectionAcquisitionTimeout(http.getConnectionAcquisitionTimeout())
+            .connectionMaxIdleTime(http.getConnectionMaxIdleTime())
+            .useIdleConnectionReaper(http.isUseIdleConnectionReaper())
+            .tcpKeepAlive(http.isTcpKeepAlive())
+            .expectContinueEnabled(http.isExpectContinueEnabled());
+
+        if (isPositive(http.getConnectionTimeToLive())) {
+            builder.connectionTimeToLive(http.getConnectionTimeToLive());
+        }
+        if (http.isTlsSessionTuned()) {
+            builder.socketFactory(tlsSocketFactory(http));
+        }
+        return builder;
+    }
+
+    /**
+     * 创建Netty NIO HTTP客户端构建器（异步客户端默认实现）
+     * 
+     * @param http HTTP传输层配置
+     * @param async 异步模式配置
+     * @return 配置好连接池和超时的构建器
+     */
+    private static NettyNioAsyncHttpClient.Builder nettyHttpClientBuilder(S3Properties.Http http,
+                                                                         S3Properties.Async async) {
+        NettyNioAsyncHttpClient.Builder builder = NettyNioAsyncHttpClient.builder()
+            .maxConcurrency(async.getMaxConcurrency())
+            .maxPendingConnectionAcquires(async.getMaxPendingConnectionAcquires())
+            .connectionTimeout(http.getConnectionTimeout())
+            .readTimeout(http.getSocketTimeout())
+            .writeTimeout(http.getSocketTimeout())
+            .connectionAcquisitionTimeout(http.getConnectionAcquisitionTimeout())
+            .connectionMaxIdleTime(http.getConnectionMaxIdleTime())
+            .useIdleConnectionReaper(http.isUseIdleConnectionReaper())
+            .tcpKeepAlive(http.isTcpKeepAlive());
+
+        if (isPositive(http.getConnectionTimeToLive())) {
+            builder.connectionTimeToLive(http.getConnectionTimeToLive());
+        }
+        return builder;
+    }
+
+    /**
+     * 创建CRT HTTP客户端构建器
+     * 
+     * CRT没有单独的等待队列上限和获取连接超时配置，空闲连接总是由CRT自身回收。
+     * 
+     * @param http HTTP传输层配置
+     * @param async 异步模式配置
+     * @return 配置好连接池和超时的构建器
+     */
+    private static AwsCrtAsyncHttpClient.Builder crtHttpClientBuilder(S3Properties.Http http,
+                                                                     S3Properties.Async async) {
+        AwsCrtAsyncHttpClient.Builder builder = AwsCrtAsyncHttpClient.builder()
+            .maxConcurrency(async.getMaxConcurrency())
+            .connectionTimeout(http.getConnectionTimeout())
+            .connectionMaxIdleTime(http.getConnectionMaxIdleTime());
+
+        if (http.isTcpKeepAlive()) {
+            builder.tcpKeepAliveConfiguration(keepAlive -> keepAlive
+                .keepAliveInterval(http.getTcpKeepAliveInterval())
+                .keepAliveTimeout(http.getTcpKeepAliveTimeout()));
+        }
+        return builder;
+    }
+
+    /**
+     * 创建使用独立TLS会话缓存的套接字工厂
+     * 
+     * SDK默认的套接字工厂同样会复用TLS会话，但缓存大小和有效期只能使用JDK默认值；
+     * 这里使用单独的SSLContext，以便按配置调整客户端会话缓存。
+     * 
+     * @param http HTTP传输层配置
+     * @return HTTPS套接字工厂
+     * @throws GeneralSecurityException 创建TLS上下文失败时抛出
+     */
+    private static ConnectionSocketFactory tlsSocketFactory(S3Properties.Http http) throws GeneralSecurityException {
+        SSLContext sslContext = SSLContext.getInstance("TLS");
+        sslContext.init(null, null, null);
+
+        SSLSessionContext sessionContext = sslContext.getClientSessionContext();
+        if (http.getTlsSessionCacheSize() > 0) {
+            sessionContext.setSessionCacheSize(http.getTlsSessionCacheSize());
+        }
+        if (http.getTlsSessionTimeout() != null) {
+            sessionContext.setSessionTimeout((int) http.getTlsSessionTimeout().toSeconds());
+        }
+        log.info("S3客户端TLS会话缓存: 大小={}, 有效期={}秒",
+                sessionContext.getSessionCacheSize(), sessionContext.getSessionTimeout());
+
+        return new SSLConnectionSocketFactory(sslContext, SSLConnectionSocketFactory.getDefaultHostnameVerifier());
+    }
+
+    /**
+     * 根据配置构建SDK重试策略，同步和异步客户端共用
+     * 
+     * 普通错误使用Full Jitter指数退避，限流错误（SlowDown等）使用Equal Jitter且基础退避更长；
+     * 每次重试从令牌桶（重试预算）中扣除令牌，令牌耗尽时不再重试。
+     * 
+     * @param retry 重试配置
+     * @return 重试策略
+     */
+    private static RetryPolicy retryPolicy(S3Properties.Retry retry) {
+        RetryMode mode = switch (retry.getMode()) {
+            case STANDARD -> RetryMode.STANDARD;
+            case ADAPTIVE -> RetryMode.ADAPTIVE;
+            case LEGACY -> RetryMode.LEGACY;
+        };
+        return RetryPolicy.builder(mode)
+            .numRetries(Math.max(retry.getMaxAttempts() - 1, 0))
+            .backoffStrategy(FullJitterBackoffStrategy.builder()
+                .baseDelay(retry.getBaseDelay())
+                .maxBackoffTime(retry.getMaxBackoff())
+                .build())
+            .throttlingBackoffStrategy(EqualJitterBackoffStrategy.builder()
+                .baseDelay(retry.getThrottlingBaseDelay())
+                .maxBackoffTime(retry.getThrottlingMaxBackoff())
+                .build())
+            .retryCapacityCondition(TokenBucketRetryCondition.builder()
+                .tokenBucketSize(Math.max(retry.getRetryBudget(), 1))
+                .exceptionCostFunction(TokenBucketExceptionCostFunction.builder()
+                    .defaultExceptionCost(retry.getRetryCost())
+                    .throttlingExceptionCost(retry.getThrottlingRetryCost())
+                    .build())
+                .build())
+            .build();
+    }
+
+    private static boolean isPositive(Duration duration) {
+        return duration != null && !duration.isZero() && !duration.isNegative();
+    }
+
+    /**
+     * 创建S3并行传输线程池Bean
+     * 
+     * 用于分段上传等需要并发执行S3请求的场景。
+     * 线程池不排队：所有线程都忙时由提交任务的线程自行执行任务，
+     * 既提供了背压，也避免了嵌套提交任务时的线程饥饿死锁。
+     * 
+     * @return S3并行传输线程池
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3TransferExecutor(Environment environment) {
+        // 启用虚拟线程（spring.threads.virtual.enabled=true 且运行在Java 21+）时，每个任务使用一个虚拟线程，
+        // 并发度由各个操作自身的限制（例如分段上传的concurrency）控制
+        if (Threading.VIRTUAL.isActive(environment)) {
+            ThreadFactory virtualThreadFactory = new VirtualThreadTaskExecutor("s3-transfer-").getVirtualThreadFactory();
+            ExecutorService executor = newThreadPerTaskExecutor(virtualThreadFactory);
+            log.info("S3并行传输线程池初始化成功，使用虚拟线程");
+            return executor;
+        }
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            0, s3Properties.getTransferThreads(),
+            60L, TimeUnit.SECONDS,
+            new SynchronousQueue<>(),
+            runnable -> {
+                Thread thread = new Thread(runnable, "s3-transfer-" + threadCounter.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        log.info("S3并行传输线程池初始化成功，最大线程数: {}", s3Properties.getTransferThreads());
+        return executor;
+    }
+
+    /**
+     * 创建每个任务一个线程的执行器
+     * 
+     * Executors.newThreadPerTaskExecutor 是Java 21 API，项目仍以Java 17作为编译基线，因此通过反射调用。
+     * 仅在虚拟线程模式下使用，此时运行时必然是Java 21+。
+     * 
+     * @param threadFactory 线程工厂
+     * @return 执行器
+     */
+    private static ExecutorService newThreadPerTaskExecutor(ThreadFactory threadFactory) {
+        try {
+            return (ExecutorService) Executors.class
+                .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("当前JVM不支持虚拟线程，请使用Java 21或更高版本", e);
+        }
+    }
+
     /**
      * 获取S3配置属性的只读访问
      * 
@@ -0,0 +1,183 @@
+package com.example.s3upload.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.http.HttpMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * S3 HTTP连接池指标
+ *
+ * 以SDK MetricPublisher的形式挂到S3客户端上，从每次请求上报的HTTP指标中取出连接池状态，
+ * 并以Micrometer Gauge发布（标签：client=sync|async，transport=HTTP实现）：
+ * - s3.http.pool.leased：已借出（正在使用）的连接数
+ * - s3.http.pool.pending：等待获取连接的请求数
+ * - s3.http.pool.available：池中空闲可用的连接数
+ * - s3.http.pool.max：连接池最大连接数
+ *
+ * 连接池状态由SDK在请求获取连接时采样，因此数值反映的是最近一次请求时的状态，
+ * 没有请求时保持不变（采样时间见 {@link PoolStats#getSampledAt()}）。
+ * URL_CONNECTION实现没有连接池，不上报这些指标。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3HttpPoolMetrics {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * 按客户端（sync/async）保存的连接池状态
+     */
+    private final Map<String, PoolStats> pools = new ConcurrentHashMap<>();
+
+    /**
+     * 为一个S3客户端注册连接池指标
+     *
+     * @param client 客户端标识（sync或async）
+     * @param transport HTTP实现名称
+     * @return 需要添加到客户端overrideConfiguration中的MetricPublisher
+     */
+    public MetricPublisher register(String client, String transport) {
+        PoolStats stats = new PoolStats(transport);
+        pools.put(client, stats);
+
+        Tags tags = Tags.of("client", client, "transport", transport);
+        registerGauge("s3.http.pool.leased", "已借出的S3连接数", stats, s -> s.leased.get(), tags);
+        registerGauge("s3.http.pool.pending", "等待获取S3连接的请求数", stats, s -> s.pending.get(), tags);
+        registerGauge("s3.http.pool.available", "S3连接池中的空闲连接数", stats, s -> s.available.get(), tags);
+        registerGauge("s3.http.pool.max", "S3连接池最大连接数", stats, s -> s.max.get(), tags);
+
+        log.info("已注册S3连接池指标: client={}, transport={}", client, transport);
+        return new PoolMetricPublisher(stats);
+    }
+
+    /**
+     * 获取所有已注册客户端的连接池状态
+     *
+     * @return 以客户端标识为键的连接池状态
+     */
+    public Map<String, PoolStats> getPools() {
+        return Collections.unmodifiableMap(pools);
+    }
+
+    private void registerGauge(String name, String description, PoolStats stats,
+                               ToDoubleFunction<PoolStats> value, Tags tags) {
+        Gauge.builder(name, stats, value)
+            .description(description)
+            .baseUnit("connections")
+            .tags(tags)
+            .register(meterRegistry);
+    }
+
+    /**
+     * 一个客户端的连接池状态
+     */
+    public static class PoolStats {
+        private final String transport;
+        private final AtomicInteger max = new AtomicInteger();
+        private final AtomicInteger available = new AtomicInteger();
+        private final AtomicInteger leased = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile LocalDateTime sampledAt;
+
+        PoolStats(String transport) {
+            this.transport = transport;
+        }
+
+        public String getTransport() {
+            return transport;
+        }
+
+        public int getMax() {
+            return max.get();
+        }
+
+        public int getAvailable() {
+            return available.get();
+        }
+
+        public int getLeased() {
+            return leased.get();
+        }
+
+        public int getPending() {
+            return pending.get();
+        }
+
+        /**
+         * 最近一次采样的时间，尚无请求时为null
+         */
+        public LocalDateTime getSampledAt() {
+            return sampledAt;
+        }
+    }
+
+    /**
+     * 从SDK请求指标中提取连接池状态的MetricPublisher
+     *
+     * 指标集合的层次为 ApiCall -> ApiCallAttempt -> HttpClient，
+     * 重试时有多个ApiCallAttempt，取最后一次尝试的值。
+     */
+    private static class PoolMetricPublisher implements MetricPublisher {
+        private final PoolStats stats;
+
+        PoolMetricPublisher(PoolStats stats) {
+            this.stats = stats;
+        }
+
+        @Override
+        public void publish(MetricCollection metricCollection) {
+            MetricCollection httpMetrics = findLastHttpMetrics(metricCollection);
+            if (httpMetrics == null) {
+                return;
+            }
+            update(stats.max, httpMetrics.metricValues(HttpMetric.MAX_CONCURRENCY));
+            update(stats.available, httpMetrics.metricValues(HttpMetric.AVAILABLE_CONCURRENCY));
+            update(stats.leased, httpMetrics.metricValues(HttpMetric.LEASED_CONCURRENCY));
+            update(stats.pending, httpMetrics.metricValues(HttpMetric.PENDING_CONCURRENCY_ACQUIRES));
+            stats.sampledAt = LocalDateTime.now();
+        }
+
+        @Override
+        public void close() {
+            // 指标保存在Micrometer注册表中，无需释放资源
+        }
+
+        private static MetricCollection findLastHttpMetrics(MetricCollection collection) {
+            if (!collection.metricValues(HttpMetric.LEASED_CONCURRENCY).isEmpty()) {
+                return collection;
+            }
+            MetricCollection last = null;
+            for (MetricCollection child : collection.children()) {
+                MetricCollection found = findLastHttpMetrics(child);
+                if (found != null) {
+                    last = found;
+                }
+            }
+            return last;
+        }
+
+        private static void update(AtomicInteger target, List<Integer> values) {
+            if (!values.isEmpty()) {
+                target.set(values.get(values.size() - 1));
+            }
+        }
+    }
+}
@@ -1,8 +1,17 @@
 package com.example.s3upload.config;
 
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * AWS S3配置属性类
@@ -84,6 +93,1032 @@ public class S3Properties {
      */
     private int readTimeout = 60000;
 
+    /**
+     * S3并行传输线程池的最大线程数
+     * 配置文件：aws.s3.transfer-threads
+     * 默认值：64
+     * 线程池满时由提交任务的线程自行执行，因此不会出现嵌套任务互相等待的死锁
+     */
+    private int transferThreads = 64;
+
+    /**
+     * HTTP传输层和连接池配置
+     */
+    private Http http = new Http();
+
+    /**
+     * HTTP传输层和连接池配置属性
+     * 
+     * 配置文件前缀：aws.s3.http
+     * 连接池相关配置同时作用于同步客户端和异步客户端（异步客户端的最大连接数见 aws.s3.async.max-concurrency）
+     */
+    @Data
+    public static class Http {
+
+        /**
+         * 同步S3客户端使用的HTTP实现
+         * 默认值：APACHE
+         */
+        private Transport transport = Transport.APACHE;
+
+        /**
+         * 异步S3客户端使用的HTTP实现
+         * 默认值：NETTY
+         */
+        private AsyncTransport asyncTransport = AsyncTransport.NETTY;
+
+        /**
+         * 同步S3客户端连接池的最大连接数（仅APACHE）
+         * 默认值：50（与SDK默认值一致）
+         * 流式上传在整个请求体传输期间占用一个连接，因此该值也是同时进行的流式上传数上限
+         */
+        private int maxConnections = 50;
+
+        /**
+         * 建立TCP连接的超时时间
+         * 默认值：2s（与SDK默认值一致）
+         */
+        private Duration connectionTimeout = Duration.ofSeconds(2);
+
+        /**
+         * 等待读取数据的超时时间（Netty为读写超时）
+         * 默认值：30s（与SDK默认值一致）
+         */
+        private Duration socketTimeout = Duration.ofSeconds(30);
+
+        /**
+         * 连接池已满时等待获取连接的超时时间（APACHE、NETTY）
+         * 默认值：10s（与SDK默认值一致）
+         */
+        private Duration connectionAcquisitionTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 连接的最长存活时间，到期后不再复用（APACHE、NETTY），0表示不限制
+         * 默认值：0
+         * 设置后可让长期运行的连接定期重新解析DNS，分散到S3的不同节点
+         */
+        private Duration connectionTimeToLive = Duration.ZERO;
+
+        /**
+         * 空闲连接的最长保留时间，超过后被关闭
+         * 默认值：60s（与SDK默认值一致）
+         */
+        private Duration connectionMaxIdleTime = Duration.ofSeconds(60);
+
+        /**
+         * 是否由后台线程主动关闭空闲超时的连接（APACHE、NETTY）
+         * 默认值：true
+         */
+        private boolean useIdleConnectionReaper = true;
+
+        /**
+         * 是否启用TCP keep-alive
+         * 默认值：false
+         */
+        private boolean tcpKeepAlive = false;
+
+        /**
+         * TCP keep-alive探测间隔（仅CRT，其他实现使用操作系统设置）
+         * 默认值：30s
+         */
+        private Duration tcpKeepAliveInterval = Duration.ofSeconds(30);
+
+        /**
+         * TCP keep-alive探测的应答超时，超时未收到应答时认为连接已断开（仅CRT，其他实现使用操作系统设置）
+         * 默认值：10s
+         */
+        private Duration tcpKeepAliveTimeout = Duration.ofSeconds(10);
+
+        /**
+         * 是否在上传时发送 Expect: 100-continue（仅APACHE）
+         * 默认值：true
+         * 关闭后每次PUT少一次往返，但S3拒绝请求时请求体会被完整发送
+         */
+        private boolean expectContinueEnabled = true;
+
+        /**
+         * TLS会话缓存大小（仅APACHE），0表示使用JDK默认值
+         * 默认值：0
+         * 复用TLS会话可以让新建连接跳过完整握手
+         */
+        private int tlsSessionCacheSize = 0;
+
+        /**
+         * TLS会话缓存时间（仅APACHE），未设置时使用JDK默认值（24小时）
+         */
+        private Duration tlsSessionTimeout;
+
+        /**
+         * 是否需要为APACHE实现定制TLS会话缓存
+         * 
+         * @return 设置了TLS会话缓存大小或缓存时间时返回true
+         */
+        public boolean isTlsSessionTuned() {
+            return tlsSessionCacheSize > 0 || tlsSessionTimeout != null;
+        }
+    }
+
+    /**
+     * 同步S3客户端的HTTP实现
+     */
+    public enum Transport {
+        /**
+         * Apache HttpClient，支持完整的连接池配置
+         */
+        APACHE,
+
+        /**
+         * JDK HttpURLConnection，依赖少、启动快，连接复用由JDK的keep-alive缓存管理（不支持连接池配置）
+         */
+        URL_CONNECTION
+    }
+
+    /**
+     * 异步S3客户端的HTTP实现
+     */
+    public enum AsyncTransport {
+        /**
+         * Netty NIO
+         */
+        NETTY,
+
+        /**
+         * AWS Common Runtime（原生实现）
+         */
+        CRT
+    }
+
+    /**
+     * 分段上传配置
+     */
+    private Multipart multipart = new Multipart();
+
+    /**
+     * 分段上传配置属性
+     * 
+     * 配置文件前缀：aws.s3.multipart
+     */
+    @Data
+    public static class Multipart {
+
+        /**
+         * 是否启用分段上传
+         * 默认值：true
+         * 禁用后所有上传都使用单次PUT请求，且要求预先知道内容长度
+         */
+        private boolean enabled = true;
+
+        /**
+         * 启用分段上传的文件大小阈值，超过此大小的文件使用分段上传
+         * 默认值：16MB
+         */
+        private DataSize threshold = DataSize.ofMegabytes(16);
+
+        /**
+         * 分段大小，S3要求除最后一段外每段不小于5MB
+         * 默认值：8MB
+         */
+        private DataSize partSize = DataSize.ofMegabytes(8);
+
+        /**
+         * 单个文件同时上传的最大分段数
+         * 默认值：4
+         * 单个上传占用的缓冲内存约为 (concurrency + 1) * partSize
+         */
+        private int concurrency = 4;
+
+        /**
+         * 单个分段失败后的最大重试次数（在SDK自身的重试之外）
+         * 默认值：3
+         */
+        private int maxPartRetries = 3;
+
+        /**
+         * 分段重试的初始退避时间（毫秒），每次重试翻倍
+         * 默认值：200
+         */
+        private long retryBackoff = 200;
+    }
+
+    /**
+     * 上传完整性校验配置
+     */
+    private Checksum checksum = new Checksum();
+
+    /**
+     * 上传完整性校验配置属性
+     *
+     * 配置文件前缀：aws.s3.checksum
+     */
+    @Data
+    public static class Checksum {
+
+        /**
+         * 上传时使用的S3灵活校验和算法（单次PUT和分段上传的每个分段）
+         * 默认值：CRC32C
+         * SDK在发送请求体的同时增量计算校验和，以请求尾部（trailer）发送给S3，由S3校验；
+         * 设为NONE时不发送校验和（兼容不支持灵活校验和的S3兼容存储）
+         */
+        private Algorithm algorithm = Algorithm.CRC32C;
+
+        /**
+         * 校验和算法
+         */
+        public enum Algorithm {
+            NONE, CRC32, CRC32C, SHA1, SHA256
+        }
+    }
+
+    /**
+     * 上传压缩配置
+     */
+    private Compression compression = new Compression();
+
+    /**
+     * 上传压缩配置属性
+     *
+     * 配置文件前缀：aws.s3.compression
+     */
+    @Data
+    public static class Compression {
+
+        /**
+         * 是否对可压缩的内容类型启用上传压缩
+         * 默认值：false
+         * 启用后匹配的文件以压缩后的形式保存，并设置Content-Encoding；下载时对不接受该编码的客户端自动解压
+         */
+        private boolean enabled = false;
+
+        /**
+         * 压缩编码
+         * 默认值：GZIP
+         */
+        private Encoding encoding = Encoding.GZIP;
+
+        /**
+         * 压缩级别，0或负数时使用编码的默认级别（gzip为6，zstd为3）
+         * 默认值：0
+         */
+        private int level = 0;
+
+        /**
+         * 启用压缩的最小文件大小，更小的文件压缩收益有限
+         * 默认值：1KB
+         */
+        private DataSize minSize = DataSize.ofKilobytes(1);
+
+        /**
+         * 压缩的内容类型，支持 text/* 形式的通配符，不区分大小写，忽略参数（如charset）
+         * 默认值：text/*, application/json, application/xml, application/javascript, application/x-ndjson
+         */
+        private List<String> contentTypes = new ArrayList<>(List.of(
+            "text/*", "application/json", "application/xml", "application/javascript", "application/x-ndjson"));
+
+        /**
+         * 压缩编码
+         */
+        public enum Encoding {
+            GZIP, ZSTD
+        }
+    }
+
+    /**
+     * 上传准入控制配置
+     */
+    private Admission admission = new Admission();
+
+    /**
+     * 上传准入控制配置属性
+     *
+     * 配置文件前缀：aws.s3.admission
+     */
+    @Data
+    public static class Admission {
+
+        /**
+         * 是否对 POST /api/s3/upload 启用全局在途字节预算
+         * 默认值：true
+         */
+        private boolean enabled = true;
+
+        /**
+         * 同时处理中的上传请求体总大小上限（按Content-Length预留）
+         * 默认值：256MB
+         */
+        private DataSize maxInFlightBytes = DataSize.ofMegabytes(256);
+
+        /**
+         * 预算不足时排队等待的最长时间，超时后返回429
+         * 默认值：2s
+         */
+        private Duration maxWait = Duration.ofSeconds(2);
+
+        /**
+         * 同时排队等待的请求数上限，超过后直接返回429
+         * 默认值：64
+         */
+        private int maxQueued = 64;
+
+        /**
+         * 请求没有Content-Length（分块传输）时预留的字节数，应与请求体大小上限一致
+         * 默认值：50MB
+         */
+        private DataSize unknownLengthReservation = DataSize.ofMegabytes(50);
+
+        /**
+         * 返回429时Retry-After响应头建议的重试间隔
+         * 默认值：1s
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    /**
+     * 按租户限流配置
+     */
+    private RateLimit rateLimit = new RateLimit();
+
+    /**
+     * 按租户限流配置属性
+     *
+     * 配置文件前缀：aws.s3.rate-limit
+     */
+    @Data
+    public static class RateLimit {
+
+        /**
+         * 是否对 /api/s3/** 按租户限制请求速率和传输字节速率
+         * 默认值：false
+         */
+        private boolean enabled = false;
+
+        /**
+         * 租户的识别方式
+         * 默认值：API_KEY
+         */
+        private TenantSource tenantSource = TenantSource.API_KEY;
+
+        /**
+         * 携带API密钥的请求头（tenant-source为API_KEY时使用）
+         * 默认值：X-Api-Key
+         */
+        private String apiKeyHeader = "X-Api-Key";
+
+        /**
+         * 无法识别租户的请求归入的租户，这些请求共享同一组限额
+         * 默认值：anonymous
+         */
+        private String defaultTenant = "anonymous";
+
+        /**
+         * 每个租户的默认限额
+         */
+        private Limit defaults = new Limit();
+
+        /**
+         * 所有未在tenants中配置的租户（包括默认租户）合计的限额
+         * 在各租户自身的限额之外再加一层，更换API密钥或路径前缀得到新的令牌桶也无法突破该总量
+         * 默认值：500次/秒（突发1000），500MB/秒（突发1GB）
+         */
+        private Limit unknownTenants = new Limit(500, 1000, DataSize.ofMegabytes(500), DataSize.ofGigabytes(1));
+
+        /**
+         * 按租户覆盖的限额，键为API密钥或路径前缀的第一段（覆盖整组限额，未配置的字段取Limit的默认值）
+         */
+        private Map<String, Limit> tenants = new HashMap<>();
+
+        /**
+         * 同时跟踪的租户数上限，超过时淘汰最久未访问的租户
+         * 默认值：10000
+         */
+        private long maximumTenants = 10_000;
+
+        /**
+         * 租户空闲多久后丢弃其令牌桶（重新访问时从满桶开始）
+         * 默认值：10m
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+
+        /**
+         * 租户的识别方式
+         */
+        public enum TenantSource {
+            /**
+             * 按API密钥请求头识别
+             */
+            API_KEY,
+            /**
+             * 按路径前缀的第一段识别（pathPrefix、prefix、key参数，X-Path-Prefix请求头，或下载、删除路径中的文件键）
+             */
+            PATH_PREFIX
+        }
+
+        /**
+         * 一个租户的限额，0表示不限制
+         */
+        @Data
+        @NoArgsConstructor
+        @AllArgsConstructor
+        public static class Limit {
+
+            /**
+             * 每秒请求数
+             * 默认值：50
+             */
+            private double requestsPerSecond = 50;
+
+            /**
+             * 请求数的突发容量
+             * 默认值：100
+             */
+            private long requestBurst = 100;
+
+            /**
+             * 每秒传输字节数（上传按Content-Length预先计入，下载按响应长度在完成后计入）
+             * 默认值：50MB
+             */
+            private DataSize bytesPerSecond = DataSize.ofMegabytes(50);
+
+            /**
+             * 传输字节数的突发容量
+             * 默认值：100MB
+             */
+            private DataSize bytesBurst = DataSize.ofMegabytes(100);
+        }
+    }
+
+    /**
+     * S3请求重试配置
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * S3请求重试配置属性
+     *
+     * 配置文件前缀：aws.s3.retry
+     */
+    @Data
+    public static class Retry {
+
+        /**
+         * SDK重试模式：STANDARD、ADAPTIVE（在STANDARD基础上，收到限流错误后在客户端主动降低请求速率）、LEGACY
+         * 默认值：STANDARD
+         */
+        private Mode mode = Mode.STANDARD;
+
+        /**
+         * 单次调用的最大尝试次数（含首次请求）
+         * 默认值：3
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * 普通错误重试的基础退避时间，按尝试次数指数增长，并在 [0, 退避时间] 内完全随机（Full Jitter）
+         * 默认值：100ms
+         */
+        private Duration baseDelay = Duration.ofMillis(100);
+
+        /**
+         * 普通错误重试的最大退避时间
+         * 默认值：20s
+         */
+        private Duration maxBackoff = Duration.ofSeconds(20);
+
+        /**
+         * 限流错误（SlowDown、503等）重试的基础退避时间，使用Equal Jitter，至少等待退避时间的一半
+         * 默认值：500ms
+         */
+        private Duration throttlingBaseDelay = Duration.ofMillis(500);
+
+        /**
+         * 限流错误重试的最大退避时间
+         * 默认值：20s
+         */
+        private Duration throttlingMaxBackoff = Duration.ofSeconds(20);
+
+        /**
+         * 重试预算（令牌桶容量）：每次重试扣除令牌，成功的请求归还令牌，
+         * 令牌耗尽时不再重试，避免S3故障时重试放大请求量
+         * 默认值：500
+         */
+        private int retryBudget = 500;
+
+        /**
+         * 普通错误的一次重试消耗的令牌数
+         * 默认值：5
+         */
+        private int retryCost = 5;
+
+        /**
+         * 限流错误的一次重试消耗的令牌数（限流时已有退避，消耗为0表示不受预算限制）
+         * 默认值：0
+         */
+        private int throttlingRetryCost = 0;
+
+        /**
+         * SDK重试模式
+         */
+        public enum Mode {
+            STANDARD, ADAPTIVE, LEGACY
+        }
+    }
+
+    /**
+     * 对冲请求配置
+     */
+    private Hedge hedge = new Hedge();
+
+    /**
+     * 对冲请求配置属性
+     *
+     * 配置文件前缀：aws.s3.hedge
+     */
+    @Data
+    public static class Hedge {
+
+        /**
+         * 是否对幂等的S3请求启用对冲：首次请求的耗时超过该操作的延迟分位数时，再发送一个相同的请求，先完成的结果生效
+         * 默认值：false
+         */
+        private boolean enabled = false;
+
+        /**
+         * 启用对冲的操作：headObject、getObject、listObjectsV2、putObject（仅限不超过max-put-size的单次PUT）
+         * 默认值：全部
+         */
+        private List<String> operations = new ArrayList<>(List.of("headObject", "getObject", "listObjectsV2", "putObject"));
+
+        /**
+         * 触发对冲的延迟分位数（按每个操作最近的请求耗时在线统计）
+         * 默认值：0.95
+         */
+        private double percentile = 0.95;
+
+        /**
+         * 对冲延迟的下限，避免延迟统计偏低时对冲过多请求
+         * 默认值：20ms
+         */
+        private Duration minDelay = Duration.ofMillis(20);
+
+        /**
+         * 每个操作用于统计延迟分位数的最近请求数
+         * 默认值：1000
+         */
+        private int windowSize = 1000;
+
+        /**
+         * 开始对冲前至少需要的请求耗时样本数
+         * 默认值：100
+         */
+        private int minSamples = 100;
+
+        /**
+         * 对冲请求数占请求总数的比例上限（对冲预算）
+         * 默认值：0.1
+         */
+        private double maxHedgeRatio = 0.1;
+
+        /**
+         * 允许对冲的单次PUT的最大内容大小（内容需要读入内存以便发送两次）
+         * 默认值：1MB
+         */
+        private DataSize maxPutSize = DataSize.ofMegabytes(1);
+    }
+
+    /**
+     * 默认上传路径的分区配置
+     */
+    private KeyPartitioning keyPartitioning = new KeyPartitioning();
+
+    /**
+     * 默认上传路径的分区配置属性
+     *
+     * 配置文件前缀：aws.s3.key-partitioning
+     */
+    @Data
+    public static class KeyPartitioning {
+
+        /**
+         * 是否在默认上传路径中加入哈希分区：uploads/{分区}/yyyy/MM/dd/{UUID}_{文件名}，
+         * 把同一天的上传分散到多个前缀下，避免单个前缀达到S3的请求速率上限（503 SlowDown）
+         * 默认值：false（uploads/yyyy/MM/dd/{UUID}_{文件名}）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 分区数（扇出），分区名为十六进制数字，最多4096个（不超过3位，与4位的年份目录区分）
+         * 默认值：16
+         */
+        private int shards = 16;
+    }
+
+    /**
+     * 批量上传配置
+     */
+    private Batch batch = new Batch();
+
+    /**
+     * 批量上传配置属性
+     * 
+     * 配置文件前缀：aws.s3.batch
+     */
+    @Data
+    public static class Batch {
+
+        /**
+         * 单个批量请求中同时上传的最大文件数
+         * 默认值：8
+         */
+        private int parallelism = 8;
+
+        /**
+         * 单个批量请求允许的最大文件数
+         * 默认值：500
+         */
+        private int maxFiles = 500;
+    }
+
+    /**
+     * 批量删除配置
+     */
+    private BulkDelete bulkDelete = new BulkDelete();
+
+    /**
+     * 批量删除配置属性
+     * 
+     * 配置文件前缀：aws.s3.bulk-delete
+     */
+    @Data
+    public static class BulkDelete {
+
+        /**
+         * 每个DeleteObjects请求包含的键数，S3上限为1000
+         * 默认值：1000
+         */
+        private int batchSize = 1000;
+
+        /**
+         * 同时在途的DeleteObjects请求数
+         * 默认值：4
+         */
+        private int concurrency = 4;
+
+        /**
+         * 响应中最多返回的失败键数（失败总数始终完整计数）
+         * 默认值：1000
+         */
+        private int maxReportedErrors = 1000;
+    }
+
+    /**
+     * 对象元数据缓存配置
+     */
+    private MetadataCache metadataCache = new MetadataCache();
+
+    /**
+     * 对象元数据缓存配置属性
+     * 
+     * 配置文件前缀：aws.s3.metadata-cache
+     */
+    @Data
+    public static class MetadataCache {
+
+        /**
+         * 是否启用元数据缓存（缓存headObject结果，用于存在性检查和元数据查询）
+         * 默认值：true
+         */
+        private boolean enabled = true;
+
+        /**
+         * 最大缓存条目数
+         * 默认值：10000
+         */
+        private long maximumSize = 10_000;
+
+        /**
+         * 存在的对象的缓存时间，也是其他客户端修改对本服务可见的最长延迟
+         * 默认值：60s
+         */
+        private Duration ttl = Duration.ofSeconds(60);
+
+        /**
+         * 不存在的对象（负向条目）的缓存时间
+         * 默认值：10s
+         */
+        private Duration negativeTtl = Duration.ofSeconds(10);
+    }
+
+    /**
+     * 健康状态探测配置
+     */
+    private Health health = new Health();
+
+    /**
+     * 健康状态探测配置属性
+     * 
+     * 配置文件前缀：aws.s3.health
+     */
+    @Data
+    public static class Health {
+
+        /**
+         * 后台探测S3连接（headBucket）的间隔
+         * 默认值：10s
+         */
+        private Duration probeInterval = Duration.ofSeconds(10);
+
+        /**
+         * 快照过期阈值，最近一次探测早于此时长时视为不健康
+         * 默认值：30s
+         */
+        private Duration stalenessThreshold = Duration.ofSeconds(30);
+    }
+
+    /**
+     * 预签名URL配置
+     */
+    private Presign presign = new Presign();
+
+    /**
+     * 预签名URL配置属性
+     *
+     * 配置文件前缀：aws.s3.presign
+     */
+    @Data
+    public static class Presign {
+
+        /**
+         * 预签名上传URL的有效期，S3上限为7天
+         * 默认值：15m
+         */
+        private Duration expiry = Duration.ofMinutes(15);
+
+        /**
+         * 预签名分段上传建议的分段大小，客户端按此大小切分文件；S3要求除最后一段外不小于5MB
+         * 默认值：16MB
+         */
+        private DataSize partSize = DataSize.ofMegabytes(16);
+
+        /**
+         * 单次请求最多生成的分段上传URL数
+         * 默认值：100
+         */
+        private int maxPartUrls = 100;
+
+        /**
+         * 预签名分段上传会话的有效期，超过后未完成的会话在后台被中止
+         * 默认值：24h
+         */
+        private Duration sessionTtl = Duration.ofHours(24);
+
+        /**
+         * 后台检查过期会话的间隔
+         * 默认值：5m
+         */
+        private Duration sweepInterval = Duration.ofMinutes(5);
+
+        /**
+         * 清理时是否同时列出存储桶中未完成的分段上传（ListMultipartUploads），中止发起时间早于会话有效期
+         * （取预签名分段上传和断点续传中较长的一个）且不属于任何进行中会话的上传，例如服务重启前遗留的会话。
+         * 存储桶与其他应用共用且它们有更长时间未完成的分段上传时应关闭
+         * 默认值：true
+         */
+        private boolean abortOrphanedUploads = true;
+    }
+
+    /**
+     * 下载配置
+     */
+    private Download download = new Download();
+
+    /**
+     * 下载配置属性
+     *
+     * 配置文件前缀：aws.s3.download
+     */
+    @Data
+    public static class Download {
+
+        /**
+         * 将S3对象内容复制到HTTP响应时使用的缓冲区大小
+         * 默认值：64KB
+         */
+        private DataSize bufferSize = DataSize.ofKilobytes(64);
+
+        /**
+         * 并行分段下载（parallel=true）的文件大小阈值，小于此大小的文件仍使用单个GET请求
+         * 默认值：64MB
+         */
+        private DataSize parallelThreshold = DataSize.ofMegabytes(64);
+
+        /**
+         * 并行分段下载时每个范围请求的大小
+         * 默认值：8MB
+         */
+        private DataSize parallelPartSize = DataSize.ofMegabytes(8);
+
+        /**
+         * 单个下载同时在途的范围请求数
+         * 默认值：4
+         * 单个并行下载占用的缓冲内存约为 parallelConcurrency * parallelPartSize
+         */
+        private int parallelConcurrency = 4;
+    }
+
+    /**
+     * 断点续传配置
+     */
+    private Resumable resumable = new Resumable();
+
+    /**
+     * 断点续传配置属性
+     *
+     * 配置文件前缀：aws.s3.resumable
+     */
+    @Data
+    public static class Resumable {
+
+        /**
+         * 分块大小，每个分块对应S3分段上传中的一个分段，S3要求除最后一段外不小于5MB
+         * 默认值：8MB
+         * 连接中断时最多需要重传一个分块；服务端接收分块时将其暂存在本地磁盘
+         */
+        private DataSize chunkSize = DataSize.ofMegabytes(8);
+
+        /**
+         * 会话状态的本地持久化目录，服务重启后从此目录恢复未完成的会话
+         * 默认值：data/resumable-uploads
+         */
+        private String stateDir = "data/resumable-uploads";
+
+        /**
+         * 会话有效期，超过后未完成的上传在后台被中止
+         * 默认值：24h
+         */
+        private Duration sessionTtl = Duration.ofHours(24);
+
+        /**
+         * 后台检查过期会话的间隔
+         * 默认值：5m
+         */
+        private Duration sweepInterval = Duration.ofMinutes(5);
+    }
+
+    /**
+     * 写回队列配置
+     */
+    private WriteBehind writeBehind = new WriteBehind();
+
+    /**
+     * 写回队列配置属性
+     *
+     * 配置文件前缀：aws.s3.write-behind
+     */
+    @Data
+    public static class WriteBehind {
+
+        /**
+         * 是否启用写回模式（POST /api/s3/upload/write-behind）
+         * 默认值：false
+         * 启用后上传内容先持久化到本地暂存目录并立即返回202，由后台线程上传到S3
+         */
+        private boolean enabled = false;
+
+        /**
+         * 本地暂存目录，服务重启后从此目录恢复未完成的上传
+         * 默认值：data/write-behind
+         */
+        private String spoolDir = "data/write-behind";
+
+        /**
+         * 暂存目录中等待上传的文件总大小上限，超过后新的上传返回507
+         * 默认值：1GB
+         */
+        private DataSize diskQuota = DataSize.ofGigabytes(1);
+
+        /**
+         * 后台上传线程数
+         * 默认值：4
+         */
+        private int uploaderThreads = 4;
+
+        /**
+         * 单个文件的最大上传尝试次数，用尽后标记为失败
+         * 默认值：8
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * 首次重试的退避时间，每次重试翻倍
+         * 默认值：1s
+         */
+        private Duration initialBackoff = Duration.ofSeconds(1);
+
+        /**
+         * 重试退避时间上限
+         * 默认值：5m
+         */
+        private Duration maxBackoff = Duration.ofMinutes(5);
+
+        /**
+         * 上传完成或失败后保留状态记录的时间，期间可以查询结果
+         * 默认值：1h
+         */
+        private Duration retention = Duration.ofHours(1);
+    }
+
+    /**
+     * 内容去重配置
+     */
+    private Dedup dedup = new Dedup();
+
+    /**
+     * 内容去重配置属性
+     *
+     * 配置文件前缀：aws.s3.dedup
+     */
+    @Data
+    public static class Dedup {
+
+        /**
+         * 是否启用内容去重（对 POST /api/s3/upload 生效）
+         * 默认值：false
+         * 启用后解码上传内容时同时计算SHA-256，相同内容已存在时不再重复上传
+         */
+        private boolean enabled = false;
+
+        /**
+         * 命中已有内容时的处理方式
+         * 默认值：REFERENCE
+         */
+        private Mode mode = Mode.REFERENCE;
+
+        /**
+         * 内容哈希索引的最大条目数，超出时淘汰的条目只会导致重复上传
+         * 默认值：100000
+         */
+        private long indexMaximumSize = 100_000;
+
+        /**
+         * 是否在启动时扫描存储桶重建索引（后台进行，不阻塞启动）
+         * 默认值：false
+         */
+        private boolean rebuildOnStartup = false;
+
+        /**
+         * 启动时重建索引扫描的键前缀，为空时扫描整个存储桶
+         * 默认值：空
+         */
+        private String rebuildPrefix = "";
+
+        /**
+         * 去重命中时的处理方式
+         */
+        public enum Mode {
+            /**
+             * 直接返回已有文件的键，不产生任何写请求；已有文件与请求的顶层前缀不同时按COPY处理
+             */
+            REFERENCE,
+
+            /**
+             * 在服务端将已有文件复制到新生成的键（CopyObject），不重新传输内容
+             */
+            COPY
+        }
+    }
+
+    /**
+     * 异步模式配置
+     */
+    private Async async = new Async();
+
+    /**
+     * 异步模式配置属性
+     * 
+     * 配置文件前缀：aws.s3.async
+     */
+    @Data
+    public static class Async {
+
+        /**
+         * 是否启用基于S3AsyncClient的异步模式（HTTP实现见 aws.s3.http.async-transport）
+         * 默认值：false
+         * 启用后 /api/s3/async/** 接口在S3请求期间不占用Tomcat工作线程
+         */
+        private boolean enabled = false;
+
+        /**
+         * 异步客户端的最大并发连接数
+         * 默认值：200
+         */
+        private int maxConcurrency = 200;
+
+        /**
+         * 等待获取连接的最大排队请求数
+         * 默认值：10000
+         */
+        private int maxPendingConnectionAcquires = 10000;
+    }
+
     /**
      * 验证必需的配置是否已设置
      * 
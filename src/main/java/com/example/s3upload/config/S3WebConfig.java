@@ -0,0 +1,42 @@
+package com.example.s3upload.config;
+
+import com.example.s3upload.support.S3RateLimitInterceptor;
+import com.example.s3upload.support.S3UploadAdmissionInterceptor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Web MVC配置类
+ * 
+ * 为 /api/s3/** 注册按租户限流的拦截器（未启用 aws.s3.rate-limit 时拦截器直接放行），
+ * 为接收文件内容的上传接口注册上传准入控制拦截器（未启用 aws.s3.admission 时直接放行）。
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Configuration
+@RequiredArgsConstructor
+public class S3WebConfig implements WebMvcConfigurer {
+
+    /**
+     * 请求体中带有文件内容的上传接口
+     */
+    private static final String[] UPLOAD_PATHS = {
+        "/api/s3/upload",
+        "/api/s3/upload/stream",
+        "/api/s3/upload/batch",
+        "/api/s3/upload/write-behind",
+        "/api/s3/async/upload"
+    };
+
+    private final S3RateLimitInterceptor rateLimitInterceptor;
+    private final S3UploadAdmissionInterceptor uploadAdmissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor).addPathPatterns("/api/s3/**");
+        registry.addInterceptor(uploadAdmissionInterceptor).addPathPatterns(UPLOAD_PATHS);
+    }
+}
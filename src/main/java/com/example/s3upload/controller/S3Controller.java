@@ -1,31 +1,111 @@
 package com.example.s3upload.controller;
 
-import com.example.s3upload.dto.S3UploadRequest;
+import com.example.s3upload.config.S3HttpPoolMetrics;
+import com.example.s3upload.dto.S3BatchDeleteRequest;
+import com.example.s3upload.dto.S3BatchDeleteResponse;
+import com.example.s3upload.dto.S3BatchUploadRequest;
+import com.example.s3upload.dto.S3BatchUploadResponse;
+import com.example.s3upload.dto.S3FileInfo;
+import com.example.s3upload.dto.S3MultipartCompleteRequest;
+import com.example.s3upload.dto.S3MultipartPartsRequest;
+import com.example.s3upload.dto.S3MultipartSessionRequest;
+import com.example.s3upload.dto.S3MultipartSessionResponse;
+import com.example.s3upload.dto.S3PresignedUploadCompleteRequest;
+import com.example.s3upload.dto.S3PresignedUploadRequest;
+import com.example.s3upload.dto.S3PresignedUploadResponse;
+import com.example.s3upload.dto.S3ResumableUploadRequest;
+import com.example.s3upload.dto.S3ResumableUploadResponse;
+import com.example.s3upload.dto.S3StreamUploadRequest;
 import com.example.s3upload.dto.S3UploadResponse;
+import com.example.s3upload.dto.S3WriteBehindResponse;
+import com.example.s3upload.service.DedupRebuildResult;
+import com.example.s3upload.service.S3ContentCompressor;
+import com.example.s3upload.service.S3ContentDeduplicator;
+import com.example.s3upload.service.S3HealthProber;
+import com.example.s3upload.service.S3HealthSnapshot;
+import com.example.s3upload.service.S3MetadataCache;
+import com.example.s3upload.service.S3MultipartSessionManager;
+import com.example.s3upload.service.S3ObjectDownloader;
+import com.example.s3upload.service.S3ResumableUploadManager;
 import com.example.s3upload.service.S3Service;
+import com.example.s3upload.service.S3UploadAdmission;
+import com.example.s3upload.service.S3WriteBehindQueue;
+import com.example.s3upload.support.RateLimitExceededException;
+import com.example.s3upload.support.S3RateLimitInterceptor;
+import com.example.s3upload.support.S3UploadAdmissionInterceptor;
+import com.example.s3upload.support.SpooledUploadContent;
+import com.example.s3upload.support.StreamingUploadRequestReader;
+import com.example.s3upload.support.UploadRequestException;
+import com.example.s3upload.support.UploadThrottledException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * AWS S3文件操作REST控制器
  * 
  * 提供以下REST API端点：
  * - POST /api/s3/upload - 上传文件到S3
- * - GET /api/s3/test-connection - 测试S3连接
+ * - PUT|POST /api/s3/upload/stream - 以二进制流或multipart方式流式上传文件到S3
+ * - POST /api/s3/upload/batch - 批量上传多个文件到S3（有界并发）
+ * - POST /api/s3/upload/presigned - 生成直接上传到S3的预签名PUT URL（文件内容不经过本服务）
+ * - POST /api/s3/upload/presigned/complete - 确认通过预签名URL上传的文件
+ * - POST /api/s3/upload/multipart - 创建预签名分段上传会话，客户端并行直传各分段
+ * - POST /api/s3/upload/multipart/{uploadId}/parts - 申请一批分段上传URL
+ * - POST /api/s3/upload/multipart/{uploadId}/complete - 合并分段，完成分段上传
+ * - DELETE /api/s3/upload/multipart/{uploadId} - 中止分段上传
+ * - POST /api/s3/upload/resumable - 创建断点续传会话
+ * - PATCH /api/s3/upload/resumable/{sessionId} - 从指定偏移量提交一个分块
+ * - HEAD|GET /api/s3/upload/resumable/{sessionId} - 查询已提交的偏移量
+ * - DELETE /api/s3/upload/resumable/{sessionId} - 中止断点续传
+ * - POST /api/s3/upload/write-behind - 写回模式上传：内容落盘后立即返回202，后台上传到S3（需启用写回模式）
+ * - GET /api/s3/upload/write-behind/{trackingId} - 查询写回上传状态
+ * - GET /api/s3/test-connection - 测试S3连接（返回后台探测结果）
+ * - GET /api/s3/download/{s3Key} - 流式下载文件（支持Range和条件请求，可选并行分段下载）
  * - DELETE /api/s3/delete/{s3Key} - 删除S3中的文件
- * - GET /api/s3/list - 列出S3存储桶中的文件
- * - GET /api/s3/health - 健康检查
+ * - POST /api/s3/delete/batch - 按键列表或前缀批量删除S3中的文件
+ * - POST /api/s3/dedup/rebuild?prefix= - 扫描存储桶重建内容去重索引（需启用内容去重）
+ * - GET /api/s3/metadata?key= - 获取文件元数据（经过进程内元数据缓存）
+ * - GET /api/s3/list - 分页列出S3存储桶中的文件（支持继续令牌）
+ * - GET /api/s3/list/stream - 以NDJSON或JSON数组流式列出前缀下的全部文件
+ * - GET /api/s3/health - 健康检查（返回后台探测结果，不访问S3）
+ * - /api/s3/async/** - 上述操作的异步版本（需启用异步模式，S3请求期间释放Tomcat工作线程）
  * 
  * 所有接口都包含详细的错误处理和响应格式化。
  * 
@@ -40,6 +120,18 @@ import java.util.Map;
 public class S3Controller {
 
     private final S3Service s3Service;
+    private final StreamingUploadRequestReader uploadRequestReader;
+    private final ObjectMapper objectMapper;
+    private final S3MetadataCache metadataCache;
+    private final S3HealthProber healthProber;
+    private final S3MultipartSessionManager multipartSessionManager;
+    private final S3ResumableUploadManager resumableUploadManager;
+    private final S3WriteBehindQueue writeBehindQueue;
+    private final S3ContentDeduplicator contentDeduplicator;
+    private final S3ObjectDownloader objectDownloader;
+    private final S3ContentCompressor contentCompressor;
+    private final S3UploadAdmission uploadAdmission;
+    private final S3HttpPoolMetrics poolMetrics;
 
     /**
      * 测试S3连接
@@ -47,16 +139,27 @@ public class S3Controller {
      * 此接口用于验证S3配置是否正确，以及应用程序是否能够成功连接到AWS S3服务。
      * 主要用于部署后的配置验证和健康检查。
      * 
-     * GET /api/s3/test-connection
+     * 默认返回后台探测器的最新结果，不会访问S3；refresh=true时立即执行一次探测。
+     * 最近一次探测已过期时返回503和错误代码HEALTH_STALE。
      * 
+     * GET /api/s3/test-connection?refresh=false
+     * 
+     * @param refresh 是否立即重新探测，默认为false
      * @return ResponseEntity<S3UploadResponse> 连接测试结果
      */
     @GetMapping("/test-connection")
-    public ResponseEntity<S3UploadResponse> testConnection() {
-        log.info("收到S3连接测试请求");
+    public ResponseEntity<S3UploadResponse> testConnection(@RequestParam(defaultValue = "false") boolean refresh) {
+        log.info("收到S3连接测试请求: refresh={}", refresh);
         
         try {
-            S3UploadResponse response = s3Service.testConnection();
+            S3HealthSnapshot snapshot = healthProber.getSnapshot();
+            if (refresh || snapshot == null) {
+                snapshot = healthProber.probe();
+            }
+            
+            S3UploadResponse response = healthProber.isStale(snapshot)
+                ? S3UploadResponse.failure("S3健康状态已过期，最近一次探测时间: " + snapshot.getProbeTime(), "HEALTH_STALE")
+                : snapshot.getResult();
             
             if (response.isSuccess()) {
                 log.info("S3连接测试成功");
@@ -82,6 +185,14 @@ public class S3Controller {
      * 此接口接收包含Base64编码文件内容的请求，并将文件上传到AWS S3存储桶。
      * 支持自定义文件路径、内容类型检测和文件覆盖控制。
      * 
+     * 请求体通过 {@link StreamingUploadRequestReader} 增量解析：fileContent边读边解码，
+     * 完整的Base64字符串和解码后的字节数组都不会加载到堆内存中。
+     * 所有字段校验通过后才会开始向S3发送数据，与字段在JSON中的顺序无关。
+     * 
+     * 读取请求体之前先通过 {@link S3UploadAdmission} 按Content-Length预留全局在途字节预算
+     * （见 {@link S3UploadAdmissionInterceptor}，所有接收文件内容的上传接口相同），
+     * 预算不足且排队超时时返回429（UPLOAD_THROTTLED）和Retry-After响应头。
+     * 
      * POST /api/s3/upload
      * Content-Type: application/json
      * 
@@ -94,16 +205,24 @@ public class S3Controller {
      *   "overwrite": false
      * }
      * 
-     * @param uploadRequest 文件上传请求对象
+     * @param request HTTP请求，请求体为上传请求JSON
      * @return ResponseEntity<S3UploadResponse> 上传结果
      */
-    @PostMapping("/upload")
-    public ResponseEntity<S3UploadResponse> uploadFile(@Valid @RequestBody S3UploadRequest uploadRequest) {
-        log.info("收到文件上传请求: 文件名={}, 路径前缀={}", 
-                uploadRequest.getFileName(), uploadRequest.getPathPrefix());
+    @PostMapping(value = "/upload", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3UploadResponse> uploadFile(HttpServletRequest request) {
+        log.info("收到文件上传请求: 内容长度={}", request.getContentLengthLong());
         
-        try {
-            S3UploadResponse response = s3Service.uploadFile(uploadRequest);
+        try (SpooledUploadContent content = uploadRequestReader.read(request.getInputStream());
+             InputStream inputStream = content.openStream()) {
+            
+            S3StreamUploadRequest uploadRequest = content.getUploadRequest();
+            log.info("文件上传请求解析完成: 文件名={}, 路径前缀={}, 文件大小={}", 
+                    uploadRequest.getFileName(), uploadRequest.getPathPrefix(), uploadRequest.getContentLength());
+            
+            // 启用内容去重时解码阶段已计算出内容哈希，相同内容已存在时不再上传
+            S3UploadResponse response = content.getContentSha256() != null
+                ? contentDeduplicator.upload(uploadRequest, content.getSpoolFile(), content.getContentSha256())
+                : s3Service.uploadStream(uploadRequest, inputStream);
             
             if (response.isSuccess()) {
                 log.info("文件上传成功: {}", response.getS3Key());
@@ -116,6 +235,10 @@ public class S3Controller {
                 return ResponseEntity.status(status).body(response);
             }
             
+        } catch (UploadRequestException e) {
+            log.warn("文件上传请求无效: {}", e.getMessage());
+            S3UploadResponse errorResponse = S3UploadResponse.failure(e.getMessage(), e.getErrorCode());
+            return ResponseEntity.status(determineHttpStatus(e.getErrorCode())).body(errorResponse);
         } catch (Exception e) {
             log.error("文件上传发生异常: {}", e.getMessage(), e);
             S3UploadResponse errorResponse = S3UploadResponse.failure(
@@ -126,6 +249,512 @@ public class S3Controller {
         }
     }
 
+    /**
+     * 以二进制流方式上传文件到S3
+     * 
+     * 此接口直接接收原始二进制请求体，并将Servlet输入流直接转发给S3，
+     * 不经过Base64编码和JSON解析，单次上传的堆内存占用与文件大小无关。
+     * 文件元数据可以通过查询参数或请求头传递（查询参数优先）：
+     * - fileName / X-File-Name（请求头中的值需要进行URL编码）
+     * - pathPrefix / X-Path-Prefix
+     * - contentType / X-File-Content-Type
+     * - overwrite / X-Overwrite
+     * 
+     * PUT|POST /api/s3/upload/stream?fileName=example.jpg
+     * Content-Type: application/octet-stream
+     * Content-Length: 1024
+     * 
+     * @param request HTTP请求
+     * @return ResponseEntity<S3UploadResponse> 上传结果
+     * @throws IOException 读取请求体失败时抛出
+     */
+    @RequestMapping(value = "/upload/stream",
+                    method = {RequestMethod.PUT, RequestMethod.POST},
+                    consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<S3UploadResponse> uploadStream(HttpServletRequest request) throws IOException {
+        S3StreamUploadRequest uploadRequest = buildStreamUploadRequest(
+            request, null, null, request.getContentLengthLong());
+        
+        return doUploadStream(uploadRequest, request.getInputStream());
+    }
+
+    /**
+     * 以multipart/form-data方式流式上传文件到S3
+     * 
+     * 表单中的文件部分由Servlet容器暂存到磁盘，随后以输入流的方式转发给S3，
+     * 不会将文件内容加载到堆内存中。文件名和内容类型默认取自表单文件部分，
+     * 也可以通过查询参数或请求头覆盖（规则同二进制流上传接口）。
+     * 
+     * PUT|POST /api/s3/upload/stream
+     * Content-Type: multipart/form-data
+     * 
+     * @param file 表单中名为file的文件部分
+     * @param request HTTP请求
+     * @return ResponseEntity<S3UploadResponse> 上传结果
+     * @throws IOException 读取文件部分失败时抛出
+     */
+    @RequestMapping(value = "/upload/stream",
+                    method = {RequestMethod.PUT, RequestMethod.POST},
+                    consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<S3UploadResponse> uploadMultipartStream(
+            @RequestPart("file") MultipartFile file, HttpServletRequest request) throws IOException {
+        
+        S3StreamUploadRequest uploadRequest = buildStreamUploadRequest(
+            request, file.getOriginalFilename(), file.getContentType(), file.getSize());
+        
+        try (InputStream inputStream = file.getInputStream()) {
+            return doUploadStream(uploadRequest, inputStream);
+        }
+    }
+
+    /**
+     * 批量上传文件到S3
+     * 
+     * 在一次请求中上传多个文件，服务端以有界并发（aws.s3.batch.parallelism）同时上传，
+     * 单个文件失败不会中止其他文件。响应中包含每个文件的上传结果，顺序与请求一致。
+     * 全部成功时返回201，部分或全部文件失败时返回207（Multi-Status）。
+     * 
+     * POST /api/s3/upload/batch
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * {
+     *   "files": [
+     *     { "fileContent": "base64编码的文件内容", "fileName": "a.jpg", "pathPrefix": "images/" },
+     *     { "fileContent": "base64编码的文件内容", "fileName": "b.txt", "overwrite": true }
+     *   ]
+     * }
+     * 
+     * @param batchRequest 批量上传请求对象
+     * @return ResponseEntity<S3BatchUploadResponse> 批量上传结果
+     */
+    @PostMapping(value = "/upload/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3BatchUploadResponse> uploadFiles(@Valid @RequestBody S3BatchUploadRequest batchRequest) {
+        log.info("收到批量上传请求: 文件数={}", batchRequest.getFiles().size());
+        
+        S3BatchUploadResponse response = s3Service.uploadFiles(batchRequest.getFiles());
+        
+        if (response.getResults() == null) {
+            log.warn("批量上传失败: {}", response.getMessage());
+            return ResponseEntity.status(determineHttpStatus(response.getErrorCode())).body(response);
+        }
+        return ResponseEntity.status(response.isSuccess() ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS)
+            .body(response);
+    }
+
+    /**
+     * 生成直接上传到S3的预签名URL
+     * 
+     * 客户端拿到URL后直接把文件内容PUT到S3，文件字节不经过本服务。
+     * 文件键和内容类型的生成规则与其他上传接口相同，URL有效期由 aws.s3.presign.expiry 配置。
+     * 上传时必须携带响应headers中的全部请求头，上传完成后调用 /upload/presigned/complete 确认。
+     * 浏览器直传要求存储桶配置了允许本站点PUT的CORS规则。
+     * 
+     * POST /api/s3/upload/presigned
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * {
+     *   "fileName": "example.jpg",
+     *   "pathPrefix": "images/",
+     *   "contentType": "image/jpeg",
+     *   "contentLength": 102400
+     * }
+     * 
+     * @param uploadRequest 预签名上传请求对象
+     * @return ResponseEntity<S3PresignedUploadResponse> 预签名上传URL及上传所需的请求头
+     */
+    @PostMapping(value = "/upload/presigned", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3PresignedUploadResponse> createPresignedUpload(
+            @Valid @RequestBody S3PresignedUploadRequest uploadRequest) {
+        log.info("收到预签名上传请求: 文件名={}, 路径前缀={}, 文件大小={}",
+                uploadRequest.getFileName(), uploadRequest.getPathPrefix(), uploadRequest.getContentLength());
+        
+        S3PresignedUploadResponse response = s3Service.createPresignedUpload(uploadRequest);
+        
+        if (response.isSuccess()) {
+            return ResponseEntity.ok(response);
+        }
+        log.warn("生成预签名上传URL失败: {}", response.getMessage());
+        return ResponseEntity.status(determineHttpStatus(response.getErrorCode())).body(response);
+    }
+
+    /**
+     * 确认通过预签名URL上传的文件
+     * 
+     * 服务端向S3确认对象已写入，并按请求中的大小和ETag进行核对。
+     * 对象尚不存在时返回404，大小或ETag不一致时返回409。
+     * 
+     * POST /api/s3/upload/presigned/complete
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * { "s3Key": "images/uuid_example.jpg", "contentLength": 102400, "eTag": "\"9b2cf535f27731c974343645a3985328\"" }
+     * 
+     * @param completeRequest 完成请求对象
+     * @return ResponseEntity<S3UploadResponse> 上传结果
+     */
+    @PostMapping(value = "/upload/presigned/complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3UploadResponse> completePresignedUpload(
+            @Valid @RequestBody S3PresignedUploadCompleteRequest completeRequest) {
+        log.info("收到预签名上传完成请求: {}", completeRequest.getS3Key());
+        
+        S3UploadResponse response = s3Service.completePresignedUpload(completeRequest);
+        return toResponseEntity(response, HttpStatus.OK);
+    }
+
+    /**
+     * 创建预签名分段上传会话
+     * 
+     * 服务端发起S3分段上传并返回uploadId和分段大小，客户端按分段大小切分文件，
+     * 使用预签名UploadPart URL并行直传各分段（文件内容不经过本服务，不受服务端请求大小上限限制），
+     * 记录每个分段响应中的ETag，最后调用完成接口。提供contentLength时响应中直接包含第一批分段上传URL。
+     * 会话超过 aws.s3.presign.session-ttl 未完成时在后台被中止。
+     * 
+     * POST /api/s3/upload/multipart
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * { "fileName": "video.mp4", "pathPrefix": "videos/", "contentLength": 5368709120 }
+     * 
+     * @param sessionRequest 会话请求对象
+     * @return ResponseEntity<S3MultipartSessionResponse> 会话信息及分段上传URL
+     */
+    @PostMapping(value = "/upload/multipart", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3MultipartSessionResponse> createMultipartSession(
+            @Valid @RequestBody S3MultipartSessionRequest sessionRequest) {
+        log.info("收到预签名分段上传会话请求: 文件名={}, 路径前缀={}, 文件大小={}",
+                sessionRequest.getFileName(), sessionRequest.getPathPrefix(), sessionRequest.getContentLength());
+        
+        S3MultipartSessionResponse response = multipartSessionManager.createSession(sessionRequest);
+        return toSessionResponseEntity(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * 申请一批分段上传URL
+     * 
+     * 单次最多 aws.s3.presign.max-part-urls 个分段，URL过期后可以重新申请。
+     * 
+     * POST /api/s3/upload/multipart/{uploadId}/parts
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * { "partNumbers": [101, 102, 103] }
+     * 
+     * @param uploadId 分段上传ID
+     * @param partsRequest 分段编号列表
+     * @return ResponseEntity<S3MultipartSessionResponse> 分段上传URL
+     */
+    @PostMapping(value = "/upload/multipart/{uploadId}/parts", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3MultipartSessionResponse> presignMultipartParts(
+            @PathVariable String uploadId, @Valid @RequestBody S3MultipartPartsRequest partsRequest) {
+        
+        S3MultipartSessionResponse response =
+            multipartSessionManager.presignParts(uploadId, partsRequest.getPartNumbers());
+        return toSessionResponseEntity(response, HttpStatus.OK);
+    }
+
+    /**
+     * 完成预签名分段上传
+     * 
+     * 按分段编号合并客户端上传的分段，分段编号必须从1开始连续。
+     * 
+     * POST /api/s3/upload/multipart/{uploadId}/complete
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * { "parts": [ { "partNumber": 1, "eTag": "\"a54357aff0632cce46d942af68356b38\"" }, ... ] }
+     * 
+     * @param uploadId 分段上传ID
+     * @param completeRequest 已上传的分段及其ETag
+     * @return ResponseEntity<S3UploadResponse> 上传结果
+     */
+    @PostMapping(value = "/upload/multipart/{uploadId}/complete", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3UploadResponse> completeMultipartSession(
+            @PathVariable String uploadId, @Valid @RequestBody S3MultipartCompleteRequest completeRequest) {
+        log.info("收到完成分段上传请求: uploadId={}, 分段数={}", uploadId, completeRequest.getParts().size());
+        
+        S3UploadResponse response = multipartSessionManager.completeSession(uploadId, completeRequest.getParts());
+        return toResponseEntity(response, HttpStatus.CREATED);
+    }
+
+    /**
+     * 中止预签名分段上传
+     * 
+     * DELETE /api/s3/upload/multipart/{uploadId}
+     * 
+     * @param uploadId 分段上传ID
+     * @return ResponseEntity<S3UploadResponse> 中止结果
+     */
+    @DeleteMapping("/upload/multipart/{uploadId}")
+    public ResponseEntity<S3UploadResponse> abortMultipartSession(@PathVariable String uploadId) {
+        log.info("收到中止分段上传请求: uploadId={}", uploadId);
+        
+        return toResponseEntity(multipartSessionManager.abortSession(uploadId), HttpStatus.OK);
+    }
+
+    /**
+     * 创建断点续传会话
+     * 
+     * 响应头 Location 为会话地址，客户端随后按 chunkSize 依次向该地址PATCH文件内容。
+     * 
+     * POST /api/s3/upload/resumable
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * { "fileName": "video.mp4", "pathPrefix": "videos/", "contentLength": 1073741824 }
+     * 
+     * @param uploadRequest 会话请求对象
+     * @return ResponseEntity<S3ResumableUploadResponse> 会话信息
+     */
+    @PostMapping(value = "/upload/resumable", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3ResumableUploadResponse> createResumableUpload(
+            @Valid @RequestBody S3ResumableUploadRequest uploadRequest) {
+        log.info("收到断点续传会话请求: 文件名={}, 路径前缀={}, 文件大小={}",
+                uploadRequest.getFileName(), uploadRequest.getPathPrefix(), uploadRequest.getContentLength());
+        
+        S3ResumableUploadResponse response = resumableUploadManager.createSession(uploadRequest);
+        ResponseEntity<S3ResumableUploadResponse> entity = toResumableResponseEntity(response, HttpStatus.CREATED);
+        if (!response.isSuccess()) {
+            return entity;
+        }
+        return ResponseEntity.created(URI.create("/api/s3/upload/resumable/" + response.getSessionId()))
+            .headers(entity.getHeaders())
+            .body(response);
+    }
+
+    /**
+     * 查询断点续传会话的已提交偏移量
+     * 
+     * 连接中断后客户端先调用此接口，再从响应中的 offset（或响应头 Upload-Offset）继续上传。
+     * HEAD请求只返回响应头。
+     * 
+     * HEAD|GET /api/s3/upload/resumable/{sessionId}
+     * 
+     * @param sessionId 会话ID
+     * @return ResponseEntity<S3ResumableUploadResponse> 会话进度
+     */
+    @GetMapping("/upload/resumable/{sessionId}")
+    public ResponseEntity<S3ResumableUploadResponse> getResumableUpload(@PathVariable String sessionId) {
+        return toResumableResponseEntity(resumableUploadManager.getStatus(sessionId), HttpStatus.OK);
+    }
+
+    /**
+     * 提交一个分块
+     * 
+     * 请求头 Upload-Offset 必须等于已提交的偏移量，请求体大小必须恰好为 chunkSize（最后一块为剩余字节数）。
+     * 偏移量不一致时返回409（OFFSET_MISMATCH），响应中包含服务端的偏移量；请求体不完整时分块被丢弃，
+     * 偏移量不变。最后一个分块提交后自动完成上传，响应中 completed 为true。
+     * 
+     * PATCH /api/s3/upload/resumable/{sessionId}
+     * Upload-Offset: 8388608
+     * Content-Type: application/offset+octet-stream
+     * 
+     * @param sessionId 会话ID
+     * @param uploadOffset 分块起始偏移量
+     * @param request HTTP请求
+     * @return ResponseEntity<S3ResumableUploadResponse> 提交后的会话进度
+     * @throws IOException 打开请求体失败时抛出
+     */
+    @PatchMapping(value = "/upload/resumable/{sessionId}",
+                  consumes = {"application/offset+octet-stream", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<S3ResumableUploadResponse> appendResumableChunk(
+            @PathVariable String sessionId,
+            @RequestHeader(value = "Upload-Offset", required = false) Long uploadOffset,
+            HttpServletRequest request) throws IOException {
+        
+        if (uploadOffset == null || uploadOffset < 0) {
+            S3ResumableUploadResponse errorResponse = S3ResumableUploadResponse.failure(
+                "请求参数验证失败: Upload-Offset 请求头缺失或无效",
+                "VALIDATION_ERROR"
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        
+        S3ResumableUploadResponse response = resumableUploadManager.appendChunk(
+            sessionId, uploadOffset, request.getInputStream(), request.getContentLengthLong());
+        return toResumableResponseEntity(response, HttpStatus.OK);
+    }
+
+    /**
+     * 中止断点续传
+     * 
+     * DELETE /api/s3/upload/resumable/{sessionId}
+     * 
+     * @param sessionId 会话ID
+     * @return ResponseEntity<S3ResumableUploadResponse> 中止结果
+     */
+    @DeleteMapping("/upload/resumable/{sessionId}")
+    public ResponseEntity<S3ResumableUploadResponse> abortResumableUpload(@PathVariable String sessionId) {
+        log.info("收到中止断点续传请求: 会话ID={}", sessionId);
+        
+        return toResumableResponseEntity(resumableUploadManager.abortSession(sessionId), HttpStatus.OK);
+    }
+
+    /**
+     * 写回模式上传文件
+     * 
+     * 请求体与 POST /api/s3/upload 相同。文件内容写入本地暂存目录并落盘后立即返回202和任务ID，
+     * 由后台上传线程池上传到S3，失败时按指数退避重试。服务重启后未完成的上传会继续进行。
+     * 暂存空间超过 aws.s3.write-behind.disk-quota 时返回507（SPOOL_QUOTA_EXCEEDED）。
+     * 
+     * POST /api/s3/upload/write-behind
+     * 
+     * @param request HTTP请求，请求体为上传请求JSON
+     * @return ResponseEntity<S3WriteBehindResponse> 任务信息，Location指向状态查询地址
+     */
+    @PostMapping(value = "/upload/write-behind", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3WriteBehindResponse> uploadFileWriteBehind(HttpServletRequest request) {
+        log.info("收到写回上传请求: 内容长度={}", request.getContentLengthLong());
+        
+        if (!writeBehindQueue.isEnabled()) {
+            return toWriteBehindResponseEntity(S3WriteBehindResponse.failure(
+                "写回模式未启用，请设置 aws.s3.write-behind.enabled=true", "WRITE_BEHIND_DISABLED"));
+        }
+        
+        // 直接解码到写回暂存目录，入队时只需重命名
+        try (SpooledUploadContent content = uploadRequestReader.read(
+                request.getInputStream(), writeBehindQueue.getSpoolDirectory())) {
+            S3WriteBehindResponse response = writeBehindQueue.enqueue(content.getUploadRequest(), content.getSpoolFile());
+            if (!response.isSuccess()) {
+                return toWriteBehindResponseEntity(response);
+            }
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/s3/upload/write-behind/" + response.getTrackingId()))
+                .cacheControl(CacheControl.noStore())
+                .body(response);
+            
+        } catch (UploadRequestException e) {
+            log.warn("写回上传请求无效: {}", e.getMessage());
+            return toWriteBehindResponseEntity(S3WriteBehindResponse.failure(e.getMessage(), e.getErrorCode()));
+        } catch (Exception e) {
+            log.error("写回上传发生异常: {}", e.getMessage(), e);
+            S3WriteBehindResponse errorResponse = S3WriteBehindResponse.failure(
+                "上传异常: " + e.getMessage(), 
+                "UPLOAD_EXCEPTION"
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * 查询写回上传状态
+     * 
+     * 响应中 status 为 PENDING（等待上传或等待重试）、UPLOADED 或 FAILED。
+     * 已完成的任务在 aws.s3.write-behind.retention 之后不再可查询。
+     * 
+     * GET /api/s3/upload/write-behind/{trackingId}
+     * 
+     * @param trackingId 任务ID
+     * @return ResponseEntity<S3WriteBehindResponse> 上传状态
+     */
+    @GetMapping("/upload/write-behind/{trackingId}")
+    public ResponseEntity<S3WriteBehindResponse> getWriteBehindStatus(@PathVariable String trackingId) {
+        S3WriteBehindResponse response = writeBehindQueue.getStatus(trackingId);
+        if (!response.isSuccess()) {
+            return toWriteBehindResponseEntity(response);
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(response);
+    }
+
+    /**
+     * 流式下载文件
+     * 
+     * S3对象内容通过固定大小的缓冲区直接写入响应，不会加载到堆内存中。
+     * Range、If-None-Match、If-Modified-Since请求头原样传给S3：部分读取返回206，
+     * 条件满足时返回304，只传输实际需要的字节。文件键中可以包含斜杠。
+     * 
+     * parallel=true且未指定Range时，不小于 aws.s3.download.parallel-threshold 的文件
+     * 使用多个并发的范围请求下载，按顺序写入响应。
+     * 
+     * 压缩保存的文件（见 aws.s3.compression）：客户端的Accept-Encoding接受该编码时原样返回压缩内容并设置Content-Encoding；
+     * 否则服务端边读边解压后返回完整内容（忽略Range，不支持部分读取），ETag为弱校验值。
+     * 两种情况都设置 Vary: Accept-Encoding。
+     * 
+     * GET /api/s3/download/images/2024/01/01/uuid_example.jpg
+     * Range: bytes=0-1023
+     * 
+     * @param s3Key 文件在S3中的键
+     * @param parallel 是否对大文件使用并行分段下载，默认为false
+     * @param headers HTTP请求头
+     * @param response HTTP响应
+     * @throws IOException 写入响应失败时抛出
+     */
+    @GetMapping("/download/{*s3Key}")
+    public void downloadFile(
+            @PathVariable String s3Key,
+            @RequestParam(defaultValue = "false") boolean parallel,
+            @RequestHeader HttpHeaders headers,
+            HttpServletResponse response) throws IOException {
+        
+        String key = s3Key.startsWith("/") ? s3Key.substring(1) : s3Key;
+        String range = headers.getFirst(HttpHeaders.RANGE);
+        log.info("收到文件下载请求: {}, Range: {}, 并行: {}", key, range, parallel);
+        
+        if (key.isBlank()) {
+            writeErrorResponse(response, HttpStatus.BAD_REQUEST,
+                S3UploadResponse.failure("请求参数验证失败: S3文件键不能为空", "VALIDATION_ERROR"));
+            return;
+        }
+        if (!objectDownloader.isAvailable()) {
+            writeErrorResponse(response, HttpStatus.SERVICE_UNAVAILABLE,
+                S3UploadResponse.failure("S3客户端未初始化，请检查配置", "CONFIGURATION_ERROR"));
+            return;
+        }
+        
+        // 解压后的响应使用弱ETag，转发给S3前去掉W/前缀
+        String ifNoneMatch = headers.getFirst(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && ifNoneMatch.startsWith("W/")) {
+            ifNoneMatch = ifNoneMatch.substring(2);
+        }
+        String acceptEncoding = headers.getFirst(HttpHeaders.ACCEPT_ENCODING);
+        long ifModifiedSince = headers.getIfModifiedSince();
+        Instant modifiedSince = ifModifiedSince >= 0 ? Instant.ofEpochMilli(ifModifiedSince) : null;
+        
+        try {
+            // 是否并行下载取决于文件大小，优先从元数据缓存读取
+            boolean parallelDownload = parallel && range == null && s3Service.getFileMetadata(key)
+                .map(metadata -> objectDownloader.isParallelEligible(metadata.contentLength()))
+                .orElse(false);
+            
+            try (ResponseInputStream<GetObjectResponse> object = openForDownload(
+                    key, parallelDownload ? objectDownloader.firstPartRange() : range, ifNoneMatch, modifiedSince,
+                    acceptEncoding)) {
+                GetObjectResponse getObjectResponse = object.response();
+                String contentEncoding = getObjectResponse.contentEncoding();
+                
+                if (contentCompressor.requiresDecoding(contentEncoding, acceptEncoding)) {
+                    // 客户端不接受压缩编码，边读边解压，响应长度取自上传时记录的原始大小
+                    writeDownloadHeaders(response, key, getObjectResponse,
+                        S3ContentCompressor.uncompressedLength(getObjectResponse.metadata()), false, true);
+                    objectDownloader.copy(contentCompressor.decompress(object, contentEncoding),
+                        response.getOutputStream());
+                } else if (parallelDownload) {
+                    // 第一个分段随条件请求一起返回，其余分段按对象总大小并行下载
+                    long totalLength = parseTotalLength(getObjectResponse);
+                    writeDownloadHeaders(response, key, getObjectResponse, totalLength, false, false);
+                    objectDownloader.copy(object, response.getOutputStream());
+                    objectDownloader.copyRanges(key, getObjectResponse.eTag(), getObjectResponse.contentLength(),
+                        totalLength, response.getOutputStream());
+                } else {
+                    writeDownloadHeaders(response, key, getObjectResponse, getObjectResponse.contentLength(),
+                        getObjectResponse.contentRange() != null, false);
+                    objectDownloader.copy(object, response.getOutputStream());
+                }
+                response.flushBuffer();
+            }
+            log.info("文件下载完成: {}", key);
+            
+        } catch (S3Exception e) {
+            if (response.isCommitted()) {
+                // 响应已开始输出，中止连接让客户端感知到不完整的内容
+                log.error("文件下载中途失败: {}, 错误: {}", key, e.getMessage());
+                throw e;
+            }
+            handleDownloadError(response, key, e);
+        }
+    }
+
     /**
      * 删除S3中的文件
      * 
@@ -164,21 +793,156 @@ public class S3Controller {
         }
     }
 
+    /**
+     * 批量删除S3中的文件
+     * 
+     * 按键列表或按前缀批量删除文件，服务端使用DeleteObjects每次删除最多1000个键，
+     * 多个批次并发执行。按前缀删除时一边分页列出一边删除。
+     * 全部成功时返回200，部分文件失败时返回207（Multi-Status）。
+     * 
+     * POST /api/s3/delete/batch
+     * Content-Type: application/json
+     * 
+     * 请求体示例：
+     * { "keys": ["images/a.jpg", "images/b.jpg"] }
+     * 或
+     * { "prefix": "uploads/2024/01/01/" }
+     * 
+     * @param deleteRequest 批量删除请求对象
+     * @return ResponseEntity<S3BatchDeleteResponse> 批量删除结果
+     */
+    @PostMapping(value = "/delete/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<S3BatchDeleteResponse> deleteFiles(@RequestBody S3BatchDeleteRequest deleteRequest) {
+        log.info("收到批量删除请求: 键数={}, 前缀={}",
+                deleteRequest.getKeys() != null ? deleteRequest.getKeys().size() : 0, deleteRequest.getPrefix());
+        
+        S3BatchDeleteResponse response = s3Service.deleteFiles(deleteRequest);
+        
+        if (response.getErrorCode() != null) {
+            log.warn("批量删除失败: {}", response.getMessage());
+            return ResponseEntity.status(determineHttpStatus(response.getErrorCode())).body(response);
+        }
+        return ResponseEntity.status(response.isSuccess() ? HttpStatus.OK : HttpStatus.MULTI_STATUS).body(response);
+    }
+
+    /**
+     * 重建内容去重索引
+     * 
+     * 列出前缀下的所有对象，从对象元数据中读取内容哈希重新填充索引。
+     * 服务重启后或在其他实例上传了大量文件后调用，耗时与对象数量成正比。
+     * 
+     * POST /api/s3/dedup/rebuild?prefix=images/
+     * 
+     * @param prefix 键前缀（可选，为空时扫描整个存储桶）
+     * @return ResponseEntity<Map<String, Object>> 重建结果
+     */
+    @PostMapping("/dedup/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildDedupIndex(@RequestParam(defaultValue = "") String prefix) {
+        log.info("收到重建内容去重索引请求: 前缀={}", prefix);
+        
+        Map<String, Object> result = new HashMap<>();
+        if (!contentDeduplicator.isEnabled()) {
+            result.put("success", false);
+            result.put("message", "内容去重未启用，请设置 aws.s3.dedup.enabled=true");
+            result.put("errorCode", "DEDUP_DISABLED");
+            return ResponseEntity.status(determineHttpStatus("DEDUP_DISABLED")).body(result);
+        }
+        try {
+            DedupRebuildResult rebuildResult = contentDeduplicator.rebuild(prefix);
+            result.put("success", true);
+            result.put("message", "内容去重索引重建完成");
+            result.put("scannedCount", rebuildResult.getScannedCount());
+            result.put("indexedCount", rebuildResult.getIndexedCount());
+            result.put("indexSize", rebuildResult.getIndexSize());
+            result.put("durationMillis", rebuildResult.getDurationMillis());
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            result.put("success", false);
+            result.put("message", e.getMessage());
+            result.put("errorCode", "CONFIGURATION_ERROR");
+            return ResponseEntity.status(determineHttpStatus("CONFIGURATION_ERROR")).body(result);
+        } catch (S3Exception e) {
+            log.error("重建内容去重索引失败: {}", e.getMessage());
+            String errorCode = e.awsErrorDetails().errorCode();
+            result.put("success", false);
+            result.put("message", "S3操作失败: " + e.getMessage());
+            result.put("errorCode", errorCode);
+            return ResponseEntity.status(determineHttpStatus(errorCode)).body(result);
+        } catch (Exception e) {
+            log.error("重建内容去重索引发生异常: {}", e.getMessage(), e);
+            result.put("success", false);
+            result.put("message", "重建索引异常: " + e.getMessage());
+            result.put("errorCode", "UNKNOWN_ERROR");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        }
+    }
+
+    /**
+     * 获取S3中文件的元数据
+     * 
+     * 结果来自元数据缓存，未命中时才会向S3发送headObject请求。
+     * 文件键通过查询参数传递，因此可以包含斜杠。
+     * 
+     * GET /api/s3/metadata?key=images/example.jpg
+     * 
+     * @param s3Key 文件在S3中的键（路径）
+     * @return ResponseEntity<Map<String, Object>> 文件元数据
+     */
+    @GetMapping("/metadata")
+    public ResponseEntity<Map<String, Object>> getFileMetadata(
+            @RequestParam("key") @NotBlank(message = "文件键不能为空") String s3Key) {
+        
+        log.debug("收到文件元数据请求: {}", s3Key);
+        
+        Map<String, Object> response = new HashMap<>();
+        try {
+            Optional<HeadObjectResponse> metadata = s3Service.getFileMetadata(s3Key);
+            
+            if (metadata.isEmpty()) {
+                response.put("success", false);
+                response.put("message", "文件不存在: " + s3Key);
+                response.put("errorCode", "FILE_NOT_FOUND");
+                return ResponseEntity.status(determineHttpStatus("FILE_NOT_FOUND")).body(response);
+            }
+            
+            HeadObjectResponse headObject = metadata.get();
+            response.put("success", true);
+            response.put("message", "文件元数据获取成功");
+            response.put("s3Key", s3Key);
+            response.put("size", headObject.contentLength());
+            response.put("contentType", headObject.contentType());
+            response.put("eTag", headObject.eTag());
+            response.put("lastModified", headObject.lastModified());
+            response.put("metadata", headObject.metadata());
+            return ResponseEntity.ok(response);
+            
+        } catch (Exception e) {
+            log.error("获取文件元数据发生异常: {}", e.getMessage(), e);
+            response.put("success", false);
+            response.put("message", "获取文件元数据失败: " + e.getMessage());
+            response.put("errorCode", "METADATA_EXCEPTION");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+    }
+
     /**
      * 列出S3存储桶中的文件
      * 
-     * 此接口用于获取S3存储桶中的文件列表，支持前缀过滤和数量限制。
+     * 此接口用于获取S3存储桶中的文件列表，支持前缀过滤、数量限制和分页。
+     * 响应中的isTruncated为true时，将nextContinuationToken作为continuationToken参数传入即可获取下一页。
      * 
-     * GET /api/s3/list?prefix=images/&maxKeys=50
+     * GET /api/s3/list?prefix=images/&maxKeys=50&continuationToken=...
      * 
      * @param prefix 文件键前缀，用于过滤文件（可选）
      * @param maxKeys 最大返回数量，默认为50，最大为1000
+     * @param continuationToken 上一页响应中的nextContinuationToken（可选）
      * @return ResponseEntity<Map<String, Object>> 文件列表和元数据
      */
     @GetMapping("/list")
     public ResponseEntity<Map<String, Object>> listFiles(
             @RequestParam(required = false) String prefix,
-            @RequestParam(defaultValue = "50") int maxKeys) {
+            @RequestParam(defaultValue = "50") int maxKeys,
+            @RequestParam(required = false) String continuationToken) {
         
         log.info("收到文件列表请求: 前缀={}, 最大数量={}", prefix, maxKeys);
         
@@ -188,41 +952,202 @@ public class S3Controller {
         }
         
         try {
-            List<S3Object> s3Objects = s3Service.listFiles(prefix, maxKeys);
-            
-            Map<String, Object> response = new HashMap<>();
-            response.put("success", true);
-            response.put("message", "文件列表获取成功");
-            response.put("totalCount", s3Objects.size());
-            response.put("files", s3Objects.stream().map(obj -> {
-                Map<String, Object> fileInfo = new HashMap<>();
-                fileInfo.put("key", obj.key());
-                fileInfo.put("size", obj.size());
-                fileInfo.put("lastModified", obj.lastModified());
-                fileInfo.put("eTag", obj.eTag());
-                fileInfo.put("storageClass", obj.storageClass().toString());
-                return fileInfo;
-            }).toList());
+            ListObjectsV2Response page = s3Service.listFiles(prefix, maxKeys, continuationToken);
             
-            log.info("文件列表获取成功，共 {} 个文件", s3Objects.size());
-            return ResponseEntity.ok(response);
+            log.info("文件列表获取成功，共 {} 个文件", page.contents().size());
+            return ResponseEntity.ok(buildListResponse(page));
             
         } catch (Exception e) {
             log.error("获取文件列表发生异常: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(buildListErrorResponse(e));
+        }
+    }
+
+    /**
+     * 流式列出S3存储桶中的所有文件
+     * 
+     * 服务端通过listObjectsV2Paginator逐页遍历前缀下的全部文件，每个文件一到达就写入响应，
+     * 每页写完后立即刷新，内存占用与文件总数无关，客户端无需等待全部列出即可开始处理。
+     * - format=ndjson（默认）：application/x-ndjson，每行一个文件信息JSON对象；
+     *   遍历中途失败时追加一行 {"success":false,...} 错误对象
+     * - format=json：application/json，以分块传输的JSON数组输出；
+     *   遍历中途失败时连接被中止，客户端会得到不完整的JSON
+     * 
+     * GET /api/s3/list/stream?prefix=images/&format=ndjson
+     * 
+     * @param prefix 文件键前缀，用于过滤文件（可选）
+     * @param format 输出格式，ndjson或json，默认为ndjson
+     * @param response HTTP响应
+     * @throws IOException 写入响应失败时抛出
+     */
+    @GetMapping("/list/stream")
+    public void streamFiles(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletResponse response) throws IOException {
+        
+        boolean ndjson = !"json".equalsIgnoreCase(format);
+        log.info("收到流式文件列表请求: 前缀={}, 格式={}", prefix, ndjson ? "ndjson" : "json");
+        
+        long count = 0;
+        try {
+            Iterable<ListObjectsV2Response> pages = s3Service.listAllFiles(prefix);
             
-            Map<String, Object> errorResponse = new HashMap<>();
-            errorResponse.put("success", false);
-            errorResponse.put("message", "获取文件列表失败: " + e.getMessage());
-            errorResponse.put("errorCode", "LIST_EXCEPTION");
+            response.setStatus(HttpStatus.OK.value());
+            response.setContentType(ndjson ? "application/x-ndjson" : MediaType.APPLICATION_JSON_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
             
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+            ObjectWriter writer = ndjson
+                ? objectMapper.writer().withRootValueSeparator("\n")
+                : objectMapper.writer();
+            SequenceWriter sequenceWriter = null;
+            
+            for (ListObjectsV2Response page : pages) {
+                // 第一页成功返回后才开始写响应，首次请求失败时仍可返回正常的错误响应
+                if (sequenceWriter == null) {
+                    sequenceWriter = ndjson
+                        ? writer.writeValues(response.getOutputStream())
+                        : writer.writeValuesAsArray(response.getOutputStream());
+                }
+                for (S3Object s3Object : page.contents()) {
+                    sequenceWriter.write(S3FileInfo.from(s3Object));
+                    count++;
+                }
+                sequenceWriter.flush();
+            }
+            
+            if (sequenceWriter != null) {
+                if (ndjson && count > 0) {
+                    response.getOutputStream().write('\n');
+                }
+                sequenceWriter.close();
+            }
+            log.info("流式文件列表完成，共 {} 个文件", count);
+            
+        } catch (Exception e) {
+            log.error("流式获取文件列表发生异常，已输出 {} 个文件: {}", count, e.getMessage(), e);
+            
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpStatus.INTERNAL_SERVER_ERROR.value());
+                response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+                response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                objectMapper.writeValue(response.getOutputStream(), buildListErrorResponse(e));
+            } else if (ndjson) {
+                // 响应已开始输出，只能以一行错误对象结束
+                response.getOutputStream().write('\n');
+                response.getOutputStream().write(objectMapper.writeValueAsBytes(buildListErrorResponse(e)));
+                response.getOutputStream().write('\n');
+            } else {
+                // JSON数组无法在中途表示错误，中止连接让客户端感知到不完整的响应
+                throw e;
+            }
         }
     }
 
+    /**
+     * 异步测试S3连接
+     * 
+     * 与同步接口行为一致，S3请求在途期间Tomcat工作线程被释放。
+     * 需要启用异步模式（aws.s3.async.enabled=true），否则返回503。
+     * 
+     * GET /api/s3/async/test-connection
+     * 
+     * @return CompletableFuture<ResponseEntity<S3UploadResponse>> 连接测试结果
+     */
+    @GetMapping("/async/test-connection")
+    public CompletableFuture<ResponseEntity<S3UploadResponse>> testConnectionAsync() {
+        log.info("收到S3异步连接测试请求");
+        
+        return s3Service.testConnectionAsync()
+            .thenApply(response -> response.isSuccess()
+                ? ResponseEntity.ok(response)
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(response));
+    }
+
+    /**
+     * 异步上传文件到S3
+     * 
+     * 请求体格式与 POST /api/s3/upload 相同。请求体解析并暂存到本地后，
+     * 文件内容通过S3AsyncClient异步发送，上传期间Tomcat工作线程被释放。
+     * 
+     * POST /api/s3/async/upload
+     * Content-Type: application/json
+     * 
+     * @param request HTTP请求，请求体为上传请求JSON
+     * @return CompletableFuture<ResponseEntity<S3UploadResponse>> 上传结果
+     * @throws IOException 读取请求体失败时抛出
+     */
+    @PostMapping(value = "/async/upload", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public CompletableFuture<ResponseEntity<S3UploadResponse>> uploadFileAsync(HttpServletRequest request)
+            throws IOException {
+        log.info("收到异步文件上传请求: 内容长度={}", request.getContentLengthLong());
+        
+        SpooledUploadContent content;
+        try {
+            content = uploadRequestReader.read(request.getInputStream());
+        } catch (UploadRequestException e) {
+            log.warn("文件上传请求无效: {}", e.getMessage());
+            S3UploadResponse errorResponse = S3UploadResponse.failure(e.getMessage(), e.getErrorCode());
+            return CompletableFuture.completedFuture(
+                ResponseEntity.status(determineHttpStatus(e.getErrorCode())).body(errorResponse));
+        }
+        
+        return s3Service.uploadFileAsync(content.getUploadRequest(), content.getSpoolFile())
+            .whenComplete((response, error) -> content.close())
+            .thenApply(response -> toResponseEntity(response, HttpStatus.CREATED));
+    }
+
+    /**
+     * 异步删除S3中的文件
+     * 
+     * DELETE /api/s3/async/delete/{s3Key}
+     * 
+     * @param s3Key 要删除的文件在S3中的键（路径），需要进行URL编码
+     * @return CompletableFuture<ResponseEntity<S3UploadResponse>> 删除结果
+     */
+    @DeleteMapping("/async/delete/{s3Key}")
+    public CompletableFuture<ResponseEntity<S3UploadResponse>> deleteFileAsync(
+            @PathVariable @NotBlank(message = "S3文件键不能为空") String s3Key) {
+        
+        log.info("收到异步文件删除请求: {}", s3Key);
+        
+        return s3Service.deleteFileAsync(s3Key)
+            .thenApply(response -> toResponseEntity(response, HttpStatus.OK));
+    }
+
+    /**
+     * 异步列出S3存储桶中的文件
+     * 
+     * GET /api/s3/async/list?prefix=images/&maxKeys=50&continuationToken=...
+     * 
+     * @param prefix 文件键前缀，用于过滤文件（可选）
+     * @param maxKeys 最大返回数量，默认为50，最大为1000
+     * @param continuationToken 上一页响应中的nextContinuationToken（可选）
+     * @return CompletableFuture<ResponseEntity<Map<String, Object>>> 文件列表和元数据
+     */
+    @GetMapping("/async/list")
+    public CompletableFuture<ResponseEntity<Map<String, Object>>> listFilesAsync(
+            @RequestParam(required = false) String prefix,
+            @RequestParam(defaultValue = "50") int maxKeys,
+            @RequestParam(required = false) String continuationToken) {
+        
+        log.info("收到异步文件列表请求: 前缀={}, 最大数量={}", prefix, maxKeys);
+        
+        return s3Service.listFilesAsync(prefix, Math.min(maxKeys, 1000), continuationToken)
+            .thenApply(page -> ResponseEntity.ok(buildListResponse(page)))
+            .exceptionally(error -> {
+                log.error("异步获取文件列表发生异常: {}", error.getMessage());
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(buildListErrorResponse(cause));
+            });
+    }
+
     /**
      * 应用程序健康检查
      * 
      * 提供应用程序基本状态信息，包括S3配置状态。
+     * S3连接状态来自后台探测器的最新快照，接口本身不访问S3，可供负载均衡器和Kubernetes高频探测。
      * 
      * GET /api/s3/health
      * 
@@ -238,19 +1163,424 @@ public class S3Controller {
         health.put("service", "S3 Upload Service");
         health.put("version", "1.0.0");
         
-        // 检查S3连接状态
+        // S3连接状态取自后台探测的最新快照，不在请求中访问S3
+        S3HealthSnapshot snapshot = healthProber.getSnapshot();
+        if (snapshot == null) {
+            health.put("s3Connection", "UNKNOWN");
+        } else {
+            boolean stale = healthProber.isStale(snapshot);
+            health.put("s3Connection", snapshot.isUp() && !stale ? "UP" : "DOWN");
+            if (!snapshot.isUp()) {
+                health.put("s3Error", snapshot.getResult().getMessage());
+            } else if (stale) {
+                health.put("s3Error", "S3健康状态已过期");
+            }
+            health.put("s3Probe", buildProbeInfo(snapshot, stale));
+        }
+        
+        health.put("metadataCache", buildMetadataCacheStats());
+        health.put("connectionPool", buildConnectionPoolStats());
+        health.put("multipartSessions", multipartSessionManager.getActiveSessionCount());
+        health.put("resumableSessions", resumableUploadManager.getActiveSessionCount());
+        if (writeBehindQueue.isEnabled()) {
+            Map<String, Object> writeBehind = new HashMap<>();
+            writeBehind.put("pendingTasks", writeBehindQueue.getPendingCount());
+            writeBehind.put("spooledBytes", writeBehindQueue.getSpooledBytes());
+            health.put("writeBehind", writeBehind);
+        }
+        if (contentDeduplicator.isEnabled()) {
+            health.put("dedupIndexSize", contentDeduplicator.getIndexSize());
+        }
+        if (uploadAdmission.isEnabled()) {
+            Map<String, Object> admission = new HashMap<>();
+            admission.put("reservedBytes", uploadAdmission.getReservedBytes());
+            admission.put("queuedRequests", uploadAdmission.getQueuedRequests());
+            health.put("uploadAdmission", admission);
+        }
+        
+        return ResponseEntity.ok(health);
+    }
+
+    /**
+     * 执行流式上传并转换为HTTP响应
+     * 
+     * @param uploadRequest 流式上传请求对象
+     * @param inputStream 文件内容输入流
+     * @return ResponseEntity<S3UploadResponse> 上传结果
+     */
+    private ResponseEntity<S3UploadResponse> doUploadStream(S3StreamUploadRequest uploadRequest, InputStream inputStream) {
+        log.info("收到流式上传请求: 文件名={}, 路径前缀={}, 内容长度={}", 
+                uploadRequest.getFileName(), uploadRequest.getPathPrefix(), uploadRequest.getContentLength());
+        
+        if (uploadRequest.getFileName() == null || uploadRequest.getFileName().trim().isEmpty()) {
+            S3UploadResponse errorResponse = S3UploadResponse.failure(
+                "请求参数验证失败: fileName: 文件名不能为空", 
+                "VALIDATION_ERROR"
+            );
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+        
         try {
-            S3UploadResponse s3Test = s3Service.testConnection();
-            health.put("s3Connection", s3Test.isSuccess() ? "UP" : "DOWN");
-            if (!s3Test.isSuccess()) {
-                health.put("s3Error", s3Test.getMessage());
+            S3UploadResponse response = s3Service.uploadStream(uploadRequest, inputStream);
+            
+            if (response.isSuccess()) {
+                log.info("文件流式上传成功: {}", response.getS3Key());
+                return ResponseEntity.status(HttpStatus.CREATED).body(response);
+            } else {
+                log.warn("文件流式上传失败: {}", response.getMessage());
+                HttpStatus status = determineHttpStatus(response.getErrorCode());
+                return ResponseEntity.status(status).body(response);
             }
+            
         } catch (Exception e) {
-            health.put("s3Connection", "DOWN");
-            health.put("s3Error", e.getMessage());
+            log.error("文件流式上传发生异常: {}", e.getMessage(), e);
+            S3UploadResponse errorResponse = S3UploadResponse.failure(
+                "上传异常: " + e.getMessage(), 
+                "UPLOAD_EXCEPTION"
+            );
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    /**
+     * 将服务层响应转换为HTTP响应
+     * 
+     * @param response 服务层响应
+     * @param successStatus 成功时的HTTP状态码
+     * @return ResponseEntity<S3UploadResponse> HTTP响应
+     */
+    private ResponseEntity<S3UploadResponse> toResponseEntity(S3UploadResponse response, HttpStatus successStatus) {
+        if (response.isSuccess()) {
+            return ResponseEntity.status(successStatus).body(response);
+        }
+        log.warn("操作失败: {}", response.getMessage());
+        return ResponseEntity.status(determineHttpStatus(response.getErrorCode())).body(response);
+    }
+
+    /**
+     * 将分段上传会话响应转换为HTTP响应
+     * 
+     * @param response 会话响应
+     * @param successStatus 成功时的HTTP状态码
+     * @return ResponseEntity<S3MultipartSessionResponse> HTTP响应
+     */
+    private ResponseEntity<S3MultipartSessionResponse> toSessionResponseEntity(S3MultipartSessionResponse response,
+                                                                                HttpStatus successStatus) {
+        if (response.isSuccess()) {
+            return ResponseEntity.status(successStatus).body(response);
+        }
+        log.warn("分段上传会话操作失败: {}", response.getMessage());
+        return ResponseEntity.status(determineHttpStatus(response.getErrorCode())).body(response);
+    }
+
+    /**
+     * 将断点续传响应转换为HTTP响应
+     * 
+     * 响应中带有偏移量时同时写入 Upload-Offset 和 Upload-Length 响应头，HEAD请求也能获取进度。
+     * 
+     * @param response 断点续传响应
+     * @param successStatus 成功时的HTTP状态码
+     * @return ResponseEntity<S3ResumableUploadResponse> HTTP响应
+     */
+    private ResponseEntity<S3ResumableUploadResponse> toResumableResponseEntity(S3ResumableUploadResponse response,
+                                                                                HttpStatus successStatus) {
+        HttpStatus status = successStatus;
+        if (!response.isSuccess()) {
+            log.warn("断点续传操作失败: {}", response.getMessage());
+            status = determineHttpStatus(response.getErrorCode());
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(status).cacheControl(CacheControl.noStore());
+        if (response.getOffset() != null) {
+            builder.header("Upload-Offset", String.valueOf(response.getOffset()));
+            builder.header("Upload-Length", String.valueOf(response.getContentLength()));
+        }
+        return builder.body(response);
+    }
+
+    /**
+     * 将写回上传的失败响应转换为HTTP响应
+     * 
+     * @param response 写回响应
+     * @return ResponseEntity<S3WriteBehindResponse> HTTP响应
+     */
+    private ResponseEntity<S3WriteBehindResponse> toWriteBehindResponseEntity(S3WriteBehindResponse response) {
+        log.warn("写回上传操作失败: {}", response.getMessage());
+        return ResponseEntity.status(determineHttpStatus(response.getErrorCode())).body(response);
+    }
+
+    /**
+     * 写入下载响应头
+     * 
+     * @param response HTTP响应
+     * @param s3Key 文件在S3中的键
+     * @param object S3对象响应
+     * @param contentLength 响应体长度，未知时为-1（分块传输）
+     * @param partial 是否为部分内容（206）
+     * @param decoded 是否为服务端解压后的内容（不设置Content-Encoding，不支持部分读取，ETag为弱校验值）
+     */
+    private void writeDownloadHeaders(HttpServletResponse response, String s3Key, GetObjectResponse object,
+                                      long contentLength, boolean partial, boolean decoded) {
+        response.setStatus(partial ? HttpStatus.PARTIAL_CONTENT.value() : HttpStatus.OK.value());
+        response.setContentType(object.contentType() != null ? object.contentType() : MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        if (contentLength >= 0) {
+            response.setContentLengthLong(contentLength);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, decoded ? "none" : "bytes");
+        if (object.contentEncoding() != null) {
+            if (!decoded) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, object.contentEncoding());
+            }
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (partial) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, object.contentRange());
+        }
+        if (object.eTag() != null) {
+            response.setHeader(HttpHeaders.ETAG, decoded ? "W/" + object.eTag() : object.eTag());
+        }
+        if (object.lastModified() != null) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, object.lastModified().toEpochMilli());
+        }
+        String fileName = s3Key.substring(s3Key.lastIndexOf('/') + 1);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+            ContentDisposition.inline().filename(fileName, StandardCharsets.UTF_8).build().toString());
+    }
+
+    /**
+     * 打开下载的S3对象
+     * 
+     * 需要在服务端解压的压缩对象不能按解压后的偏移读取部分内容：
+     * 这种情况下如果按Range（或并行下载的第一个分段）读取到了部分内容，放弃该响应，改为读取完整对象。
+     * 
+     * @param s3Key 文件在S3中的键
+     * @param range Range请求头（可选）
+     * @param ifNoneMatch If-None-Match请求头（可选）
+     * @param modifiedSince If-Modified-Since时间（可选）
+     * @param acceptEncoding 客户端的Accept-Encoding请求头（可选）
+     * @return 对象内容流，调用方负责关闭
+     */
+    private ResponseInputStream<GetObjectResponse> openForDownload(String s3Key, @Nullable String range,
+                                                                   @Nullable String ifNoneMatch,
+                                                                   @Nullable Instant modifiedSince,
+                                                                   @Nullable String acceptEncoding) {
+        ResponseInputStream<GetObjectResponse> object = objectDownloader.openObject(
+            s3Key, range, ifNoneMatch, modifiedSince);
+        GetObjectResponse getObjectResponse = object.response();
+        if (getObjectResponse.contentRange() == null
+                || !contentCompressor.requiresDecoding(getObjectResponse.contentEncoding(), acceptEncoding)) {
+            return object;
+        }
+        log.debug("压缩保存的文件需要解压，忽略Range读取完整内容: {}", s3Key);
+        object.abort();
+        return objectDownloader.openObject(s3Key, null, ifNoneMatch, modifiedSince);
+    }
+
+    /**
+     * 从并行下载第一个分段的Content-Range（bytes 0-8388607/1073741824）中解析对象总大小
+     * 
+     * @param object 第一个分段的S3对象响应
+     * @return 对象总大小
+     */
+    private long parseTotalLength(GetObjectResponse object) {
+        String contentRange = object.contentRange();
+        if (contentRange == null) {
+            return object.contentLength();
+        }
+        return Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1));
+    }
+
+    /**
+     * 将下载失败转换为HTTP响应
+     * 
+     * 304（未修改）没有响应体；其他错误以JSON返回。
+     * 
+     * @param response HTTP响应
+     * @param s3Key 文件在S3中的键
+     * @param e S3异常
+     * @throws IOException 写入响应失败时抛出
+     */
+    private void handleDownloadError(HttpServletResponse response, String s3Key, S3Exception e) throws IOException {
+        if (e.statusCode() == HttpStatus.NOT_MODIFIED.value()) {
+            log.debug("文件未修改: {}", s3Key);
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            return;
         }
         
-        return ResponseEntity.ok(health);
+        String errorCode = e.awsErrorDetails() != null ? e.awsErrorDetails().errorCode() : null;
+        if (e instanceof NoSuchKeyException || e.statusCode() == HttpStatus.NOT_FOUND.value()) {
+            log.warn("下载的文件不存在: {}", s3Key);
+            writeErrorResponse(response, HttpStatus.NOT_FOUND,
+                S3UploadResponse.failure("文件不存在: " + s3Key, "FILE_NOT_FOUND"));
+            return;
+        }
+        if (errorCode == null) {
+            errorCode = String.valueOf(e.statusCode());
+        }
+        
+        log.warn("文件下载失败: {}, 错误: {}", s3Key, e.getMessage());
+        HttpStatus status = switch (e.statusCode()) {
+            case 412 -> HttpStatus.PRECONDITION_FAILED;
+            case 416 -> HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE;
+            default -> determineHttpStatus(errorCode);
+        };
+        writeErrorResponse(response, status, S3UploadResponse.failure("文件下载失败: " + e.getMessage(), errorCode));
+    }
+
+    /**
+     * 以JSON写入错误响应（用于直接写HttpServletResponse的接口）
+     * 
+     * @param response HTTP响应
+     * @param status HTTP状态码
+     * @param body 错误响应
+     * @throws IOException 写入响应失败时抛出
+     */
+    private void writeErrorResponse(HttpServletResponse response, HttpStatus status, S3UploadResponse body)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), body);
+    }
+
+    /**
+     * 构建文件列表响应
+     * 
+     * @param page 一页S3对象列表
+     * @return 文件列表和元数据
+     */
+    private Map<String, Object> buildListResponse(ListObjectsV2Response page) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "文件列表获取成功");
+        response.put("totalCount", page.contents().size());
+        response.put("files", page.contents().stream().map(S3FileInfo::from).toList());
+        response.put("isTruncated", Boolean.TRUE.equals(page.isTruncated()));
+        if (page.nextContinuationToken() != null) {
+            response.put("nextContinuationToken", page.nextContinuationToken());
+        }
+        return response;
+    }
+
+    /**
+     * 构建S3探测信息
+     * 
+     * @param snapshot 健康状态快照
+     * @param stale 快照是否已过期
+     * @return 探测时间、耗时、最近错误等信息
+     */
+    private Map<String, Object> buildProbeInfo(S3HealthSnapshot snapshot, boolean stale) {
+        Map<String, Object> probe = new HashMap<>();
+        probe.put("lastProbeTime", snapshot.getProbeTime());
+        probe.put("latencyMillis", snapshot.getLatencyMillis());
+        probe.put("stale", stale);
+        probe.put("consecutiveFailures", snapshot.getConsecutiveFailures());
+        if (snapshot.getLastSuccessTime() != null) {
+            probe.put("lastSuccessTime", snapshot.getLastSuccessTime());
+        }
+        if (snapshot.getLastError() != null) {
+            probe.put("lastError", snapshot.getLastError());
+        }
+        return probe;
+    }
+
+    /**
+     * 构建元数据缓存统计信息
+     * 
+     * @return 缓存条目数及命中、未命中、淘汰计数
+     */
+    private Map<String, Object> buildMetadataCacheStats() {
+        CacheStats stats = metadataCache.stats();
+        Map<String, Object> cacheStats = new HashMap<>();
+        cacheStats.put("enabled", metadataCache.isEnabled());
+        cacheStats.put("size", metadataCache.estimatedSize());
+        cacheStats.put("hitCount", stats.hitCount());
+        cacheStats.put("missCount", stats.missCount());
+        cacheStats.put("hitRate", stats.hitRate());
+        cacheStats.put("evictionCount", stats.evictionCount());
+        cacheStats.put("loadFailureCount", stats.loadFailureCount());
+        return cacheStats;
+    }
+
+    /**
+     * 构建连接池状态信息
+     * 
+     * @return 以客户端标识（sync/async）为键的连接池状态
+     */
+    private Map<String, Object> buildConnectionPoolStats() {
+        Map<String, Object> pools = new HashMap<>();
+        poolMetrics.getPools().forEach((client, stats) -> {
+            Map<String, Object> pool = new HashMap<>();
+            pool.put("transport", stats.getTransport());
+            pool.put("maxConnections", stats.getMax());
+            pool.put("leased", stats.getLeased());
+            pool.put("pending", stats.getPending());
+            pool.put("available", stats.getAvailable());
+            if (stats.getSampledAt() != null) {
+                pool.put("sampledAt", stats.getSampledAt());
+            }
+            pools.put(client, pool);
+        });
+        return pools;
+    }
+
+    /**
+     * 构建文件列表错误响应
+     * 
+     * @param e 异常
+     * @return 错误响应
+     */
+    private Map<String, Object> buildListErrorResponse(Throwable e) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", "获取文件列表失败: " + e.getMessage());
+        errorResponse.put("errorCode", "LIST_EXCEPTION");
+        return errorResponse;
+    }
+
+    /**
+     * 从查询参数和请求头中解析流式上传的元数据
+     * 
+     * @param request HTTP请求
+     * @param defaultFileName 默认文件名（例如multipart文件部分的原始文件名）
+     * @param defaultContentType 默认内容类型（例如multipart文件部分的内容类型）
+     * @param contentLength 内容长度，未知时为-1
+     * @return 流式上传请求对象
+     */
+    private S3StreamUploadRequest buildStreamUploadRequest(HttpServletRequest request, String defaultFileName,
+                                                           String defaultContentType, long contentLength) {
+        S3StreamUploadRequest uploadRequest = new S3StreamUploadRequest();
+        
+        String fileName = resolveParameter(request, "fileName", "X-File-Name");
+        uploadRequest.setFileName(fileName != null ? fileName : defaultFileName);
+        uploadRequest.setPathPrefix(resolveParameter(request, "pathPrefix", "X-Path-Prefix"));
+        
+        String contentType = resolveParameter(request, "contentType", "X-File-Content-Type");
+        uploadRequest.setContentType(contentType != null ? contentType : defaultContentType);
+        
+        uploadRequest.setOverwrite(Boolean.parseBoolean(resolveParameter(request, "overwrite", "X-Overwrite")));
+        uploadRequest.setContentLength(contentLength);
+        return uploadRequest;
+    }
+
+    /**
+     * 读取参数值，查询参数优先，其次为请求头（请求头中的值按URL编码解码）
+     * 
+     * @param request HTTP请求
+     * @param paramName 查询参数名
+     * @param headerName 请求头名
+     * @return 参数值，未提供时返回null
+     */
+    private String resolveParameter(HttpServletRequest request, String paramName, String headerName) {
+        String value = request.getParameter(paramName);
+        if (value != null && !value.trim().isEmpty()) {
+            return value;
+        }
+        
+        value = request.getHeader(headerName);
+        if (value != null && !value.trim().isEmpty()) {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        }
+        return null;
     }
 
     /**
@@ -266,12 +1596,28 @@ public class S3Controller {
         
         return switch (errorCode) {
             case "CONFIGURATION_ERROR" -> HttpStatus.SERVICE_UNAVAILABLE;
+            case "ASYNC_DISABLED" -> HttpStatus.SERVICE_UNAVAILABLE;
+            case "WRITE_BEHIND_DISABLED" -> HttpStatus.SERVICE_UNAVAILABLE;
+            case "DEDUP_DISABLED" -> HttpStatus.SERVICE_UNAVAILABLE;
+            case "SPOOL_QUOTA_EXCEEDED" -> HttpStatus.INSUFFICIENT_STORAGE;
+            case "HEALTH_STALE" -> HttpStatus.SERVICE_UNAVAILABLE;
             case "INVALID_FILE_CONTENT" -> HttpStatus.BAD_REQUEST;
+            case "INVALID_REQUEST_BODY" -> HttpStatus.BAD_REQUEST;
+            case "VALIDATION_ERROR" -> HttpStatus.BAD_REQUEST;
             case "FILE_ALREADY_EXISTS" -> HttpStatus.CONFLICT;
+            case "UPLOAD_MISMATCH" -> HttpStatus.CONFLICT;
+            case "OFFSET_MISMATCH", "UPLOAD_IN_PROGRESS" -> HttpStatus.CONFLICT;
+            case "LENGTH_REQUIRED" -> HttpStatus.LENGTH_REQUIRED;
+            case "BATCH_TOO_LARGE" -> HttpStatus.PAYLOAD_TOO_LARGE;
+            case "UPLOAD_THROTTLED" -> HttpStatus.TOO_MANY_REQUESTS;
+            case "RATE_LIMITED" -> HttpStatus.TOO_MANY_REQUESTS;
             case "FILE_NOT_FOUND" -> HttpStatus.NOT_FOUND;
+            case "UPLOAD_SESSION_NOT_FOUND" -> HttpStatus.NOT_FOUND;
+            case "TASK_NOT_FOUND" -> HttpStatus.NOT_FOUND;
             case "BUCKET_NOT_FOUND" -> HttpStatus.NOT_FOUND;
             case "AccessDenied" -> HttpStatus.FORBIDDEN;
             case "InvalidBucketName" -> HttpStatus.BAD_REQUEST;
+            case "InvalidPart", "InvalidPartOrder", "EntityTooSmall" -> HttpStatus.BAD_REQUEST;
             case "NoSuchBucket" -> HttpStatus.NOT_FOUND;
             default -> HttpStatus.INTERNAL_SERVER_ERROR;
         };
@@ -302,6 +1648,42 @@ public class S3Controller {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
     }
 
+    /**
+     * 租户限流异常处理器
+     * 
+     * 请求在进入控制器之前被 {@link S3RateLimitInterceptor} 限流时返回429和Retry-After。
+     * 
+     * @param ex 限流异常
+     * @return ResponseEntity<S3UploadResponse> 错误响应
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<S3UploadResponse> handleRateLimitExceeded(RateLimitExceededException ex) {
+        log.warn("请求被限流: {}", ex.getMessage());
+        
+        S3UploadResponse errorResponse = S3UploadResponse.failure(ex.getMessage(), "RATE_LIMITED");
+        return ResponseEntity.status(determineHttpStatus(errorResponse.getErrorCode()))
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+
+    /**
+     * 上传准入控制异常处理器
+     * 
+     * 上传请求在读取请求体之前被 {@link S3UploadAdmissionInterceptor} 拒绝时返回429和Retry-After。
+     * 
+     * @param ex 准入控制异常
+     * @return ResponseEntity<S3UploadResponse> 错误响应
+     */
+    @ExceptionHandler(UploadThrottledException.class)
+    public ResponseEntity<S3UploadResponse> handleUploadThrottled(UploadThrottledException ex) {
+        log.warn("上传请求被准入控制拒绝: {}", ex.getMessage());
+        
+        S3UploadResponse errorResponse = S3UploadResponse.failure(ex.getMessage(), "UPLOAD_THROTTLED");
+        return ResponseEntity.status(determineHttpStatus(errorResponse.getErrorCode()))
+            .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+            .body(errorResponse);
+    }
+
     /**
      * 全局异常处理器 - 处理其他异常
      * 
@@ -0,0 +1,29 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * S3批量删除请求DTO
+ * 
+ * 用于按键列表或按前缀批量删除文件，keys和prefix必须且只能提供其中一个
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3BatchDeleteRequest {
+
+    /**
+     * 要删除的文件键列表（可选）
+     * 例如：["images/a.jpg", "images/b.jpg"]
+     */
+    private List<String> keys;
+
+    /**
+     * 要删除的文件键前缀（可选）
+     * 前缀下的所有文件都会被删除，例如：uploads/2024/01/01/
+     */
+    private String prefix;
+}
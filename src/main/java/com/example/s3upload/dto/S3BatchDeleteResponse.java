@@ -0,0 +1,114 @@
+package com.example.s3upload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * S3批量删除响应DTO
+ * 
+ * 用于封装批量删除的汇总计数和删除失败的文件键
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3BatchDeleteResponse {
+
+    /**
+     * 是否所有文件都删除成功
+     */
+    private boolean success;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * 删除的前缀（仅按前缀删除时返回）
+     */
+    private String prefix;
+
+    /**
+     * 成功删除的文件数
+     */
+    private Long deletedCount;
+
+    /**
+     * 删除失败的文件数
+     */
+    private Long failedCount;
+
+    /**
+     * 发送的DeleteObjects请求数
+     */
+    private Integer batchCount;
+
+    /**
+     * 删除失败的文件键及原因（最多返回 aws.s3.bulk-delete.max-reported-errors 条）
+     */
+    private List<KeyError> errors;
+
+    /**
+     * 批量删除总耗时（毫秒）
+     */
+    private Long durationMillis;
+
+    /**
+     * 删除时间
+     */
+    private LocalDateTime deleteTime;
+
+    /**
+     * 错误代码（如果批量删除未能执行或被中断）
+     */
+    private String errorCode;
+
+    /**
+     * 创建失败响应的静态方法（整个批量删除未能执行）
+     * 
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     * @return 失败响应对象
+     */
+    public static S3BatchDeleteResponse failure(String message, String errorCode) {
+        return S3BatchDeleteResponse.builder()
+            .success(false)
+            .message(message)
+            .errorCode(errorCode)
+            .deleteTime(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * 单个文件键的删除错误
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class KeyError {
+
+        /**
+         * 文件键
+         */
+        private String key;
+
+        /**
+         * S3错误代码
+         */
+        private String errorCode;
+
+        /**
+         * 错误消息
+         */
+        private String message;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * S3批量上传请求DTO
+ * 
+ * 用于在一次请求中上传多个文件，每个文件的参数与单文件上传请求相同
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3BatchUploadRequest {
+
+    /**
+     * 待上传的文件列表
+     * 必填字段，文件数量不能超过 aws.s3.batch.max-files
+     */
+    @NotEmpty(message = "文件列表不能为空")
+    private List<@Valid S3UploadRequest> files;
+}
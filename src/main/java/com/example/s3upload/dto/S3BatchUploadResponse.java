@@ -0,0 +1,109 @@
+package com.example.s3upload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * S3批量上传响应DTO
+ * 
+ * 用于封装批量上传的汇总信息和每个文件的上传结果
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3BatchUploadResponse {
+
+    /**
+     * 是否所有文件都上传成功
+     */
+    private boolean success;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * 文件总数
+     */
+    private Integer totalCount;
+
+    /**
+     * 上传成功的文件数
+     */
+    private Integer successCount;
+
+    /**
+     * 上传失败的文件数
+     */
+    private Integer failureCount;
+
+    /**
+     * 每个文件的上传结果，顺序与请求中的文件顺序一致
+     */
+    private List<S3UploadResponse> results;
+
+    /**
+     * 批量上传总耗时（毫秒）
+     */
+    private Long durationMillis;
+
+    /**
+     * 上传时间
+     */
+    private LocalDateTime uploadTime;
+
+    /**
+     * 错误代码（如果整个批次未能执行）
+     */
+    private String errorCode;
+
+    /**
+     * 根据每个文件的上传结果创建汇总响应
+     * 
+     * @param results 每个文件的上传结果
+     * @param durationMillis 总耗时（毫秒）
+     * @return 批量上传响应对象
+     */
+    public static S3BatchUploadResponse of(List<S3UploadResponse> results, long durationMillis) {
+        int successCount = (int) results.stream().filter(S3UploadResponse::isSuccess).count();
+        int failureCount = results.size() - successCount;
+        return S3BatchUploadResponse.builder()
+            .success(failureCount == 0)
+            .message(failureCount == 0
+                ? "批量上传成功"
+                : String.format("批量上传完成，%d 个文件上传失败", failureCount))
+            .totalCount(results.size())
+            .successCount(successCount)
+            .failureCount(failureCount)
+            .results(results)
+            .durationMillis(durationMillis)
+            .uploadTime(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * 创建失败响应的静态方法（整个批次未能执行）
+     * 
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     * @return 失败响应对象
+     */
+    public static S3BatchUploadResponse failure(String message, String errorCode) {
+        return S3BatchUploadResponse.builder()
+            .success(false)
+            .message(message)
+            .errorCode(errorCode)
+            .uploadTime(LocalDateTime.now())
+            .build();
+    }
+}
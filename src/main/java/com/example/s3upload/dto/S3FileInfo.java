@@ -0,0 +1,67 @@
+package com.example.s3upload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.Instant;
+
+/**
+ * S3文件信息DTO
+ * 
+ * 用于文件列表接口中单个文件的序列化表示
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3FileInfo {
+
+    /**
+     * 文件在S3中的键
+     */
+    private String key;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long size;
+
+    /**
+     * 最后修改时间
+     */
+    private Instant lastModified;
+
+    /**
+     * 文件的ETag
+     */
+    @JsonProperty("eTag")
+    private String eTag;
+
+    /**
+     * 存储类别
+     */
+    private String storageClass;
+
+    /**
+     * 从S3对象创建文件信息
+     * 
+     * @param s3Object S3对象
+     * @return 文件信息
+     */
+    public static S3FileInfo from(S3Object s3Object) {
+        return S3FileInfo.builder()
+            .key(s3Object.key())
+            .size(s3Object.size())
+            .lastModified(s3Object.lastModified())
+            .eTag(s3Object.eTag())
+            .storageClass(s3Object.storageClassAsString())
+            .build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.s3upload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * S3预签名分段上传完成请求DTO
+ *
+ * 包含客户端上传的全部分段及S3在每个UploadPart响应中返回的ETag，
+ * 服务端据此调用CompleteMultipartUpload合并分段
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3MultipartCompleteRequest {
+
+    /**
+     * 已上传的分段列表，顺序不限
+     */
+    @NotEmpty(message = "分段列表不能为空")
+    private List<@Valid Part> parts;
+
+    /**
+     * 已上传的分段
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Part {
+
+        /**
+         * 分段编号
+         */
+        @Min(value = 1, message = "分段编号不能小于1")
+        @Max(value = 10_000, message = "分段编号不能大于10000")
+        private int partNumber;
+
+        /**
+         * UploadPart响应中的ETag
+         */
+        @NotBlank(message = "分段ETag不能为空")
+        @JsonProperty("eTag")
+        private String eTag;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * S3预签名分段上传URL请求DTO
+ *
+ * 用于为分段上传会话申请一批分段的预签名UploadPart URL，
+ * 单次最多 aws.s3.presign.max-part-urls 个分段
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3MultipartPartsRequest {
+
+    /**
+     * 分段编号列表，取值范围1~10000
+     */
+    @NotEmpty(message = "分段编号列表不能为空")
+    private List<@Min(value = 1, message = "分段编号不能小于1")
+                 @Max(value = 10_000, message = "分段编号不能大于10000") Integer> partNumbers;
+}
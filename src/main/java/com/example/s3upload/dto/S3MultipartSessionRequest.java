@@ -0,0 +1,51 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * S3预签名分段上传会话请求DTO
+ *
+ * 用于创建预签名分段上传会话。服务端发起分段上传后，客户端按返回的分段大小切分文件，
+ * 使用预签名UploadPart URL并行上传各分段，文件内容不经过本服务。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3MultipartSessionRequest {
+
+    /**
+     * 文件名称
+     * 必填字段，包含文件扩展名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    /**
+     * 文件在S3中的路径前缀（可选）
+     * 如果不提供，将使用默认路径
+     */
+    private String pathPrefix;
+
+    /**
+     * 文件内容类型（MIME类型）
+     * 可选字段，如果不提供将根据文件扩展名自动推断
+     */
+    private String contentType;
+
+    /**
+     * 是否覆盖已存在的文件
+     * 默认为false，如果文件已存在将返回错误
+     */
+    private boolean overwrite = false;
+
+    /**
+     * 文件大小（字节，可选）
+     * 提供时服务端计算分段数，并在响应中直接返回第一批分段上传URL
+     */
+    @PositiveOrZero(message = "文件大小不能为负数")
+    private Long contentLength;
+}
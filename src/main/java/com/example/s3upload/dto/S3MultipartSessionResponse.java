@@ -0,0 +1,131 @@
+package com.example.s3upload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * S3预签名分段上传会话响应DTO
+ *
+ * 创建会话和申请分段上传URL时返回。客户端对每个分段向对应的URL发送PUT请求，
+ * 记录响应中的ETag，全部分段完成后调用完成接口。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3MultipartSessionResponse {
+
+    /**
+     * 操作是否成功
+     */
+    private boolean success;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * S3分段上传ID，后续请求以此标识会话
+     */
+    private String uploadId;
+
+    /**
+     * 文件在S3中的完整键（路径）
+     */
+    private String s3Key;
+
+    /**
+     * 分段大小（字节），除最后一段外每段必须恰好为此大小
+     */
+    private Long partSize;
+
+    /**
+     * 分段总数（仅创建会话时提供了文件大小才返回）
+     */
+    private Integer partCount;
+
+    /**
+     * 单次请求最多可申请的分段上传URL数
+     */
+    private Integer maxPartUrls;
+
+    /**
+     * 预签名分段上传URL列表
+     */
+    private List<PresignedPart> parts;
+
+    /**
+     * 会话过期时间，过期后未完成的上传会被中止
+     */
+    private Instant sessionExpiresAt;
+
+    /**
+     * 文件内容类型
+     */
+    private String contentType;
+
+    /**
+     * 存储桶名称
+     */
+    private String bucketName;
+
+    /**
+     * 错误代码（如果操作失败）
+     */
+    private String errorCode;
+
+    /**
+     * 响应时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 创建失败响应的静态方法
+     *
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     * @return 失败响应对象
+     */
+    public static S3MultipartSessionResponse failure(String message, String errorCode) {
+        return S3MultipartSessionResponse.builder()
+            .success(false)
+            .message(message)
+            .errorCode(errorCode)
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * 单个分段的预签名上传URL
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PresignedPart {
+
+        /**
+         * 分段编号
+         */
+        private int partNumber;
+
+        /**
+         * 预签名UploadPart URL（PUT）
+         */
+        private String url;
+
+        /**
+         * URL过期时间
+         */
+        private Instant expiresAt;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.s3upload.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * S3预签名上传完成请求DTO
+ *
+ * 客户端通过预签名URL上传完成后调用，由服务端向S3确认对象已写入并记录上传结果
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3PresignedUploadCompleteRequest {
+
+    /**
+     * 文件在S3中的键，取自预签名上传响应
+     */
+    @NotBlank(message = "S3文件键不能为空")
+    private String s3Key;
+
+    /**
+     * 客户端实际上传的文件大小（字节，可选）
+     * 提供时与S3中对象的大小进行比对
+     */
+    @PositiveOrZero(message = "文件大小不能为负数")
+    private Long contentLength;
+
+    /**
+     * S3上传响应中的ETag（可选）
+     * 提供时与S3中对象的ETag进行比对
+     */
+    @JsonProperty("eTag")
+    private String eTag;
+}
@@ -0,0 +1,51 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * S3预签名上传请求DTO
+ *
+ * 用于申请直接上传到S3的预签名PUT URL。请求中只包含文件元数据，
+ * 文件内容由客户端直接发送给S3，不经过本服务。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3PresignedUploadRequest {
+
+    /**
+     * 文件名称
+     * 必填字段，包含文件扩展名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    /**
+     * 文件在S3中的路径前缀（可选）
+     * 如果不提供，将使用默认路径
+     */
+    private String pathPrefix;
+
+    /**
+     * 文件内容类型（MIME类型）
+     * 可选字段，如果不提供将根据文件扩展名自动推断；上传时必须使用响应中返回的内容类型
+     */
+    private String contentType;
+
+    /**
+     * 是否覆盖已存在的文件
+     * 默认为false，如果文件已存在将返回错误
+     */
+    private boolean overwrite = false;
+
+    /**
+     * 文件大小（字节，可选）
+     * 提供时会被签入URL，S3只接受与此大小一致的上传
+     */
+    @PositiveOrZero(message = "文件大小不能为负数")
+    private Long contentLength;
+}
@@ -0,0 +1,102 @@
+package com.example.s3upload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * S3预签名上传响应DTO
+ *
+ * 客户端使用 method 和 uploadUrl，并带上 headers 中的全部请求头，直接把文件内容发送给S3；
+ * 上传完成后以 s3Key 调用完成接口。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3PresignedUploadResponse {
+
+    /**
+     * 操作是否成功
+     */
+    private boolean success;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * 文件在S3中的完整键（路径）
+     */
+    private String s3Key;
+
+    /**
+     * 预签名上传URL
+     */
+    private String uploadUrl;
+
+    /**
+     * 上传使用的HTTP方法
+     */
+    private String method;
+
+    /**
+     * 上传时必须携带的请求头（已签入URL，值必须完全一致）
+     */
+    private Map<String, String> headers;
+
+    /**
+     * 预签名URL的过期时间
+     */
+    private Instant expiresAt;
+
+    /**
+     * 上传完成后文件的访问URL
+     */
+    private String fileUrl;
+
+    /**
+     * 文件内容类型
+     */
+    private String contentType;
+
+    /**
+     * 存储桶名称
+     */
+    private String bucketName;
+
+    /**
+     * 错误代码（如果操作失败）
+     */
+    private String errorCode;
+
+    /**
+     * 响应时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 创建失败响应的静态方法
+     *
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     * @return 失败响应对象
+     */
+    public static S3PresignedUploadResponse failure(String message, String errorCode) {
+        return S3PresignedUploadResponse.builder()
+            .success(false)
+            .message(message)
+            .errorCode(errorCode)
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * S3断点续传会话请求DTO
+ *
+ * 用于创建断点续传会话。客户端随后按分块大小依次PATCH文件内容，
+ * 连接中断后查询已提交的偏移量，从该位置继续上传。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3ResumableUploadRequest {
+
+    /**
+     * 文件名称
+     * 必填字段，包含文件扩展名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    /**
+     * 文件在S3中的路径前缀（可选）
+     * 如果不提供，将使用默认路径
+     */
+    private String pathPrefix;
+
+    /**
+     * 文件内容类型（MIME类型）
+     * 可选字段，如果不提供将根据文件扩展名自动推断
+     */
+    private String contentType;
+
+    /**
+     * 是否覆盖已存在的文件
+     * 默认为false，如果文件已存在将返回错误
+     */
+    private boolean overwrite = false;
+
+    /**
+     * 文件大小（字节）
+     * 必填字段，服务端据此计算分块数并在最后一个分块提交后完成上传
+     */
+    @NotNull(message = "文件大小不能为空")
+    @Positive(message = "文件大小必须大于0")
+    private Long contentLength;
+}
@@ -0,0 +1,111 @@
+package com.example.s3upload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * S3断点续传响应DTO
+ *
+ * 创建会话、查询进度、提交分块和中止会话时返回。offset 为服务端已持久化的字节数，
+ * 客户端总是从该位置继续上传；最后一个分块提交后 completed 为true，并返回文件访问URL。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3ResumableUploadResponse {
+
+    /**
+     * 操作是否成功
+     */
+    private boolean success;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * 断点续传会话ID，后续请求以此标识会话
+     */
+    private String sessionId;
+
+    /**
+     * 文件在S3中的完整键（路径）
+     */
+    private String s3Key;
+
+    /**
+     * 已提交的字节数，下一个分块必须从此偏移量开始
+     */
+    private Long offset;
+
+    /**
+     * 文件总大小（字节）
+     */
+    private Long contentLength;
+
+    /**
+     * 分块大小（字节），除最后一块外每块必须恰好为此大小
+     */
+    private Long chunkSize;
+
+    /**
+     * 上传是否已完成
+     */
+    private boolean completed;
+
+    /**
+     * 文件访问URL（上传完成后返回）
+     */
+    private String fileUrl;
+
+    /**
+     * 文件内容类型
+     */
+    private String contentType;
+
+    /**
+     * 存储桶名称
+     */
+    private String bucketName;
+
+    /**
+     * 会话过期时间，过期后未完成的上传会被中止
+     */
+    private Instant expiresAt;
+
+    /**
+     * 错误代码（如果操作失败）
+     */
+    private String errorCode;
+
+    /**
+     * 响应时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 创建失败响应的静态方法
+     *
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     * @return 失败响应对象
+     */
+    public static S3ResumableUploadResponse failure(String message, String errorCode) {
+        return S3ResumableUploadResponse.builder()
+            .success(false)
+            .message(message)
+            .errorCode(errorCode)
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.s3upload.dto;
+
+import lombok.Data;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * S3流式上传请求DTO
+ *
+ * 用于封装流式上传（application/octet-stream 或 multipart/form-data）的元数据。
+ * 与 {@link S3UploadRequest} 不同，文件内容不在此对象中，而是直接以输入流的形式传递给服务层，
+ * 因此无论文件多大，单次上传占用的堆内存都是恒定的。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+public class S3StreamUploadRequest {
+
+    /**
+     * 文件名称
+     * 必填字段，包含文件扩展名
+     */
+    @NotBlank(message = "文件名不能为空")
+    private String fileName;
+
+    /**
+     * 文件在S3中的路径前缀（可选）
+     * 如果不提供，将使用默认路径
+     */
+    private String pathPrefix;
+
+    /**
+     * 文件内容类型（MIME类型）
+     * 可选字段，如果不提供将根据文件扩展名自动推断
+     */
+    private String contentType;
+
+    /**
+     * 是否覆盖已存在的文件
+     * 默认为false，如果文件已存在将返回错误
+     */
+    private boolean overwrite = false;
+
+    /**
+     * 文件内容长度（字节）
+     * 未知时为-1（例如使用分块传输编码的请求）
+     */
+    private long contentLength = -1;
+}
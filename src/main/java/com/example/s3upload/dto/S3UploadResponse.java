@@ -66,6 +66,46 @@ public class S3UploadResponse {
      */
     private String errorCode;
 
+    /**
+     * 分段数量（仅分段上传时返回）
+     */
+    private Integer partCount;
+
+    /**
+     * 上传到S3的有效吞吐量（字节/秒）
+     */
+    private Long throughputBytesPerSecond;
+
+    /**
+     * 上传时使用的校验和算法（CRC32、CRC32C、SHA1、SHA256，未启用时不返回）
+     */
+    private String checksumAlgorithm;
+
+    /**
+     * S3校验通过的校验和（Base64），分段上传时为各分段校验和的组合值，形如 xxx-分段数
+     */
+    private String checksum;
+
+    /**
+     * 保存时使用的压缩编码（gzip、zstd，仅压缩上传时返回）
+     */
+    private String contentEncoding;
+
+    /**
+     * S3中实际保存的字节数（仅压缩上传时返回，fileSize为原始大小）
+     */
+    private Long storedSize;
+
+    /**
+     * 原始文件名（仅批量上传的单文件结果中返回，便于对应请求中的文件）
+     */
+    private String fileName;
+
+    /**
+     * 是否因内容去重而没有重新上传（仅启用内容去重且命中时返回）
+     */
+    private Boolean deduplicated;
+
     /**
      * 创建成功响应的静态方法
      * 
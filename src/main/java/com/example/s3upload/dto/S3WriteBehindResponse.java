@@ -0,0 +1,116 @@
+package com.example.s3upload.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * S3写回上传响应DTO
+ *
+ * 写回模式接收上传和查询上传状态时返回。status 为 PENDING（等待上传或等待重试）、
+ * UPLOADED（已上传到S3）或 FAILED（重试用尽或遇到不可重试的错误）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class S3WriteBehindResponse {
+
+    /**
+     * 操作是否成功
+     */
+    private boolean success;
+
+    /**
+     * 响应消息
+     */
+    private String message;
+
+    /**
+     * 任务ID，用于查询上传状态
+     */
+    private String trackingId;
+
+    /**
+     * 上传状态
+     */
+    private String status;
+
+    /**
+     * 文件在S3中的完整键（路径），接收上传时即已确定
+     */
+    private String s3Key;
+
+    /**
+     * 文件访问URL
+     */
+    private String fileUrl;
+
+    /**
+     * 文件大小（字节）
+     */
+    private Long fileSize;
+
+    /**
+     * 文件内容类型
+     */
+    private String contentType;
+
+    /**
+     * 存储桶名称
+     */
+    private String bucketName;
+
+    /**
+     * 已尝试上传的次数
+     */
+    private Integer attempts;
+
+    /**
+     * 最近一次上传失败的原因
+     */
+    private String lastError;
+
+    /**
+     * 接收上传的时间
+     */
+    private Instant acceptedAt;
+
+    /**
+     * 最近一次状态变化的时间
+     */
+    private Instant updatedAt;
+
+    /**
+     * 错误代码（如果操作失败，或上传最终失败时为最近一次的错误代码）
+     */
+    private String errorCode;
+
+    /**
+     * 响应时间
+     */
+    private LocalDateTime createTime;
+
+    /**
+     * 创建失败响应的静态方法
+     *
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     * @return 失败响应对象
+     */
+    public static S3WriteBehindResponse failure(String message, String errorCode) {
+        return S3WriteBehindResponse.builder()
+            .success(false)
+            .message(message)
+            .errorCode(errorCode)
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+}
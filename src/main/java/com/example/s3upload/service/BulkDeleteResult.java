@@ -0,0 +1,51 @@
+package com.example.s3upload.service;
+
+import lombok.Builder;
+import lombok.Data;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.model.S3Error;
+
+import java.util.List;
+
+/**
+ * S3批量删除结果
+ * 
+ * 由 {@link S3BulkDeleter} 返回，描述一次批量删除的汇总情况。
+ * 
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+public class BulkDeleteResult {
+
+    /**
+     * 成功删除的文件数
+     */
+    private long deletedCount;
+
+    /**
+     * 删除失败的文件数
+     */
+    private long failedCount;
+
+    /**
+     * 发送的DeleteObjects请求数
+     */
+    private int batchCount;
+
+    /**
+     * 删除失败的文件键及原因（数量受配置上限限制）
+     */
+    private List<S3Error> errors;
+
+    /**
+     * 遍历待删除的文件键（例如分页列出前缀下的文件）时发生的错误，正常完成时为null
+     */
+    private SdkException listingError;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private long durationMillis;
+}
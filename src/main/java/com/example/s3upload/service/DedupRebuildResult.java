@@ -0,0 +1,37 @@
+package com.example.s3upload.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 内容去重索引重建结果
+ *
+ * 由 {@link S3ContentDeduplicator#rebuild(String)} 返回。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+public class DedupRebuildResult {
+
+    /**
+     * 扫描的对象数
+     */
+    private long scannedCount;
+
+    /**
+     * 带有内容哈希元数据、加入索引的对象数
+     */
+    private long indexedCount;
+
+    /**
+     * 重建后索引中的条目数
+     */
+    private long indexSize;
+
+    /**
+     * 重建耗时（毫秒）
+     */
+    private long durationMillis;
+}
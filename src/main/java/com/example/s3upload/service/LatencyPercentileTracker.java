@@ -0,0 +1,78 @@
+package com.example.s3upload.service;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 在线统计最近请求耗时的分位数
+ *
+ * 最近 windowSize 个耗时保存在环形数组中，记录只需要一次原子自增和一次写入，不加锁。
+ * 分位数每记录约 windowSize/10 个样本由记录线程重新计算一次（复制并排序窗口），
+ * 其余时间读取的是上次计算的结果，读取没有开销。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+final class LatencyPercentileTracker {
+
+    private final double percentile;
+    private final int minSamples;
+    private final int recomputeInterval;
+    private final AtomicLongArray window;
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * 最近一次计算的分位数（纳秒），样本不足时为-1
+     */
+    private volatile long percentileNanos = -1;
+
+    /**
+     * 创建统计器
+     *
+     * @param percentile 分位数（0到1之间，例如0.95）
+     * @param windowSize 保留的最近样本数，至少为1
+     * @param minSamples 开始给出分位数前至少需要的样本数
+     */
+    LatencyPercentileTracker(double percentile, int windowSize, int minSamples) {
+        this.percentile = Math.min(Math.max(percentile, 0), 1);
+        this.window = new AtomicLongArray(Math.max(windowSize, 1));
+        this.minSamples = Math.min(Math.max(minSamples, 1), window.length());
+        this.recomputeInterval = Math.max(window.length() / 10, 1);
+    }
+
+    /**
+     * 记录一次请求耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    void record(long nanos) {
+        long index = count.getAndIncrement();
+        window.set((int) (index % window.length()), nanos);
+        long samples = index + 1;
+        if (samples == minSamples || (samples > minSamples && samples % recomputeInterval == 0)) {
+            recompute(samples);
+        }
+    }
+
+    /**
+     * 最近一次计算的分位数
+     *
+     * @return 分位数（纳秒），样本数不足时为-1
+     */
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private void recompute(long samples) {
+        int size = (int) Math.min(samples, window.length());
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = window.get(i);
+        }
+        Arrays.sort(values);
+        // 最近秩法：第 ceil(p*n) 个值
+        int rank = (int) Math.ceil(percentile * size);
+        percentileNanos = values[Math.min(Math.max(rank - 1, 0), size - 1)];
+    }
+}
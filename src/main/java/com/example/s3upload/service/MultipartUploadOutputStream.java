@@ -0,0 +1,445 @@
+package com.example.s3upload.service;
+
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * 分段上传输出流
+ *
+ * 写入的字节按分段大小缓存，缓存满后作为一个分段提交到线程池并发上传。
+ * 在累计数据超过阈值之前不会创建分段上传：如果流在阈值以内关闭，则改为单次PUT上传，
+ * 因此也适用于预先不知道内容长度的流。
+ *
+ * 内存占用是有界的：同时在途的分段数受并发数限制，写入方在没有空闲名额时会阻塞。
+ * 单个分段失败后会单独重试；最终失败时会中止分段上传，不会在存储桶中留下孤立的分段。
+ * 指定校验和算法时，每个分段（以及阈值以内的单次PUT）都带上S3灵活校验和，
+ * 由SDK在发送分段时增量计算，分段的校验和在完成分段上传时一并提交。
+ * 每个S3请求（包括分段的每次重试）都通过 {@link S3OperationMetrics} 记录耗时和结果。
+ *
+ * 使用方式：写入全部数据后调用 {@link #close()} 完成上传，
+ * 出现异常时调用 {@link #abort()} 放弃上传（不要依赖try-with-resources，否则异常时也会提交上传）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+public class MultipartUploadOutputStream extends OutputStream {
+
+    private final S3Client s3Client;
+    private final S3OperationMetrics metrics;
+    private final Executor executor;
+    private final PutObjectRequest putObjectRequest;
+    private final int partSize;
+    private final long threshold;
+    private final int maxPartRetries;
+    private final long retryBackoffMillis;
+    private final Semaphore inFlightParts;
+    private final ChecksumAlgorithm checksumAlgorithm;
+
+    /**
+     * 创建分段上传之前暂存的已满缓冲区
+     */
+    private final List<byte[]> pendingBuffers = new ArrayList<>();
+
+    /**
+     * 已提交的分段上传任务
+     */
+    private final List<CompletableFuture<CompletedPart>> partFutures = new ArrayList<>();
+
+    private final long startNanos = System.nanoTime();
+
+    private byte[] buffer;
+    private int position;
+    private long totalBytes;
+    private String uploadId;
+    private int nextPartNumber = 1;
+    private boolean closed;
+    private UploadResult result;
+
+    /**
+     * 第一个失败分段的异常，由上传线程写入，由写入线程读取
+     */
+    private volatile Throwable failure;
+
+    /**
+     * 创建分段上传输出流
+     *
+     * @param s3Client S3客户端
+     * @param metrics S3操作指标
+     * @param executor 执行分段上传的线程池
+     * @param putObjectRequest 目标对象的请求模板（存储桶、键、内容类型、元数据等），contentLength将被忽略
+     * @param partSize 分段大小（字节）
+     * @param threshold 启用分段上传的阈值（字节）
+     * @param concurrency 同时在途的最大分段数
+     * @param maxPartRetries 单个分段的最大重试次数
+     * @param retryBackoffMillis 分段重试的初始退避时间（毫秒）
+     * @param checksumAlgorithm 校验和算法，为null时不发送校验和
+     */
+    public MultipartUploadOutputStream(S3Client s3Client, S3OperationMetrics metrics, Executor executor,
+                                       PutObjectRequest putObjectRequest,
+                                       int partSize, long threshold, int concurrency,
+                                       int maxPartRetries, long retryBackoffMillis,
+                                       ChecksumAlgorithm checksumAlgorithm) {
+        this.s3Client = s3Client;
+        this.metrics = metrics;
+        this.executor = executor;
+        this.putObjectRequest = putObjectRequest;
+        this.partSize = partSize;
+        this.threshold = threshold;
+        this.maxPartRetries = maxPartRetries;
+        this.retryBackoffMillis = retryBackoffMillis;
+        this.inFlightParts = new Semaphore(Math.max(concurrency, 1));
+        this.checksumAlgorithm = checksumAlgorithm;
+        this.buffer = new byte[partSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        buffer[position++] = (byte) b;
+        totalBytes++;
+        if (position == buffer.length) {
+            onBufferFull();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while (len > 0) {
+            int count = Math.min(len, buffer.length - position);
+            System.arraycopy(b, off, buffer, position, count);
+            position += count;
+            totalBytes += count;
+            off += count;
+            len -= count;
+            if (position == buffer.length) {
+                onBufferFull();
+            }
+        }
+    }
+
+    /**
+     * 完成上传
+     *
+     * 如果尚未创建分段上传，则以单次PUT上传全部数据；
+     * 否则上传最后一个分段，等待所有分段完成后提交分段上传。
+     *
+     * @throws IOException 上传失败时抛出（S3错误以 {@link SdkException} 原样抛出）
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        if (uploadId == null) {
+            putSingleObject();
+            return;
+        }
+
+        try {
+            if (position > 0) {
+                submitPart(buffer, position);
+            }
+            buffer = null;
+
+            List<CompletedPart> completedParts = awaitParts();
+            CompleteMultipartUploadResponse response = metrics.record("completeMultipartUpload",
+                () -> s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(putObjectRequest.bucket())
+                    .key(putObjectRequest.key())
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build()));
+
+            result = buildResult(response.eTag(), completedParts.size(), S3Checksums.of(response, checksumAlgorithm));
+            log.info("分段上传完成: {}, 分段数: {}, 大小: {} 字节, 吞吐量: {} 字节/秒",
+                    putObjectRequest.key(), completedParts.size(), totalBytes, result.getThroughputBytesPerSecond());
+
+        } catch (IOException | RuntimeException e) {
+            abortMultipartUpload();
+            throw e;
+        }
+    }
+
+    /**
+     * 放弃上传
+     *
+     * 等待在途分段结束后中止分段上传，确保不留下孤立的分段。可以重复调用。
+     */
+    public void abort() {
+        if (closed && uploadId == null) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        pendingBuffers.clear();
+        abortMultipartUpload();
+    }
+
+    /**
+     * 获取上传结果，仅在 {@link #close()} 成功返回后可用
+     *
+     * @return 上传结果
+     */
+    public UploadResult getResult() {
+        if (result == null) {
+            throw new IllegalStateException("上传尚未完成");
+        }
+        return result;
+    }
+
+    /**
+     * 处理已写满的缓冲区
+     */
+    private void onBufferFull() throws IOException {
+        byte[] fullBuffer = buffer;
+        buffer = new byte[partSize];
+        position = 0;
+
+        if (uploadId != null) {
+            submitPart(fullBuffer, fullBuffer.length);
+            return;
+        }
+
+        pendingBuffers.add(fullBuffer);
+        if ((long) pendingBuffers.size() * partSize > threshold) {
+            startMultipartUpload();
+            for (byte[] pending : pendingBuffers) {
+                submitPart(pending, pending.length);
+            }
+            pendingBuffers.clear();
+        }
+    }
+
+    /**
+     * 创建分段上传
+     */
+    private void startMultipartUpload() {
+        CreateMultipartUploadResponse response = metrics.record("createMultipartUpload",
+            () -> s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(putObjectRequest.bucket())
+                .key(putObjectRequest.key())
+                .contentType(putObjectRequest.contentType())
+                .contentEncoding(putObjectRequest.contentEncoding())
+                .metadata(putObjectRequest.metadata())
+                .checksumAlgorithm(checksumAlgorithm)
+                .build()));
+        uploadId = response.uploadId();
+        log.debug("创建分段上传: {}, uploadId: {}", putObjectRequest.key(), uploadId);
+    }
+
+    /**
+     * 提交一个分段到线程池上传，在途分段数达到上限时阻塞
+     */
+    private void submitPart(byte[] data, int length) throws IOException {
+        checkFailure();
+        try {
+            inFlightParts.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待分段上传名额时被中断");
+        }
+
+        int partNumber = nextPartNumber++;
+        CompletableFuture<CompletedPart> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> uploadPart(partNumber, data, length), executor);
+        } catch (RuntimeException e) {
+            inFlightParts.release();
+            throw e;
+        }
+        future.whenComplete((part, error) -> {
+            inFlightParts.release();
+            if (error != null && failure == null) {
+                failure = unwrap(error);
+            }
+        });
+        partFutures.add(future);
+    }
+
+    /**
+     * 上传单个分段，失败时按指数退避单独重试
+     */
+    private CompletedPart uploadPart(int partNumber, byte[] data, int length) {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                UploadPartResponse response = metrics.record("uploadPart",
+                    () -> s3Client.uploadPart(UploadPartRequest.builder()
+                            .bucket(putObjectRequest.bucket())
+                            .key(putObjectRequest.key())
+                            .uploadId(uploadId)
+                            .partNumber(partNumber)
+                            .contentLength((long) length)
+                            .checksumAlgorithm(checksumAlgorithm)
+                            .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(data, 0, length), length)));
+
+                log.debug("分段上传成功: {}, 分段号: {}, 大小: {} 字节", putObjectRequest.key(), partNumber, length);
+                return S3Checksums.withChecksum(
+                        CompletedPart.builder().partNumber(partNumber).eTag(response.eTag()),
+                        checksumAlgorithm, S3Checksums.of(response, checksumAlgorithm))
+                    .build();
+
+            } catch (SdkException e) {
+                if (attempt >= maxPartRetries || !isRetryable(e) || failure != null) {
+                    log.error("分段上传失败: {}, 分段号: {}, 已重试 {} 次: {}",
+                             putObjectRequest.key(), partNumber, attempt, e.getMessage());
+                    throw e;
+                }
+                long backoff = (retryBackoffMillis << attempt) + ThreadLocalRandom.current().nextLong(retryBackoffMillis + 1);
+                log.warn("分段上传失败，{} 毫秒后重试: {}, 分段号: {}, 错误: {}",
+                        backoff, putObjectRequest.key(), partNumber, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 等待所有分段上传完成，返回按分段号排序的已完成分段列表
+     */
+    private List<CompletedPart> awaitParts() throws IOException {
+        try {
+            CompletableFuture.allOf(partFutures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            throw rethrow(unwrap(e));
+        }
+        return partFutures.stream()
+            .map(CompletableFuture::join)
+            .sorted(Comparator.comparing(CompletedPart::partNumber))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * 以单次PUT请求上传阈值以内的数据
+     */
+    private void putSingleObject() {
+        List<InputStream> streams = new ArrayList<>();
+        for (byte[] pending : pendingBuffers) {
+            streams.add(new ByteArrayInputStream(pending));
+        }
+        streams.add(new ByteArrayInputStream(buffer, 0, position));
+
+        PutObjectResponse response = metrics.record("putObject", () -> s3Client.putObject(
+            putObjectRequest.toBuilder().contentLength(totalBytes).checksumAlgorithm(checksumAlgorithm).build(),
+            RequestBody.fromInputStream(new SequenceInputStream(Collections.enumeration(streams)), totalBytes)));
+
+        pendingBuffers.clear();
+        buffer = null;
+        result = buildResult(response.eTag(), null, S3Checksums.of(response, checksumAlgorithm));
+        log.debug("单次PUT上传完成: {}, 大小: {} 字节", putObjectRequest.key(), totalBytes);
+    }
+
+    /**
+     * 等待在途分段结束并中止分段上传
+     */
+    private void abortMultipartUpload() {
+        if (uploadId == null) {
+            return;
+        }
+        // 先等待在途分段结束，否则中止之后仍可能有分段写入成功
+        for (CompletableFuture<CompletedPart> future : partFutures) {
+            try {
+                future.join();
+            } catch (CompletionException | CancellationException ignored) {
+                // 分段失败的原因已经记录在failure中
+            }
+        }
+        try {
+            metrics.record("abortMultipartUpload", () -> s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(putObjectRequest.bucket())
+                .key(putObjectRequest.key())
+                .uploadId(uploadId)
+                .build()));
+            log.warn("分段上传已中止: {}, uploadId: {}", putObjectRequest.key(), uploadId);
+        } catch (SdkException e) {
+            log.error("中止分段上传失败，可能留下未完成的分段: {}, uploadId: {}, 错误: {}",
+                     putObjectRequest.key(), uploadId, e.getMessage());
+        }
+        uploadId = null;
+    }
+
+    private UploadResult buildResult(String eTag, Integer partCount, String checksum) {
+        return UploadResult.builder()
+            .eTag(eTag)
+            .contentLength(totalBytes)
+            .partCount(partCount)
+            .checksumAlgorithm(S3Checksums.name(checksumAlgorithm))
+            .checksum(checksum)
+            .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+            .build();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("分段上传输出流已关闭");
+        }
+        checkFailure();
+    }
+
+    private void checkFailure() throws IOException {
+        Throwable error = failure;
+        if (error != null) {
+            throw rethrow(error);
+        }
+    }
+
+    /**
+     * 判断SDK异常是否值得在分段级别重试：客户端异常（网络中断等）和服务端5xx、408、429错误
+     */
+    private static boolean isRetryable(SdkException e) {
+        if (e instanceof S3Exception s3Exception) {
+            int status = s3Exception.statusCode();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        return true;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static IOException rethrow(Throwable error) {
+        if (error instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        if (error instanceof IOException ioException) {
+            return ioException;
+        }
+        return new IOException(error.getMessage(), error);
+    }
+}
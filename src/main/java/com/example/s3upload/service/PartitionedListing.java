@@ -0,0 +1,257 @@
+package com.example.s3upload.service;
+
+import org.springframework.lang.Nullable;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Function;
+
+/**
+ * 跨多个分区前缀的合并列出
+ *
+ * 每个分区（见 {@link S3KeyLayout#partitions(String)}）各自分页列出，首页在S3传输线程池中并行请求，
+ * 之后每收到一页就预取该分区的下一页。各分区内的键已按S3的字典序排列，
+ * 这里按 {@link S3KeyLayout#logicalKey(String)} 做多路归并，结果与未分区时的列出顺序一致。
+ * 内存中最多保存每个分区的一页。
+ *
+ * 继续令牌是最后返回的逻辑键：下次列出时每个分区从该逻辑键在本分区中对应的键之后开始（startAfter）。
+ * 列出失败时SDK异常在迭代时原样抛出。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+final class PartitionedListing implements Iterator<S3Object> {
+
+    private final S3KeyLayout keyLayout;
+    @Nullable
+    private final String prefix;
+    private final ListObjectsV2Request template;
+    private final Function<ListObjectsV2Request, ListObjectsV2Response> listCall;
+    private final ExecutorService executor;
+    private final PriorityQueue<Cursor> ready;
+    private final List<Cursor> unfilled = new ArrayList<>();
+
+    /**
+     * 开始列出，立即并行请求每个分区的首页
+     *
+     * @param keyLayout 上传路径布局
+     * @param prefix 逻辑前缀
+     * @param startAfter 从此逻辑键之后开始（上一页的继续令牌），从头列出时为null
+     * @param template 请求模板（存储桶、每页数量）
+     * @param listCall 发送listObjectsV2请求
+     * @param executor S3传输线程池
+     */
+    PartitionedListing(S3KeyLayout keyLayout, @Nullable String prefix, @Nullable String startAfter,
+                       ListObjectsV2Request template, Function<ListObjectsV2Request, ListObjectsV2Response> listCall,
+                       ExecutorService executor) {
+        this.keyLayout = keyLayout;
+        this.prefix = prefix;
+        this.template = template;
+        this.listCall = listCall;
+        this.executor = executor;
+        this.ready = new PriorityQueue<>(Comparator.comparing((Cursor cursor) -> cursor.headKey));
+        for (S3KeyLayout.Partition partition : keyLayout.partitions(prefix)) {
+            Cursor cursor = new Cursor(partition);
+            cursor.pending = fetch(partition, startAfter == null ? null : partition.toPhysical(startAfter), null);
+            unfilled.add(cursor);
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!unfilled.isEmpty()) {
+            for (Cursor cursor : unfilled) {
+                if (cursor.fill()) {
+                    ready.add(cursor);
+                }
+            }
+            unfilled.clear();
+        }
+        return !ready.isEmpty();
+    }
+
+    @Override
+    public S3Object next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Cursor cursor = ready.poll();
+        S3Object s3Object = cursor.buffer.poll();
+        if (cursor.advance()) {
+            ready.add(cursor);
+        } else if (cursor.pending != null) {
+            // 本页已取完，下一页在下次hasNext时等待，其他分区的预取继续进行
+            unfilled.add(cursor);
+        }
+        return s3Object;
+    }
+
+    /**
+     * 取出最多maxKeys个对象组成一页
+     *
+     * @param maxKeys 最大数量
+     * @return 一页结果，还有更多对象时isTruncated为true，继续令牌为最后一个对象的逻辑键
+     */
+    ListObjectsV2Response nextPage(int maxKeys) {
+        List<S3Object> contents = new ArrayList<>(Math.min(maxKeys, 1000));
+        while (contents.size() < maxKeys && hasNext()) {
+            contents.add(next());
+        }
+        boolean truncated = hasNext();
+        return ListObjectsV2Response.builder()
+            .name(template.bucket())
+            .prefix(prefix)
+            .maxKeys(maxKeys)
+            .keyCount(contents.size())
+            .contents(contents)
+            .isTruncated(truncated)
+            .nextContinuationToken(truncated && !contents.isEmpty()
+                ? keyLayout.logicalKey(contents.get(contents.size() - 1).key())
+                : null)
+            .build();
+    }
+
+    /**
+     * 合并各分区已取得的首页（每个分区请求了maxKeys个对象），得到前maxKeys个对象
+     *
+     * 每个分区的首页都包含该分区最小的maxKeys个键，因此合并后的前maxKeys个对象就是全局最小的。
+     * 用于异步客户端：各分区的请求并行发出，全部完成后合并。
+     *
+     * @param keyLayout 上传路径布局
+     * @param prefix 逻辑前缀
+     * @param bucket 存储桶名称
+     * @param maxKeys 最大数量
+     * @param partitionPages 各分区的首页
+     * @return 合并后的一页结果
+     */
+    static ListObjectsV2Response merge(S3KeyLayout keyLayout, String prefix, String bucket, int maxKeys,
+                                       List<ListObjectsV2Response> partitionPages) {
+        List<S3Object> all = new ArrayList<>();
+        boolean truncated = false;
+        for (ListObjectsV2Response page : partitionPages) {
+            all.addAll(page.contents());
+            truncated |= Boolean.TRUE.equals(page.isTruncated());
+        }
+        all.sort(Comparator.comparing((S3Object s3Object) -> keyLayout.logicalKey(s3Object.key())));
+        truncated |= all.size() > maxKeys;
+        List<S3Object> contents = all.size() > maxKeys ? all.subList(0, maxKeys) : all;
+        return ListObjectsV2Response.builder()
+            .name(bucket)
+            .prefix(prefix)
+            .maxKeys(maxKeys)
+            .keyCount(contents.size())
+            .contents(contents)
+            .isTruncated(truncated)
+            .nextContinuationToken(truncated && !contents.isEmpty()
+                ? keyLayout.logicalKey(contents.get(contents.size() - 1).key())
+                : null)
+            .build();
+    }
+
+    /**
+     * 以页为单位迭代，至少返回一页（可能为空）
+     *
+     * @param pageSize 每页数量
+     * @return 页迭代器
+     */
+    Iterator<ListObjectsV2Response> pages(int pageSize) {
+        return new Iterator<>() {
+            private boolean first = true;
+
+            @Override
+            public boolean hasNext() {
+                return first || PartitionedListing.this.hasNext();
+            }
+
+            @Override
+            public ListObjectsV2Response next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                first = false;
+                return nextPage(pageSize);
+            }
+        };
+    }
+
+    private CompletableFuture<ListObjectsV2Response> fetch(S3KeyLayout.Partition partition,
+                                                         @Nullable String startAfter,
+                                                         @Nullable String continuationToken) {
+        ListObjectsV2Request request = template.toBuilder()
+            .prefix(partition.prefix())
+            .startAfter(startAfter)
+            .continuationToken(continuationToken)
+            .build();
+        return CompletableFuture.supplyAsync(() -> listCall.apply(request), executor);
+    }
+
+    /**
+     * 等待一页结果，S3错误原样抛出
+     */
+    private static ListObjectsV2Response await(CompletableFuture<ListObjectsV2Response> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 一个分区的列出进度
+     */
+    private final class Cursor {
+
+        private final S3KeyLayout.Partition partition;
+        private final Deque<S3Object> buffer = new ArrayDeque<>();
+        @Nullable
+        private CompletableFuture<ListObjectsV2Response> pending;
+        @Nullable
+        private String headKey;
+
+        private Cursor(S3KeyLayout.Partition partition) {
+            this.partition = partition;
+        }
+
+        /**
+         * 等待已请求的页直到缓冲区非空，收到一页后立即预取下一页
+         *
+         * @return 缓冲区非空时返回true，分区已列完时返回false
+         */
+        private boolean fill() {
+            while (buffer.isEmpty() && pending != null) {
+                ListObjectsV2Response page = await(pending);
+                pending = Boolean.TRUE.equals(page.isTruncated()) && page.nextContinuationToken() != null
+                    ? fetch(partition, null, page.nextContinuationToken())
+                    : null;
+                buffer.addAll(page.contents());
+            }
+            return advance();
+        }
+
+        /**
+         * 更新当前最小的逻辑键
+         *
+         * @return 缓冲区非空时返回true
+         */
+        private boolean advance() {
+            S3Object head = buffer.peek();
+            headKey = head == null ? null : keyLayout.logicalKey(head.key());
+            return head != null;
+        }
+    }
+}
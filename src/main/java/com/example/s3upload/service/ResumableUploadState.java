@@ -0,0 +1,135 @@
+package com.example.s3upload.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * 断点续传会话状态
+ *
+ * 由 {@link S3ResumableUploadManager} 维护，每次提交分块后以JSON文件持久化到
+ * {@code aws.s3.resumable.state-dir}，服务重启后据此恢复会话。
+ * 实例创建后不再修改，状态变化时通过 {@code toBuilder()} 生成新实例整体替换。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumableUploadState {
+
+    /**
+     * 断点续传会话ID
+     */
+    private String sessionId;
+
+    /**
+     * S3分段上传ID
+     */
+    private String s3UploadId;
+
+    /**
+     * 文件在S3中的键
+     */
+    private String s3Key;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件内容类型
+     */
+    private String contentType;
+
+    /**
+     * 文件总大小（字节）
+     */
+    private long contentLength;
+
+    /**
+     * 分块大小（字节）
+     */
+    private long chunkSize;
+
+    /**
+     * 已提交的字节数
+     */
+    private long offset;
+
+    /**
+     * 已提交的分块，按分段编号排序
+     */
+    private List<Chunk> chunks;
+
+    /**
+     * 会话创建时间
+     */
+    private Instant createdAt;
+
+    /**
+     * 会话过期时间
+     */
+    private Instant expiresAt;
+
+    /**
+     * 判断会话是否已过期
+     *
+     * @return 已过期时返回true
+     */
+    @JsonIgnore
+    public boolean isExpired() {
+        return Instant.now().isAfter(expiresAt);
+    }
+
+    /**
+     * 判断全部内容是否已提交
+     *
+     * @return 已提交的字节数达到文件大小时返回true
+     */
+    @JsonIgnore
+    public boolean isFullyReceived() {
+        return offset >= contentLength;
+    }
+
+    /**
+     * 下一个分块的预期大小
+     *
+     * @return 下一个分块的字节数，全部提交后为0
+     */
+    public long nextChunkLength() {
+        return Math.min(chunkSize, contentLength - offset);
+    }
+
+    /**
+     * 已提交的分块，对应S3分段上传中的一个分段
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chunk {
+
+        /**
+         * 分段编号（从1开始）
+         */
+        private int partNumber;
+
+        /**
+         * 分段的ETag
+         */
+        private String eTag;
+
+        /**
+         * 分块大小（字节）
+         */
+        private long length;
+    }
+}
@@ -0,0 +1,234 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * S3批量删除引擎
+ *
+ * 将待删除的文件键按 {@code aws.s3.bulk-delete.batch-size}（不超过S3上限1000）分批，
+ * 每批使用一次DeleteObjects请求（quiet模式，响应中只包含失败的键），
+ * 同时在途的批次数受 {@code aws.s3.bulk-delete.concurrency} 限制。
+ *
+ * 按前缀删除时，一边分页列出前缀下的文件一边提交删除批次，
+ * 内存占用只与在途批次数有关，与前缀下的文件总数无关。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3BulkDeleter {
+
+    /**
+     * 单个DeleteObjects请求允许的最大键数
+     */
+    private static final int MAX_KEYS_PER_REQUEST = 1000;
+
+    /**
+     * S3客户端，配置不完整时为null（此时S3Service不会调用本引擎）
+     */
+    @Nullable
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final ExecutorService s3TransferExecutor;
+    private final S3MetadataCache metadataCache;
+    private final S3OperationMetrics metrics;
+
+    /**
+     * 删除指定前缀下的所有文件
+     *
+     * 使用listObjectsV2Paginator分页列出文件，每页最多1000个键，边列出边删除。
+     *
+     * @param prefix 文件键前缀
+     * @return 批量删除结果
+     * @throws InterruptedException 等待提交删除批次时线程被中断
+     */
+    public BulkDeleteResult deletePrefix(String prefix) throws InterruptedException {
+        ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
+            .bucket(s3Properties.getBucketName())
+            .prefix(prefix)
+            .maxKeys(MAX_KEYS_PER_REQUEST)
+            .build();
+
+        Iterable<String> keys = () -> s3Client.listObjectsV2Paginator(listRequest).contents().stream()
+            .map(S3Object::key)
+            .iterator();
+        return deleteKeys(keys);
+    }
+
+    /**
+     * 分批并发删除指定的文件键
+     *
+     * 遍历键时发生的SDK异常（例如分页列出失败）不会抛出，而是记录在结果的listingError中，
+     * 已提交的批次仍会完成，计数保持准确。
+     *
+     * @param keys 要删除的文件键
+     * @return 批量删除结果
+     * @throws InterruptedException 等待提交删除批次时线程被中断
+     */
+    public BulkDeleteResult deleteKeys(Iterable<String> keys) throws InterruptedException {
+        S3Properties.BulkDelete config = s3Properties.getBulkDelete();
+        int batchSize = Math.min(Math.max(config.getBatchSize(), 1), MAX_KEYS_PER_REQUEST);
+        int concurrency = Math.max(config.getConcurrency(), 1);
+
+        BatchState state = new BatchState(config.getMaxReportedErrors());
+        Semaphore permits = new Semaphore(concurrency);
+        long startNanos = System.nanoTime();
+        int batchCount = 0;
+        SdkException listingError = null;
+
+        try {
+            List<ObjectIdentifier> batch = new ArrayList<>(batchSize);
+            for (String key : keys) {
+                batch.add(ObjectIdentifier.builder().key(key).build());
+                if (batch.size() == batchSize) {
+                    submitBatch(batch, permits, state);
+                    batchCount++;
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                submitBatch(batch, permits, state);
+                batchCount++;
+            }
+        } catch (SdkException e) {
+            // 列出文件失败时停止提交新批次，已提交的批次继续完成
+            log.error("批量删除时列出文件失败，已提交 {} 个批次: {}", batchCount, e.getMessage());
+            listingError = e;
+        } finally {
+            // 取回全部许可即表示所有在途批次都已完成
+            permits.acquireUninterruptibly(concurrency);
+        }
+
+        return BulkDeleteResult.builder()
+            .deletedCount(state.deleted.get())
+            .failedCount(state.failed.get())
+            .batchCount(batchCount)
+            .errors(new ArrayList<>(state.errors))
+            .listingError(listingError)
+            .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+            .build();
+    }
+
+    /**
+     * 在并发许可内异步提交一个删除批次
+     */
+    private void submitBatch(List<ObjectIdentifier> batch, Semaphore permits, BatchState state)
+            throws InterruptedException {
+        permits.acquire();
+        try {
+            CompletableFuture.runAsync(() -> deleteBatch(batch, state), s3TransferExecutor)
+                .whenComplete((result, e) -> {
+                    if (e != null) {
+                        log.error("删除批次执行失败: {}", e.getMessage(), e);
+                        batch.forEach(identifier -> metadataCache.invalidate(identifier.key()));
+                        recordBatchFailure(batch, "UNKNOWN_ERROR", e.getMessage(), state);
+                    }
+                    permits.release();
+                });
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 使用一次DeleteObjects请求删除一个批次
+     */
+    private void deleteBatch(List<ObjectIdentifier> batch, BatchState state) {
+        DeleteObjectsRequest deleteRequest = DeleteObjectsRequest.builder()
+            .bucket(s3Properties.getBucketName())
+            .delete(Delete.builder().objects(batch).quiet(true).build())
+            .build();
+
+        try {
+            DeleteObjectsResponse response = metrics.record("deleteObjects", () -> s3Client.deleteObjects(deleteRequest));
+            state.deleted.addAndGet(batch.size() - response.errors().size());
+            state.failed.addAndGet(response.errors().size());
+            response.errors().forEach(state::report);
+
+            // 删除成功的键记为不存在，失败的键状态未知，直接失效
+            Set<String> failedKeys = response.errors().stream().map(S3Error::key).collect(Collectors.toSet());
+            for (ObjectIdentifier identifier : batch) {
+                if (failedKeys.contains(identifier.key())) {
+                    metadataCache.invalidate(identifier.key());
+                } else {
+                    metadataCache.markMissing(identifier.key());
+                }
+            }
+            log.debug("删除批次完成: {} 个键, {} 个失败", batch.size(), response.errors().size());
+        } catch (S3Exception e) {
+            log.error("DeleteObjects请求失败: {}", e.getMessage());
+            batch.forEach(identifier -> metadataCache.invalidate(identifier.key()));
+            recordBatchFailure(batch, e.awsErrorDetails().errorCode(), e.getMessage(), state);
+        }
+    }
+
+    /**
+     * 将整个批次记为失败
+     */
+    private void recordBatchFailure(List<ObjectIdentifier> batch, String errorCode, String message,
+                                    BatchState state) {
+        state.failed.addAndGet(batch.size());
+        for (ObjectIdentifier identifier : batch) {
+            if (!state.report(S3Error.builder().key(identifier.key()).code(errorCode).message(message).build())) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * 一次批量删除的共享计数和错误列表
+     */
+    private static class BatchState {
+        final AtomicLong deleted = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final Queue<S3Error> errors = new ConcurrentLinkedQueue<>();
+        final AtomicInteger reported = new AtomicInteger();
+        final int maxReportedErrors;
+
+        BatchState(int maxReportedErrors) {
+            this.maxReportedErrors = maxReportedErrors;
+        }
+
+        /**
+         * 记录一条错误，超过上限时只计数不保存
+         *
+         * @return 如果仍未达到上限则返回true
+         */
+        boolean report(S3Error error) {
+            if (reported.incrementAndGet() > maxReportedErrors) {
+                return false;
+            }
+            errors.add(error);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import org.springframework.lang.Nullable;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+/**
+ * S3灵活校验和工具
+ *
+ * S3的响应和 {@link CompletedPart} 为每种算法分别提供一个字段，
+ * 这里按配置的算法统一读取和填写，供上传引擎使用。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+final class S3Checksums {
+
+    private S3Checksums() {
+    }
+
+    /**
+     * 将配置的算法转换为SDK的算法
+     *
+     * @param algorithm 配置的算法
+     * @return SDK的算法，NONE时为null
+     */
+    @Nullable
+    static ChecksumAlgorithm toSdk(S3Properties.Checksum.Algorithm algorithm) {
+        return switch (algorithm) {
+            case NONE -> null;
+            case CRC32 -> ChecksumAlgorithm.CRC32;
+            case CRC32C -> ChecksumAlgorithm.CRC32_C;
+            case SHA1 -> ChecksumAlgorithm.SHA1;
+            case SHA256 -> ChecksumAlgorithm.SHA256;
+        };
+    }
+
+    /**
+     * 读取单次PUT响应中的校验和
+     */
+    @Nullable
+    static String of(PutObjectResponse response, @Nullable ChecksumAlgorithm algorithm) {
+        if (algorithm == null) {
+            return null;
+        }
+        return switch (algorithm) {
+            case CRC32 -> response.checksumCRC32();
+            case CRC32_C -> response.checksumCRC32C();
+            case SHA1 -> response.checksumSHA1();
+            case SHA256 -> response.checksumSHA256();
+            default -> null;
+        };
+    }
+
+    /**
+     * 读取分段上传响应中的分段校验和
+     */
+    @Nullable
+    static String of(UploadPartResponse response, @Nullable ChecksumAlgorithm algorithm) {
+        if (algorithm == null) {
+            return null;
+        }
+        return switch (algorithm) {
+            case CRC32 -> response.checksumCRC32();
+            case CRC32_C -> response.checksumCRC32C();
+            case SHA1 -> response.checksumSHA1();
+            case SHA256 -> response.checksumSHA256();
+            default -> null;
+        };
+    }
+
+    /**
+     * 读取完成分段上传响应中的组合校验和
+     */
+    @Nullable
+    static String of(CompleteMultipartUploadResponse response, @Nullable ChecksumAlgorithm algorithm) {
+        if (algorithm == null) {
+            return null;
+        }
+        return switch (algorithm) {
+            case CRC32 -> response.checksumCRC32();
+            case CRC32_C -> response.checksumCRC32C();
+            case SHA1 -> response.checksumSHA1();
+            case SHA256 -> response.checksumSHA256();
+            default -> null;
+        };
+    }
+
+    /**
+     * 在已完成分段中填写分段校验和（完成分段上传时S3要求与上传分段时的校验和一致）
+     */
+    static CompletedPart.Builder withChecksum(CompletedPart.Builder part, @Nullable ChecksumAlgorithm algorithm,
+                                              @Nullable String checksum) {
+        if (algorithm == null || checksum == null) {
+            return part;
+        }
+        return switch (algorithm) {
+            case CRC32 -> part.checksumCRC32(checksum);
+            case CRC32_C -> part.checksumCRC32C(checksum);
+            case SHA1 -> part.checksumSHA1(checksum);
+            case SHA256 -> part.checksumSHA256(checksum);
+            default -> part;
+        };
+    }
+
+    /**
+     * 算法名称，用于响应和日志
+     */
+    @Nullable
+    static String name(@Nullable ChecksumAlgorithm algorithm) {
+        return algorithm == null ? null : algorithm.toString();
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdInputStream;
+import com.github.luben.zstd.ZstdOutputStream;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 上传内容的透明压缩
+ *
+ * 启用 {@code aws.s3.compression} 后，内容类型匹配且长度不小于最小值的上传在发送到S3之前压缩：
+ * 压缩流包在分段上传输出流之外，按块压缩后直接进入分段缓冲区，不会额外缓存整个文件。
+ * 对象以压缩后的形式保存，设置 {@code Content-Encoding}（gzip或zstd），
+ * 原始大小写入对象元数据 {@code x-amz-meta-uncompressed-length}。
+ *
+ * 下载时，接受该编码的客户端直接收到压缩后的字节（由客户端解压），
+ * 不接受的客户端由服务端边读边解压，见 {@link #requiresDecoding(String, String)}。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ContentCompressor {
+
+    /**
+     * 保存原始（未压缩）大小的对象元数据键（x-amz-meta-uncompressed-length）
+     */
+    public static final String UNCOMPRESSED_LENGTH_METADATA = "uncompressed-length";
+
+    /**
+     * 压缩和解压流的缓冲区大小
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final String GZIP = "gzip";
+    private static final String ZSTD = "zstd";
+
+    private final S3Properties s3Properties;
+
+    /**
+     * 启用zstd时提前加载原生库，平台不支持时在启动阶段失败，而不是在第一次上传时
+     */
+    @PostConstruct
+    public void start() {
+        S3Properties.Compression compression = s3Properties.getCompression();
+        if (!compression.isEnabled()) {
+            return;
+        }
+        if (compression.getEncoding() == S3Properties.Compression.Encoding.ZSTD) {
+            Zstd.defaultCompressionLevel();
+        }
+        log.info("上传压缩已启用: 编码={}, 级别={}, 最小大小={}, 内容类型={}",
+                encodingName(compression.getEncoding()), compression.getLevel(), compression.getMinSize(),
+                compression.getContentTypes());
+    }
+
+    /**
+     * 为一次上传选择压缩编码
+     *
+     * 长度未知的内容不压缩：无法判断是否达到最小大小，也无法在上传前写入原始大小元数据。
+     *
+     * @param contentType 内容类型
+     * @param contentLength 内容长度，未知时为-1
+     * @return 压缩编码，不压缩时为null
+     */
+    @Nullable
+    public S3Properties.Compression.Encoding select(@Nullable String contentType, long contentLength) {
+        S3Properties.Compression compression = s3Properties.getCompression();
+        if (!compression.isEnabled() || contentType == null || contentLength < 0
+                || contentLength < compression.getMinSize().toBytes()) {
+            return null;
+        }
+        String mediaType = mediaType(contentType);
+        for (String pattern : compression.getContentTypes()) {
+            String normalized = pattern.trim().toLowerCase(Locale.ROOT);
+            boolean matches = normalized.endsWith("/*")
+                ? mediaType.startsWith(normalized.substring(0, normalized.length() - 1))
+                : mediaType.equals(normalized);
+            if (matches) {
+                return compression.getEncoding();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 在上传请求中设置Content-Encoding和原始大小元数据
+     *
+     * @param putObjectRequest 上传请求模板
+     * @param encoding 压缩编码
+     * @param uncompressedLength 原始大小
+     * @return 压缩上传的请求模板
+     */
+    public PutObjectRequest applyEncoding(PutObjectRequest putObjectRequest, S3Properties.Compression.Encoding encoding,
+                                          long uncompressedLength) {
+        Map<String, String> metadata = new HashMap<>(putObjectRequest.metadata());
+        metadata.put(UNCOMPRESSED_LENGTH_METADATA, Long.toString(uncompressedLength));
+        return putObjectRequest.toBuilder()
+            .contentEncoding(encodingName(encoding))
+            .metadata(metadata)
+            .build();
+    }
+
+    /**
+     * 创建压缩输出流，关闭时结束压缩并关闭下游输出流
+     *
+     * @param outputStream 下游输出流（接收压缩后的字节）
+     * @param encoding 压缩编码
+     * @return 压缩输出流
+     * @throws IOException 创建失败时抛出
+     */
+    public OutputStream compress(OutputStream outputStream, S3Properties.Compression.Encoding encoding)
+            throws IOException {
+        int level = s3Properties.getCompression().getLevel();
+        return switch (encoding) {
+            case GZIP -> new LeveledGzipOutputStream(outputStream, level);
+            case ZSTD -> new ZstdOutputStream(outputStream, level > 0 ? level : Zstd.defaultCompressionLevel());
+        };
+    }
+
+    /**
+     * 判断是否需要在服务端解压：对象是本服务压缩的，且客户端不接受该编码
+     *
+     * 其他客户端写入的未知编码无法解压，原样返回。
+     *
+     * @param contentEncoding 对象的Content-Encoding
+     * @param acceptEncoding 客户端的Accept-Encoding请求头
+     * @return 需要解压时返回true
+     */
+    public boolean requiresDecoding(@Nullable String contentEncoding, @Nullable String acceptEncoding) {
+        if (!isSupported(contentEncoding)) {
+            return false;
+        }
+        return !accepts(acceptEncoding, contentEncoding.trim().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 创建解压输入流
+     *
+     * @param inputStream 压缩内容输入流
+     * @param contentEncoding 对象的Content-Encoding（gzip或zstd）
+     * @return 解压后的输入流
+     * @throws IOException 创建失败时抛出（例如gzip头无效）
+     */
+    public InputStream decompress(InputStream inputStream, String contentEncoding) throws IOException {
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        if (GZIP.equals(encoding)) {
+            return new GZIPInputStream(inputStream, BUFFER_SIZE);
+        }
+        if (ZSTD.equals(encoding)) {
+            return new ZstdInputStream(inputStream);
+        }
+        throw new IllegalArgumentException("不支持的内容编码: " + contentEncoding);
+    }
+
+    /**
+     * 读取对象元数据中的原始大小
+     *
+     * @param metadata 对象元数据（x-amz-meta-*）
+     * @return 原始大小，没有或无效时为-1
+     */
+    public static long uncompressedLength(Map<String, String> metadata) {
+        String value = metadata.get(UNCOMPRESSED_LENGTH_METADATA);
+        if (value == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 内容类型去掉参数（如charset）并转为小写，用于匹配和指标标签
+     *
+     * @param contentType 内容类型
+     * @return 媒体类型
+     */
+    static String mediaType(String contentType) {
+        int separator = contentType.indexOf(';');
+        String mediaType = separator >= 0 ? contentType.substring(0, separator) : contentType;
+        return mediaType.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 编码在HTTP头中的名称
+     */
+    static String encodingName(S3Properties.Compression.Encoding encoding) {
+        return switch (encoding) {
+            case GZIP -> GZIP;
+            case ZSTD -> ZSTD;
+        };
+    }
+
+    private static boolean isSupported(@Nullable String contentEncoding) {
+        if (contentEncoding == null) {
+            return false;
+        }
+        String encoding = contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return GZIP.equals(encoding) || ZSTD.equals(encoding);
+    }
+
+    /**
+     * 按Accept-Encoding判断客户端是否接受指定编码
+     *
+     * 明确列出的编码优先于通配符 *，q=0表示不接受；没有Accept-Encoding时视为不接受任何压缩编码。
+     */
+    private static boolean accepts(@Nullable String acceptEncoding, String encoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double explicit = null;
+        Double wildcard = null;
+        for (String element : acceptEncoding.split(",")) {
+            String[] parts = element.split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1.0;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+            if (coding.equals(encoding) || (GZIP.equals(encoding) && coding.equals("x-gzip"))) {
+                explicit = quality;
+            } else if (coding.equals("*")) {
+                wildcard = quality;
+            }
+        }
+        if (explicit != null) {
+            return explicit > 0;
+        }
+        return wildcard != null && wildcard > 0;
+    }
+
+    /**
+     * 可以指定压缩级别的gzip输出流
+     */
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+
+        LeveledGzipOutputStream(OutputStream outputStream, int level) throws IOException {
+            super(outputStream, BUFFER_SIZE);
+            if (level > 0) {
+                def.setLevel(Math.min(level, 9));
+            }
+        }
+    }
+}
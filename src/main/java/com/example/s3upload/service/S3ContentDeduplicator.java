@@ -0,0 +1,315 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3StreamUploadRequest;
+import com.example.s3upload.dto.S3UploadResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * 基于内容哈希的上传去重
+ *
+ * 上传内容的SHA-256在解码时一并计算（见 {@code StreamingUploadRequestReader}），
+ * 上传时写入对象元数据 {@code x-amz-meta-content-sha256}，同时记录到本地的“哈希→键”索引中。
+ * 之后相同内容的上传命中索引时，先通过元数据缓存确认已有文件仍然存在且哈希和大小一致，
+ * 然后按 {@code aws.s3.dedup.mode} 直接返回已有文件的键（REFERENCE），或在服务端复制为新文件（COPY），
+ * 都不再传输文件内容。REFERENCE只在已有文件与本次请求属于同一顶层前缀（路径的第一段，未指定路径前缀时为
+ * uploads）时使用，否则改为COPY，不会把其他租户或目录下的文件键返回给请求方。
+ *
+ * 索引只保存在内存中，对象元数据是唯一可信的来源：索引条目失效（文件已删除或被覆盖）时在命中校验中被剔除，
+ * 服务重启或索引被淘汰后可以扫描存储桶重建。同一内容的并发首次上传仍会各自上传一份。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ContentDeduplicator {
+
+    /**
+     * 单次CopyObject支持的最大对象大小，超过时按普通上传处理
+     */
+    private static final long MAX_COPY_SIZE = 5L * 1024 * 1024 * 1024;
+
+    /**
+     * S3客户端，配置不完整时为null
+     */
+    @Nullable
+    private final S3Client s3Client;
+    private final S3Service s3Service;
+    private final S3Properties s3Properties;
+    private final S3OperationMetrics metrics;
+    private final ExecutorService s3TransferExecutor;
+
+    /**
+     * 内容哈希（SHA-256十六进制）到文件键的索引
+     */
+    private Cache<String, String> index;
+
+    /**
+     * 创建索引，按配置在后台扫描存储桶重建
+     */
+    @PostConstruct
+    public void start() {
+        S3Properties.Dedup dedup = s3Properties.getDedup();
+        index = Caffeine.newBuilder()
+            .maximumSize(dedup.getIndexMaximumSize())
+            .build();
+        if (!dedup.isEnabled()) {
+            return;
+        }
+
+        log.info("内容去重已启用: 模式={}, 索引最大条目数={}", dedup.getMode(), dedup.getIndexMaximumSize());
+        if (dedup.isRebuildOnStartup() && s3Client != null) {
+            Thread rebuilder = new Thread(() -> rebuildQuietly(dedup.getRebuildPrefix()), "s3-dedup-rebuild");
+            rebuilder.setDaemon(true);
+            rebuilder.start();
+        }
+    }
+
+    /**
+     * 判断内容去重是否启用
+     *
+     * @return 已启用时返回true
+     */
+    public boolean isEnabled() {
+        return s3Properties.getDedup().isEnabled();
+    }
+
+    /**
+     * 索引中的条目数
+     *
+     * @return 条目数（近似值）
+     */
+    public long getIndexSize() {
+        return index.estimatedSize();
+    }
+
+    /**
+     * 上传暂存的文件内容，相同内容已存在时不再上传
+     *
+     * @param uploadRequest 上传元数据
+     * @param contentFile 暂存的文件内容
+     * @param contentSha256 内容的SHA-256（十六进制）
+     * @return 上传结果响应，命中去重时 deduplicated 为true
+     */
+    public S3UploadResponse upload(S3StreamUploadRequest uploadRequest, Path contentFile, String contentSha256) {
+        long contentLength = uploadRequest.getContentLength();
+        Optional<String> existingKey = findExisting(contentSha256, contentLength);
+
+        if (existingKey.isPresent()) {
+            String sourceKey = existingKey.get();
+            S3Properties.Dedup.Mode mode = s3Properties.getDedup().getMode();
+            if (mode == S3Properties.Dedup.Mode.REFERENCE && sameScope(uploadRequest.getPathPrefix(), sourceKey)) {
+                log.info("文件内容已存在，返回已有文件: {}, SHA-256: {}", sourceKey, contentSha256);
+                metrics.recordDeduplicated("reference", contentLength);
+                return buildReferenceResponse(sourceKey, contentLength);
+            }
+            if (contentLength <= MAX_COPY_SIZE) {
+                S3UploadResponse response = s3Service.copyFile(sourceKey, uploadRequest, contentSha256, contentLength);
+                if (response.isSuccess()) {
+                    metrics.recordDeduplicated("copy", contentLength);
+                    response.setDeduplicated(true);
+                    response.setMessage("文件内容已存在，已在服务端复制");
+                }
+                return response;
+            }
+        }
+
+        try (InputStream inputStream = Files.newInputStream(contentFile)) {
+            S3UploadResponse response = s3Service.uploadStream(uploadRequest, inputStream, contentSha256);
+            if (response.isSuccess()) {
+                index.put(contentSha256, response.getS3Key());
+            }
+            return response;
+        } catch (Exception e) {
+            log.error("读取暂存文件失败: {}", e.getMessage(), e);
+            return S3UploadResponse.failure("文件上传失败: " + e.getMessage(), "UNKNOWN_ERROR");
+        }
+    }
+
+    /**
+     * 扫描存储桶，从对象元数据重建索引
+     *
+     * 逐页列出前缀下的对象，对每页中的对象并发发送headObject读取内容哈希（不经过元数据缓存，避免挤掉热点条目），
+     * 没有哈希元数据的对象（例如流式上传或其他客户端写入的对象）被跳过。
+     *
+     * @param prefix 键前缀，为空时扫描整个存储桶
+     * @return 重建结果
+     */
+    public DedupRebuildResult rebuild(String prefix) {
+        if (s3Client == null) {
+            throw new IllegalStateException("S3客户端未初始化");
+        }
+
+        long startNanos = System.nanoTime();
+        long scanned = 0;
+        long indexed = 0;
+        log.info("开始重建内容去重索引，前缀: {}", prefix);
+
+        for (ListObjectsV2Response page : s3Service.listAllFiles(prefix)) {
+            List<CompletableFuture<Boolean>> futures = new ArrayList<>(page.contents().size());
+            for (S3Object s3Object : page.contents()) {
+                if (s3Object.size() == null || s3Object.size() == 0) {
+                    continue;
+                }
+                futures.add(CompletableFuture.supplyAsync(() -> indexObject(s3Object.key()), s3TransferExecutor));
+            }
+            scanned += page.contents().size();
+            for (CompletableFuture<Boolean> future : futures) {
+                if (future.join()) {
+                    indexed++;
+                }
+            }
+        }
+
+        DedupRebuildResult result = DedupRebuildResult.builder()
+            .scannedCount(scanned)
+            .indexedCount(indexed)
+            .indexSize(getIndexSize())
+            .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+            .build();
+        log.info("内容去重索引重建完成，扫描: {}, 索引: {}, 耗时: {} ms",
+                scanned, indexed, result.getDurationMillis());
+        return result;
+    }
+
+    /**
+     * 在索引中查找相同内容的文件，并通过元数据确认其仍然有效
+     *
+     * @param contentSha256 内容的SHA-256
+     * @param contentLength 内容长度
+     * @return 有效的已有文件键
+     */
+    private Optional<String> findExisting(String contentSha256, long contentLength) {
+        String candidate = index.getIfPresent(contentSha256);
+        if (candidate == null) {
+            return Optional.empty();
+        }
+
+        try {
+            Optional<HeadObjectResponse> metadata = s3Service.getFileMetadata(candidate);
+            boolean valid = metadata.isPresent()
+                && contentSha256.equals(metadata.get().metadata().get(S3Service.CONTENT_SHA256_METADATA))
+                && storedOriginalLength(metadata.get()) == contentLength;
+            if (valid) {
+                return Optional.of(candidate);
+            }
+            log.debug("去重索引条目已失效: {} -> {}", contentSha256, candidate);
+            index.asMap().remove(contentSha256, candidate);
+            return Optional.empty();
+        } catch (Exception e) {
+            // 无法确认时按普通上传处理，不冒险返回可能已不存在的文件
+            log.warn("校验去重索引条目失败，按普通上传处理: {}, 错误: {}", candidate, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 已有文件的原始大小：压缩保存的文件取元数据中的原始大小，否则为对象大小
+     */
+    private static long storedOriginalLength(HeadObjectResponse metadata) {
+        if (metadata.contentEncoding() != null) {
+            return S3ContentCompressor.uncompressedLength(metadata.metadata());
+        }
+        return metadata.contentLength() != null ? metadata.contentLength() : -1;
+    }
+
+    /**
+     * 读取单个对象的内容哈希并加入索引
+     *
+     * @param s3Key 文件键
+     * @return 对象带有内容哈希并已加入索引时返回true
+     */
+    private boolean indexObject(String s3Key) {
+        try {
+            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(s3Key)
+                .build();
+            HeadObjectResponse metadata = metrics.record("headObject", () -> s3Client.headObject(headObjectRequest));
+            String contentSha256 = metadata.metadata().get(S3Service.CONTENT_SHA256_METADATA);
+            if (contentSha256 == null) {
+                return false;
+            }
+            index.asMap().putIfAbsent(contentSha256, s3Key);
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (SdkException e) {
+            log.warn("读取对象元数据失败，已跳过: {}, 错误: {}", s3Key, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 判断已有文件与本次请求是否属于同一顶层前缀，只有同一前缀下的文件键可以直接返回
+     *
+     * @param pathPrefix 本次请求的路径前缀，为空时使用默认上传路径
+     * @param existingKey 已有文件的键
+     * @return 属于同一顶层前缀时返回true
+     */
+    private static boolean sameScope(@Nullable String pathPrefix, String existingKey) {
+        String requestPath = pathPrefix == null || pathPrefix.isBlank() ? S3KeyLayout.UPLOADS_ROOT : pathPrefix;
+        return firstSegment(requestPath).equals(firstSegment(existingKey));
+    }
+
+    /**
+     * 路径的第一段（忽略开头的斜杠）
+     */
+    private static String firstSegment(String path) {
+        int start = 0;
+        while (start < path.length() && path.charAt(start) == '/') {
+            start++;
+        }
+        int slash = path.indexOf('/', start);
+        return slash >= 0 ? path.substring(start, slash) : path.substring(start);
+    }
+
+    private S3UploadResponse buildReferenceResponse(String s3Key, long contentLength) {
+        Optional<HeadObjectResponse> metadata = s3Service.getFileMetadata(s3Key);
+        S3UploadResponse response = S3UploadResponse.success(
+            s3Key,
+            s3Service.generateFileUrl(s3Key),
+            contentLength,
+            metadata.map(HeadObjectResponse::contentType).orElse(null),
+            s3Properties.getBucketName()
+        );
+        response.setMessage("文件内容已存在，返回已有文件");
+        response.setDeduplicated(true);
+        return response;
+    }
+
+    /**
+     * 启动时的后台重建，异常只记录日志
+     */
+    private void rebuildQuietly(String prefix) {
+        try {
+            rebuild(prefix);
+        } catch (Exception e) {
+            log.error("启动时重建内容去重索引失败: {}", e.getMessage(), e);
+        }
+    }
+}
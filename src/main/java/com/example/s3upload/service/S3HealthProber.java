@@ -0,0 +1,150 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3UploadResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * S3健康状态后台探测器
+ *
+ * 按 {@code aws.s3.health.probe-interval} 在后台线程中执行连接测试（headBucket），
+ * 记录最近一次的可达性、探测耗时和错误信息。健康检查和连接测试接口直接读取最新快照，
+ * 不再在每个请求中访问S3，响应时间与S3延迟无关，S3请求量也与探测频率无关。
+ *
+ * 如果最近一次探测时间超过 {@code aws.s3.health.staleness-threshold}（例如探测线程卡住），
+ * 快照被视为过期，调用方应将其当作不健康处理。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3HealthProber {
+
+    private final S3Service s3Service;
+    private final S3Properties s3Properties;
+
+    private final ReentrantLock probeLock = new ReentrantLock();
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * 最新的健康状态快照，首次探测完成前为null
+     */
+    private volatile S3HealthSnapshot snapshot;
+
+    /**
+     * 启动后台探测，首次探测立即执行
+     */
+    @PostConstruct
+    public void start() {
+        Duration interval = s3Properties.getHealth().getProbeInterval();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "s3-health-prober");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::probeQuietly, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("S3健康状态后台探测已启动，探测间隔: {}, 过期阈值: {}",
+                interval, s3Properties.getHealth().getStalenessThreshold());
+    }
+
+    /**
+     * 停止后台探测
+     */
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * 获取最新的健康状态快照
+     *
+     * @return 最新快照，首次探测完成前为null
+     */
+    public S3HealthSnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 判断快照是否已过期
+     *
+     * @param snapshot 健康状态快照
+     * @return 距离探测时间超过过期阈值时返回true
+     */
+    public boolean isStale(S3HealthSnapshot snapshot) {
+        Duration age = Duration.between(snapshot.getProbeTime(), LocalDateTime.now());
+        return age.compareTo(s3Properties.getHealth().getStalenessThreshold()) > 0;
+    }
+
+    /**
+     * 立即执行一次探测并更新快照
+     *
+     * @return 新的健康状态快照
+     */
+    public S3HealthSnapshot probe() {
+        probeLock.lock();
+        try {
+            return doProbe();
+        } finally {
+            probeLock.unlock();
+        }
+    }
+
+    /**
+     * 执行探测，调用方需持有probeLock，保证快照按探测顺序更新
+     */
+    private S3HealthSnapshot doProbe() {
+        long startNanos = System.nanoTime();
+        S3UploadResponse result = s3Service.testConnection();
+        long latencyMillis = (System.nanoTime() - startNanos) / 1_000_000;
+
+        S3HealthSnapshot previous = snapshot;
+        LocalDateTime now = LocalDateTime.now();
+        S3HealthSnapshot current = S3HealthSnapshot.builder()
+            .result(result)
+            .latencyMillis(latencyMillis)
+            .probeTime(now)
+            .lastSuccessTime(result.isSuccess() ? now : previous != null ? previous.getLastSuccessTime() : null)
+            .lastError(result.isSuccess()
+                ? (previous != null ? previous.getLastError() : null)
+                : result.getMessage())
+            .consecutiveFailures(result.isSuccess()
+                ? 0
+                : (previous != null ? previous.getConsecutiveFailures() : 0) + 1)
+            .build();
+
+        if (previous == null || previous.isUp() != current.isUp()) {
+            log.info("S3健康状态变化: {} -> {}, 耗时: {} ms",
+                    previous == null ? "UNKNOWN" : previous.isUp() ? "UP" : "DOWN",
+                    current.isUp() ? "UP" : "DOWN", latencyMillis);
+        }
+        snapshot = current;
+        return current;
+    }
+
+    /**
+     * 后台探测任务，异常不会中断后续的定时探测
+     */
+    private void probeQuietly() {
+        try {
+            probe();
+        } catch (Exception e) {
+            log.error("S3健康状态探测发生异常: {}", e.getMessage(), e);
+        }
+    }
+}
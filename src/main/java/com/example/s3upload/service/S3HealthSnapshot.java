@@ -0,0 +1,59 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.dto.S3UploadResponse;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * S3健康状态快照
+ *
+ * 由 {@link S3HealthProber} 在每次后台探测后生成，描述最近一次探测的结果。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+public class S3HealthSnapshot {
+
+    /**
+     * 最近一次探测的连接测试结果
+     */
+    private S3UploadResponse result;
+
+    /**
+     * 最近一次探测的耗时（毫秒）
+     */
+    private long latencyMillis;
+
+    /**
+     * 最近一次探测的时间
+     */
+    private LocalDateTime probeTime;
+
+    /**
+     * 最近一次探测成功的时间，从未成功时为null
+     */
+    private LocalDateTime lastSuccessTime;
+
+    /**
+     * 最近一次失败的错误消息，从未失败时为null
+     */
+    private String lastError;
+
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 最近一次探测是否成功
+     *
+     * @return 成功时返回true
+     */
+    public boolean isUp() {
+        return result.isSuccess();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * 默认上传路径的布局
+ *
+ * 没有指定路径前缀的上传保存在 uploads/yyyy/MM/dd/ 下。启用 {@code aws.s3.key-partitioning} 后，
+ * 在 uploads/ 之后加入一段哈希分区：uploads/{分区}/yyyy/MM/dd/{UUID}_{文件名}，
+ * 分区为 {UUID}_{文件名} 的CRC32对分区数取模的十六进制数字，同一天的上传均匀分散在多个前缀下，
+ * 每个前缀各自享有S3的请求速率上限。
+ *
+ * 按逻辑日期前缀（例如 uploads/2024/01/01/）列出或删除时，通过 {@link #partitions(String)}
+ * 展开为每个分区的前缀，再加上未分区的原前缀（启用分区之前上传的文件），
+ * 各分区的结果按 {@link #logicalKey(String)}（去掉分区后的键）合并排序。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class S3KeyLayout {
+
+    /**
+     * 默认上传路径的根前缀
+     */
+    static final String UPLOADS_ROOT = "uploads/";
+
+    /**
+     * 分区数上限，分区名不超过3位十六进制数字，不会与4位的年份目录混淆
+     */
+    private static final int MAX_SHARDS = 4096;
+
+    private static final DateTimeFormatter DATE_PATH = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+
+    /**
+     * 逻辑日期前缀：uploads/ 之后以4位年份开头
+     */
+    private static final Pattern DATE_PREFIX = Pattern.compile("\\d{4}(/.*)?");
+
+    private final boolean partitioned;
+    private final int shards;
+    private final int shardWidth;
+    private final Pattern partitionedKey;
+
+    public S3KeyLayout(S3Properties s3Properties) {
+        S3Properties.KeyPartitioning keyPartitioning = s3Properties.getKeyPartitioning();
+        this.shards = Math.min(Math.max(keyPartitioning.getShards(), 1), MAX_SHARDS);
+        this.partitioned = keyPartitioning.isEnabled() && shards > 1;
+        this.shardWidth = Math.max(Integer.toHexString(shards - 1).length(), 1);
+        this.partitionedKey = Pattern.compile(Pattern.quote(UPLOADS_ROOT) + "[0-9a-f]{" + shardWidth + "}/\\d{4}/.*");
+        if (partitioned) {
+            log.info("默认上传路径已启用哈希分区: 分区数={}", shards);
+        }
+    }
+
+    /**
+     * 判断默认上传路径是否启用哈希分区
+     *
+     * @return 已启用时返回true
+     */
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * 默认上传路径的前缀（以斜杠结尾）
+     *
+     * @param uniqueFileName 带UUID的文件名，用于计算分区
+     * @param date 上传日期
+     * @return 例如 uploads/7/2024/01/01/ 或未启用分区时的 uploads/2024/01/01/
+     */
+    public String defaultPrefix(String uniqueFileName, LocalDate date) {
+        String datePath = date.format(DATE_PATH) + "/";
+        if (!partitioned) {
+            return UPLOADS_ROOT + datePath;
+        }
+        return UPLOADS_ROOT + shardOf(uniqueFileName) + "/" + datePath;
+    }
+
+    /**
+     * 将逻辑日期前缀展开为需要列出的全部分区
+     *
+     * 只有启用分区且前缀形如 uploads/yyyy[/...] 时才展开，结果为每个分区的前缀加上原前缀本身；
+     * 其他前缀原样返回。
+     *
+     * @param prefix 列出或删除使用的前缀，可以为null（列出全部文件）
+     * @return 分区列表，不需要展开时只有一个元素
+     */
+    public List<Partition> partitions(@Nullable String prefix) {
+        if (!isPartitionedPrefix(prefix)) {
+            return List.of(new Partition(prefix, null));
+        }
+        String datePart = prefix.substring(UPLOADS_ROOT.length());
+        List<Partition> partitions = new ArrayList<>(shards + 1);
+        for (int shard = 0; shard < shards; shard++) {
+            String shardName = shardName(shard);
+            partitions.add(new Partition(UPLOADS_ROOT + shardName + "/" + datePart, shardName));
+        }
+        partitions.add(new Partition(prefix, null));
+        return partitions;
+    }
+
+    /**
+     * 判断前缀是否需要展开到各个分区
+     *
+     * @param prefix 前缀
+     * @return 启用分区且前缀是逻辑日期前缀时返回true
+     */
+    public boolean isPartitionedPrefix(@Nullable String prefix) {
+        return partitioned && prefix != null && prefix.startsWith(UPLOADS_ROOT)
+            && DATE_PREFIX.matcher(prefix.substring(UPLOADS_ROOT.length())).matches();
+    }
+
+    /**
+     * 去掉键中的分区，得到用于合并排序的逻辑键
+     *
+     * @param key S3文件键
+     * @return 例如 uploads/7/2024/01/01/x 返回 uploads/2024/01/01/x，其他键原样返回
+     */
+    public String logicalKey(String key) {
+        if (!partitioned || !partitionedKey.matcher(key).matches()) {
+            return key;
+        }
+        return UPLOADS_ROOT + key.substring(UPLOADS_ROOT.length() + shardWidth + 1);
+    }
+
+    private String shardOf(String uniqueFileName) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(uniqueFileName.getBytes(StandardCharsets.UTF_8));
+        return shardName((int) (crc32.getValue() % shards));
+    }
+
+    private String shardName(int shard) {
+        String hex = Integer.toHexString(shard).toLowerCase(Locale.ROOT);
+        return "0".repeat(shardWidth - hex.length()) + hex;
+    }
+
+    /**
+     * 列出时的一个分区
+     *
+     * @param prefix 该分区的前缀，null表示列出全部文件
+     * @param shard 分区名，未分区的前缀为null
+     */
+    public record Partition(@Nullable String prefix, @Nullable String shard) {
+
+        /**
+         * 把逻辑键映射为本分区中的键，用于在各分区中从同一位置继续列出
+         *
+         * @param logicalKey 逻辑键
+         * @return 本分区中对应的键
+         */
+        public String toPhysical(String logicalKey) {
+            if (shard == null || !logicalKey.startsWith(UPLOADS_ROOT)) {
+                return logicalKey;
+            }
+            return UPLOADS_ROOT + shard + "/" + logicalKey.substring(UPLOADS_ROOT.length());
+        }
+    }
+}
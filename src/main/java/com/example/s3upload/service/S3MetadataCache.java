@@ -0,0 +1,186 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * S3对象元数据缓存
+ *
+ * 在headObject前面加一层进程内缓存，以S3键为键，缓存对象元数据：
+ * - 存在的对象缓存其HeadObjectResponse（正向条目），按 {@code ttl} 过期
+ * - 不存在的对象缓存空值（负向条目），按通常更短的 {@code negative-ttl} 过期
+ * - 总条目数受 {@code maximum-size} 限制，超出时按Caffeine的策略淘汰
+ *
+ * 本服务自身的上传和删除会直接更新或失效对应条目；其他客户端对存储桶的修改
+ * 最多在TTL之后可见。同一键的并发加载只会发出一次headObject请求，
+ * 加载失败（非NoSuchKey错误）不会被缓存。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class S3MetadataCache {
+
+    private final boolean enabled;
+
+    /**
+     * 值为加载中的Future，同步和异步查询共用
+     *
+     * 映射函数只创建Future，不执行加载：同步查询由创建Future的调用线程在Caffeine的计算锁之外执行加载，
+     * 异步查询的加载由loader自身的异步客户端完成，避免阻塞的headObject持有哈希桶锁或固定虚拟线程的载体线程。
+     */
+    private final AsyncCache<String, Optional<HeadObjectResponse>> cache;
+
+    public S3MetadataCache(S3Properties s3Properties) {
+        S3Properties.MetadataCache config = s3Properties.getMetadataCache();
+        long ttlNanos = config.getTtl().toNanos();
+        long negativeTtlNanos = config.getNegativeTtl().toNanos();
+
+        this.enabled = config.isEnabled();
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(config.getMaximumSize())
+            .expireAfter(new Expiry<String, Optional<HeadObjectResponse>>() {
+                @Override
+                public long expireAfterCreate(String key, Optional<HeadObjectResponse> value, long currentTime) {
+                    return value.isPresent() ? ttlNanos : negativeTtlNanos;
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, Optional<HeadObjectResponse> value,
+                                              long currentTime, long currentDuration) {
+                    return expireAfterCreate(key, value, currentTime);
+                }
+
+                @Override
+                public long expireAfterRead(String key, Optional<HeadObjectResponse> value,
+                                            long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .buildAsync();
+
+        log.info("S3元数据缓存初始化完成: 启用={}, 最大条目数={}, TTL={}, 负向TTL={}",
+                enabled, config.getMaximumSize(), config.getTtl(), config.getNegativeTtl());
+    }
+
+    /**
+     * 查询对象元数据，未命中时调用loader加载并缓存结果
+     *
+     * @param s3Key 文件在S3中的键
+     * @param loader 加载函数，对象不存在时返回空值，其他错误直接抛出
+     * @return 对象元数据，对象不存在时为空
+     */
+    public Optional<HeadObjectResponse> get(String s3Key, Function<String, Optional<HeadObjectResponse>> loader) {
+        if (!enabled) {
+            return loader.apply(s3Key);
+        }
+        CompletableFuture<Optional<HeadObjectResponse>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<HeadObjectResponse>> future = cache.get(s3Key, (key, executor) -> created);
+        if (future == created) {
+            // 本线程负责加载；失败的Future会被Caffeine自动移出缓存
+            try {
+                created.complete(loader.apply(s3Key));
+            } catch (RuntimeException | Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 异步查询对象元数据，未命中时调用loader异步加载并缓存结果
+     *
+     * @param s3Key 文件在S3中的键
+     * @param loader 异步加载函数，对象不存在时以空值完成，其他错误以异常完成
+     * @return 对象元数据的Future
+     */
+    public CompletableFuture<Optional<HeadObjectResponse>> getAsync(
+            String s3Key, Function<String, CompletableFuture<Optional<HeadObjectResponse>>> loader) {
+        if (!enabled) {
+            return loader.apply(s3Key);
+        }
+        return cache.get(s3Key, (key, executor) -> loader.apply(key));
+    }
+
+    /**
+     * 记录本服务刚写入的对象
+     *
+     * @param s3Key 文件在S3中的键
+     * @param metadata 对象元数据
+     */
+    public void put(String s3Key, HeadObjectResponse metadata) {
+        if (enabled) {
+            cache.put(s3Key, CompletableFuture.completedFuture(Optional.of(metadata)));
+        }
+    }
+
+    /**
+     * 记录本服务刚删除的对象（负向条目）
+     *
+     * @param s3Key 文件在S3中的键
+     */
+    public void markMissing(String s3Key) {
+        if (enabled) {
+            cache.put(s3Key, CompletableFuture.completedFuture(Optional.empty()));
+        }
+    }
+
+    /**
+     * 使对象的缓存条目失效
+     *
+     * @param s3Key 文件在S3中的键
+     */
+    public void invalidate(String s3Key) {
+        if (enabled) {
+            cache.synchronous().invalidate(s3Key);
+        }
+    }
+
+    /**
+     * 是否启用缓存
+     *
+     * @return 启用时返回true
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 当前缓存条目数（估计值）
+     *
+     * @return 条目数
+     */
+    public long estimatedSize() {
+        return cache.synchronous().estimatedSize();
+    }
+
+    /**
+     * 命中、未命中、淘汰等统计计数
+     *
+     * @return 缓存统计
+     */
+    public CacheStats stats() {
+        return cache.synchronous().stats();
+    }
+}
@@ -0,0 +1,561 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3MultipartCompleteRequest;
+import com.example.s3upload.dto.S3MultipartSessionRequest;
+import com.example.s3upload.dto.S3MultipartSessionResponse;
+import com.example.s3upload.dto.S3UploadResponse;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedUploadPartRequest;
+import software.amazon.awssdk.services.s3.presigner.model.UploadPartPresignRequest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * S3预签名分段上传会话管理器
+ *
+ * 服务端只负责发起（CreateMultipartUpload）、签发分段URL和合并（CompleteMultipartUpload），
+ * 各分段由客户端使用预签名UploadPart URL直接并行上传到S3，文件内容不经过本服务，
+ * 文件大小也不受服务端单个请求大小上限的限制。
+ *
+ * 会话保存在进程内，超过 {@code aws.s3.presign.session-ttl} 仍未完成的会话由后台线程
+ * 按 {@code aws.s3.presign.sweep-interval} 定期中止，释放S3中已上传的分段。
+ * 进程重启后内存中的会话丢失，因此后台线程还会列出存储桶中未完成的分段上传（ListMultipartUploads），
+ * 中止发起时间早于会话有效期且不属于本实例任何进行中会话（包括断点续传会话）的上传
+ * （见 {@code aws.s3.presign.abort-orphaned-uploads}）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3MultipartSessionManager {
+
+    /**
+     * S3允许的最小分段大小（最后一个分段除外）
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * S3允许的最大分段数
+     */
+    private static final int MAX_PARTS = 10_000;
+
+    /**
+     * S3客户端，配置不完整时为null
+     */
+    @Nullable
+    private final S3Client s3Client;
+
+    /**
+     * S3预签名器，配置不完整时为null
+     */
+    @Nullable
+    private final S3Presigner s3Presigner;
+    private final S3Service s3Service;
+    private final S3Properties s3Properties;
+    private final S3MetadataCache metadataCache;
+    private final S3OperationMetrics metrics;
+    private final S3ResumableUploadManager resumableUploadManager;
+
+    /**
+     * 进行中的会话，以uploadId为键
+     */
+    private final Map<String, MultipartSession> sessions = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * 预签名分段上传会话
+     *
+     * @param uploadId S3分段上传ID
+     * @param s3Key 文件在S3中的键
+     * @param contentType 内容类型
+     * @param partSize 分段大小
+     * @param partCount 分段总数，创建时未提供文件大小则为null
+     * @param expiresAt 会话过期时间
+     */
+    private record MultipartSession(String uploadId, String s3Key, String contentType, long partSize,
+                                    @Nullable Integer partCount, Instant expiresAt) {
+
+        boolean isExpired() {
+            return Instant.now().isAfter(expiresAt);
+        }
+    }
+
+    /**
+     * 启动过期会话的后台清理
+     */
+    @PostConstruct
+    public void start() {
+        Duration interval = s3Properties.getPresign().getSweepInterval();
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "s3-multipart-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("预签名分段上传会话清理已启动，会话有效期: {}, 检查间隔: {}",
+                s3Properties.getPresign().getSessionTtl(), interval);
+    }
+
+    /**
+     * 停止后台清理（未完成的会话保留在S3中，由下次启动后的清理或存储桶生命周期规则处理）
+     */
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建预签名分段上传会话
+     *
+     * 文件键和内容类型的规则与服务端上传相同。提供了文件大小时，分段大小会按需放大以满足S3的分段数上限，
+     * 响应中直接包含第一批（最多 {@code aws.s3.presign.max-part-urls} 个）分段上传URL。
+     *
+     * @param sessionRequest 会话请求对象
+     * @return 会话响应，包含uploadId、分段大小和第一批分段上传URL
+     */
+    public S3MultipartSessionResponse createSession(S3MultipartSessionRequest sessionRequest) {
+        log.info("开始创建预签名分段上传会话: {}, 文件大小: {}",
+                sessionRequest.getFileName(), sessionRequest.getContentLength());
+
+        if (s3Client == null || s3Presigner == null) {
+            log.error("S3客户端或预签名器未初始化");
+            return S3MultipartSessionResponse.failure(
+                "S3配置不完整，请检查以下配置项: " + s3Properties.getMissingConfigurations(),
+                "CONFIGURATION_ERROR"
+            );
+        }
+
+        Long contentLength = sessionRequest.getContentLength();
+        long partSize = resolvePartSize(contentLength);
+        Integer partCount = contentLength == null ? null : (int) Math.max(1, (contentLength + partSize - 1) / partSize);
+
+        try {
+            String s3Key = s3Service.buildS3Key(sessionRequest.getPathPrefix(), sessionRequest.getFileName());
+            if (!sessionRequest.isOverwrite() && s3Service.fileExists(s3Key)) {
+                log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                return S3MultipartSessionResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+            }
+            String contentType = s3Service.determineContentType(sessionRequest.getContentType(), sessionRequest.getFileName());
+
+            CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(s3Key)
+                .contentType(contentType)
+                .metadata(s3Service.buildObjectMetadata(sessionRequest.getFileName()))
+                .build();
+            CreateMultipartUploadResponse createResponse = metrics.record("createMultipartUpload",
+                () -> s3Client.createMultipartUpload(createRequest));
+
+            MultipartSession session = new MultipartSession(createResponse.uploadId(), s3Key, contentType, partSize,
+                partCount, Instant.now().plus(s3Properties.getPresign().getSessionTtl()));
+            sessions.put(session.uploadId(), session);
+            log.info("预签名分段上传会话已创建: {}, uploadId: {}, 分段大小: {}, 分段数: {}",
+                    s3Key, session.uploadId(), partSize, partCount);
+
+            List<S3MultipartSessionResponse.PresignedPart> parts = partCount == null
+                ? List.of()
+                : presign(session, IntStream.rangeClosed(1, Math.min(partCount, maxPartUrls())).boxed().toList());
+
+            return buildSessionResponse(session, parts, "预签名分段上传会话创建成功");
+
+        } catch (S3Exception e) {
+            log.error("创建分段上传失败: {}", e.getMessage());
+            return S3MultipartSessionResponse.failure(
+                "创建分段上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("创建预签名分段上传会话发生未知错误: {}", e.getMessage(), e);
+            return S3MultipartSessionResponse.failure(
+                "创建分段上传失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 为会话签发一批分段上传URL
+     *
+     * URL有效期为 {@code aws.s3.presign.expiry}，但不会超过会话本身的过期时间。
+     *
+     * @param uploadId S3分段上传ID
+     * @param partNumbers 分段编号列表
+     * @return 会话响应，包含请求的分段上传URL
+     */
+    public S3MultipartSessionResponse presignParts(String uploadId, List<Integer> partNumbers) {
+        log.debug("申请分段上传URL: uploadId={}, 分段数={}", uploadId, partNumbers.size());
+
+        Optional<MultipartSession> session = findSession(uploadId);
+        if (session.isEmpty()) {
+            return S3MultipartSessionResponse.failure("分段上传会话不存在或已过期: " + uploadId, "UPLOAD_SESSION_NOT_FOUND");
+        }
+        if (partNumbers.size() > maxPartUrls()) {
+            return S3MultipartSessionResponse.failure(
+                "单次最多申请 " + maxPartUrls() + " 个分段上传URL", "VALIDATION_ERROR");
+        }
+        Integer partCount = session.get().partCount();
+        if (partCount != null && partNumbers.stream().anyMatch(partNumber -> partNumber > partCount)) {
+            return S3MultipartSessionResponse.failure(
+                "请求参数验证失败: 分段编号超出分段总数 " + partCount, "VALIDATION_ERROR");
+        }
+
+        try {
+            return buildSessionResponse(session.get(), presign(session.get(), partNumbers), "分段上传URL生成成功");
+        } catch (Exception e) {
+            log.error("生成分段上传URL发生未知错误: {}", e.getMessage(), e);
+            return S3MultipartSessionResponse.failure("生成分段上传URL失败: " + e.getMessage(), "UNKNOWN_ERROR");
+        }
+    }
+
+    /**
+     * 合并客户端上传的分段，完成会话
+     *
+     * 分段编号必须从1开始连续；创建会话时提供了文件大小的，分段数必须与计算出的分段总数一致，
+     * 避免因遗漏分段而悄悄生成一个被截断的对象。
+     *
+     * @param uploadId S3分段上传ID
+     * @param parts 已上传的分段及其ETag
+     * @return 上传结果响应
+     */
+    public S3UploadResponse completeSession(String uploadId, List<S3MultipartCompleteRequest.Part> parts) {
+        log.info("开始完成预签名分段上传: uploadId={}, 分段数={}", uploadId, parts.size());
+
+        Optional<MultipartSession> found = findSession(uploadId);
+        if (found.isEmpty()) {
+            return S3UploadResponse.failure("分段上传会话不存在或已过期: " + uploadId, "UPLOAD_SESSION_NOT_FOUND");
+        }
+        MultipartSession session = found.get();
+
+        List<CompletedPart> completedParts = parts.stream()
+            .sorted(Comparator.comparingInt(S3MultipartCompleteRequest.Part::getPartNumber))
+            .map(part -> CompletedPart.builder().partNumber(part.getPartNumber()).eTag(part.getETag()).build())
+            .toList();
+        for (int i = 0; i < completedParts.size(); i++) {
+            if (completedParts.get(i).partNumber() != i + 1) {
+                return S3UploadResponse.failure("请求参数验证失败: 分段编号必须从1开始连续且不能重复", "VALIDATION_ERROR");
+            }
+        }
+        if (session.partCount() != null && completedParts.size() != session.partCount()) {
+            return S3UploadResponse.failure(
+                String.format("请求参数验证失败: 应上传 %d 个分段，实际 %d 个", session.partCount(), completedParts.size()),
+                "VALIDATION_ERROR"
+            );
+        }
+
+        try {
+            CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(session.s3Key())
+                .uploadId(uploadId)
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build();
+            CompleteMultipartUploadResponse completeResponse = metrics.record("completeMultipartUpload",
+                () -> s3Client.completeMultipartUpload(completeRequest));
+            sessions.remove(uploadId);
+            log.info("预签名分段上传完成: {}, 分段数: {}, ETag: {}",
+                    session.s3Key(), completedParts.size(), completeResponse.eTag());
+
+            // 对象由客户端写入，大小以S3为准；读取失败不影响上传结果
+            Long fileSize = null;
+            metadataCache.invalidate(session.s3Key());
+            try {
+                fileSize = s3Service.getFileMetadata(session.s3Key()).map(HeadObjectResponse::contentLength).orElse(null);
+            } catch (Exception e) {
+                log.warn("读取分段上传结果的元数据失败: {}, {}", session.s3Key(), e.getMessage());
+            }
+            if (fileSize != null) {
+                metrics.recordUploadSize("presigned-multipart", fileSize);
+            }
+
+            S3UploadResponse response = S3UploadResponse.success(
+                session.s3Key(),
+                s3Service.generateFileUrl(session.s3Key()),
+                fileSize,
+                session.contentType(),
+                s3Properties.getBucketName()
+            );
+            response.setPartCount(completedParts.size());
+            return response;
+
+        } catch (NoSuchUploadException e) {
+            sessions.remove(uploadId);
+            log.warn("分段上传已不存在（可能已被中止）: {}", uploadId);
+            return S3UploadResponse.failure("分段上传会话不存在或已过期: " + uploadId, "UPLOAD_SESSION_NOT_FOUND");
+        } catch (S3Exception e) {
+            // InvalidPart、InvalidPartOrder、EntityTooSmall等错误可由客户端修正后重试，会话保留
+            log.error("完成分段上传失败: {}", e.getMessage());
+            return S3UploadResponse.failure(
+                "完成分段上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("完成分段上传发生未知错误: {}", e.getMessage(), e);
+            return S3UploadResponse.failure(
+                "完成分段上传失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 中止会话，删除S3中已上传的分段
+     *
+     * @param uploadId S3分段上传ID
+     * @return 中止结果响应
+     */
+    public S3UploadResponse abortSession(String uploadId) {
+        log.info("开始中止预签名分段上传: uploadId={}", uploadId);
+
+        MultipartSession session = sessions.remove(uploadId);
+        if (session == null) {
+            return S3UploadResponse.failure("分段上传会话不存在或已过期: " + uploadId, "UPLOAD_SESSION_NOT_FOUND");
+        }
+
+        try {
+            abort(session.s3Key(), session.uploadId());
+            return S3UploadResponse.builder()
+                .success(true)
+                .message("分段上传已中止")
+                .s3Key(session.s3Key())
+                .bucketName(s3Properties.getBucketName())
+                .uploadTime(LocalDateTime.now())
+                .build();
+        } catch (S3Exception e) {
+            log.error("中止分段上传失败: {}", e.getMessage());
+            return S3UploadResponse.failure(
+                "中止分段上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("中止分段上传发生未知错误: {}", e.getMessage(), e);
+            return S3UploadResponse.failure("中止分段上传失败: " + e.getMessage(), "UNKNOWN_ERROR");
+        }
+    }
+
+    /**
+     * 进行中的会话数
+     *
+     * @return 会话数
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 中止所有已过期的会话
+     *
+     * @return 中止的会话数
+     */
+    public int sweepExpiredSessions() {
+        int aborted = 0;
+        for (MultipartSession session : sessions.values()) {
+            // remove(key, value)保证与并发的完成或中止请求之间只有一方处理该会话
+            if (session.isExpired() && sessions.remove(session.uploadId(), session)) {
+                try {
+                    abort(session.s3Key(), session.uploadId());
+                    aborted++;
+                } catch (Exception e) {
+                    log.error("中止过期的分段上传失败: {}, uploadId: {}, 错误: {}",
+                            session.s3Key(), session.uploadId(), e.getMessage());
+                }
+            }
+        }
+        if (aborted > 0) {
+            log.info("已中止 {} 个过期的预签名分段上传会话", aborted);
+        }
+        return aborted;
+    }
+
+    /**
+     * 中止存储桶中遗留的分段上传
+     *
+     * 只处理发起时间早于会话有效期（预签名分段上传和断点续传中较长的一个）的上传，
+     * 并跳过本实例进行中的会话；服务端分段上传在单个请求内完成，不会存在这么久。
+     *
+     * @return 中止的分段上传数
+     */
+    public int sweepOrphanedUploads() {
+        if (s3Client == null) {
+            return 0;
+        }
+        Duration maxAge = s3Properties.getPresign().getSessionTtl();
+        if (s3Properties.getResumable().getSessionTtl().compareTo(maxAge) > 0) {
+            maxAge = s3Properties.getResumable().getSessionTtl();
+        }
+        Instant initiatedBefore = Instant.now().minus(maxAge);
+
+        int aborted = 0;
+        String keyMarker = null;
+        String uploadIdMarker = null;
+        ListMultipartUploadsResponse response;
+        do {
+            ListMultipartUploadsRequest listRequest = ListMultipartUploadsRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .keyMarker(keyMarker)
+                .uploadIdMarker(uploadIdMarker)
+                .build();
+            response = metrics.record("listMultipartUploads", () -> s3Client.listMultipartUploads(listRequest));
+            for (MultipartUpload upload : response.uploads()) {
+                if (upload.initiated() == null || !upload.initiated().isBefore(initiatedBefore)
+                        || sessions.containsKey(upload.uploadId())
+                        || resumableUploadManager.ownsUpload(upload.uploadId())) {
+                    continue;
+                }
+                try {
+                    abort(upload.key(), upload.uploadId());
+                    aborted++;
+                } catch (Exception e) {
+                    log.error("中止遗留的分段上传失败: {}, uploadId: {}, 错误: {}",
+                            upload.key(), upload.uploadId(), e.getMessage());
+                }
+            }
+            keyMarker = response.nextKeyMarker();
+            uploadIdMarker = response.nextUploadIdMarker();
+        } while (Boolean.TRUE.equals(response.isTruncated()));
+
+        if (aborted > 0) {
+            log.info("已中止 {} 个发起超过 {} 的遗留分段上传", aborted, maxAge);
+        }
+        return aborted;
+    }
+
+    /**
+     * 查找未过期的会话
+     */
+    private Optional<MultipartSession> findSession(String uploadId) {
+        MultipartSession session = sessions.get(uploadId);
+        if (session == null || session.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * 中止S3中的分段上传，分段上传已不存在时视为成功
+     */
+    private void abort(String s3Key, String uploadId) {
+        try {
+            metrics.record("abortMultipartUpload", () -> s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(s3Key)
+                .uploadId(uploadId)
+                .build()));
+            log.info("分段上传已中止: {}, uploadId: {}", s3Key, uploadId);
+        } catch (NoSuchUploadException e) {
+            log.debug("分段上传已不存在: {}", uploadId);
+        }
+    }
+
+    /**
+     * 签发分段上传URL，有效期不超过会话剩余时间
+     */
+    private List<S3MultipartSessionResponse.PresignedPart> presign(MultipartSession session, List<Integer> partNumbers) {
+        Duration remaining = Duration.between(Instant.now(), session.expiresAt());
+        Duration expiry = remaining.compareTo(s3Properties.getPresign().getExpiry()) < 0
+            ? remaining
+            : s3Properties.getPresign().getExpiry();
+
+        List<S3MultipartSessionResponse.PresignedPart> parts = new ArrayList<>(partNumbers.size());
+        for (int partNumber : partNumbers) {
+            PresignedUploadPartRequest presignedRequest = s3Presigner.presignUploadPart(UploadPartPresignRequest.builder()
+                .signatureDuration(expiry)
+                .uploadPartRequest(UploadPartRequest.builder()
+                    .bucket(s3Properties.getBucketName())
+                    .key(session.s3Key())
+                    .uploadId(session.uploadId())
+                    .partNumber(partNumber)
+                    .build())
+                .build());
+            parts.add(new S3MultipartSessionResponse.PresignedPart(
+                partNumber, presignedRequest.url().toString(), presignedRequest.expiration()));
+        }
+        return parts;
+    }
+
+    private S3MultipartSessionResponse buildSessionResponse(MultipartSession session,
+                                                            List<S3MultipartSessionResponse.PresignedPart> parts,
+                                                            String message) {
+        return S3MultipartSessionResponse.builder()
+            .success(true)
+            .message(message)
+            .uploadId(session.uploadId())
+            .s3Key(session.s3Key())
+            .partSize(session.partSize())
+            .partCount(session.partCount())
+            .maxPartUrls(maxPartUrls())
+            .parts(parts)
+            .sessionExpiresAt(session.expiresAt())
+            .contentType(session.contentType())
+            .bucketName(s3Properties.getBucketName())
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * 计算分段大小：不小于S3最小分段大小，且保证分段数不超过S3上限
+     */
+    private long resolvePartSize(@Nullable Long contentLength) {
+        long partSize = Math.max(s3Properties.getPresign().getPartSize().toBytes(), MIN_PART_SIZE);
+        if (contentLength != null && contentLength > 0) {
+            partSize = Math.max(partSize, (contentLength + MAX_PARTS - 1) / MAX_PARTS);
+        }
+        return partSize;
+    }
+
+    private int maxPartUrls() {
+        return Math.max(1, s3Properties.getPresign().getMaxPartUrls());
+    }
+
+    /**
+     * 后台清理任务，异常不会中断后续的定时清理
+     */
+    private void sweepQuietly() {
+        try {
+            sweepExpiredSessions();
+            if (s3Properties.getPresign().isAbortOrphanedUploads()) {
+                sweepOrphanedUploads();
+            }
+        } catch (Exception e) {
+            log.error("清理过期的分段上传会话发生异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ChecksumAlgorithm;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * S3分段上传引擎
+ *
+ * 根据内容长度和 {@code aws.s3.multipart} 配置选择上传方式：
+ * - 长度已知且不超过阈值：单次PUT，直接从输入流读取并发送
+ * - 长度超过阈值或未知：使用 {@link MultipartUploadOutputStream} 按分段并发上传
+ *
+ * 分段上传使用CreateMultipartUpload/UploadPart/CompleteMultipartUpload，
+ * 每个上传同时在途的分段数受配置限制，失败的分段单独重试，最终失败时中止上传。
+ * 每个S3请求（单次PUT、创建/完成/中止分段上传、每个分段）都通过 {@link S3OperationMetrics} 单独记录，
+ * 调用方不需要再把整个上传当作一次putObject计时。
+ *
+ * 配置了 {@code aws.s3.checksum.algorithm} 时，单次PUT和每个分段都带上S3灵活校验和：
+ * SDK在读取请求体的同时增量计算，以请求尾部发送，不会额外缓冲或重读内容；
+ * S3校验不一致时拒绝请求。S3确认的校验和在上传结果中返回。
+ *
+ * 启用 {@code aws.s3.compression} 且内容类型匹配时，内容先经过 {@link S3ContentCompressor} 按块压缩再进入分段上传流
+ * （压缩后的长度未知，因此总是使用分段上传输出流，在阈值以内时它会自动改为单次PUT），
+ * 校验和针对实际保存的压缩后字节计算。
+ *
+ * 启用 {@code aws.s3.hedge} 的putObject对冲时，不超过 {@code max-put-size} 的单次PUT先读入内存，
+ * 经过 {@link S3RequestHedger} 发送（对象键在上传前已确定，重复发送写入的是相同内容）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3MultipartUploader {
+
+    /**
+     * S3允许的最小分段大小（最后一个分段除外）
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * S3允许的最大分段数
+     */
+    private static final long MAX_PARTS = 10_000;
+
+    /**
+     * S3客户端，配置不完整时为null（此时S3Service不会调用本引擎）
+     */
+    @Nullable
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final ExecutorService s3TransferExecutor;
+    private final S3ContentCompressor contentCompressor;
+    private final S3OperationMetrics metrics;
+    private final S3RequestHedger requestHedger;
+
+    /**
+     * 判断指定长度的内容能否上传
+     *
+     * 禁用分段上传时，单次PUT请求必须预先知道内容长度。
+     *
+     * @param contentLength 内容长度，未知时为-1
+     * @return 如果可以上传则返回true
+     */
+    public boolean canUpload(long contentLength) {
+        return contentLength >= 0 || s3Properties.getMultipart().isEnabled();
+    }
+
+    /**
+     * 上传输入流中的全部内容
+     *
+     * @param putObjectRequest 目标对象的请求模板（存储桶、键、内容类型、元数据等）
+     * @param inputStream 内容输入流
+     * @param contentLength 内容长度，未知时为-1
+     * @return 上传结果
+     * @throws IOException 读取输入流或上传失败时抛出（S3错误以SDK异常原样抛出）
+     */
+    public UploadResult upload(PutObjectRequest putObjectRequest, InputStream inputStream, long contentLength)
+            throws IOException {
+        S3Properties.Multipart multipart = s3Properties.getMultipart();
+        S3Properties.Compression.Encoding encoding = contentCompressor.select(putObjectRequest.contentType(), contentLength);
+        if (encoding != null) {
+            return compressAndUpload(putObjectRequest, inputStream, contentLength, encoding);
+        }
+
+        if (contentLength >= 0 && (!multipart.isEnabled() || contentLength <= multipart.getThreshold().toBytes())) {
+            return putObject(putObjectRequest, inputStream, contentLength);
+        }
+        if (!multipart.isEnabled()) {
+            throw new IllegalStateException("分段上传已禁用，无法上传未知长度的内容");
+        }
+
+        MultipartUploadOutputStream outputStream = openStream(putObjectRequest, contentLength);
+        try {
+            inputStream.transferTo(outputStream);
+            outputStream.close();
+        } catch (IOException | RuntimeException | Error e) {
+            outputStream.abort();
+            throw e;
+        }
+        return outputStream.getResult();
+    }
+
+    /**
+     * 压缩后上传，记录压缩比和压缩线程的CPU时间
+     *
+     * CPU时间包含写入分段缓冲区和阈值以内单次PUT的少量开销，分段本身在线程池中上传，不计入。
+     */
+    private UploadResult compressAndUpload(PutObjectRequest putObjectRequest, InputStream inputStream,
+                                           long contentLength, S3Properties.Compression.Encoding encoding)
+            throws IOException {
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        boolean cpuTimeSupported = threadMXBean.isCurrentThreadCpuTimeSupported();
+        long startCpuNanos = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() : 0;
+
+        PutObjectRequest encodedRequest = contentCompressor.applyEncoding(putObjectRequest, encoding, contentLength);
+        // 压缩后的大小不超过原始大小（忽略极少量的格式开销），按原始大小规划分段即可满足分段数上限
+        MultipartUploadOutputStream outputStream = openStream(encodedRequest, contentLength);
+        try {
+            OutputStream compressingStream = contentCompressor.compress(outputStream, encoding);
+            inputStream.transferTo(compressingStream);
+            compressingStream.close();
+        } catch (IOException | RuntimeException | Error e) {
+            outputStream.abort();
+            throw e;
+        }
+        long cpuNanos = cpuTimeSupported ? threadMXBean.getCurrentThreadCpuTime() - startCpuNanos : -1;
+
+        UploadResult result = outputStream.getResult();
+        result.setContentEncoding(S3ContentCompressor.encodingName(encoding));
+        result.setUncompressedLength(contentLength);
+        metrics.recordCompression(S3ContentCompressor.mediaType(putObjectRequest.contentType()),
+            result.getContentEncoding(), contentLength, result.getContentLength(), cpuNanos);
+        log.debug("压缩上传完成: {}, 编码: {}, {} -> {} 字节", putObjectRequest.key(), result.getContentEncoding(),
+                contentLength, result.getContentLength());
+        return result;
+    }
+
+    /**
+     * 打开分段上传输出流
+     *
+     * @param putObjectRequest 目标对象的请求模板
+     * @param expectedLength 预期内容长度，用于在超大文件时放大分段以满足S3的分段数上限；未知时为-1
+     * @return 分段上传输出流
+     */
+    public MultipartUploadOutputStream openStream(PutObjectRequest putObjectRequest, long expectedLength) {
+        S3Properties.Multipart multipart = s3Properties.getMultipart();
+        int partSize = resolvePartSize(expectedLength);
+        long threshold = multipart.isEnabled() ? multipart.getThreshold().toBytes() : Long.MAX_VALUE;
+
+        return new MultipartUploadOutputStream(
+            s3Client,
+            metrics,
+            s3TransferExecutor,
+            putObjectRequest,
+            partSize,
+            threshold,
+            multipart.getConcurrency(),
+            multipart.getMaxPartRetries(),
+            multipart.getRetryBackoff(),
+            checksumAlgorithm()
+        );
+    }
+
+    /**
+     * 以单次PUT请求上传，直接从输入流读取，不缓存内容（启用对冲的小文件除外）
+     */
+    private UploadResult putObject(PutObjectRequest putObjectRequest, InputStream inputStream, long contentLength)
+            throws IOException {
+        long startNanos = System.nanoTime();
+        ChecksumAlgorithm checksumAlgorithm = checksumAlgorithm();
+        PutObjectRequest request = putObjectRequest.toBuilder()
+            .contentLength(contentLength)
+            .checksumAlgorithm(checksumAlgorithm)
+            .build();
+
+        PutObjectResponse response;
+        if (requestHedger.isEnabled("putObject") && contentLength <= s3Properties.getHedge().getMaxPutSize().toBytes()) {
+            // 对冲请求需要再次发送请求体，小文件读入内存
+            byte[] content = inputStream.readNBytes((int) contentLength);
+            if (content.length != contentLength) {
+                throw new IOException("请求体长度与Content-Length不一致: 期望 " + contentLength + ", 实际 " + content.length);
+            }
+            response = requestHedger.call("putObject", () -> metrics.record("putObject",
+                () -> s3Client.putObject(request, RequestBody.fromBytes(content))));
+        } else {
+            response = metrics.record("putObject",
+                () -> s3Client.putObject(request, RequestBody.fromInputStream(inputStream, contentLength)));
+        }
+
+        return UploadResult.builder()
+            .eTag(response.eTag())
+            .contentLength(contentLength)
+            .checksumAlgorithm(S3Checksums.name(checksumAlgorithm))
+            .checksum(S3Checksums.of(response, checksumAlgorithm))
+            .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+            .build();
+    }
+
+    /**
+     * 配置的校验和算法，未启用时为null
+     */
+    private ChecksumAlgorithm checksumAlgorithm() {
+        return S3Checksums.toSdk(s3Properties.getChecksum().getAlgorithm());
+    }
+
+    /**
+     * 计算分段大小：不小于S3最小分段大小，且保证分段数不超过S3上限
+     */
+    private int resolvePartSize(long expectedLength) {
+        long partSize = Math.max(s3Properties.getMultipart().getPartSize().toBytes(), MIN_PART_SIZE);
+        if (expectedLength > 0) {
+            partSize = Math.max(partSize, (expectedLength + MAX_PARTS - 1) / MAX_PARTS);
+        }
+        if (partSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("文件过大，无法进行分段上传: " + expectedLength + " 字节");
+        }
+        return (int) partSize;
+    }
+}
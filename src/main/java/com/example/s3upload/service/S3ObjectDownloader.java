@@ -0,0 +1,198 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * S3下载引擎
+ *
+ * 以流的方式读取S3对象，通过固定大小的缓冲区复制到输出流，不会将对象加载到堆内存中。
+ * Range、If-None-Match、If-Modified-Since原样传给S3，部分读取和条件读取只传输实际需要的字节。
+ *
+ * 大文件可以使用并行分段下载：按 {@code aws.s3.download.parallel-part-size} 切分为多个范围请求，
+ * 同时在途 {@code aws.s3.download.parallel-concurrency} 个，按顺序写入输出流。
+ * 所有范围请求都带有 If-Match，下载期间对象被修改时请求失败，不会拼接出不同版本的内容。
+ *
+ * 启用 {@code aws.s3.hedge} 时，打开对象和范围请求经过 {@link S3RequestHedger}，
+ * 超过延迟分位数仍未返回响应头的请求会发送对冲请求。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ObjectDownloader {
+
+    /**
+     * S3客户端，配置不完整时为null（此时调用方不会调用本引擎）
+     */
+    @Nullable
+    private final S3Client s3Client;
+    private final S3Properties s3Properties;
+    private final ExecutorService s3TransferExecutor;
+    private final S3OperationMetrics metrics;
+    private final S3RequestHedger requestHedger;
+
+    /**
+     * 判断下载引擎是否可用
+     *
+     * @return S3客户端已初始化时返回true
+     */
+    public boolean isAvailable() {
+        return s3Client != null;
+    }
+
+    /**
+     * 打开S3对象的内容流
+     *
+     * 条件不满足时S3以异常返回：未修改为304，范围无效为416（InvalidRange），对象不存在为404（NoSuchKey）。
+     *
+     * @param s3Key 文件在S3中的键
+     * @param range HTTP Range请求头（可选，只支持单个范围）
+     * @param ifNoneMatch If-None-Match请求头（可选）
+     * @param ifModifiedSince If-Modified-Since时间（可选）
+     * @return 对象内容流，调用方负责关闭
+     */
+    public ResponseInputStream<GetObjectResponse> openObject(String s3Key, @Nullable String range,
+                                                             @Nullable String ifNoneMatch,
+                                                             @Nullable Instant ifModifiedSince) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            .bucket(s3Properties.getBucketName())
+            .key(s3Key)
+            .range(range)
+            .ifNoneMatch(ifNoneMatch)
+            .ifModifiedSince(ifModifiedSince)
+            .build();
+        return requestHedger.call("getObject", () -> metrics.record("getObject", () -> s3Client.getObject(getObjectRequest)));
+    }
+
+    /**
+     * 判断指定大小的文件是否使用并行分段下载
+     *
+     * @param contentLength 文件大小
+     * @return 文件不小于并行下载阈值且超过一个分段时返回true
+     */
+    public boolean isParallelEligible(long contentLength) {
+        S3Properties.Download download = s3Properties.getDownload();
+        return contentLength >= download.getParallelThreshold().toBytes()
+            && contentLength > partSize();
+    }
+
+    /**
+     * 并行下载时第一个分段的Range请求头
+     *
+     * @return 形如 bytes=0-8388607 的范围
+     */
+    public String firstPartRange() {
+        return "bytes=0-" + (partSize() - 1);
+    }
+
+    /**
+     * 将输入流的全部内容通过固定大小的缓冲区复制到输出流
+     *
+     * @param inputStream 输入流
+     * @param outputStream 输出流
+     * @return 复制的字节数
+     * @throws IOException 读取或写入失败时抛出
+     */
+    public long copy(InputStream inputStream, OutputStream outputStream) throws IOException {
+        byte[] buffer = new byte[(int) s3Properties.getDownload().getBufferSize().toBytes()];
+        long total = 0;
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            outputStream.write(buffer, 0, read);
+            total += read;
+        }
+        return total;
+    }
+
+    /**
+     * 并行下载对象从指定偏移量到末尾的内容，按顺序写入输出流
+     *
+     * 同时在途的范围请求数不超过配置值，内存中最多缓冲 concurrency 个分段。
+     *
+     * @param s3Key 文件在S3中的键
+     * @param eTag 对象的ETag，每个范围请求都以If-Match校验
+     * @param from 起始偏移量
+     * @param contentLength 对象总大小
+     * @param outputStream 输出流
+     * @throws IOException 写入输出流失败时抛出（S3错误以SDK异常原样抛出）
+     */
+    public void copyRanges(String s3Key, String eTag, long from, long contentLength, OutputStream outputStream)
+            throws IOException {
+        long partSize = partSize();
+        int concurrency = Math.max(1, s3Properties.getDownload().getParallelConcurrency());
+        Deque<CompletableFuture<byte[]>> window = new ArrayDeque<>(concurrency);
+        long next = from;
+
+        try {
+            while (next < contentLength || !window.isEmpty()) {
+                while (next < contentLength && window.size() < concurrency) {
+                    long start = next;
+                    long end = Math.min(start + partSize, contentLength) - 1;
+                    window.add(CompletableFuture.supplyAsync(() -> fetchRange(s3Key, eTag, start, end), s3TransferExecutor));
+                    next = end + 1;
+                }
+                outputStream.write(await(window.poll()));
+            }
+        } finally {
+            window.forEach(future -> future.cancel(false));
+        }
+    }
+
+    /**
+     * 下载单个范围的内容
+     */
+    private byte[] fetchRange(String s3Key, String eTag, long start, long end) {
+        GetObjectRequest getObjectRequest = GetObjectRequest.builder()
+            .bucket(s3Properties.getBucketName())
+            .key(s3Key)
+            .range("bytes=" + start + "-" + end)
+            .ifMatch(eTag)
+            .build();
+        byte[] data = requestHedger.call("getObject", () -> metrics.record("getObject",
+            () -> s3Client.getObjectAsBytes(getObjectRequest).asByteArrayUnsafe()));
+        log.debug("范围下载完成: {}, bytes={}-{}", s3Key, start, end);
+        return data;
+    }
+
+    /**
+     * 等待范围请求完成，S3错误以SDK异常原样抛出
+     */
+    private byte[] await(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SdkException sdkException) {
+                throw sdkException;
+            }
+            throw new IOException("范围下载失败: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * 并行下载的分段大小，不超过单个数组的容量
+     */
+    private long partSize() {
+        return Math.max(1, Math.min(s3Properties.getDownload().getParallelPartSize().toBytes(), Integer.MAX_VALUE - 8));
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.s3upload.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import software.amazon.awssdk.awscore.exception.AwsServiceException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * S3操作指标
+ *
+ * 通过Micrometer发布S3请求的耗时、结果和上传大小：
+ * - s3.operation（Timer）：每个S3操作的耗时，带p50/p95/p99分位数和直方图，
+ *   标签为 operation、client（sync/async）、outcome（success/failure）和 errorCode
+ * - s3.operation.calls（Counter）：按相同标签统计的调用次数
+ * - s3.upload.size（DistributionSummary）：成功上传的文件大小（字节），标签 api 区分上传接口
+ * - s3.upload.phase（Timer）：上传流程各阶段（Base64解码、网络传输）的耗时，标签 phase
+ * - s3.upload.deduplicated（DistributionSummary）：因内容去重而没有重新上传的文件大小（字节），标签 mode
+ * - s3.upload.compression.ratio（DistributionSummary）：上传压缩的压缩比（原始大小/压缩后大小），标签 contentType 和 encoding
+ * - s3.upload.compression.cpu（Timer）：上传压缩消耗的线程CPU时间，标签 contentType 和 encoding
+ * - s3.hedge.sent（Counter）：发送的对冲请求数，标签 operation
+ * - s3.hedge.won（Counter）：对冲请求先于首次请求成功的次数，标签 operation
+ *
+ * errorCode 为S3返回的错误代码（例如NoSuchKey、AccessDenied），没有错误代码时为HTTP状态码，
+ * 非S3服务端错误为异常类名，成功时为 none。
+ * 分位数和直方图可通过 management.metrics.distribution.* 配置覆盖。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Component
+public class S3OperationMetrics {
+
+    private static final String NO_ERROR = "none";
+
+    private final MeterRegistry meterRegistry;
+    private final Meter.MeterProvider<Timer> operationTimers;
+    private final Meter.MeterProvider<Counter> operationCounters;
+    private final Meter.MeterProvider<DistributionSummary> uploadSizes;
+    private final Meter.MeterProvider<Timer> uploadPhases;
+    private final Meter.MeterProvider<DistributionSummary> deduplicatedSizes;
+    private final Meter.MeterProvider<DistributionSummary> compressionRatios;
+    private final Meter.MeterProvider<Timer> compressionCpuTimes;
+    private final Meter.MeterProvider<Counter> hedgesSent;
+    private final Meter.MeterProvider<Counter> hedgesWon;
+
+    public S3OperationMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.operationTimers = Timer.builder("s3.operation")
+            .description("S3操作耗时")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(5))
+            .withRegistry(meterRegistry);
+        this.operationCounters = Counter.builder("s3.operation.calls")
+            .description("S3操作调用次数")
+            .withRegistry(meterRegistry);
+        this.uploadSizes = DistributionSummary.builder("s3.upload.size")
+            .description("成功上传的文件大小")
+            .baseUnit("bytes")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .serviceLevelObjectives(
+                DataSize.ofKilobytes(64).toBytes(),
+                DataSize.ofMegabytes(1).toBytes(),
+                DataSize.ofMegabytes(16).toBytes(),
+                DataSize.ofMegabytes(128).toBytes(),
+                DataSize.ofGigabytes(1).toBytes())
+            .withRegistry(meterRegistry);
+        this.uploadPhases = Timer.builder("s3.upload.phase")
+            .description("上传流程各阶段耗时")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .withRegistry(meterRegistry);
+        this.deduplicatedSizes = DistributionSummary.builder("s3.upload.deduplicated")
+            .description("因内容去重而没有重新上传的文件大小")
+            .baseUnit("bytes")
+            .withRegistry(meterRegistry);
+        this.compressionRatios = DistributionSummary.builder("s3.upload.compression.ratio")
+            .description("上传压缩的压缩比（原始大小/压缩后大小）")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .withRegistry(meterRegistry);
+        this.compressionCpuTimes = Timer.builder("s3.upload.compression.cpu")
+            .description("上传压缩消耗的线程CPU时间")
+            .publishPercentiles(0.5, 0.95, 0.99)
+            .withRegistry(meterRegistry);
+        this.hedgesSent = Counter.builder("s3.hedge.sent")
+            .description("发送的对冲请求数")
+            .withRegistry(meterRegistry);
+        this.hedgesWon = Counter.builder("s3.hedge.won")
+            .description("对冲请求先于首次请求成功的次数")
+            .withRegistry(meterRegistry);
+    }
+
+    /**
+     * 可以抛出受检异常的S3调用
+     *
+     * @param <T> 返回值类型
+     * @param <E> 异常类型
+     */
+    @FunctionalInterface
+    public interface Operation<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * 执行同步S3调用并记录耗时和结果，异常原样抛出
+     *
+     * @param operation 操作名称（例如putObject、headObject）
+     * @param call S3调用
+     * @return 调用结果
+     * @throws E 调用抛出的异常
+     */
+    public <T, E extends Exception> T record(String operation, Operation<T, E> call) throws E {
+        long startNanos = System.nanoTime();
+        try {
+            T result = call.call();
+            recordOperation(operation, "sync", startNanos, null);
+            return result;
+        } catch (Exception | Error e) {
+            recordOperation(operation, "sync", startNanos, e);
+            throw e;
+        }
+    }
+
+    /**
+     * 执行异步S3调用并在Future完成时记录耗时和结果
+     *
+     * @param operation 操作名称（例如putObject、headObject）
+     * @param call 返回Future的S3调用
+     * @return 与调用结果相同的Future
+     */
+    public <T> CompletableFuture<T> recordAsync(String operation, Supplier<CompletableFuture<T>> call) {
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException | Error e) {
+            recordOperation(operation, "async", startNanos, e);
+            throw e;
+        }
+        return future.whenComplete((result, error) -> recordOperation(operation, "async", startNanos, error));
+    }
+
+    /**
+     * 执行上传流程的一个阶段并记录耗时（无论成功与否）
+     *
+     * @param phase 阶段名称（decode、transfer）
+     * @param call 阶段内的操作
+     * @return 操作结果
+     * @throws E 操作抛出的异常
+     */
+    public <T, E extends Exception> T recordPhase(String phase, Operation<T, E> call) throws E {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return call.call();
+        } finally {
+            sample.stop(uploadPhases.withTags("phase", phase));
+        }
+    }
+
+    /**
+     * 记录一次成功上传的文件大小
+     *
+     * @param api 上传接口（base64、stream、async）
+     * @param bytes 文件大小（字节）
+     */
+    public void recordUploadSize(String api, long bytes) {
+        uploadSizes.withTags("api", api).record(bytes);
+    }
+
+    /**
+     * 记录一次内容去重命中
+     *
+     * @param mode 去重方式（reference、copy）
+     * @param bytes 没有重新上传的文件大小（字节）
+     */
+    public void recordDeduplicated(String mode, long bytes) {
+        deduplicatedSizes.withTags("mode", mode).record(bytes);
+    }
+
+    /**
+     * 记录一次上传压缩的压缩比和CPU时间
+     *
+     * @param contentType 内容类型（不含参数）
+     * @param encoding 压缩编码（gzip、zstd）
+     * @param originalBytes 原始大小（字节）
+     * @param compressedBytes 压缩后大小（字节）
+     * @param cpuNanos 压缩线程消耗的CPU时间（纳秒），JVM不支持线程CPU计时时为-1，此时不记录
+     */
+    public void recordCompression(String contentType, String encoding, long originalBytes, long compressedBytes,
+                                  long cpuNanos) {
+        compressionRatios.withTags("contentType", contentType, "encoding", encoding)
+            .record((double) originalBytes / Math.max(compressedBytes, 1));
+        if (cpuNanos >= 0) {
+            compressionCpuTimes.withTags("contentType", contentType, "encoding", encoding)
+                .record(cpuNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录发出的一个对冲请求（无论最终成功与否）
+     *
+     * @param operation 操作名称（例如getObject、headObject）
+     */
+    public void recordHedgeSent(String operation) {
+        hedgesSent.withTags("operation", operation).increment();
+    }
+
+    /**
+     * 记录对冲请求先于首次请求成功的一次
+     *
+     * @param operation 操作名称（例如getObject、headObject）
+     */
+    public void recordHedgeWon(String operation) {
+        hedgesWon.withTags("operation", operation).increment();
+    }
+
+    private void recordOperation(String operation, String client, long startNanos, Throwable error) {
+        String outcome = error == null ? "success" : "failure";
+        String errorCode = error == null ? NO_ERROR : errorCode(error);
+        operationTimers.withTags("operation", operation, "client", client, "outcome", outcome, "errorCode", errorCode)
+            .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        operationCounters.withTags("operation", operation, "client", client, "outcome", outcome, "errorCode", errorCode)
+            .increment();
+    }
+
+    /**
+     * 提取用作标签的错误代码
+     */
+    private static String errorCode(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof AwsServiceException serviceException) {
+            if (serviceException.awsErrorDetails() != null && serviceException.awsErrorDetails().errorCode() != null) {
+                return serviceException.awsErrorDetails().errorCode();
+            }
+            return "HTTP_" + serviceException.statusCode();
+        }
+        return error.getClass().getSimpleName();
+    }
+}
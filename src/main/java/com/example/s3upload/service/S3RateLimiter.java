@@ -0,0 +1,165 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按租户限流
+ *
+ * 每个租户（API密钥或路径前缀，见 {@code aws.s3.rate-limit.tenant-source}）有两个无锁令牌桶：请求数和传输字节数，
+ * 限额取 {@code tenants} 中的配置，未配置时取 {@code defaults}。
+ * 未在 {@code tenants} 中配置的租户还要从一组共享的令牌桶（{@code unknown-tenants}）中获取令牌，
+ * 更换API密钥或路径前缀虽然能得到新的满桶，但无法突破这些租户合计的限额。
+ * 请求进入时先扣除请求令牌，再按Content-Length扣除字节令牌，任何一个桶不足时归还已获取的令牌，
+ * 被拒绝的请求不消耗任何限额。下载等响应的字节数在请求完成后计入（超出部分记为欠账，使该租户之后的请求被限流直到补足）。
+ * 一个租户用尽限额只影响自己，不会让其他租户因为共享的S3请求速率而收到SlowDown；
+ * 共享的令牌桶耗尽时只影响未配置的租户，配置了限额的租户不受影响。
+ *
+ * 令牌桶按租户保存在Caffeine缓存中，空闲超过 {@code idle-timeout} 或租户数超过上限时被淘汰，
+ * 再次访问时从满桶开始。被限流的请求通过Micrometer计数：
+ * - s3.ratelimit.throttled（Counter）：被限流的请求数，标签 limit（requests、bytes）
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class S3RateLimiter {
+
+    private final S3Properties s3Properties;
+    private final Cache<String, TenantBuckets> buckets;
+    private final TenantBuckets unknownTenants;
+    private final Meter.MeterProvider<Counter> throttled;
+
+    public S3RateLimiter(S3Properties s3Properties, MeterRegistry meterRegistry) {
+        this.s3Properties = s3Properties;
+        S3Properties.RateLimit rateLimit = s3Properties.getRateLimit();
+        this.buckets = Caffeine.newBuilder()
+            .maximumSize(rateLimit.getMaximumTenants())
+            .expireAfterAccess(rateLimit.getIdleTimeout())
+            .build();
+        this.unknownTenants = createBuckets(rateLimit.getUnknownTenants());
+        this.throttled = Counter.builder("s3.ratelimit.throttled")
+            .description("按租户限流而被拒绝的请求数")
+            .withRegistry(meterRegistry);
+    }
+
+    /**
+     * 判断按租户限流是否启用
+     *
+     * @return 已启用时返回true
+     */
+    public boolean isEnabled() {
+        return s3Properties.getRateLimit().isEnabled();
+    }
+
+    /**
+     * 为一个请求获取请求令牌和字节令牌
+     *
+     * @param tenant 租户标识
+     * @param bytes 请求预计传输的字节数（上传的Content-Length），未知时为0
+     * @return 放行时返回0；被限流时返回建议客户端等待的秒数（至少为1）
+     */
+    public long tryAcquire(String tenant, long bytes) {
+        TenantBuckets tenantBuckets = buckets.get(tenant, this::createBuckets);
+        TenantBuckets sharedBuckets = isConfigured(tenant) ? null : unknownTenants;
+
+        long waitNanos = acquire(tenantBuckets.requests(), sharedBuckets == null ? null : sharedBuckets.requests(), 1);
+        if (waitNanos > 0) {
+            return throttle(tenant, "requests", waitNanos);
+        }
+        long tokens = Math.max(bytes, 0);
+        waitNanos = acquire(tenantBuckets.bytes(), sharedBuckets == null ? null : sharedBuckets.bytes(), tokens);
+        if (waitNanos > 0) {
+            refund(tenantBuckets.requests(), 1);
+            if (sharedBuckets != null) {
+                refund(sharedBuckets.requests(), 1);
+            }
+            return throttle(tenant, "bytes", waitNanos);
+        }
+        return 0;
+    }
+
+    /**
+     * 请求完成后计入实际传输的字节数（例如下载的响应长度）
+     *
+     * @param tenant 租户标识
+     * @param bytes 字节数
+     */
+    public void recordTransferred(String tenant, long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        TenantBuckets tenantBuckets = buckets.getIfPresent(tenant);
+        if (tenantBuckets != null && tenantBuckets.bytes() != null) {
+            tenantBuckets.bytes().consume(bytes);
+        }
+        if (!isConfigured(tenant) && unknownTenants.bytes() != null) {
+            unknownTenants.bytes().consume(bytes);
+        }
+    }
+
+    /**
+     * 依次从租户自己的令牌桶和共享的令牌桶获取令牌，共享的桶不足时归还租户桶中已获取的令牌
+     *
+     * @return 放行时返回0；否则返回需要等待的纳秒数
+     */
+    private static long acquire(@Nullable TokenBucket own, @Nullable TokenBucket shared, long tokens) {
+        long waitNanos = own != null ? own.tryAcquire(tokens) : 0;
+        if (waitNanos > 0 || shared == null) {
+            return waitNanos;
+        }
+        waitNanos = shared.tryAcquire(tokens);
+        if (waitNanos > 0) {
+            refund(own, tokens);
+        }
+        return waitNanos;
+    }
+
+    private static void refund(@Nullable TokenBucket bucket, long tokens) {
+        if (bucket != null) {
+            bucket.refund(tokens);
+        }
+    }
+
+    private long throttle(String tenant, String limit, long waitNanos) {
+        throttled.withTags("limit", limit).increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        log.debug("租户请求被限流: 租户={}, 限额={}, 建议等待={}s", tenant, limit, retryAfterSeconds);
+        return retryAfterSeconds;
+    }
+
+    private boolean isConfigured(String tenant) {
+        return s3Properties.getRateLimit().getTenants().containsKey(tenant);
+    }
+
+    private TenantBuckets createBuckets(String tenant) {
+        S3Properties.RateLimit rateLimit = s3Properties.getRateLimit();
+        return createBuckets(rateLimit.getTenants().getOrDefault(tenant, rateLimit.getDefaults()));
+    }
+
+    private static TenantBuckets createBuckets(S3Properties.RateLimit.Limit limit) {
+        TokenBucket requests = limit.getRequestsPerSecond() > 0
+            ? new TokenBucket(limit.getRequestsPerSecond(), limit.getRequestBurst())
+            : null;
+        TokenBucket bytes = limit.getBytesPerSecond().toBytes() > 0
+            ? new TokenBucket(limit.getBytesPerSecond().toBytes(), limit.getBytesBurst().toBytes())
+            : null;
+        return new TenantBuckets(requests, bytes);
+    }
+
+    /**
+     * 一个租户（或所有未配置租户共享）的令牌桶，限额为0的桶为null（不限制）
+     */
+    private record TenantBuckets(@Nullable TokenBucket requests, @Nullable TokenBucket bytes) {
+    }
+}
@@ -0,0 +1,242 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.exception.AbortedException;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * 幂等S3请求的对冲
+ *
+ * 启用 {@code aws.s3.hedge} 后，配置的操作（headObject、getObject、listObjectsV2、小文件putObject）
+ * 按操作在线统计最近成功请求的耗时分位数（见 {@link LatencyPercentileTracker}）。
+ * 请求在S3传输线程池中执行，调用线程等待到该分位数（不低于 {@code min-delay}）仍未完成时，
+ * 再发送一个相同的请求，先成功的结果生效；一个失败时等待另一个，都失败时抛出首次请求的异常。
+ * 落后的请求无法中途取消，完成后关闭它的结果（响应流直接中止连接，不读完剩余内容）。
+ *
+ * 对冲数受预算限制：每个请求积累 {@code max-hedge-ratio} 个对冲额度，最多积累 {@value #MAX_BURST} 个，
+ * 额度不足或线程池已满时不对冲，S3整体变慢时不会让请求量翻倍。样本数不足时请求直接在调用线程执行。
+ * 对冲次数和对冲请求先成功的次数通过 {@link S3OperationMetrics#recordHedgeSent(String)} 和
+ * {@link S3OperationMetrics#recordHedgeWon(String)} 发布。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class S3RequestHedger {
+
+    /**
+     * 对冲额度最多积累的个数
+     */
+    private static final long MAX_BURST = 10;
+
+    /**
+     * 对冲额度的计量单位（千分之一个对冲）
+     */
+    private static final long CREDIT_UNIT = 1000;
+
+    private final S3Properties s3Properties;
+    private final ExecutorService s3TransferExecutor;
+    private final S3OperationMetrics metrics;
+    private final Map<String, LatencyPercentileTracker> trackers = new ConcurrentHashMap<>();
+    private final AtomicLong credits = new AtomicLong(MAX_BURST * CREDIT_UNIT);
+
+    public S3RequestHedger(S3Properties s3Properties, ExecutorService s3TransferExecutor, S3OperationMetrics metrics) {
+        this.s3Properties = s3Properties;
+        this.s3TransferExecutor = s3TransferExecutor;
+        this.metrics = metrics;
+    }
+
+    /**
+     * 判断指定操作是否启用对冲
+     *
+     * @param operation 操作名称（headObject、getObject、listObjectsV2、putObject）
+     * @return 已启用时返回true
+     */
+    public boolean isEnabled(String operation) {
+        S3Properties.Hedge hedge = s3Properties.getHedge();
+        return hedge.isEnabled() && hedge.getOperations().contains(operation);
+    }
+
+    /**
+     * 执行一个幂等的S3请求，超过延迟分位数时发送对冲请求
+     *
+     * 调用可能被执行两次，必须没有副作用（或重复执行的结果相同）。未启用对冲时直接调用。
+     *
+     * @param operation 操作名称
+     * @param call S3请求
+     * @return 先成功的请求结果
+     */
+    public <T> T call(String operation, Supplier<T> call) {
+        if (!isEnabled(operation)) {
+            return call.get();
+        }
+        S3Properties.Hedge hedge = s3Properties.getHedge();
+        LatencyPercentileTracker tracker = trackers.computeIfAbsent(operation,
+            ignored -> new LatencyPercentileTracker(hedge.getPercentile(), hedge.getWindowSize(), hedge.getMinSamples()));
+        earnCredit(hedge.getMaxHedgeRatio());
+
+        long percentileNanos = tracker.percentileNanos();
+        if (percentileNanos < 0) {
+            long startNanos = System.nanoTime();
+            T result = call.get();
+            tracker.record(System.nanoTime() - startNanos);
+            return result;
+        }
+
+        long delayNanos = Math.max(percentileNanos, hedge.getMinDelay().toNanos());
+        CompletableFuture<T> primary = attempt(call, tracker);
+        try {
+            return primary.get(delayNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // 首次请求超过延迟分位数，尝试对冲
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            primary.thenAccept(S3RequestHedger::discard);
+            throw AbortedException.create("等待S3请求时线程被中断");
+        }
+
+        if (isSaturated() || !spendCredit()) {
+            return await(primary);
+        }
+        CompletableFuture<T> hedged = attempt(call, tracker);
+        metrics.recordHedgeSent(operation);
+        log.debug("S3请求超过延迟分位数，发送对冲请求: 操作={}, 延迟={}ms", operation,
+                TimeUnit.NANOSECONDS.toMillis(delayNanos));
+        return race(operation, primary, hedged);
+    }
+
+    /**
+     * 等待首次请求和对冲请求中先成功的一个
+     */
+    private <T> T race(String operation, CompletableFuture<T> primary, CompletableFuture<T> hedged) {
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        AtomicReference<Throwable> primaryError = new AtomicReference<>();
+
+        primary.whenComplete((result, error) -> {
+            if (error == null) {
+                if (!winner.complete(result)) {
+                    discard(result);
+                }
+            } else {
+                primaryError.set(error);
+                if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(error);
+                }
+            }
+        });
+        hedged.whenComplete((result, error) -> {
+            if (error == null) {
+                if (winner.complete(result)) {
+                    metrics.recordHedgeWon(operation);
+                } else {
+                    discard(result);
+                }
+            } else if (failures.incrementAndGet() == 2) {
+                winner.completeExceptionally(primaryError.get() != null ? primaryError.get() : error);
+            }
+        });
+
+        return await(winner);
+    }
+
+    /**
+     * 在传输线程池中执行一次请求，成功时记录耗时（线程池已满时由调用线程执行）
+     */
+    private <T> CompletableFuture<T> attempt(Supplier<T> call, LatencyPercentileTracker tracker) {
+        return CompletableFuture.supplyAsync(() -> {
+            long startNanos = System.nanoTime();
+            T result = call.get();
+            tracker.record(System.nanoTime() - startNanos);
+            return result;
+        }, s3TransferExecutor);
+    }
+
+    /**
+     * 等待请求完成，请求的异常原样抛出
+     */
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw propagate(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.thenAccept(S3RequestHedger::discard);
+            throw AbortedException.create("等待S3请求时线程被中断");
+        }
+    }
+
+    private static RuntimeException propagate(Throwable error) {
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        return new CompletionException(error);
+    }
+
+    /**
+     * 关闭没有被采用的请求结果
+     */
+    private static void discard(Object result) {
+        try {
+            if (result instanceof ResponseInputStream<?> responseInputStream) {
+                responseInputStream.abort();
+            } else if (result instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        } catch (Exception e) {
+            log.debug("关闭落后的对冲请求结果失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 线程池没有空闲线程时不对冲（否则对冲请求会在调用线程中执行，反而阻塞等待）
+     */
+    private boolean isSaturated() {
+        return s3TransferExecutor instanceof ThreadPoolExecutor pool
+            && pool.getActiveCount() >= pool.getMaximumPoolSize();
+    }
+
+    private void earnCredit(double ratio) {
+        long earned = (long) (Math.max(ratio, 0) * CREDIT_UNIT);
+        if (earned > 0) {
+            credits.accumulateAndGet(earned, (current, delta) -> Math.min(current + delta, MAX_BURST * CREDIT_UNIT));
+        }
+    }
+
+    private boolean spendCredit() {
+        long current;
+        do {
+            current = credits.get();
+            if (current < CREDIT_UNIT) {
+                return false;
+            }
+        } while (!credits.compareAndSet(current, current - CREDIT_UNIT));
+        return true;
+    }
+}
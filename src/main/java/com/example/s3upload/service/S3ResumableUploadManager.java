@@ -0,0 +1,666 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3ResumableUploadRequest;
+import com.example.s3upload.dto.S3ResumableUploadResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.model.UploadPartRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * S3断点续传管理器
+ *
+ * 实现类似tus的可恢复上传协议：客户端创建会话后按固定分块大小依次提交文件内容，
+ * 每个分块带有起始偏移量，服务端只接受从已提交偏移量开始的完整分块。连接中断后客户端
+ * 查询已提交的偏移量并从该位置继续，最多重传一个分块，而不是整个文件。
+ *
+ * 每个分块先暂存到本地磁盘，完整接收后作为一个分段（UploadPart）上传到S3，
+ * 成功后会话状态以JSON文件持久化到 {@code aws.s3.resumable.state-dir}；
+ * 最后一个分块提交后自动合并分段完成上传。服务重启时从状态目录恢复未完成的会话，
+ * 客户端可以直接继续上传。超过 {@code aws.s3.resumable.session-ttl} 仍未完成的会话由后台线程中止。
+ *
+ * 同一会话同一时间只处理一个分块请求，并发的请求返回UPLOAD_IN_PROGRESS。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3ResumableUploadManager {
+
+    /**
+     * S3允许的最小分段大小（最后一个分段除外）
+     */
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * S3允许的最大分段数
+     */
+    private static final int MAX_PARTS = 10_000;
+
+    /**
+     * 接收分块时的复制缓冲区大小
+     */
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final String STATE_SUFFIX = ".json";
+    private static final String CHUNK_SUFFIX = ".chunk";
+
+    /**
+     * S3客户端，配置不完整时为null
+     */
+    @Nullable
+    private final S3Client s3Client;
+    private final S3Service s3Service;
+    private final S3Properties s3Properties;
+    private final S3MetadataCache metadataCache;
+    private final S3OperationMetrics metrics;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 进行中的会话，以会话ID为键
+     */
+    private final Map<String, ActiveSession> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * 会话状态目录，目录不可用时为null
+     */
+    private Path stateDir;
+
+    private ScheduledExecutorService sweeper;
+
+    /**
+     * 内存中的会话：当前状态和保证同一会话串行处理的锁
+     */
+    private static final class ActiveSession {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private volatile ResumableUploadState state;
+
+        private ActiveSession(ResumableUploadState state) {
+            this.state = state;
+        }
+    }
+
+    /**
+     * 从状态目录恢复未完成的会话，并启动过期会话的后台清理
+     */
+    @PostConstruct
+    public void start() {
+        Path dir = Paths.get(s3Properties.getResumable().getStateDir()).toAbsolutePath();
+        try {
+            Files.createDirectories(dir);
+            stateDir = dir;
+            restoreSessions();
+        } catch (IOException e) {
+            log.error("断点续传状态目录不可用: {}, 错误: {}", dir, e.getMessage());
+        }
+
+        Duration interval = s3Properties.getResumable().getSweepInterval();
+        sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "s3-resumable-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sweeper.scheduleWithFixedDelay(this::sweepQuietly, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("断点续传已启动，状态目录: {}, 恢复会话数: {}, 会话有效期: {}",
+                dir, sessions.size(), s3Properties.getResumable().getSessionTtl());
+    }
+
+    /**
+     * 停止后台清理（会话状态保留在磁盘上，重启后继续）
+     */
+    @PreDestroy
+    public void stop() {
+        if (sweeper != null) {
+            sweeper.shutdownNow();
+        }
+    }
+
+    /**
+     * 创建断点续传会话
+     *
+     * 文件键和内容类型的规则与服务端上传相同。分块大小取 {@code aws.s3.resumable.chunk-size}，
+     * 超大文件会自动放大以满足S3的分段数上限。
+     *
+     * @param uploadRequest 会话请求对象
+     * @return 会话响应，包含会话ID、分块大小和初始偏移量0
+     */
+    public S3ResumableUploadResponse createSession(S3ResumableUploadRequest uploadRequest) {
+        log.info("开始创建断点续传会话: {}, 文件大小: {}", uploadRequest.getFileName(), uploadRequest.getContentLength());
+
+        if (s3Client == null) {
+            log.error("S3客户端未初始化");
+            return S3ResumableUploadResponse.failure(
+                "S3配置不完整，请检查以下配置项: " + s3Properties.getMissingConfigurations(),
+                "CONFIGURATION_ERROR"
+            );
+        }
+        if (stateDir == null) {
+            return S3ResumableUploadResponse.failure(
+                "断点续传状态目录不可用，请检查 aws.s3.resumable.state-dir 配置", "CONFIGURATION_ERROR");
+        }
+
+        long contentLength = uploadRequest.getContentLength();
+        try {
+            String s3Key = s3Service.buildS3Key(uploadRequest.getPathPrefix(), uploadRequest.getFileName());
+            if (!uploadRequest.isOverwrite() && s3Service.fileExists(s3Key)) {
+                log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                return S3ResumableUploadResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+            }
+            String contentType = s3Service.determineContentType(uploadRequest.getContentType(), uploadRequest.getFileName());
+
+            CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(s3Key)
+                .contentType(contentType)
+                .metadata(s3Service.buildObjectMetadata(uploadRequest.getFileName()))
+                .build();
+            CreateMultipartUploadResponse createResponse = metrics.record("createMultipartUpload",
+                () -> s3Client.createMultipartUpload(createRequest));
+
+            Instant now = Instant.now();
+            ResumableUploadState state = ResumableUploadState.builder()
+                .sessionId(UUID.randomUUID().toString())
+                .s3UploadId(createResponse.uploadId())
+                .s3Key(s3Key)
+                .fileName(uploadRequest.getFileName())
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .chunkSize(resolveChunkSize(contentLength))
+                .offset(0)
+                .chunks(List.of())
+                .createdAt(now)
+                .expiresAt(now.plus(s3Properties.getResumable().getSessionTtl()))
+                .build();
+
+            try {
+                persist(state);
+            } catch (IOException e) {
+                log.error("保存断点续传会话状态失败: {}, 错误: {}", state.getSessionId(), e.getMessage());
+                abortQuietly(state);
+                return S3ResumableUploadResponse.failure("保存会话状态失败: " + e.getMessage(), "UNKNOWN_ERROR");
+            }
+            sessions.put(state.getSessionId(), new ActiveSession(state));
+            log.info("断点续传会话已创建: {}, 会话ID: {}, 分块大小: {}",
+                    s3Key, state.getSessionId(), state.getChunkSize());
+
+            return buildResponse(state, "断点续传会话创建成功");
+
+        } catch (S3Exception e) {
+            log.error("创建分段上传失败: {}", e.getMessage());
+            return S3ResumableUploadResponse.failure(
+                "创建分段上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("创建断点续传会话发生未知错误: {}", e.getMessage(), e);
+            return S3ResumableUploadResponse.failure(
+                "创建断点续传会话失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 查询会话的已提交偏移量
+     *
+     * @param sessionId 会话ID
+     * @return 会话响应
+     */
+    public S3ResumableUploadResponse getStatus(String sessionId) {
+        return findSession(sessionId)
+            .map(session -> buildResponse(session.state, "查询成功"))
+            .orElseGet(() -> sessionNotFound(sessionId));
+    }
+
+    /**
+     * 提交一个分块
+     *
+     * 分块必须从已提交的偏移量开始，且大小必须恰好为下一个分块的预期大小（分块大小，最后一块为剩余字节数）。
+     * 请求体接收不完整（例如连接中断）时分块被丢弃，偏移量不变，客户端从原偏移量重传该分块。
+     * 最后一个分块提交后自动完成上传；若完成失败，可以在偏移量等于文件大小处提交一个空分块重试。
+     *
+     * @param sessionId 会话ID
+     * @param offset 分块起始偏移量
+     * @param body 分块内容
+     * @param declaredLength 请求声明的内容长度，未知时为-1
+     * @return 会话响应，包含提交后的偏移量
+     */
+    public S3ResumableUploadResponse appendChunk(String sessionId, long offset, InputStream body, long declaredLength) {
+        Optional<ActiveSession> found = findSession(sessionId);
+        if (found.isEmpty()) {
+            return sessionNotFound(sessionId);
+        }
+        ActiveSession session = found.get();
+        if (!session.lock.tryLock()) {
+            return withOffset(S3ResumableUploadResponse.failure(
+                "该会话正在处理其他分块，请稍后查询偏移量后重试", "UPLOAD_IN_PROGRESS"), session.state);
+        }
+
+        try {
+            if (sessions.get(sessionId) != session) {
+                return sessionNotFound(sessionId);
+            }
+            ResumableUploadState state = session.state;
+            if (offset != state.getOffset()) {
+                return withOffset(S3ResumableUploadResponse.failure(
+                    String.format("偏移量不匹配: 请求 %d，已提交 %d", offset, state.getOffset()), "OFFSET_MISMATCH"), state);
+            }
+
+            long expected = state.nextChunkLength();
+            if (declaredLength >= 0 && declaredLength != expected) {
+                return withOffset(S3ResumableUploadResponse.failure(
+                    String.format("请求参数验证失败: 分块大小必须为 %d 字节，实际为 %d 字节", expected, declaredLength),
+                    "VALIDATION_ERROR"), state);
+            }
+            if (state.isFullyReceived()) {
+                return complete(session);
+            }
+
+            Path chunkFile = stateDir.resolve(sessionId + CHUNK_SUFFIX);
+            try {
+                long received;
+                try {
+                    received = spool(body, chunkFile, expected);
+                } catch (IOException e) {
+                    log.warn("接收分块中断: 会话ID={}, 偏移量={}, 错误: {}", sessionId, offset, e.getMessage());
+                    return withOffset(S3ResumableUploadResponse.failure(
+                        "接收分块失败: " + e.getMessage(), "INVALID_REQUEST_BODY"), state);
+                }
+                if (received != expected) {
+                    String message = received > expected
+                        ? String.format("请求参数验证失败: 分块超过 %d 字节", expected)
+                        : String.format("分块不完整: 应为 %d 字节，实际收到 %d 字节", expected, received);
+                    return withOffset(S3ResumableUploadResponse.failure(message, "VALIDATION_ERROR"), state);
+                }
+
+                int partNumber = state.getChunks().size() + 1;
+                UploadPartRequest partRequest = UploadPartRequest.builder()
+                    .bucket(s3Properties.getBucketName())
+                    .key(state.getS3Key())
+                    .uploadId(state.getS3UploadId())
+                    .partNumber(partNumber)
+                    .contentLength(expected)
+                    .build();
+                UploadPartResponse partResponse = metrics.record("uploadPart",
+                    () -> s3Client.uploadPart(partRequest, RequestBody.fromFile(chunkFile)));
+
+                List<ResumableUploadState.Chunk> chunks = new ArrayList<>(state.getChunks());
+                chunks.add(new ResumableUploadState.Chunk(partNumber, partResponse.eTag(), expected));
+                ResumableUploadState next = state.toBuilder()
+                    .offset(state.getOffset() + expected)
+                    .chunks(List.copyOf(chunks))
+                    .build();
+                // 先持久化再更新内存：持久化失败时偏移量不前进，客户端重传的分块会覆盖同一分段编号
+                persist(next);
+                session.state = next;
+                log.debug("分块已提交: {}, 分段号: {}, 偏移量: {}/{}",
+                        state.getS3Key(), partNumber, next.getOffset(), next.getContentLength());
+
+                if (next.isFullyReceived()) {
+                    return complete(session);
+                }
+                return buildResponse(next, "分块已提交");
+
+            } catch (NoSuchUploadException e) {
+                discard(session);
+                log.warn("分段上传已不存在（可能已被中止）: {}", sessionId);
+                return sessionNotFound(sessionId);
+            } catch (S3Exception e) {
+                log.error("上传分块失败: {}", e.getMessage());
+                return withOffset(S3ResumableUploadResponse.failure(
+                    "上传分块失败: " + e.getMessage(), e.awsErrorDetails().errorCode()), session.state);
+            } catch (Exception e) {
+                log.error("提交分块发生未知错误: {}", e.getMessage(), e);
+                return withOffset(S3ResumableUploadResponse.failure(
+                    "提交分块失败: " + e.getMessage(), "UNKNOWN_ERROR"), session.state);
+            } finally {
+                deleteQuietly(chunkFile);
+            }
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * 中止会话，删除S3中已上传的分段和本地会话状态
+     *
+     * @param sessionId 会话ID
+     * @return 会话响应
+     */
+    public S3ResumableUploadResponse abortSession(String sessionId) {
+        log.info("开始中止断点续传: 会话ID={}", sessionId);
+
+        ActiveSession session = sessions.get(sessionId);
+        if (session == null) {
+            return sessionNotFound(sessionId);
+        }
+        if (!session.lock.tryLock()) {
+            return withOffset(S3ResumableUploadResponse.failure(
+                "该会话正在处理分块，请稍后重试", "UPLOAD_IN_PROGRESS"), session.state);
+        }
+        try {
+            if (!sessions.remove(sessionId, session)) {
+                return sessionNotFound(sessionId);
+            }
+            ResumableUploadState state = session.state;
+            deleteState(sessionId);
+            abort(state);
+            return S3ResumableUploadResponse.builder()
+                .success(true)
+                .message("断点续传已中止")
+                .sessionId(sessionId)
+                .s3Key(state.getS3Key())
+                .bucketName(s3Properties.getBucketName())
+                .createTime(LocalDateTime.now())
+                .build();
+        } catch (S3Exception e) {
+            log.error("中止分段上传失败: {}", e.getMessage());
+            return S3ResumableUploadResponse.failure(
+                "中止分段上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("中止断点续传发生未知错误: {}", e.getMessage(), e);
+            return S3ResumableUploadResponse.failure("中止断点续传失败: " + e.getMessage(), "UNKNOWN_ERROR");
+        } finally {
+            session.lock.unlock();
+        }
+    }
+
+    /**
+     * 进行中的会话数
+     *
+     * @return 会话数
+     */
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * 判断S3分段上传是否属于进行中的会话
+     *
+     * @param s3UploadId S3分段上传ID
+     * @return 属于进行中的会话时返回true
+     */
+    boolean ownsUpload(String s3UploadId) {
+        return sessions.values().stream().anyMatch(session -> s3UploadId.equals(session.state.getS3UploadId()));
+    }
+
+    /**
+     * 中止所有已过期的会话（正在处理分块的会话留到下一轮）
+     *
+     * @return 中止的会话数
+     */
+    public int sweepExpiredSessions() {
+        int aborted = 0;
+        for (Map.Entry<String, ActiveSession> entry : sessions.entrySet()) {
+            ActiveSession session = entry.getValue();
+            if (!session.state.isExpired() || !session.lock.tryLock()) {
+                continue;
+            }
+            try {
+                if (sessions.remove(entry.getKey(), session)) {
+                    deleteState(entry.getKey());
+                    abortQuietly(session.state);
+                    aborted++;
+                }
+            } finally {
+                session.lock.unlock();
+            }
+        }
+        if (aborted > 0) {
+            log.info("已中止 {} 个过期的断点续传会话", aborted);
+        }
+        return aborted;
+    }
+
+    /**
+     * 合并已提交的分块，完成上传（调用方持有会话锁）
+     */
+    private S3ResumableUploadResponse complete(ActiveSession session) {
+        ResumableUploadState state = session.state;
+        List<CompletedPart> completedParts = state.getChunks().stream()
+            .map(chunk -> CompletedPart.builder().partNumber(chunk.getPartNumber()).eTag(chunk.getETag()).build())
+            .toList();
+
+        try {
+            CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(state.getS3Key())
+                .uploadId(state.getS3UploadId())
+                .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                .build();
+            CompleteMultipartUploadResponse completeResponse = metrics.record("completeMultipartUpload",
+                () -> s3Client.completeMultipartUpload(completeRequest));
+            discard(session);
+            metadataCache.invalidate(state.getS3Key());
+            metrics.recordUploadSize("resumable", state.getContentLength());
+            log.info("断点续传完成: {}, 分块数: {}, 大小: {} 字节, ETag: {}",
+                    state.getS3Key(), completedParts.size(), state.getContentLength(), completeResponse.eTag());
+
+            S3ResumableUploadResponse response = buildResponse(state, "文件上传成功");
+            response.setCompleted(true);
+            response.setFileUrl(s3Service.generateFileUrl(state.getS3Key()));
+            return response;
+
+        } catch (NoSuchUploadException e) {
+            discard(session);
+            log.warn("分段上传已不存在（可能已被中止）: {}", state.getSessionId());
+            return sessionNotFound(state.getSessionId());
+        } catch (S3Exception e) {
+            // 会话保留，客户端可以在偏移量等于文件大小处提交空分块重试
+            log.error("完成分段上传失败: {}", e.getMessage());
+            return withOffset(S3ResumableUploadResponse.failure(
+                "完成分段上传失败: " + e.getMessage(), e.awsErrorDetails().errorCode()), state);
+        } catch (Exception e) {
+            log.error("完成断点续传发生未知错误: {}", e.getMessage(), e);
+            return withOffset(S3ResumableUploadResponse.failure(
+                "完成断点续传失败: " + e.getMessage(), "UNKNOWN_ERROR"), state);
+        }
+    }
+
+    /**
+     * 查找未过期的会话
+     */
+    private Optional<ActiveSession> findSession(String sessionId) {
+        ActiveSession session = sessions.get(sessionId);
+        if (session == null || session.state.isExpired()) {
+            return Optional.empty();
+        }
+        return Optional.of(session);
+    }
+
+    /**
+     * 从内存和磁盘上移除会话（不中止S3中的分段上传）
+     */
+    private void discard(ActiveSession session) {
+        String sessionId = session.state.getSessionId();
+        sessions.remove(sessionId, session);
+        deleteState(sessionId);
+    }
+
+    /**
+     * 将请求体写入暂存文件，最多读取 expected + 1 字节
+     *
+     * @return 读取的字节数，超过expected时表示分块过大
+     */
+    private long spool(InputStream body, Path chunkFile, long expected) throws IOException {
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+        long total = 0;
+        try (OutputStream out = Files.newOutputStream(chunkFile)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                total += read;
+                if (total > expected) {
+                    return total;
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * 持久化会话状态：先写入临时文件再原子替换，进程崩溃时不会留下不完整的状态文件
+     */
+    private void persist(ResumableUploadState state) throws IOException {
+        Path target = stateDir.resolve(state.getSessionId() + STATE_SUFFIX);
+        Path temp = stateDir.resolve(state.getSessionId() + STATE_SUFFIX + ".tmp");
+        objectMapper.writeValue(temp.toFile(), state);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 从状态目录恢复会话，并清理上次运行遗留的分块暂存文件
+     */
+    private void restoreSessions() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(stateDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (!name.endsWith(STATE_SUFFIX)) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                try {
+                    ResumableUploadState state = objectMapper.readValue(file.toFile(), ResumableUploadState.class);
+                    sessions.put(state.getSessionId(), new ActiveSession(state));
+                    log.info("已恢复断点续传会话: {}, 会话ID: {}, 偏移量: {}/{}",
+                            state.getS3Key(), state.getSessionId(), state.getOffset(), state.getContentLength());
+                } catch (IOException e) {
+                    log.error("读取断点续传会话状态失败，已忽略: {}, 错误: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void deleteState(String sessionId) {
+        if (stateDir != null) {
+            deleteQuietly(stateDir.resolve(sessionId + STATE_SUFFIX));
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除断点续传文件失败: {}, {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * 中止S3中的分段上传，分段上传已不存在时视为成功
+     */
+    private void abort(ResumableUploadState state) {
+        try {
+            metrics.record("abortMultipartUpload", () -> s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(s3Properties.getBucketName())
+                .key(state.getS3Key())
+                .uploadId(state.getS3UploadId())
+                .build()));
+            log.info("断点续传的分段上传已中止: {}, 会话ID: {}", state.getS3Key(), state.getSessionId());
+        } catch (NoSuchUploadException e) {
+            log.debug("分段上传已不存在: {}", state.getS3UploadId());
+        }
+    }
+
+    private void abortQuietly(ResumableUploadState state) {
+        try {
+            abort(state);
+        } catch (Exception e) {
+            log.error("中止分段上传失败: {}, 会话ID: {}, 错误: {}", state.getS3Key(), state.getSessionId(), e.getMessage());
+        }
+    }
+
+    private S3ResumableUploadResponse sessionNotFound(String sessionId) {
+        return S3ResumableUploadResponse.failure("断点续传会话不存在或已过期: " + sessionId, "UPLOAD_SESSION_NOT_FOUND");
+    }
+
+    /**
+     * 在失败响应中附带当前偏移量，客户端据此继续上传
+     */
+    private S3ResumableUploadResponse withOffset(S3ResumableUploadResponse response, ResumableUploadState state) {
+        response.setSessionId(state.getSessionId());
+        response.setOffset(state.getOffset());
+        response.setContentLength(state.getContentLength());
+        response.setChunkSize(state.getChunkSize());
+        return response;
+    }
+
+    private S3ResumableUploadResponse buildResponse(ResumableUploadState state, String message) {
+        return S3ResumableUploadResponse.builder()
+            .success(true)
+            .message(message)
+            .sessionId(state.getSessionId())
+            .s3Key(state.getS3Key())
+            .offset(state.getOffset())
+            .contentLength(state.getContentLength())
+            .chunkSize(state.getChunkSize())
+            .completed(false)
+            .contentType(state.getContentType())
+            .bucketName(s3Properties.getBucketName())
+            .expiresAt(state.getExpiresAt())
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * 计算分块大小：不小于S3最小分段大小，且保证分块数不超过S3上限
+     */
+    private long resolveChunkSize(long contentLength) {
+        long chunkSize = Math.max(s3Properties.getResumable().getChunkSize().toBytes(), MIN_PART_SIZE);
+        return Math.max(chunkSize, (contentLength + MAX_PARTS - 1) / MAX_PARTS);
+    }
+
+    /**
+     * 后台清理任务，异常不会中断后续的定时清理
+     */
+    private void sweepQuietly() {
+        try {
+            sweepExpiredSessions();
+        } catch (Exception e) {
+            log.error("清理过期的断点续传会话发生异常: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -1,33 +1,64 @@
 package com.example.s3upload.service;
 
 import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3BatchDeleteRequest;
+import com.example.s3upload.dto.S3BatchDeleteResponse;
+import com.example.s3upload.dto.S3BatchUploadResponse;
+import com.example.s3upload.dto.S3PresignedUploadCompleteRequest;
+import com.example.s3upload.dto.S3PresignedUploadRequest;
+import com.example.s3upload.dto.S3PresignedUploadResponse;
+import com.example.s3upload.dto.S3StreamUploadRequest;
 import com.example.s3upload.dto.S3UploadRequest;
 import com.example.s3upload.dto.S3UploadResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.stream.StreamSupport;
 
 /**
  * AWS S3服务类
  * 
  * 提供与AWS S3交互的所有核心功能，包括：
- * - 文件上传
+ * - 文件上传（超过阈值时自动使用并发分段上传）
+ * - 批量上传（多个文件有界并发上传）
+ * - 预签名直传（生成预签名PUT URL，文件内容由客户端直接上传到S3，完成后确认）
  * - 文件下载
- * - 文件删除
+ * - 文件删除（单个删除、按键列表或前缀批量删除）
  * - 文件列表
  * - 存储桶操作
  * - 连接测试
+ * - 上述操作的异步版本（基于S3AsyncClient，返回CompletableFuture）
  * 
  * 该服务类是S3操作的核心组件，封装了所有与AWS SDK的交互细节。
  * 
@@ -39,8 +70,41 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class S3Service {
 
+    /**
+     * 分页遍历文件时每页的最大数量（S3上限）
+     */
+    private static final int LIST_PAGE_SIZE = 1000;
+
+    /**
+     * 保存内容SHA-256的对象元数据键（x-amz-meta-content-sha256），供内容去重使用
+     */
+    static final String CONTENT_SHA256_METADATA = "content-sha256";
+
+    /**
+     * S3客户端，配置不完整时为null
+     */
+    @Nullable
     private final S3Client s3Client;
+
+    /**
+     * S3异步客户端，未启用异步模式或配置不完整时为null
+     */
+    @Nullable
+    private final S3AsyncClient s3AsyncClient;
+
+    /**
+     * S3预签名器，配置不完整时为null
+     */
+    @Nullable
+    private final S3Presigner s3Presigner;
     private final S3Properties s3Properties;
+    private final S3MultipartUploader multipartUploader;
+    private final S3BulkDeleter bulkDeleter;
+    private final S3MetadataCache metadataCache;
+    private final S3OperationMetrics metrics;
+    private final ExecutorService s3TransferExecutor;
+    private final S3RequestHedger requestHedger;
+    private final S3KeyLayout keyLayout;
 
     /**
      * 测试S3连接
@@ -71,7 +135,7 @@ public class S3Service {
                 .bucket(s3Properties.getBucketName())
                 .build();
             
-            s3Client.headBucket(headBucketRequest);
+            metrics.record("headBucket", () -> s3Client.headBucket(headBucketRequest));
             log.info("S3连接测试成功！存储桶 '{}' 可访问", s3Properties.getBucketName());
             
             return S3UploadResponse.builder()
@@ -128,7 +192,8 @@ public class S3Service {
             // 解码Base64文件内容
             byte[] fileBytes;
             try {
-                fileBytes = Base64.getDecoder().decode(uploadRequest.getFileContent());
+                fileBytes = metrics.recordPhase("decode",
+                    () -> Base64.getDecoder().decode(uploadRequest.getFileContent()));
                 log.debug("文件内容解码成功，大小: {} 字节", fileBytes.length);
             } catch (IllegalArgumentException e) {
                 log.error("文件内容Base64解码失败: {}", e.getMessage());
@@ -150,49 +215,475 @@ public class S3Service {
             log.debug("确定的内容类型: {}", contentType);
 
             // 构建上传请求
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                .bucket(s3Properties.getBucketName())
-                .key(s3Key)
+            PutObjectRequest putObjectRequest = buildPutObjectRequest(
+                s3Key, contentType, uploadRequest.getFileName());
+
+            // 执行文件上传（超过阈值时自动使用分段上传）
+            UploadResult uploadResult = metrics.recordPhase("transfer", () -> multipartUploader.upload(
+                putObjectRequest,
+                new ByteArrayInputStream(fileBytes),
+                fileBytes.length
+            ));
+
+            log.info("文件上传成功: {}, ETag: {}", s3Key, uploadResult.getETag());
+            metrics.recordUploadSize("base64", uploadResult.getContentLength());
+
+            // 返回成功响应
+            metadataCache.put(s3Key, toObjectMetadata(putObjectRequest, uploadResult));
+            return buildUploadResponse(s3Key, contentType, uploadResult);
+
+        } catch (S3Exception e) {
+            log.error("S3上传失败: {}", e.getMessage());
+            return S3UploadResponse.failure(
+                "S3上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("文件上传发生未知错误: {}", e.getMessage(), e);
+            return S3UploadResponse.failure(
+                "文件上传失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 批量上传文件到S3
+     * 
+     * 各文件按 {@code aws.s3.batch.parallelism} 限制的并发度同时上传，
+     * 每个文件独立处理（包括解码、存在性检查和上传），单个文件失败不影响其他文件。
+     * 返回结果的顺序与请求中的文件顺序一致。
+     * 
+     * @param uploadRequests 上传请求列表
+     * @return 批量上传结果响应
+     */
+    public S3BatchUploadResponse uploadFiles(List<S3UploadRequest> uploadRequests) {
+        S3Properties.Batch batch = s3Properties.getBatch();
+        log.info("开始批量上传文件，文件数: {}, 并发度: {}", uploadRequests.size(), batch.getParallelism());
+
+        // 检查S3客户端是否可用
+        if (s3Client == null) {
+            log.error("S3客户端未初始化");
+            return S3BatchUploadResponse.failure(
+                "S3配置不完整，请检查以下配置项: " + s3Properties.getMissingConfigurations(),
+                "CONFIGURATION_ERROR"
+            );
+        }
+
+        if (uploadRequests.size() > batch.getMaxFiles()) {
+            log.warn("批量上传文件数超过上限: {} > {}", uploadRequests.size(), batch.getMaxFiles());
+            return S3BatchUploadResponse.failure(
+                "单次批量上传最多允许 " + batch.getMaxFiles() + " 个文件",
+                "BATCH_TOO_LARGE"
+            );
+        }
+
+        long startNanos = System.nanoTime();
+        Semaphore permits = new Semaphore(Math.max(1, batch.getParallelism()));
+        List<CompletableFuture<S3UploadResponse>> futures = new ArrayList<>(uploadRequests.size());
+
+        try {
+            for (S3UploadRequest uploadRequest : uploadRequests) {
+                // 达到并发上限时在此等待，保证同时在途的上传数不超过配置值
+                permits.acquire();
+                CompletableFuture<S3UploadResponse> future;
+                try {
+                    future = CompletableFuture.supplyAsync(() -> uploadFile(uploadRequest), s3TransferExecutor);
+                } catch (RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+                futures.add(future
+                    .exceptionally(e -> {
+                        Throwable cause = unwrapCompletionException(e);
+                        log.error("批量上传中的文件上传失败: {}, {}", uploadRequest.getFileName(), cause.getMessage(), cause);
+                        return S3UploadResponse.failure("文件上传失败: " + cause.getMessage(), "UNKNOWN_ERROR");
+                    })
+                    .whenComplete((response, e) -> permits.release()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(false));
+            log.warn("批量上传被中断");
+            return S3BatchUploadResponse.failure("批量上传被中断", "UNKNOWN_ERROR");
+        }
+
+        List<S3UploadResponse> results = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            S3UploadResponse response = futures.get(i).join();
+            response.setFileName(uploadRequests.get(i).getFileName());
+            results.add(response);
+        }
+
+        S3BatchUploadResponse batchResponse =
+            S3BatchUploadResponse.of(results, (System.nanoTime() - startNanos) / 1_000_000);
+        log.info("批量上传完成，成功: {}, 失败: {}, 耗时: {} ms",
+                batchResponse.getSuccessCount(), batchResponse.getFailureCount(), batchResponse.getDurationMillis());
+        return batchResponse;
+    }
+
+    /**
+     * 以流的方式上传文件到S3
+     * 
+     * 此方法直接将输入流中的字节转发给S3的PUT请求，不会在内存中缓存整个文件，
+     * 单次上传的堆内存占用与文件大小无关（仅SDK内部用于重试的少量缓冲区）。
+     * 调用方负责输入流的生命周期（例如Servlet请求输入流由容器关闭）。
+     * 
+     * @param uploadRequest 流式上传请求对象，包含文件元数据和内容长度
+     * @param inputStream 文件内容输入流
+     * @return 上传结果响应
+     */
+    public S3UploadResponse uploadStream(S3StreamUploadRequest uploadRequest, InputStream inputStream) {
+        return uploadStream(uploadRequest, inputStream, null);
+    }
+
+    /**
+     * 以流的方式上传文件到S3，并将内容的SHA-256写入对象元数据
+     * 
+     * 写入的哈希供内容去重使用（{@link S3ContentDeduplicator}），重建去重索引时也从对象元数据中读取。
+     * 
+     * @param uploadRequest 流式上传请求对象，包含文件元数据和内容长度
+     * @param inputStream 文件内容输入流
+     * @param contentSha256 内容的SHA-256（十六进制），为null时不写入
+     * @return 上传结果响应
+     */
+    public S3UploadResponse uploadStream(S3StreamUploadRequest uploadRequest, InputStream inputStream,
+                                         @Nullable String contentSha256) {
+        log.info("开始流式上传文件: {}, 内容长度: {}", uploadRequest.getFileName(), uploadRequest.getContentLength());
+        
+        // 检查S3客户端是否可用
+        if (s3Client == null) {
+            log.error("S3客户端未初始化");
+            return S3UploadResponse.configurationError(s3Properties.getMissingConfigurations());
+        }
+
+        // 禁用分段上传时，单次PUT请求必须预先知道内容长度
+        if (!multipartUploader.canUpload(uploadRequest.getContentLength())) {
+            log.warn("流式上传缺少内容长度: {}", uploadRequest.getFileName());
+            return S3UploadResponse.failure("流式上传需要提供Content-Length请求头", "LENGTH_REQUIRED");
+        }
+
+        try {
+            // 构建S3文件键（完整路径）
+            String s3Key = buildS3Key(uploadRequest.getPathPrefix(), uploadRequest.getFileName());
+            log.debug("生成的S3文件键: {}", s3Key);
+
+            // 检查文件是否已存在（如果不允许覆盖）
+            if (!uploadRequest.isOverwrite() && fileExists(s3Key)) {
+                log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                return S3UploadResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+            }
+
+            // 确定内容类型
+            String contentType = determineContentType(uploadRequest.getContentType(), uploadRequest.getFileName());
+            log.debug("确定的内容类型: {}", contentType);
+
+            PutObjectRequest putObjectRequest = buildPutObjectRequest(
+                s3Key, contentType, uploadRequest.getFileName(), contentSha256);
+
+            // 直接从输入流读取并发送；超过阈值或长度未知时按分段并发上传，内存占用有界
+            UploadResult uploadResult = metrics.recordPhase("transfer", () -> multipartUploader.upload(
+                putObjectRequest,
+                inputStream,
+                uploadRequest.getContentLength()
+            ));
+
+            log.info("文件流式上传成功: {}, ETag: {}", s3Key, uploadResult.getETag());
+            metrics.recordUploadSize("stream", uploadResult.getContentLength());
+
+            metadataCache.put(s3Key, toObjectMetadata(putObjectRequest, uploadResult));
+            return buildUploadResponse(s3Key, contentType, uploadResult);
+
+        } catch (S3Exception e) {
+            log.error("S3流式上传失败: {}", e.getMessage());
+            return S3UploadResponse.failure(
+                "S3上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("文件流式上传发生未知错误: {}", e.getMessage(), e);
+            return S3UploadResponse.failure(
+                "文件上传失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 在服务端将已有文件复制为新文件
+     * 
+     * 内容去重的COPY模式使用：新文件的键、内容类型和对象元数据按本次上传的请求生成，
+     * 内容由S3在服务端复制，不经过本服务。单次CopyObject最大支持5GB。
+     * 已有文件是压缩保存的时，新文件沿用其Content-Encoding和原始大小元数据。
+     * 
+     * @param sourceKey 已有文件的键
+     * @param uploadRequest 本次上传的请求
+     * @param contentSha256 内容的SHA-256（十六进制）
+     * @param contentLength 内容长度
+     * @return 上传结果响应（s3Key为新文件的键）
+     */
+    public S3UploadResponse copyFile(String sourceKey, S3StreamUploadRequest uploadRequest,
+                                     String contentSha256, long contentLength) {
+        if (s3Client == null) {
+            log.error("S3客户端未初始化");
+            return S3UploadResponse.configurationError(s3Properties.getMissingConfigurations());
+        }
+
+        try {
+            String s3Key = buildS3Key(uploadRequest.getPathPrefix(), uploadRequest.getFileName());
+            if (!uploadRequest.isOverwrite() && fileExists(s3Key)) {
+                log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                return S3UploadResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+            }
+
+            String contentType = determineContentType(uploadRequest.getContentType(), uploadRequest.getFileName());
+            Map<String, String> metadata = new LinkedHashMap<>(
+                buildObjectMetadata(uploadRequest.getFileName(), contentSha256));
+            Optional<HeadObjectResponse> sourceMetadata = getFileMetadata(sourceKey);
+            String contentEncoding = sourceMetadata.map(HeadObjectResponse::contentEncoding).orElse(null);
+            long storedLength = contentLength;
+            if (contentEncoding != null) {
+                metadata.put(S3ContentCompressor.UNCOMPRESSED_LENGTH_METADATA, Long.toString(contentLength));
+                storedLength = sourceMetadata.get().contentLength();
+            }
+            CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
+                .sourceBucket(s3Properties.getBucketName())
+                .sourceKey(sourceKey)
+                .destinationBucket(s3Properties.getBucketName())
+                .destinationKey(s3Key)
+                .metadataDirective(MetadataDirective.REPLACE)
                 .contentType(contentType)
-                .contentLength((long) fileBytes.length)
-                // 设置元数据
-                .metadata(java.util.Map.of(
-                    "original-filename", uploadRequest.getFileName(),
-                    "upload-timestamp", LocalDateTime.now().toString(),
-                    "uploaded-by", "s3-upload-service"
-                ))
+                .contentEncoding(contentEncoding)
+                .metadata(metadata)
                 .build();
+            CopyObjectResponse copyObjectResponse = metrics.record("copyObject",
+                () -> s3Client.copyObject(copyObjectRequest));
+
+            log.info("文件内容已存在，服务端复制完成: {} -> {}", sourceKey, s3Key);
+            metadataCache.put(s3Key, HeadObjectResponse.builder()
+                .eTag(copyObjectResponse.copyObjectResult().eTag())
+                .contentLength(storedLength)
+                .contentType(contentType)
+                .contentEncoding(contentEncoding)
+                .metadata(metadata)
+                .lastModified(Instant.now())
+                .build());
+            S3UploadResponse response = S3UploadResponse.success(
+                s3Key, generateFileUrl(s3Key), contentLength, contentType, s3Properties.getBucketName());
+            if (contentEncoding != null) {
+                response.setContentEncoding(contentEncoding);
+                response.setStoredSize(storedLength);
+            }
+            return response;
 
-            // 执行文件上传
-            PutObjectResponse putObjectResponse = s3Client.putObject(
-                putObjectRequest, 
-                RequestBody.fromBytes(fileBytes)
+        } catch (S3Exception e) {
+            log.error("S3复制文件失败: {}", e.getMessage());
+            return S3UploadResponse.failure(
+                "S3复制失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
             );
+        } catch (Exception e) {
+            log.error("复制文件发生未知错误: {}", e.getMessage(), e);
+            return S3UploadResponse.failure(
+                "文件复制失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
 
-            log.info("文件上传成功: {}, ETag: {}", s3Key, putObjectResponse.eTag());
+    /**
+     * 将本地暂存文件上传到指定的S3键
+     * 
+     * 供写回队列在后台使用：文件键和内容类型在接收上传时已经确定并返回给客户端，
+     * 这里不再重新生成。文件键带有随机UUID，接收上传时已检查过是否存在，
+     * 此时S3中已有的同键对象只可能是本任务之前的尝试（例如上传成功但结果未记录就重启）写入的，
+     * 因此不再检查，直接覆盖。失败时不抛出异常，由调用方根据错误代码决定是否重试。
+     * 
+     * @param s3Key 文件在S3中的键
+     * @param contentType 文件内容类型
+     * @param fileName 原始文件名（写入对象元数据）
+     * @param contentFile 本地文件路径
+     * @return 上传结果响应
+     */
+    public S3UploadResponse uploadSpooledFile(String s3Key, String contentType, String fileName, Path contentFile) {
+        if (s3Client == null) {
+            log.error("S3客户端未初始化");
+            return S3UploadResponse.configurationError(s3Properties.getMissingConfigurations());
+        }
 
-            // 生成文件访问URL
-            String fileUrl = generateFileUrl(s3Key);
+        try (InputStream inputStream = Files.newInputStream(contentFile)) {
+            PutObjectRequest putObjectRequest = buildPutObjectRequest(s3Key, contentType, fileName);
+            long contentLength = Files.size(contentFile);
+            UploadResult uploadResult = metrics.recordPhase("transfer",
+                () -> multipartUploader.upload(putObjectRequest, inputStream, contentLength));
 
-            // 返回成功响应
-            return S3UploadResponse.success(
+            log.info("暂存文件上传成功: {}, ETag: {}", s3Key, uploadResult.getETag());
+            metrics.recordUploadSize("write-behind", uploadResult.getContentLength());
+
+            metadataCache.put(s3Key, toObjectMetadata(putObjectRequest, uploadResult));
+            return buildUploadResponse(s3Key, contentType, uploadResult);
+
+        } catch (S3Exception e) {
+            log.error("S3上传暂存文件失败: {}", e.getMessage());
+            return S3UploadResponse.failure(
+                "S3上传失败: " + e.getMessage(),
+                e.awsErrorDetails().errorCode()
+            );
+        } catch (Exception e) {
+            log.error("上传暂存文件发生未知错误: {}", e.getMessage(), e);
+            return S3UploadResponse.failure(
+                "文件上传失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 生成直接上传到S3的预签名PUT URL
+     * 
+     * 文件键和内容类型的规则与服务端上传完全相同（{@link #buildS3Key}、{@link #determineContentType}），
+     * 内容类型、对象元数据以及可选的文件大小都会签入URL，客户端上传时必须携带响应中返回的请求头。
+     * 生成过程只在本地计算签名，不访问S3（不允许覆盖时的存在性检查除外）。
+     * 
+     * @param uploadRequest 预签名上传请求对象，包含文件元数据
+     * @return 预签名上传响应，包含上传URL、需要携带的请求头和过期时间
+     */
+    public S3PresignedUploadResponse createPresignedUpload(S3PresignedUploadRequest uploadRequest) {
+        log.info("开始生成预签名上传URL: {}", uploadRequest.getFileName());
+        
+        if (s3Presigner == null) {
+            log.error("S3预签名器未初始化");
+            return S3PresignedUploadResponse.failure(
+                "S3配置不完整，请检查以下配置项: " + s3Properties.getMissingConfigurations(),
+                "CONFIGURATION_ERROR"
+            );
+        }
+
+        try {
+            String s3Key = buildS3Key(uploadRequest.getPathPrefix(), uploadRequest.getFileName());
+            log.debug("生成的S3文件键: {}", s3Key);
+
+            if (!uploadRequest.isOverwrite() && fileExists(s3Key)) {
+                log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                return S3PresignedUploadResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+            }
+
+            String contentType = determineContentType(uploadRequest.getContentType(), uploadRequest.getFileName());
+            log.debug("确定的内容类型: {}", contentType);
+
+            // 元数据作为x-amz-meta-*请求头签入URL，浏览器无法发送非ASCII的请求头，因此文件名按URL编码保存
+            PutObjectRequest.Builder putObjectRequest = buildPutObjectRequest(
+                s3Key, contentType, URLEncoder.encode(uploadRequest.getFileName(), StandardCharsets.UTF_8))
+                .toBuilder();
+            if (uploadRequest.getContentLength() != null) {
+                putObjectRequest.contentLength(uploadRequest.getContentLength());
+            }
+
+            PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(PutObjectPresignRequest.builder()
+                .signatureDuration(s3Properties.getPresign().getExpiry())
+                .putObjectRequest(putObjectRequest.build())
+                .build());
+
+            // host和content-length由HTTP客户端自动设置，其余签名请求头需要客户端原样携带
+            Map<String, String> headers = new LinkedHashMap<>();
+            presignedRequest.signedHeaders().forEach((name, values) -> {
+                if (!"host".equalsIgnoreCase(name) && !"content-length".equalsIgnoreCase(name)) {
+                    headers.put(name, String.join(",", values));
+                }
+            });
+
+            log.info("预签名上传URL生成成功: {}, 过期时间: {}", s3Key, presignedRequest.expiration());
+            return S3PresignedUploadResponse.builder()
+                .success(true)
+                .message("预签名上传URL生成成功")
+                .s3Key(s3Key)
+                .uploadUrl(presignedRequest.url().toString())
+                .method(presignedRequest.httpRequest().method().name())
+                .headers(headers)
+                .expiresAt(presignedRequest.expiration())
+                .fileUrl(generateFileUrl(s3Key))
+                .contentType(contentType)
+                .bucketName(s3Properties.getBucketName())
+                .createTime(LocalDateTime.now())
+                .build();
+
+        } catch (Exception e) {
+            log.error("生成预签名上传URL发生未知错误: {}", e.getMessage(), e);
+            return S3PresignedUploadResponse.failure(
+                "生成预签名上传URL失败: " + e.getMessage(),
+                "UNKNOWN_ERROR"
+            );
+        }
+    }
+
+    /**
+     * 确认通过预签名URL直接上传的文件
+     * 
+     * 文件由客户端直接写入S3，本服务此前没有看到任何内容。这里绕过元数据缓存向S3发送headObject请求，
+     * 确认对象已存在，并按请求中提供的大小和ETag进行核对；确认成功后更新元数据缓存并记录上传指标。
+     * 
+     * @param completeRequest 完成请求对象，包含文件键及可选的大小和ETag
+     * @return 上传结果响应
+     */
+    public S3UploadResponse completePresignedUpload(S3PresignedUploadCompleteRequest completeRequest) {
+        String s3Key = completeRequest.getS3Key();
+        log.info("开始确认预签名上传: {}", s3Key);
+        
+        if (s3Client == null) {
+            log.error("S3客户端未初始化");
+            return S3UploadResponse.configurationError(s3Properties.getMissingConfigurations());
+        }
+
+        try {
+            // 申请URL时的存在性检查可能留下了负向条目，先失效再从S3加载
+            metadataCache.invalidate(s3Key);
+            Optional<HeadObjectResponse> metadata = metadataCache.get(s3Key, this::loadObjectMetadata);
+            if (metadata.isEmpty()) {
+                log.warn("预签名上传的文件不存在: {}", s3Key);
+                return S3UploadResponse.failure("文件尚未上传到S3: " + s3Key, "FILE_NOT_FOUND");
+            }
+
+            HeadObjectResponse headObject = metadata.get();
+            if (completeRequest.getContentLength() != null
+                    && !completeRequest.getContentLength().equals(headObject.contentLength())) {
+                log.warn("预签名上传的文件大小不一致: {}, 期望: {}, 实际: {}",
+                        s3Key, completeRequest.getContentLength(), headObject.contentLength());
+                return S3UploadResponse.failure(
+                    String.format("文件大小不一致: 期望 %d 字节，S3中为 %d 字节",
+                        completeRequest.getContentLength(), headObject.contentLength()),
+                    "UPLOAD_MISMATCH"
+                );
+            }
+            if (completeRequest.getETag() != null
+                    && !stripQuotes(completeRequest.getETag()).equals(stripQuotes(headObject.eTag()))) {
+                log.warn("预签名上传的ETag不一致: {}, 期望: {}, 实际: {}",
+                        s3Key, completeRequest.getETag(), headObject.eTag());
+                return S3UploadResponse.failure("文件ETag不一致，S3中的对象可能已被其他上传覆盖", "UPLOAD_MISMATCH");
+            }
+
+            log.info("预签名上传确认成功: {}, 大小: {}, ETag: {}", s3Key, headObject.contentLength(), headObject.eTag());
+            metrics.recordUploadSize("presigned", headObject.contentLength());
+
+            S3UploadResponse response = S3UploadResponse.success(
                 s3Key,
-                fileUrl,
-                (long) fileBytes.length,
-                contentType,
+                generateFileUrl(s3Key),
+                headObject.contentLength(),
+                headObject.contentType(),
                 s3Properties.getBucketName()
             );
+            response.setMessage("文件上传已确认");
+            return response;
 
         } catch (S3Exception e) {
-            log.error("S3上传失败: {}", e.getMessage());
+            log.error("确认预签名上传失败: {}", e.getMessage());
             return S3UploadResponse.failure(
-                "S3上传失败: " + e.getMessage(),
+                "确认上传失败: " + e.getMessage(),
                 e.awsErrorDetails().errorCode()
             );
         } catch (Exception e) {
-            log.error("文件上传发生未知错误: {}", e.getMessage(), e);
+            log.error("确认预签名上传发生未知错误: {}", e.getMessage(), e);
             return S3UploadResponse.failure(
-                "文件上传失败: " + e.getMessage(),
+                "确认上传失败: " + e.getMessage(),
                 "UNKNOWN_ERROR"
             );
         }
@@ -206,21 +697,28 @@ public class S3Service {
      */
     public boolean fileExists(String s3Key) {
         try {
-            HeadObjectRequest headObjectRequest = HeadObjectRequest.builder()
-                .bucket(s3Properties.getBucketName())
-                .key(s3Key)
-                .build();
-            
-            s3Client.headObject(headObjectRequest);
-            return true;
-        } catch (NoSuchKeyException e) {
-            return false;
+            return metadataCache.get(s3Key, this::loadObjectMetadata).isPresent();
         } catch (Exception e) {
             log.warn("检查文件是否存在时发生错误: {}", e.getMessage());
             return false;
         }
     }
 
+    /**
+     * 获取S3中文件的元数据
+     * 
+     * 优先从元数据缓存读取，未命中时发送headObject请求并缓存结果（包括文件不存在的结果）。
+     * 
+     * @param s3Key 文件在S3中的键
+     * @return 文件元数据，文件不存在时为空
+     */
+    public Optional<HeadObjectResponse> getFileMetadata(String s3Key) {
+        if (s3Client == null) {
+            throw new RuntimeException("S3客户端未初始化");
+        }
+        return metadataCache.get(s3Key, this::loadObjectMetadata);
+    }
+
     /**
      * 从S3删除文件
      * 
@@ -246,7 +744,8 @@ public class S3Service {
                 .key(s3Key)
                 .build();
 
-            s3Client.deleteObject(deleteObjectRequest);
+            metrics.record("deleteObject", () -> s3Client.deleteObject(deleteObjectRequest));
+            metadataCache.markMissing(s3Key);
             log.info("文件删除成功: {}", s3Key);
 
             return S3UploadResponse.builder()
@@ -273,32 +772,125 @@ public class S3Service {
     }
 
     /**
-     * 列出S3存储桶中的文件
+     * 批量删除S3中的文件
+     * 
+     * 按键列表或按前缀删除，使用DeleteObjects每次删除最多1000个键，多个批次并发执行。
+     * 与单文件删除不同，这里不会逐个检查文件是否存在（S3对不存在的键同样视为删除成功），
+     * 每1000个键只需一次请求。
+     * 启用默认上传路径分区时，逻辑日期前缀（例如 uploads/2024/01/01/）会展开到所有分区并行列出后删除。
+     * 
+     * @param deleteRequest 批量删除请求，keys和prefix必须且只能提供其中一个
+     * @return 批量删除结果响应
+     */
+    public S3BatchDeleteResponse deleteFiles(S3BatchDeleteRequest deleteRequest) {
+        List<String> keys = deleteRequest.getKeys();
+        String prefix = deleteRequest.getPrefix();
+        boolean hasKeys = keys != null && !keys.isEmpty();
+        boolean hasPrefix = prefix != null && !prefix.trim().isEmpty();
+        log.info("开始批量删除文件，键数: {}, 前缀: {}", hasKeys ? keys.size() : 0, prefix);
+        
+        if (s3Client == null) {
+            return S3BatchDeleteResponse.failure(
+                "S3配置不完整，请检查以下配置项: " + s3Properties.getMissingConfigurations(),
+                "CONFIGURATION_ERROR"
+            );
+        }
+
+        // 空前缀会删除整个存储桶，不允许
+        if (hasKeys == hasPrefix) {
+            log.warn("批量删除参数无效: keys和prefix必须且只能提供其中一个");
+            return S3BatchDeleteResponse.failure(
+                "请求参数验证失败: keys和prefix必须且只能提供其中一个，prefix不能为空",
+                "VALIDATION_ERROR"
+            );
+        }
+        if (hasKeys && keys.stream().anyMatch(key -> key == null || key.isEmpty())) {
+            return S3BatchDeleteResponse.failure("请求参数验证失败: keys: 文件键不能为空", "VALIDATION_ERROR");
+        }
+
+        BulkDeleteResult result;
+        try {
+            if (hasPrefix && keyLayout.isPartitionedPrefix(prefix)) {
+                // 逻辑日期前缀：并行列出所有分区，边列出边删除
+                Iterable<ListObjectsV2Response> pages = listAllFiles(prefix);
+                Iterable<String> partitionedKeys = () -> StreamSupport.stream(pages.spliterator(), false)
+                    .flatMap(page -> page.contents().stream())
+                    .map(S3Object::key)
+                    .iterator();
+                result = bulkDeleter.deleteKeys(partitionedKeys);
+            } else {
+                result = hasPrefix ? bulkDeleter.deletePrefix(prefix) : bulkDeleter.deleteKeys(keys);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("批量删除被中断");
+            return S3BatchDeleteResponse.failure("批量删除被中断", "UNKNOWN_ERROR");
+        }
+
+        S3BatchDeleteResponse.S3BatchDeleteResponseBuilder response = S3BatchDeleteResponse.builder()
+            .prefix(hasPrefix ? prefix : null)
+            .deletedCount(result.getDeletedCount())
+            .failedCount(result.getFailedCount())
+            .batchCount(result.getBatchCount())
+            .errors(result.getErrors().stream()
+                .map(error -> new S3BatchDeleteResponse.KeyError(error.key(), error.code(), error.message()))
+                .toList())
+            .durationMillis(result.getDurationMillis())
+            .deleteTime(LocalDateTime.now());
+
+        if (result.getListingError() != null) {
+            SdkException listingError = result.getListingError();
+            log.error("按前缀删除被中断，已删除: {}, 失败: {}", result.getDeletedCount(), result.getFailedCount());
+            return response
+                .success(false)
+                .message("列出文件失败，批量删除未完成: " + listingError.getMessage())
+                .errorCode(listingError instanceof S3Exception s3Exception
+                    ? s3Exception.awsErrorDetails().errorCode()
+                    : "LIST_EXCEPTION")
+                .build();
+        }
+
+        log.info("批量删除完成，删除: {}, 失败: {}, 批次数: {}, 耗时: {} ms",
+                result.getDeletedCount(), result.getFailedCount(), result.getBatchCount(), result.getDurationMillis());
+        return response
+            .success(result.getFailedCount() == 0)
+            .message(result.getFailedCount() == 0
+                ? "批量删除成功"
+                : String.format("批量删除完成，%d 个文件删除失败", result.getFailedCount()))
+            .build();
+    }
+
+    /**
+     * 列出S3存储桶中的文件（单页）
+     * 
+     * 启用默认上传路径分区时，逻辑日期前缀（例如 uploads/2024/01/01/）会展开到所有分区并行列出，
+     * 按去掉分区后的键合并排序，见 {@link S3KeyLayout}。
      * 
      * @param prefix 文件键前缀（用于过滤）
      * @param maxKeys 最大返回数量
-     * @return 文件列表
+     * @param continuationToken 上一页响应中的nextContinuationToken，获取第一页时为null
+     * @return 一页文件列表，包含是否还有下一页及下一页的继续令牌
      */
-    public List<S3Object> listFiles(String prefix, int maxKeys) {
-        log.info("列出文件，前缀: {}, 最大数量: {}", prefix, maxKeys);
+    public ListObjectsV2Response listFiles(String prefix, int maxKeys, String continuationToken) {
+        log.info("列出文件，前缀: {}, 最大数量: {}, 继续令牌: {}", prefix, maxKeys, continuationToken);
         
         if (s3Client == null) {
             throw new RuntimeException("S3客户端未初始化");
         }
 
         try {
-            ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
-                .bucket(s3Properties.getBucketName())
-                .maxKeys(maxKeys);
-            
-            if (prefix != null && !prefix.trim().isEmpty()) {
-                requestBuilder.prefix(prefix);
+            ListObjectsV2Response response;
+            if (keyLayout.isPartitionedPrefix(prefix)) {
+                // 逻辑日期前缀：并行列出所有分区并合并，继续令牌是上一页最后一个逻辑键
+                String startAfter = continuationToken == null || continuationToken.isEmpty() ? null : continuationToken;
+                response = new PartitionedListing(keyLayout, prefix, startAfter, buildListRequest(null, maxKeys, null),
+                    this::listPage, s3TransferExecutor).nextPage(maxKeys);
+            } else {
+                response = listPage(buildListRequest(prefix, maxKeys, continuationToken));
             }
-
-            ListObjectsV2Response response = s3Client.listObjectsV2(requestBuilder.build());
-            log.info("找到 {} 个文件", response.contents().size());
+            log.info("找到 {} 个文件，是否还有更多: {}", response.contents().size(), response.isTruncated());
             
-            return response.contents();
+            return response;
             
         } catch (Exception e) {
             log.error("列出文件时发生错误: {}", e.getMessage(), e);
@@ -306,18 +898,521 @@ public class S3Service {
         }
     }
 
+    /**
+     * 分页遍历S3存储桶中的所有文件
+     * 
+     * 返回的可迭代对象是惰性的：每次迭代到下一页时才发送对应的listObjectsV2请求，
+     * 调用方可以逐页处理而无需在内存中保存全部结果。遍历过程中的S3错误在迭代时抛出。
+     * 逻辑日期前缀在启用分区时同样展开到所有分区并合并，每页最多1000个文件。
+     * 
+     * @param prefix 文件键前缀（用于过滤）
+     * @return 按页迭代的文件列表
+     */
+    public Iterable<ListObjectsV2Response> listAllFiles(String prefix) {
+        log.info("分页遍历文件，前缀: {}", prefix);
+        
+        if (s3Client == null) {
+            throw new RuntimeException("S3客户端未初始化");
+        }
+
+        if (keyLayout.isPartitionedPrefix(prefix)) {
+            return () -> new PartitionedListing(keyLayout, prefix, null,
+                buildListRequest(null, LIST_PAGE_SIZE, null), this::listPage, s3TransferExecutor).pages(LIST_PAGE_SIZE);
+        }
+        return s3Client.listObjectsV2Paginator(buildListRequest(prefix, LIST_PAGE_SIZE, null));
+    }
+
+    /**
+     * 发送一次listObjectsV2请求（启用对冲时经过 {@link S3RequestHedger}）
+     */
+    private ListObjectsV2Response listPage(ListObjectsV2Request listRequest) {
+        return requestHedger.call("listObjectsV2",
+            () -> metrics.record("listObjectsV2", () -> s3Client.listObjectsV2(listRequest)));
+    }
+
+    /**
+     * 异步测试S3连接
+     * 
+     * 与 {@link #testConnection()} 行为一致，但通过S3AsyncClient发送请求，调用线程不会被阻塞。
+     * 
+     * @return 测试结果响应的Future
+     */
+    public CompletableFuture<S3UploadResponse> testConnectionAsync() {
+        log.info("开始异步测试S3连接...");
+        
+        S3UploadResponse unavailable = checkAsyncClient();
+        if (unavailable != null) {
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        HeadBucketRequest headBucketRequest = HeadBucketRequest.builder()
+            .bucket(s3Properties.getBucketName())
+            .build();
+
+        return metrics.recordAsync("headBucket", () -> s3AsyncClient.headBucket(headBucketRequest))
+            .thenApply(response -> {
+                log.info("S3异步连接测试成功！存储桶 '{}' 可访问", s3Properties.getBucketName());
+                return S3UploadResponse.builder()
+                    .success(true)
+                    .message("S3连接测试成功")
+                    .bucketName(s3Properties.getBucketName())
+                    .uploadTime(LocalDateTime.now())
+                    .build();
+            })
+            .exceptionally(error -> {
+                Throwable cause = unwrapCompletionException(error);
+                if (cause instanceof NoSuchBucketException) {
+                    log.error("存储桶 '{}' 不存在", s3Properties.getBucketName());
+                    return S3UploadResponse.failure(
+                        "存储桶 '" + s3Properties.getBucketName() + "' 不存在", 
+                        "BUCKET_NOT_FOUND"
+                    );
+                }
+                return asyncFailure(cause, "S3连接失败: ", "连接测试失败: ");
+            });
+    }
+
+    /**
+     * 异步上传文件到S3（Base64内容）
+     * 
+     * Base64解码在调用线程中完成，S3请求通过S3AsyncClient发送。
+     * 
+     * @param uploadRequest 上传请求对象，包含文件内容和元数据
+     * @return 上传结果响应的Future
+     */
+    public CompletableFuture<S3UploadResponse> uploadFileAsync(S3UploadRequest uploadRequest) {
+        log.info("开始异步上传文件: {}", uploadRequest.getFileName());
+        
+        S3UploadResponse unavailable = checkAsyncClient();
+        if (unavailable != null) {
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        byte[] fileBytes;
+        try {
+            fileBytes = Base64.getDecoder().decode(uploadRequest.getFileContent());
+        } catch (IllegalArgumentException e) {
+            log.error("文件内容Base64解码失败: {}", e.getMessage());
+            return CompletableFuture.completedFuture(
+                S3UploadResponse.failure("文件内容格式无效，请确保是有效的Base64编码", "INVALID_FILE_CONTENT"));
+        }
+
+        return putObjectAsync(uploadRequest.getFileName(), uploadRequest.getPathPrefix(),
+                              uploadRequest.getContentType(), uploadRequest.isOverwrite(),
+                              fileBytes.length, AsyncRequestBody.fromBytesUnsafe(fileBytes));
+    }
+
+    /**
+     * 异步上传本地文件到S3
+     * 
+     * 文件内容通过NIO异步读取并发送，上传期间不占用任何线程。
+     * 调用方负责在Future完成后清理本地文件。
+     * 
+     * @param uploadRequest 上传元数据，contentLength必须是文件的实际大小
+     * @param contentFile 本地文件路径
+     * @return 上传结果响应的Future
+     */
+    public CompletableFuture<S3UploadResponse> uploadFileAsync(S3StreamUploadRequest uploadRequest, Path contentFile) {
+        log.info("开始异步上传文件: {}, 大小: {}", uploadRequest.getFileName(), uploadRequest.getContentLength());
+        
+        S3UploadResponse unavailable = checkAsyncClient();
+        if (unavailable != null) {
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        return putObjectAsync(uploadRequest.getFileName(), uploadRequest.getPathPrefix(),
+                              uploadRequest.getContentType(), uploadRequest.isOverwrite(),
+                              uploadRequest.getContentLength(), AsyncRequestBody.fromFile(contentFile));
+    }
+
+    /**
+     * 异步检查文件是否存在于S3中
+     * 
+     * @param s3Key 文件在S3中的键
+     * @return 文件是否存在的Future，发生错误时视为不存在
+     */
+    public CompletableFuture<Boolean> fileExistsAsync(String s3Key) {
+        if (s3AsyncClient == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        return metadataCache.getAsync(s3Key, this::loadObjectMetadataAsync)
+            .thenApply(Optional::isPresent)
+            .exceptionally(error -> {
+                Throwable cause = unwrapCompletionException(error);
+                if (!(cause instanceof NoSuchKeyException)) {
+                    log.warn("检查文件是否存在时发生错误: {}", cause.getMessage());
+                }
+                return false;
+            });
+    }
+
+    /**
+     * 异步从S3删除文件
+     * 
+     * @param s3Key 要删除的文件键
+     * @return 删除结果响应的Future
+     */
+    public CompletableFuture<S3UploadResponse> deleteFileAsync(String s3Key) {
+        log.info("开始异步删除文件: {}", s3Key);
+        
+        S3UploadResponse unavailable = checkAsyncClient();
+        if (unavailable != null) {
+            return CompletableFuture.completedFuture(unavailable);
+        }
+
+        return fileExistsAsync(s3Key)
+            .thenCompose(exists -> {
+                if (!exists) {
+                    return CompletableFuture.completedFuture(
+                        S3UploadResponse.failure("文件不存在: " + s3Key, "FILE_NOT_FOUND"));
+                }
+
+                DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                    .bucket(s3Properties.getBucketName())
+                    .key(s3Key)
+                    .build();
+
+                return metrics.recordAsync("deleteObject", () -> s3AsyncClient.deleteObject(deleteObjectRequest))
+                    .thenApply(response -> {
+                        metadataCache.markMissing(s3Key);
+                        log.info("文件异步删除成功: {}", s3Key);
+                        return S3UploadResponse.builder()
+                            .success(true)
+                            .message("文件删除成功")
+                            .s3Key(s3Key)
+                            .bucketName(s3Properties.getBucketName())
+                            .uploadTime(LocalDateTime.now())
+                            .build();
+                    });
+            })
+            .exceptionally(error -> asyncFailure(unwrapCompletionException(error), "删除失败: ", "删除失败: "));
+    }
+
+    /**
+     * 异步列出S3存储桶中的文件
+     * 
+     * 逻辑日期前缀在启用分区时并行请求所有分区的首页并合并，规则同 {@link #listFiles}。
+     * 
+     * @param prefix 文件键前缀（用于过滤）
+     * @param maxKeys 最大返回数量
+     * @param continuationToken 上一页响应中的nextContinuationToken，获取第一页时为null
+     * @return 一页文件列表的Future，失败时以异常完成
+     */
+    public CompletableFuture<ListObjectsV2Response> listFilesAsync(String prefix, int maxKeys,
+                                                                   String continuationToken) {
+        log.info("异步列出文件，前缀: {}, 最大数量: {}, 继续令牌: {}", prefix, maxKeys, continuationToken);
+        
+        if (s3AsyncClient == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("S3异步客户端未初始化"));
+        }
+
+        CompletableFuture<ListObjectsV2Response> future;
+        if (keyLayout.isPartitionedPrefix(prefix)) {
+            // 逻辑日期前缀：并行请求所有分区的首页后合并
+            String startAfter = continuationToken == null || continuationToken.isEmpty() ? null : continuationToken;
+            List<CompletableFuture<ListObjectsV2Response>> partitionPages = keyLayout.partitions(prefix).stream()
+                .map(partition -> metrics.recordAsync("listObjectsV2", () -> s3AsyncClient.listObjectsV2(
+                    buildListRequest(partition.prefix(), maxKeys, null).toBuilder()
+                        .startAfter(startAfter == null ? null : partition.toPhysical(startAfter))
+                        .build())))
+                .toList();
+            future = CompletableFuture.allOf(partitionPages.toArray(CompletableFuture<?>[]::new))
+                .thenApply(ignored -> PartitionedListing.merge(keyLayout, prefix, s3Properties.getBucketName(), maxKeys,
+                    partitionPages.stream().map(CompletableFuture::join).toList()));
+        } else {
+            future = metrics.recordAsync("listObjectsV2",
+                () -> s3AsyncClient.listObjectsV2(buildListRequest(prefix, maxKeys, continuationToken)));
+        }
+        return future
+            .thenApply(response -> {
+                log.info("找到 {} 个文件，是否还有更多: {}", response.contents().size(), response.isTruncated());
+                return response;
+            });
+    }
+
+    /**
+     * 构建listObjectsV2请求
+     */
+    private ListObjectsV2Request buildListRequest(String prefix, int maxKeys, String continuationToken) {
+        ListObjectsV2Request.Builder requestBuilder = ListObjectsV2Request.builder()
+            .bucket(s3Properties.getBucketName())
+            .maxKeys(maxKeys);
+        
+        if (prefix != null && !prefix.trim().isEmpty()) {
+            requestBuilder.prefix(prefix);
+        }
+        if (continuationToken != null && !continuationToken.isEmpty()) {
+            requestBuilder.continuationToken(continuationToken);
+        }
+        return requestBuilder.build();
+    }
+
+    /**
+     * 异步上传的公共流程：构建键、检查覆盖、发送PutObject请求
+     */
+    private CompletableFuture<S3UploadResponse> putObjectAsync(String fileName, String pathPrefix,
+                                                               String providedContentType, boolean overwrite,
+                                                               long contentLength, AsyncRequestBody requestBody) {
+        String s3Key = buildS3Key(pathPrefix, fileName);
+        String contentType = determineContentType(providedContentType, fileName);
+        log.debug("生成的S3文件键: {}, 内容类型: {}", s3Key, contentType);
+
+        CompletableFuture<Boolean> existsFuture = overwrite
+            ? CompletableFuture.completedFuture(false)
+            : fileExistsAsync(s3Key);
+
+        return existsFuture
+            .thenCompose(exists -> {
+                if (exists) {
+                    log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                    return CompletableFuture.completedFuture(
+                        S3UploadResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS"));
+                }
+
+                long startNanos = System.nanoTime();
+                PutObjectRequest putObjectRequest = buildPutObjectRequest(s3Key, contentType, fileName)
+                    .toBuilder()
+                    .contentLength(contentLength)
+                    .build();
+
+                return metrics.recordAsync("putObject", () -> s3AsyncClient.putObject(putObjectRequest, requestBody))
+                    .thenApply(response -> {
+                        log.info("文件异步上传成功: {}, ETag: {}", s3Key, response.eTag());
+                        metrics.recordUploadSize("async", contentLength);
+                        UploadResult uploadResult = UploadResult.builder()
+                            .eTag(response.eTag())
+                            .contentLength(contentLength)
+                            .durationMillis((System.nanoTime() - startNanos) / 1_000_000)
+                            .build();
+                        metadataCache.put(s3Key, toObjectMetadata(putObjectRequest, uploadResult));
+                        return buildUploadResponse(s3Key, contentType, uploadResult);
+                    });
+            })
+            .exceptionally(error -> asyncFailure(unwrapCompletionException(error), "S3上传失败: ", "文件上传失败: "));
+    }
+
+    /**
+     * 检查异步客户端是否可用
+     * 
+     * @return 不可用时的失败响应，可用时返回null
+     */
+    private S3UploadResponse checkAsyncClient() {
+        if (s3AsyncClient != null) {
+            return null;
+        }
+        if (!s3Properties.getAsync().isEnabled()) {
+            log.warn("S3异步模式未启用");
+            return S3UploadResponse.failure("S3异步模式未启用，请设置 aws.s3.async.enabled=true", "ASYNC_DISABLED");
+        }
+        log.error("S3异步客户端未初始化");
+        return S3UploadResponse.configurationError(s3Properties.getMissingConfigurations());
+    }
+
+    /**
+     * 将异步操作的异常转换为失败响应
+     */
+    private S3UploadResponse asyncFailure(Throwable cause, String s3MessagePrefix, String messagePrefix) {
+        if (cause instanceof S3Exception s3Exception) {
+            log.error("S3异步操作失败: {}", s3Exception.getMessage());
+            return S3UploadResponse.failure(
+                s3MessagePrefix + s3Exception.getMessage(),
+                s3Exception.awsErrorDetails().errorCode()
+            );
+        }
+        log.error("S3异步操作发生未知错误: {}", cause.getMessage(), cause);
+        return S3UploadResponse.failure(messagePrefix + cause.getMessage(), "UNKNOWN_ERROR");
+    }
+
+    /**
+     * 解开CompletableFuture包装的异常
+     */
+    private static Throwable unwrapCompletionException(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * 去掉ETag两侧的引号
+     */
+    private static String stripQuotes(String eTag) {
+        return eTag == null ? "" : eTag.replace("\"", "");
+    }
+
+    /**
+     * 发送headObject请求加载文件元数据（元数据缓存的加载函数）
+     * 
+     * @param s3Key 文件在S3中的键
+     * @return 文件元数据，文件不存在时为空
+     */
+    private Optional<HeadObjectResponse> loadObjectMetadata(String s3Key) {
+        try {
+            return Optional.of(requestHedger.call("headObject",
+                () -> metrics.record("headObject", () -> s3Client.headObject(buildHeadObjectRequest(s3Key)))));
+        } catch (NoSuchKeyException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 通过异步客户端发送headObject请求加载文件元数据
+     * 
+     * @param s3Key 文件在S3中的键
+     * @return 文件元数据的Future，文件不存在时以空值完成
+     */
+    private CompletableFuture<Optional<HeadObjectResponse>> loadObjectMetadataAsync(String s3Key) {
+        return metrics.recordAsync("headObject", () -> s3AsyncClient.headObject(buildHeadObjectRequest(s3Key)))
+            .thenApply(Optional::of)
+            .exceptionallyCompose(error -> unwrapCompletionException(error) instanceof NoSuchKeyException
+                ? CompletableFuture.completedFuture(Optional.empty())
+                : CompletableFuture.failedFuture(error));
+    }
+
+    /**
+     * 构建headObject请求
+     */
+    private HeadObjectRequest buildHeadObjectRequest(String s3Key) {
+        return HeadObjectRequest.builder()
+            .bucket(s3Properties.getBucketName())
+            .key(s3Key)
+            .build();
+    }
+
+    /**
+     * 根据本服务刚完成的上传构建对象元数据，用于更新元数据缓存
+     * 
+     * @param putObjectRequest 上传请求
+     * @param uploadResult 上传结果
+     * @return 对象元数据
+     */
+    private HeadObjectResponse toObjectMetadata(PutObjectRequest putObjectRequest, UploadResult uploadResult) {
+        Map<String, String> metadata = putObjectRequest.metadata();
+        if (uploadResult.getUncompressedLength() != null) {
+            metadata = new LinkedHashMap<>(metadata);
+            metadata.put(S3ContentCompressor.UNCOMPRESSED_LENGTH_METADATA,
+                Long.toString(uploadResult.getUncompressedLength()));
+        }
+        return HeadObjectResponse.builder()
+            .eTag(uploadResult.getETag())
+            .contentLength(uploadResult.getContentLength())
+            .contentType(putObjectRequest.contentType())
+            .contentEncoding(uploadResult.getContentEncoding())
+            .metadata(metadata)
+            .lastModified(Instant.now())
+            .build();
+    }
+
+    /**
+     * 根据上传结果构建成功响应
+     * 
+     * @param s3Key 文件在S3中的键
+     * @param contentType 内容类型
+     * @param uploadResult 上传结果
+     * @return 成功响应对象
+     */
+    private S3UploadResponse buildUploadResponse(String s3Key, String contentType, UploadResult uploadResult) {
+        S3UploadResponse response = S3UploadResponse.success(
+            s3Key,
+            generateFileUrl(s3Key),
+            uploadResult.getUncompressedLength() != null ? uploadResult.getUncompressedLength()
+                : uploadResult.getContentLength(),
+            contentType,
+            s3Properties.getBucketName()
+        );
+        if (uploadResult.getContentEncoding() != null) {
+            response.setContentEncoding(uploadResult.getContentEncoding());
+            response.setStoredSize(uploadResult.getContentLength());
+        }
+        response.setPartCount(uploadResult.getPartCount());
+        response.setThroughputBytesPerSecond(uploadResult.getThroughputBytesPerSecond());
+        response.setChecksumAlgorithm(uploadResult.getChecksumAlgorithm());
+        response.setChecksum(uploadResult.getChecksum());
+        return response;
+    }
+
+    /**
+     * 构建PutObject请求
+     * 
+     * @param s3Key 文件在S3中的键
+     * @param contentType 内容类型
+     * @param fileName 原始文件名
+     * @return PutObject请求对象（内容长度由上传引擎填充）
+     */
+    private PutObjectRequest buildPutObjectRequest(String s3Key, String contentType, String fileName) {
+        return buildPutObjectRequest(s3Key, contentType, fileName, null);
+    }
+
+    /**
+     * 构建PutObject请求，可选地在对象元数据中写入内容的SHA-256
+     * 
+     * @param s3Key 文件在S3中的键
+     * @param contentType 内容类型
+     * @param fileName 原始文件名
+     * @param contentSha256 内容的SHA-256（十六进制），为null时不写入
+     * @return PutObject请求对象（内容长度由上传引擎填充）
+     */
+    private PutObjectRequest buildPutObjectRequest(String s3Key, String contentType, String fileName,
+                                                   @Nullable String contentSha256) {
+        return PutObjectRequest.builder()
+            .bucket(s3Properties.getBucketName())
+            .key(s3Key)
+            .contentType(contentType)
+            .metadata(buildObjectMetadata(fileName, contentSha256))
+            .build();
+    }
+
+    /**
+     * 构建本服务写入的对象元数据
+     * 
+     * @param fileName 原始文件名
+     * @return 对象元数据（x-amz-meta-*）
+     */
+    Map<String, String> buildObjectMetadata(String fileName) {
+        return buildObjectMetadata(fileName, null);
+    }
+
+    /**
+     * 构建本服务写入的对象元数据，可选地包含内容的SHA-256
+     * 
+     * @param fileName 原始文件名
+     * @param contentSha256 内容的SHA-256（十六进制），为null时不写入
+     * @return 对象元数据（x-amz-meta-*）
+     */
+    private Map<String, String> buildObjectMetadata(String fileName, @Nullable String contentSha256) {
+        if (contentSha256 == null) {
+            return Map.of(
+                "original-filename", fileName,
+                "upload-timestamp", LocalDateTime.now().toString(),
+                "uploaded-by", "s3-upload-service"
+            );
+        }
+        return Map.of(
+            "original-filename", fileName,
+            "upload-timestamp", LocalDateTime.now().toString(),
+            "uploaded-by", "s3-upload-service",
+            CONTENT_SHA256_METADATA, contentSha256
+        );
+    }
+
     /**
      * 构建S3文件键（完整路径）
      * 
+     * 包级可见，供benchmarks模块直接测量。
+     * 
      * @param pathPrefix 路径前缀
      * @param fileName 文件名
      * @return 完整的S3文件键
      */
-    private String buildS3Key(String pathPrefix, String fileName) {
-        // 如果没有提供路径前缀，使用默认的基于时间的路径
+    String buildS3Key(String pathPrefix, String fileName) {
+        // 为文件名添加UUID前缀以避免冲突
+        String uniqueFileName = UUID.randomUUID().toString() + "_" + fileName;
+        
+        // 如果没有提供路径前缀，使用默认的基于时间的路径（启用分区时带有哈希分区）
         if (pathPrefix == null || pathPrefix.trim().isEmpty()) {
-            String datePrefix = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy/MM/dd"));
-            pathPrefix = "uploads/" + datePrefix + "/";
+            pathPrefix = keyLayout.defaultPrefix(uniqueFileName, LocalDate.now());
         }
         
         // 确保路径前缀以斜杠结尾
@@ -325,20 +1420,19 @@ public class S3Service {
             pathPrefix += "/";
         }
         
-        // 为文件名添加UUID前缀以避免冲突
-        String uniqueFileName = UUID.randomUUID().toString() + "_" + fileName;
-        
         return pathPrefix + uniqueFileName;
     }
 
     /**
      * 确定文件的内容类型
      * 
+     * 包级可见，供benchmarks模块直接测量。
+     * 
      * @param providedContentType 用户提供的内容类型
      * @param fileName 文件名
      * @return 确定的内容类型
      */
-    private String determineContentType(String providedContentType, String fileName) {
+    String determineContentType(String providedContentType, String fileName) {
         // 如果用户提供了内容类型，优先使用
         if (providedContentType != null && !providedContentType.trim().isEmpty()) {
             return providedContentType.trim();
@@ -355,8 +1449,14 @@ public class S3Service {
             return "image/gif";
         } else if (lowerCaseFileName.endsWith(".pdf")) {
             return "application/pdf";
-        } else if (lowerCaseFileName.endsWith(".txt")) {
+        } else if (lowerCaseFileName.endsWith(".txt") || lowerCaseFileName.endsWith(".log")) {
             return "text/plain";
+        } else if (lowerCaseFileName.endsWith(".csv")) {
+            return "text/csv";
+        } else if (lowerCaseFileName.endsWith(".json")) {
+            return "application/json";
+        } else if (lowerCaseFileName.endsWith(".xml")) {
+            return "application/xml";
         } else if (lowerCaseFileName.endsWith(".doc")) {
             return "application/msword";
         } else if (lowerCaseFileName.endsWith(".docx")) {
@@ -374,10 +1474,12 @@ public class S3Service {
     /**
      * 生成文件的访问URL
      * 
+     * 包级可见，供benchmarks模块直接测量。
+     * 
      * @param s3Key 文件在S3中的键
      * @return 文件访问URL
      */
-    private String generateFileUrl(String s3Key) {
+    String generateFileUrl(String s3Key) {
         try {
             // 构建标准的S3 URL
             String encodedKey = URLEncoder.encode(s3Key, StandardCharsets.UTF_8)
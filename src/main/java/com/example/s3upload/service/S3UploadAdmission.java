@@ -0,0 +1,179 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 上传准入控制
+ *
+ * 为同时处理中的上传维护一个全局字节预算（{@code aws.s3.admission.max-in-flight-bytes}）：
+ * 每个请求在读取请求体之前按Content-Length预留，预算不足时按到达顺序排队，
+ * 最多等待 {@code max-wait}；等待超时或排队请求数已达上限时拒绝，由调用方返回429。
+ * 超过整个预算的单个请求按整个预算预留，只会在没有其他上传时被放行，不会永远无法通过。
+ *
+ * 预算以KB为单位映射到公平信号量上，较大的请求排在队首时后来的较小请求也会等待，不会被饿死。
+ * 通过Micrometer发布：
+ * - s3.upload.admission.reserved（Gauge）：已预留的字节数
+ * - s3.upload.admission.queued（Gauge）：正在排队等待的请求数
+ * - s3.upload.admission.rejected（Counter）：被拒绝的请求数，标签 reason（timeout、queue-full）
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class S3UploadAdmission {
+
+    /**
+     * 信号量中一个许可代表的字节数
+     */
+    private static final long PERMIT_BYTES = 1024;
+
+    private final S3Properties s3Properties;
+    private final Semaphore budget;
+    private final int totalPermits;
+    private final AtomicLong reservedBytes = new AtomicLong();
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+    private final Meter.MeterProvider<Counter> rejections;
+
+    public S3UploadAdmission(S3Properties s3Properties, MeterRegistry meterRegistry) {
+        this.s3Properties = s3Properties;
+        long maxInFlightBytes = s3Properties.getAdmission().getMaxInFlightBytes().toBytes();
+        this.totalPermits = (int) Math.min(Math.max(maxInFlightBytes / PERMIT_BYTES, 1), Integer.MAX_VALUE);
+        this.budget = new Semaphore(totalPermits, true);
+
+        Gauge.builder("s3.upload.admission.reserved", reservedBytes, AtomicLong::get)
+            .description("上传准入控制已预留的字节数")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge.builder("s3.upload.admission.queued", queuedRequests, AtomicInteger::get)
+            .description("等待上传准入的请求数")
+            .register(meterRegistry);
+        this.rejections = Counter.builder("s3.upload.admission.rejected")
+            .description("因在途字节预算不足而被拒绝的上传请求数")
+            .withRegistry(meterRegistry);
+    }
+
+    /**
+     * 为一个上传请求预留字节预算，预算不足时排队等待
+     *
+     * @param contentLength 请求体长度，未知时为-1
+     * @return 准入许可，处理完成后必须关闭；被拒绝时为null
+     */
+    @Nullable
+    public Permit admit(long contentLength) {
+        S3Properties.Admission admission = s3Properties.getAdmission();
+        if (!admission.isEnabled()) {
+            return new Permit(0, 0);
+        }
+
+        long bytes = contentLength >= 0 ? contentLength : admission.getUnknownLengthReservation().toBytes();
+        int permits = (int) Math.min((bytes + PERMIT_BYTES - 1) / PERMIT_BYTES, totalPermits);
+        long reserved = Math.min(bytes, (long) totalPermits * PERMIT_BYTES);
+
+        try {
+            // 带超时的tryAcquire遵守公平性，不会越过正在排队的请求
+            if (budget.tryAcquire(permits, 0, TimeUnit.MILLISECONDS)) {
+                return reserve(permits, reserved);
+            }
+            if (queuedRequests.incrementAndGet() > admission.getMaxQueued()) {
+                queuedRequests.decrementAndGet();
+                reject("queue-full", bytes);
+                return null;
+            }
+            try {
+                if (budget.tryAcquire(permits, admission.getMaxWait().toMillis(), TimeUnit.MILLISECONDS)) {
+                    return reserve(permits, reserved);
+                }
+            } finally {
+                queuedRequests.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        reject("timeout", bytes);
+        return null;
+    }
+
+    /**
+     * 判断准入控制是否启用
+     *
+     * @return 已启用时返回true
+     */
+    public boolean isEnabled() {
+        return s3Properties.getAdmission().isEnabled();
+    }
+
+    /**
+     * 已预留的字节数
+     *
+     * @return 字节数
+     */
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    /**
+     * 正在排队等待的请求数
+     *
+     * @return 请求数
+     */
+    public int getQueuedRequests() {
+        return queuedRequests.get();
+    }
+
+    /**
+     * 拒绝时建议客户端等待的秒数（Retry-After）
+     *
+     * @return 秒数，至少为1
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (s3Properties.getAdmission().getRetryAfter().toMillis() + 999) / 1000);
+    }
+
+    private Permit reserve(int permits, long bytes) {
+        reservedBytes.addAndGet(bytes);
+        return new Permit(permits, bytes);
+    }
+
+    private void reject(String reason, long bytes) {
+        rejections.withTags("reason", reason).increment();
+        log.warn("上传请求被准入控制拒绝: 原因={}, 请求大小={}, 已预留={}, 排队={}",
+                reason, bytes, reservedBytes.get(), queuedRequests.get());
+    }
+
+    /**
+     * 准入许可，关闭时归还预留的字节预算（重复关闭无效）
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final int permits;
+        private final long bytes;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int permits, long bytes) {
+            this.permits = permits;
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void close() {
+            if (permits > 0 && released.compareAndSet(false, true)) {
+                reservedBytes.addAndGet(-bytes);
+                budget.release(permits);
+            }
+        }
+    }
+}
@@ -0,0 +1,538 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3StreamUploadRequest;
+import com.example.s3upload.dto.S3UploadResponse;
+import com.example.s3upload.dto.S3WriteBehindResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * S3写回上传队列
+ *
+ * 写回模式下，上传内容先通过 {@link FileChannel} 写入本地暂存目录并强制落盘，随即返回任务ID，
+ * 客户端感知到的延迟只取决于本地磁盘，而不是S3。后台上传线程池从暂存目录取出文件上传到S3，
+ * 失败时按指数退避重试，成功或最终失败后删除暂存内容。
+ *
+ * 每个任务的状态以JSON文件与暂存内容一起保存，服务重启时重新扫描暂存目录，
+ * 未完成的任务继续上传。等待上传的文件总大小受 {@code aws.s3.write-behind.disk-quota} 限制，
+ * 超过后拒绝新的上传，避免S3长时间不可用时耗尽本地磁盘。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class S3WriteBehindQueue {
+
+    private static final String TASK_SUFFIX = ".json";
+    private static final String CONTENT_SUFFIX = ".bin";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    /**
+     * 重试也无法成功的错误代码，遇到时直接标记为失败
+     */
+    private static final Set<String> NON_RETRYABLE_ERRORS = Set.of(
+        "CONFIGURATION_ERROR", "LENGTH_REQUIRED",
+        "AccessDenied", "NoSuchBucket", "InvalidBucketName"
+    );
+
+    private final S3Service s3Service;
+    private final S3Properties s3Properties;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 所有任务（包括保留期内的已完成任务），以任务ID为键
+     */
+    private final Map<String, WriteBehindTask> tasks = new ConcurrentHashMap<>();
+
+    /**
+     * 暂存目录中等待上传的内容总大小
+     */
+    private final AtomicLong spooledBytes = new AtomicLong();
+
+    /**
+     * 暂存目录，写回模式未启用或目录不可用时为null
+     */
+    private Path spoolDir;
+
+    private ScheduledExecutorService uploader;
+
+    /**
+     * 扫描暂存目录恢复未完成的任务，并启动后台上传线程池
+     */
+    @PostConstruct
+    public void start() {
+        S3Properties.WriteBehind writeBehind = s3Properties.getWriteBehind();
+        if (!writeBehind.isEnabled()) {
+            log.info("写回模式未启用");
+            return;
+        }
+
+        Path dir = Paths.get(writeBehind.getSpoolDir()).toAbsolutePath();
+        try {
+            Files.createDirectories(dir);
+            spoolDir = dir;
+            restoreTasks();
+        } catch (IOException e) {
+            log.error("写回暂存目录不可用，写回模式已禁用: {}, 错误: {}", dir, e.getMessage());
+            spoolDir = null;
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        uploader = Executors.newScheduledThreadPool(Math.max(1, writeBehind.getUploaderThreads()), runnable -> {
+            Thread thread = new Thread(runnable, "s3-write-behind-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        tasks.values().stream()
+            .filter(task -> !task.getStatus().isFinal())
+            .forEach(task -> uploader.execute(() -> attemptQuietly(task.getTrackingId())));
+        uploader.scheduleWithFixedDelay(this::purgeQuietly, 1, 1, TimeUnit.MINUTES);
+
+        log.info("写回模式已启动，暂存目录: {}, 磁盘配额: {}, 上传线程数: {}, 恢复待上传任务数: {}",
+                dir, writeBehind.getDiskQuota(), writeBehind.getUploaderThreads(), getPendingCount());
+    }
+
+    /**
+     * 停止后台上传（未完成的任务保留在暂存目录中，重启后继续）
+     */
+    @PreDestroy
+    public void stop() {
+        if (uploader != null) {
+            uploader.shutdownNow();
+        }
+    }
+
+    /**
+     * 判断写回模式是否可用
+     *
+     * @return 已启用且暂存目录可用时返回true
+     */
+    public boolean isEnabled() {
+        return uploader != null;
+    }
+
+    /**
+     * 暂存目录，接收上传时可以直接把请求内容解码到这里，入队时只需重命名
+     *
+     * @return 暂存目录，写回模式不可用时为null
+     */
+    @Nullable
+    public Path getSpoolDirectory() {
+        return isEnabled() ? spoolDir : null;
+    }
+
+    /**
+     * 接收上传：将内容持久化到暂存目录并加入上传队列
+     *
+     * 文件键、内容类型和覆盖检查在接收时完成，响应中的s3Key就是最终上传的位置。
+     *
+     * @param uploadRequest 上传元数据
+     * @param contentFile 已解码的文件内容，成功时被移入暂存目录（其他情况由调用方清理）
+     * @return 写回响应，包含任务ID
+     */
+    public S3WriteBehindResponse enqueue(S3StreamUploadRequest uploadRequest, Path contentFile) {
+        if (!isEnabled()) {
+            return S3WriteBehindResponse.failure(
+                "写回模式未启用，请设置 aws.s3.write-behind.enabled=true", "WRITE_BEHIND_DISABLED");
+        }
+        if (!s3Properties.isValid()) {
+            return S3WriteBehindResponse.failure(
+                "S3配置不完整，请检查以下配置项: " + s3Properties.getMissingConfigurations(),
+                "CONFIGURATION_ERROR"
+            );
+        }
+
+        String trackingId = UUID.randomUUID().toString();
+        long contentLength;
+        try {
+            contentLength = Files.size(contentFile);
+        } catch (IOException e) {
+            log.error("读取上传内容大小失败: {}", e.getMessage());
+            return S3WriteBehindResponse.failure("读取上传内容失败: " + e.getMessage(), "UNKNOWN_ERROR");
+        }
+        if (!reserve(contentLength)) {
+            log.warn("写回暂存空间不足，拒绝上传: {}, 大小: {}, 已占用: {}",
+                    uploadRequest.getFileName(), contentLength, spooledBytes.get());
+            return S3WriteBehindResponse.failure(
+                "本地暂存空间不足（配额 " + s3Properties.getWriteBehind().getDiskQuota() + "），请稍后重试",
+                "SPOOL_QUOTA_EXCEEDED"
+            );
+        }
+
+        try {
+            String s3Key = s3Service.buildS3Key(uploadRequest.getPathPrefix(), uploadRequest.getFileName());
+            if (!uploadRequest.isOverwrite() && s3Service.fileExists(s3Key)) {
+                release(contentLength);
+                log.warn("文件已存在且不允许覆盖: {}", s3Key);
+                return S3WriteBehindResponse.failure("文件已存在，如需覆盖请设置overwrite=true", "FILE_ALREADY_EXISTS");
+            }
+
+            moveDurably(contentFile, contentPath(trackingId));
+            Instant now = Instant.now();
+            WriteBehindTask task = WriteBehindTask.builder()
+                .trackingId(trackingId)
+                .s3Key(s3Key)
+                .fileName(uploadRequest.getFileName())
+                .contentType(s3Service.determineContentType(uploadRequest.getContentType(), uploadRequest.getFileName()))
+                .overwrite(uploadRequest.isOverwrite())
+                .contentLength(contentLength)
+                .status(WriteBehindTask.Status.PENDING)
+                .attempts(0)
+                .acceptedAt(now)
+                .updatedAt(now)
+                .build();
+            persist(task);
+            tasks.put(trackingId, task);
+            uploader.execute(() -> attemptQuietly(trackingId));
+
+            log.info("文件已写入暂存目录: {}, 任务ID: {}, 大小: {}", s3Key, trackingId, contentLength);
+            return buildResponse(task, "文件已接收，正在后台上传到S3");
+
+        } catch (Exception e) {
+            release(contentLength);
+            tasks.remove(trackingId);
+            deleteQuietly(contentPath(trackingId));
+            deleteQuietly(taskPath(trackingId));
+            log.error("写入写回暂存目录失败: {}", e.getMessage(), e);
+            return S3WriteBehindResponse.failure("写入本地暂存目录失败: " + e.getMessage(), "UNKNOWN_ERROR");
+        }
+    }
+
+    /**
+     * 查询上传状态
+     *
+     * @param trackingId 任务ID
+     * @return 写回响应
+     */
+    public S3WriteBehindResponse getStatus(String trackingId) {
+        WriteBehindTask task = tasks.get(trackingId);
+        if (task == null) {
+            return S3WriteBehindResponse.failure("写回任务不存在或已过期: " + trackingId, "TASK_NOT_FOUND");
+        }
+        String message = switch (task.getStatus()) {
+            case PENDING -> "等待上传到S3";
+            case UPLOADED -> "文件已上传到S3";
+            case FAILED -> "文件上传失败";
+        };
+        return buildResponse(task, message);
+    }
+
+    /**
+     * 等待上传的任务数
+     *
+     * @return 任务数
+     */
+    public long getPendingCount() {
+        return tasks.values().stream().filter(task -> !task.getStatus().isFinal()).count();
+    }
+
+    /**
+     * 暂存目录中等待上传的内容总大小
+     *
+     * @return 字节数
+     */
+    public long getSpooledBytes() {
+        return spooledBytes.get();
+    }
+
+    /**
+     * 尝试上传一个任务，失败时安排重试或标记为最终失败
+     */
+    private void attempt(String trackingId) {
+        WriteBehindTask task = tasks.get(trackingId);
+        if (task == null || task.getStatus().isFinal()) {
+            return;
+        }
+
+        Path content = contentPath(trackingId);
+        if (!Files.exists(content)) {
+            finish(task, WriteBehindTask.Status.FAILED, "SPOOL_FILE_MISSING", "暂存文件丢失");
+            return;
+        }
+
+        // 覆盖检查只在接收上传时进行，重试时S3中已有的同键对象是本任务上次尝试写入的，不能当作冲突
+        S3UploadResponse response = s3Service.uploadSpooledFile(
+            task.getS3Key(), task.getContentType(), task.getFileName(), content);
+        int attempts = task.getAttempts() + 1;
+
+        if (response.isSuccess()) {
+            finish(task.toBuilder().attempts(attempts).lastErrorCode(null).lastError(null).build(),
+                WriteBehindTask.Status.UPLOADED, null, null);
+            log.info("写回上传完成: {}, 任务ID: {}, 尝试次数: {}", task.getS3Key(), trackingId, attempts);
+            return;
+        }
+
+        S3Properties.WriteBehind writeBehind = s3Properties.getWriteBehind();
+        WriteBehindTask failed = task.toBuilder().attempts(attempts).build();
+        if (NON_RETRYABLE_ERRORS.contains(response.getErrorCode()) || attempts >= writeBehind.getMaxAttempts()) {
+            finish(failed, WriteBehindTask.Status.FAILED, response.getErrorCode(), response.getMessage());
+            log.error("写回上传最终失败: {}, 任务ID: {}, 尝试次数: {}, 错误: {}",
+                    task.getS3Key(), trackingId, attempts, response.getMessage());
+            return;
+        }
+
+        Duration backoff = backoff(attempts);
+        update(failed.toBuilder()
+            .lastErrorCode(response.getErrorCode())
+            .lastError(response.getMessage())
+            .updatedAt(Instant.now())
+            .build());
+        log.warn("写回上传失败，{} 后重试: {}, 任务ID: {}, 尝试次数: {}, 错误: {}",
+                backoff, task.getS3Key(), trackingId, attempts, response.getMessage());
+        try {
+            uploader.schedule(() -> attemptQuietly(trackingId), backoff.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("上传线程池已关闭，任务将在重启后继续: {}", trackingId);
+        }
+    }
+
+    /**
+     * 将任务标记为最终状态，删除暂存内容并释放配额
+     */
+    private void finish(WriteBehindTask task, WriteBehindTask.Status status, String errorCode, String error) {
+        update(task.toBuilder()
+            .status(status)
+            .lastErrorCode(errorCode != null ? errorCode : task.getLastErrorCode())
+            .lastError(error != null ? error : task.getLastError())
+            .updatedAt(Instant.now())
+            .build());
+        deleteQuietly(contentPath(task.getTrackingId()));
+        release(task.getContentLength());
+    }
+
+    /**
+     * 更新内存中的任务并持久化；持久化失败时重启后按旧状态处理
+     */
+    private void update(WriteBehindTask task) {
+        tasks.put(task.getTrackingId(), task);
+        try {
+            persist(task);
+        } catch (IOException e) {
+            log.error("保存写回任务状态失败: {}, 错误: {}", task.getTrackingId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 删除超过保留期的已完成任务
+     */
+    private void purgeExpiredTasks() {
+        Instant threshold = Instant.now().minus(s3Properties.getWriteBehind().getRetention());
+        tasks.values().removeIf(task -> {
+            if (task.getStatus().isFinal() && task.getUpdatedAt().isBefore(threshold)) {
+                deleteQuietly(taskPath(task.getTrackingId()));
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * 扫描暂存目录：恢复任务，清理没有任务记录的暂存内容和未写完的临时文件
+     */
+    private void restoreTasks() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir, "*" + TASK_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    WriteBehindTask task = objectMapper.readValue(file.toFile(), WriteBehindTask.class);
+                    if (!task.getStatus().isFinal() && !Files.exists(contentPath(task.getTrackingId()))) {
+                        task = task.toBuilder()
+                            .status(WriteBehindTask.Status.FAILED)
+                            .lastErrorCode("SPOOL_FILE_MISSING")
+                            .lastError("暂存文件丢失")
+                            .updatedAt(Instant.now())
+                            .build();
+                        persist(task);
+                    }
+                    if (!task.getStatus().isFinal()) {
+                        spooledBytes.addAndGet(task.getContentLength());
+                    }
+                    tasks.put(task.getTrackingId(), task);
+                } catch (IOException e) {
+                    log.error("读取写回任务状态失败，已忽略: {}, 错误: {}", file, e.getMessage());
+                }
+            }
+        }
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(spoolDir)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                boolean orphanContent = name.endsWith(CONTENT_SUFFIX)
+                    && !tasks.containsKey(name.substring(0, name.length() - CONTENT_SUFFIX.length()));
+                if (orphanContent || name.endsWith(TEMP_SUFFIX)) {
+                    log.info("清理写回暂存目录中的残留文件: {}", name);
+                    deleteQuietly(file);
+                }
+            }
+        }
+    }
+
+    /**
+     * 将文件移动到暂存目录并强制落盘
+     *
+     * 同一文件系统内只是重命名，内容不再写一遍；跨文件系统无法原子重命名时退回到复制，
+     * 原文件由调用方清理。
+     */
+    private void moveDurably(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            copyDurably(source, target);
+            return;
+        }
+        try (FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            out.force(true);
+        }
+    }
+
+    /**
+     * 使用FileChannel复制文件并强制落盘
+     */
+    private void copyDurably(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        }
+    }
+
+    /**
+     * 持久化任务状态：写入临时文件并落盘后原子替换，进程崩溃时不会留下不完整的状态文件
+     */
+    private void persist(WriteBehindTask task) throws IOException {
+        Path target = taskPath(task.getTrackingId());
+        Path temp = spoolDir.resolve(task.getTrackingId() + TASK_SUFFIX + TEMP_SUFFIX);
+        ByteBuffer buffer = ByteBuffer.wrap(objectMapper.writeValueAsBytes(task));
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                out.write(buffer);
+            }
+            out.force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 在磁盘配额内预留空间
+     */
+    private boolean reserve(long bytes) {
+        long quota = s3Properties.getWriteBehind().getDiskQuota().toBytes();
+        while (true) {
+            long current = spooledBytes.get();
+            if (current + bytes > quota) {
+                return false;
+            }
+            if (spooledBytes.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    private void release(long bytes) {
+        spooledBytes.addAndGet(-bytes);
+    }
+
+    /**
+     * 第n次失败后的退避时间：初始退避时间每次翻倍，不超过上限
+     */
+    private Duration backoff(int attempts) {
+        S3Properties.WriteBehind writeBehind = s3Properties.getWriteBehind();
+        Duration backoff = writeBehind.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(writeBehind.getMaxBackoff()) > 0 ? writeBehind.getMaxBackoff() : backoff;
+    }
+
+    private Path contentPath(String trackingId) {
+        return spoolDir.resolve(trackingId + CONTENT_SUFFIX);
+    }
+
+    private Path taskPath(String trackingId) {
+        return spoolDir.resolve(trackingId + TASK_SUFFIX);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除写回暂存文件失败: {}, {}", file, e.getMessage());
+        }
+    }
+
+    private S3WriteBehindResponse buildResponse(WriteBehindTask task, String message) {
+        return S3WriteBehindResponse.builder()
+            .success(true)
+            .message(message)
+            .trackingId(task.getTrackingId())
+            .status(task.getStatus().name())
+            .s3Key(task.getS3Key())
+            .fileUrl(s3Service.generateFileUrl(task.getS3Key()))
+            .fileSize(task.getContentLength())
+            .contentType(task.getContentType())
+            .bucketName(s3Properties.getBucketName())
+            .attempts(task.getAttempts())
+            .lastError(task.getLastError())
+            .errorCode(task.getStatus() == WriteBehindTask.Status.FAILED ? task.getLastErrorCode() : null)
+            .acceptedAt(task.getAcceptedAt())
+            .updatedAt(task.getUpdatedAt())
+            .createTime(LocalDateTime.now())
+            .build();
+    }
+
+    /**
+     * 后台上传任务，异常不会影响其他任务
+     */
+    private void attemptQuietly(String trackingId) {
+        try {
+            attempt(trackingId);
+        } catch (Exception e) {
+            log.error("写回上传发生异常: {}, 错误: {}", trackingId, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 后台清理任务，异常不会中断后续的定时清理
+     */
+    private void purgeQuietly() {
+        try {
+            purgeExpiredTasks();
+        } catch (Exception e) {
+            log.error("清理过期的写回任务发生异常: {}", e.getMessage(), e);
+        }
+    }
+}
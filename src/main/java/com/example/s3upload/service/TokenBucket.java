@@ -0,0 +1,102 @@
+package com.example.s3upload.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 无锁令牌桶
+ *
+ * 采用GCRA（通用信元速率算法）的形式，只保存一个状态：桶重新装满的理论时间（纳秒）。
+ * 令牌数由当前时间和该时间推算，获取令牌时只需要一次CAS，不加锁，高并发下也不会成为争用点。
+ *
+ * 获取的令牌数可以超过桶容量：只要桶中有不少于 min(令牌数, 容量) 的令牌就放行并扣除全部令牌，
+ * 不足的部分记为欠账，由之后的补充抵扣。这样大于突发容量的单个上传不会永远无法通过，
+ * 长期平均速率仍受限制。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+final class TokenBucket {
+
+    private final double nanosPerToken;
+    private final long capacity;
+    private final long capacityNanos;
+
+    /**
+     * 桶重新装满的理论时间（System.nanoTime()），早于当前时间表示桶是满的
+     */
+    private final AtomicLong fullAt;
+
+    /**
+     * 创建令牌桶，初始为满桶
+     *
+     * @param tokensPerSecond 每秒补充的令牌数，必须大于0
+     * @param capacity 桶容量（突发上限），至少为1
+     */
+    TokenBucket(double tokensPerSecond, long capacity) {
+        this.nanosPerToken = 1_000_000_000d / tokensPerSecond;
+        this.capacity = Math.max(capacity, 1);
+        this.capacityNanos = toNanos(this.capacity);
+        this.fullAt = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * 尝试获取令牌
+     *
+     * @param tokens 令牌数，为0时只检查桶是否处于欠账状态
+     * @return 放行时返回0；否则返回桶中令牌足够所需等待的纳秒数（大于0）
+     */
+    long tryAcquire(long tokens) {
+        long required = toNanos(Math.min(tokens, capacity));
+        long cost = toNanos(tokens);
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long base = Math.max(current, now);
+            // 桶中已用掉的部分（纳秒），加上本次至少需要的令牌不能超过容量
+            long waitNanos = (base - now) + required - capacityNanos;
+            if (waitNanos > 0) {
+                return waitNanos;
+            }
+            if (fullAt.compareAndSet(current, base + cost)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 无条件扣除令牌（例如按实际传输的字节数事后计入），不足时记为欠账
+     *
+     * @param tokens 令牌数
+     */
+    void consume(long tokens) {
+        long cost = toNanos(tokens);
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            if (fullAt.compareAndSet(current, Math.max(current, now) + cost)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 归还已获取的令牌（例如同一请求的另一个令牌桶拒绝了该请求），桶中令牌不会超过容量
+     *
+     * @param tokens 令牌数
+     */
+    void refund(long tokens) {
+        long cost = toNanos(tokens);
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            if (current <= now || fullAt.compareAndSet(current, Math.max(current - cost, now))) {
+                return;
+            }
+        }
+    }
+
+    private long toNanos(long tokens) {
+        double nanos = tokens * nanosPerToken;
+        return nanos >= Long.MAX_VALUE / 4 ? Long.MAX_VALUE / 4 : (long) nanos;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.s3upload.service;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * S3上传结果
+ *
+ * 由 {@link S3MultipartUploader} 返回，描述一次上传（单次PUT或分段上传）的传输情况。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder
+public class UploadResult {
+
+    /**
+     * 对象的ETag
+     */
+    private String eTag;
+
+    /**
+     * 实际上传的字节数（压缩上传时为压缩后的大小）
+     */
+    private long contentLength;
+
+    /**
+     * 压缩编码（gzip、zstd），未压缩时为null
+     */
+    private String contentEncoding;
+
+    /**
+     * 压缩上传时的原始大小，未压缩时为null
+     */
+    private Long uncompressedLength;
+
+    /**
+     * 分段数量，单次PUT上传时为null
+     */
+    private Integer partCount;
+
+    /**
+     * 校验和算法（未启用时为null）
+     */
+    private String checksumAlgorithm;
+
+    /**
+     * S3确认的校验和（Base64），分段上传时为各分段校验和的组合值，形如 xxx-分段数
+     */
+    private String checksum;
+
+    /**
+     * 传输耗时（毫秒）
+     */
+    private long durationMillis;
+
+    /**
+     * 计算有效吞吐量（字节/秒），压缩上传时按原始大小计算
+     *
+     * @return 有效吞吐量
+     */
+    public long getThroughputBytesPerSecond() {
+        long effectiveLength = uncompressedLength != null ? uncompressedLength : contentLength;
+        return effectiveLength * 1000 / Math.max(durationMillis, 1);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.s3upload.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * 写回队列中的上传任务
+ *
+ * 由 {@link S3WriteBehindQueue} 维护，每次状态变化后以JSON文件持久化到
+ * {@code aws.s3.write-behind.spool-dir}，与暂存的文件内容放在一起，服务重启后据此恢复。
+ * 实例创建后不再修改，状态变化时通过 {@code toBuilder()} 生成新实例整体替换。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+public class WriteBehindTask {
+
+    /**
+     * 任务ID，客户端以此查询上传状态
+     */
+    private String trackingId;
+
+    /**
+     * 文件在S3中的键（接收上传时确定）
+     */
+    private String s3Key;
+
+    /**
+     * 原始文件名
+     */
+    private String fileName;
+
+    /**
+     * 文件内容类型
+     */
+    private String contentType;
+
+    /**
+     * 是否覆盖已存在的文件
+     */
+    private boolean overwrite;
+
+    /**
+     * 文件大小（字节）
+     */
+    private long contentLength;
+
+    /**
+     * 任务状态
+     */
+    private Status status;
+
+    /**
+     * 已尝试上传的次数
+     */
+    private int attempts;
+
+    /**
+     * 最近一次失败的错误代码
+     */
+    private String lastErrorCode;
+
+    /**
+     * 最近一次失败的错误信息
+     */
+    private String lastError;
+
+    /**
+     * 接收上传的时间
+     */
+    private Instant acceptedAt;
+
+    /**
+     * 最近一次状态变化的时间
+     */
+    private Instant updatedAt;
+
+    /**
+     * 任务状态
+     */
+    public enum Status {
+        /**
+         * 已持久化到本地，等待上传（包括等待重试）
+         */
+        PENDING,
+
+        /**
+         * 已上传到S3
+         */
+        UPLOADED,
+
+        /**
+         * 重试用尽或遇到不可重试的错误，暂存内容已删除
+         */
+        FAILED;
+
+        /**
+         * 判断是否为最终状态
+         *
+         * @return 已上传或已失败时返回true
+         */
+        public boolean isFinal() {
+            return this != PENDING;
+        }
+    }
+}
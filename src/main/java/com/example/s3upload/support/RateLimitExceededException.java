@@ -0,0 +1,32 @@
+package com.example.s3upload.support;
+
+import lombok.Getter;
+
+/**
+ * 租户请求被限流异常
+ *
+ * 由 {@link S3RateLimitInterceptor} 在请求进入控制器之前抛出，
+ * 由控制器的异常处理器转换为错误代码为 RATE_LIMITED 的失败响应（429）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * 建议客户端等待的秒数（Retry-After）
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * 创建租户请求被限流异常
+     *
+     * @param message 错误消息
+     * @param retryAfterSeconds 建议客户端等待的秒数
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.s3upload.support;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.service.S3RateLimiter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 按租户限流的请求拦截器
+ *
+ * 在请求进入控制器之前识别租户并获取令牌，被限流时抛出 {@link RateLimitExceededException}；
+ * GET请求完成后按响应的Content-Length计入下载的字节数。
+ *
+ * 租户按 {@code aws.s3.rate-limit.tenant-source} 识别：
+ * - API_KEY：API密钥请求头的值
+ * - PATH_PREFIX：路径前缀的第一段，依次取 pathPrefix、prefix、key 参数，X-Path-Prefix 请求头，
+ *   或下载、删除路径中的文件键（Base64上传的路径前缀在请求体中，无法提前读取，归入默认租户）
+ * 无法识别时归入默认租户。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class S3RateLimitInterceptor implements HandlerInterceptor {
+
+    /**
+     * 保存租户标识的请求属性
+     */
+    private static final String TENANT_ATTRIBUTE = S3RateLimitInterceptor.class.getName() + ".tenant";
+
+    /**
+     * 路径中带有文件键的接口（可能带有 async/ 前缀）
+     */
+    private static final String[] KEY_PATH_SEGMENTS = {"/download/", "/delete/"};
+
+    private final S3RateLimiter rateLimiter;
+    private final S3Properties s3Properties;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!rateLimiter.isEnabled()) {
+            return true;
+        }
+
+        String tenant = resolveTenant(request);
+        long retryAfterSeconds = rateLimiter.tryAcquire(tenant, Math.max(request.getContentLengthLong(), 0));
+        if (retryAfterSeconds > 0) {
+            throw new RateLimitExceededException("请求过于频繁，已超过租户的速率限制: " + tenant, retryAfterSeconds);
+        }
+        request.setAttribute(TENANT_ATTRIBUTE, tenant);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        Object tenant = request.getAttribute(TENANT_ATTRIBUTE);
+        if (tenant == null || !HttpMethod.GET.matches(request.getMethod()) || response.getStatus() >= 300) {
+            return;
+        }
+        String contentLength = response.getHeader(HttpHeaders.CONTENT_LENGTH);
+        if (contentLength != null) {
+            try {
+                rateLimiter.recordTransferred((String) tenant, Long.parseLong(contentLength));
+            } catch (NumberFormatException ignored) {
+                // 无效的Content-Length不计入
+            }
+        }
+    }
+
+    /**
+     * 识别请求所属的租户
+     *
+     * @param request HTTP请求
+     * @return 租户标识
+     */
+    private String resolveTenant(HttpServletRequest request) {
+        S3Properties.RateLimit rateLimit = s3Properties.getRateLimit();
+        String tenant = switch (rateLimit.getTenantSource()) {
+            case API_KEY -> request.getHeader(rateLimit.getApiKeyHeader());
+            case PATH_PREFIX -> firstSegment(resolvePathPrefix(request));
+        };
+        return tenant == null || tenant.isBlank() ? rateLimit.getDefaultTenant() : tenant.trim();
+    }
+
+    @Nullable
+    private static String resolvePathPrefix(HttpServletRequest request) {
+        for (String parameter : new String[] {"pathPrefix", "prefix", "key"}) {
+            String value = request.getParameter(parameter);
+            if (value != null && !value.isBlank()) {
+                return value;
+            }
+        }
+        String header = request.getHeader("X-Path-Prefix");
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        String uri = request.getRequestURI();
+        for (String segment : KEY_PATH_SEGMENTS) {
+            int index = uri.indexOf(segment);
+            if (index >= 0) {
+                return uri.substring(index + segment.length());
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String firstSegment(@Nullable String path) {
+        if (path == null) {
+            return null;
+        }
+        String trimmed = path.startsWith("/") ? path.substring(1) : path;
+        int slash = trimmed.indexOf('/');
+        return slash >= 0 ? trimmed.substring(0, slash) : trimmed;
+    }
+}
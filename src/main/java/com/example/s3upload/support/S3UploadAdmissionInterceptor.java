@@ -0,0 +1,62 @@
+package com.example.s3upload.support;
+
+import com.example.s3upload.service.S3UploadAdmission;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * 上传准入控制拦截器
+ *
+ * 在请求进入控制器之前（也就是在 @RequestBody 绑定、读取请求体之前）按Content-Length
+ * 通过 {@link S3UploadAdmission} 预留全局在途字节预算，预算不足且排队超时时抛出
+ * {@link UploadThrottledException}。许可保存在请求属性中，请求处理完成后归还；
+ * 异步接口在异步结果写出之后（异步派发的afterCompletion）才归还。
+ *
+ * multipart/form-data 请求的文件部分由Servlet容器在进入拦截器之前暂存到磁盘，
+ * 此时预算限制的是同时转发到S3的上传。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Component
+@RequiredArgsConstructor
+public class S3UploadAdmissionInterceptor implements HandlerInterceptor {
+
+    /**
+     * 保存准入许可的请求属性
+     */
+    private static final String PERMIT_ATTRIBUTE = S3UploadAdmissionInterceptor.class.getName() + ".permit";
+
+    private final S3UploadAdmission uploadAdmission;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // 异步派发时许可已在首次派发中获取
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                || request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            return true;
+        }
+
+        S3UploadAdmission.Permit permit = uploadAdmission.admit(request.getContentLengthLong());
+        if (permit == null) {
+            throw new UploadThrottledException("服务器繁忙，上传请求过多，请稍后重试",
+                uploadAdmission.getRetryAfterSeconds());
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                @Nullable Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof S3UploadAdmission.Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permit.close();
+        }
+    }
+}
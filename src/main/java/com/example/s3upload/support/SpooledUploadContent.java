@@ -0,0 +1,67 @@
+package com.example.s3upload.support;
+
+import com.example.s3upload.dto.S3StreamUploadRequest;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 暂存在本地磁盘上的上传内容
+ *
+ * 由 {@link StreamingUploadRequestReader} 生成，包含已校验的上传元数据、解码后的文件内容，
+ * 以及启用内容去重时在解码过程中计算的SHA-256。
+ * 关闭时删除暂存文件。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Getter
+@RequiredArgsConstructor
+public class SpooledUploadContent implements Closeable {
+
+    /**
+     * 上传元数据（内容长度已填充为解码后的字节数）
+     */
+    private final S3StreamUploadRequest uploadRequest;
+
+    /**
+     * 暂存文件路径
+     */
+    private final Path spoolFile;
+
+    /**
+     * 文件内容的SHA-256（十六进制），未启用内容去重时为null
+     */
+    @Nullable
+    private final String contentSha256;
+
+    /**
+     * 打开暂存文件的输入流
+     *
+     * @return 文件内容输入流
+     * @throws IOException 打开文件失败时抛出
+     */
+    public InputStream openStream() throws IOException {
+        return Files.newInputStream(spoolFile);
+    }
+
+    /**
+     * 删除暂存文件
+     */
+    @Override
+    public void close() {
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("删除上传暂存文件失败: {}, {}", spoolFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.s3upload.support;
+
+import com.example.s3upload.config.S3Properties;
+import com.example.s3upload.dto.S3StreamUploadRequest;
+import com.example.s3upload.service.S3OperationMetrics;
+import com.fasterxml.jackson.core.Base64Variant;
+import com.fasterxml.jackson.core.Base64Variants;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * JSON上传请求流式读取器
+ *
+ * 使用Jackson的 {@link JsonParser} 增量解析 {@code POST /api/s3/upload} 的JSON请求体：
+ * fileContent字段的Base64内容按块解码并直接写入本地暂存文件，
+ * 整个Base64字符串和解码后的字节数组都不会在堆内存中完整出现。
+ *
+ * 由于fileName、pathPrefix、contentType、overwrite等字段可能出现在fileContent之后，
+ * 而S3的键和覆盖检查都依赖这些字段，所以解码内容先暂存到磁盘，
+ * 待整个请求体解析并校验通过后，才会向S3提交任何字节。
+ *
+ * 解码耗时记录为 s3.upload.phase{phase=decode}，其中包含从客户端读取fileContent的时间。
+ *
+ * 启用内容去重（{@code aws.s3.dedup.enabled}）时，解码后的字节在写入暂存文件的同时计算SHA-256，
+ * 不需要再读一遍暂存文件。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StreamingUploadRequestReader {
+
+    /**
+     * 暂存文件写入缓冲区大小
+     */
+    private static final int SPOOL_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Base64变体：与 {@link java.util.Base64#getDecoder()} 保持一致，允许省略末尾的填充字符
+     */
+    private static final Base64Variant BASE64_VARIANT = Base64Variants.MIME_NO_LINEFEEDS
+        .withReadPadding(Base64Variant.PaddingReadBehaviour.PADDING_ALLOWED);
+
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final S3OperationMetrics metrics;
+    private final S3Properties s3Properties;
+
+    /**
+     * 读取并校验JSON上传请求
+     *
+     * @param body 请求体输入流
+     * @return 暂存的上传内容，使用完毕后需要关闭以删除暂存文件
+     * @throws UploadRequestException 请求体格式无效或参数校验失败时抛出
+     * @throws IOException 读取请求体或写入暂存文件失败时抛出
+     */
+    public SpooledUploadContent read(InputStream body) throws IOException {
+        return read(body, null);
+    }
+
+    /**
+     * 读取并校验JSON上传请求，解码后的内容暂存到指定目录
+     *
+     * 写回模式将内容暂存到写回暂存目录中，接收上传时只需重命名而不必再复制一遍。
+     *
+     * @param body 请求体输入流
+     * @param spoolDirectory 暂存文件所在目录，为null时使用系统临时目录
+     * @return 暂存的上传内容，使用完毕后需要关闭以删除暂存文件
+     * @throws UploadRequestException 请求体格式无效或参数校验失败时抛出
+     * @throws IOException 读取请求体或写入暂存文件失败时抛出
+     */
+    public SpooledUploadContent read(InputStream body, @Nullable Path spoolDirectory) throws IOException {
+        S3StreamUploadRequest uploadRequest = new S3StreamUploadRequest();
+        Path spoolFile = null;
+        MessageDigest digest = null;
+        boolean completed = false;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new UploadRequestException("请求体必须是JSON对象", "INVALID_REQUEST_BODY");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+
+                switch (fieldName) {
+                    case "fileContent" -> {
+                        // 重复的fileContent字段以最后一个为准
+                        deleteQuietly(spoolFile);
+                        spoolFile = null;
+                        if (valueToken == JsonToken.VALUE_STRING) {
+                            MessageDigest contentDigest = s3Properties.getDedup().isEnabled() ? newSha256() : null;
+                            spoolFile = metrics.recordPhase("decode",
+                                () -> spoolFileContent(parser, contentDigest, spoolDirectory));
+                            digest = contentDigest;
+                        }
+                        skipStructure(parser, valueToken);
+                    }
+                    case "fileName" -> uploadRequest.setFileName(readText(parser, valueToken));
+                    case "pathPrefix" -> uploadRequest.setPathPrefix(readText(parser, valueToken));
+                    case "contentType" -> uploadRequest.setContentType(readText(parser, valueToken));
+                    case "overwrite" -> uploadRequest.setOverwrite(parser.getValueAsBoolean(false));
+                    default -> parser.skipChildren();
+                }
+            }
+
+            long contentLength = spoolFile != null ? Files.size(spoolFile) : 0;
+            uploadRequest.setContentLength(contentLength);
+            validate(uploadRequest, contentLength);
+
+            completed = true;
+            String contentSha256 = spoolFile != null && digest != null
+                ? HexFormat.of().formatHex(digest.digest())
+                : null;
+            return new SpooledUploadContent(uploadRequest, spoolFile, contentSha256);
+
+        } catch (JsonProcessingException e) {
+            log.warn("上传请求体JSON解析失败: {}", e.getOriginalMessage());
+            throw new UploadRequestException("请求体不是有效的JSON: " + e.getOriginalMessage(), "INVALID_REQUEST_BODY");
+        } finally {
+            if (!completed) {
+                deleteQuietly(spoolFile);
+            }
+        }
+    }
+
+    /**
+     * 将当前fileContent字段的Base64内容增量解码并写入暂存文件
+     *
+     * @param parser JSON解析器，当前位于fileContent的字符串值上
+     * @param digest 同时计算的内容摘要，为null时不计算
+     * @param spoolDirectory 暂存文件所在目录，为null时使用系统临时目录
+     * @return 暂存文件路径
+     * @throws IOException 写入暂存文件失败时抛出
+     */
+    private Path spoolFileContent(JsonParser parser, MessageDigest digest, @Nullable Path spoolDirectory)
+            throws IOException {
+        Path spoolFile = spoolDirectory != null
+            ? Files.createTempFile(spoolDirectory, "s3upload-", ".bin")
+            : Files.createTempFile("s3upload-", ".bin");
+        OutputStream fileOut = Files.newOutputStream(spoolFile);
+        if (digest != null) {
+            fileOut = new DigestOutputStream(fileOut, digest);
+        }
+        try (OutputStream out = new BufferedOutputStream(fileOut, SPOOL_BUFFER_SIZE)) {
+            parser.readBinaryValue(BASE64_VARIANT, out);
+            log.debug("文件内容增量解码完成，暂存文件: {}", spoolFile);
+            return spoolFile;
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            // Jackson对非法Base64字符抛出IllegalArgumentException，对截断的内容抛出JsonParseException
+            deleteQuietly(spoolFile);
+            log.error("文件内容Base64解码失败: {}", e.getMessage());
+            throw new UploadRequestException("文件内容格式无效，请确保是有效的Base64编码", "INVALID_FILE_CONTENT");
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(spoolFile);
+            throw e;
+        }
+    }
+
+    /**
+     * 校验上传元数据，错误消息格式与请求体注解校验保持一致
+     *
+     * @param uploadRequest 上传元数据
+     * @param contentLength 解码后的内容长度
+     */
+    private void validate(S3StreamUploadRequest uploadRequest, long contentLength) {
+        List<String> errors = new ArrayList<>();
+
+        if (contentLength == 0) {
+            errors.add("fileContent: 文件内容不能为空");
+        }
+
+        Set<ConstraintViolation<S3StreamUploadRequest>> violations = validator.validate(uploadRequest);
+        for (ConstraintViolation<S3StreamUploadRequest> violation : violations) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+
+        if (!errors.isEmpty()) {
+            String errorMessage = String.join("; ", errors);
+            log.warn("请求参数验证失败: {}", errorMessage);
+            throw new UploadRequestException("请求参数验证失败: " + errorMessage, "VALIDATION_ERROR");
+        }
+    }
+
+    /**
+     * 读取字符串字段值，非标量值视为未提供
+     */
+    private String readText(JsonParser parser, JsonToken valueToken) throws IOException {
+        if (valueToken.isScalarValue() && valueToken != JsonToken.VALUE_NULL) {
+            return parser.getValueAsString();
+        }
+        parser.skipChildren();
+        return null;
+    }
+
+    /**
+     * 跳过对象或数组类型的字段值
+     */
+    private void skipStructure(JsonParser parser, JsonToken valueToken) throws IOException {
+        if (valueToken.isStructStart()) {
+            parser.skipChildren();
+        }
+    }
+
+    /**
+     * 创建SHA-256摘要（所有JVM都必须支持该算法）
+     */
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 删除暂存文件，忽略删除失败
+     */
+    private void deleteQuietly(Path spoolFile) {
+        if (spoolFile == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(spoolFile);
+        } catch (IOException e) {
+            log.warn("删除上传暂存文件失败: {}, {}", spoolFile, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.s3upload.support;
+
+import lombok.Getter;
+
+/**
+ * 上传请求无效异常
+ *
+ * 在解析或校验上传请求时抛出，携带与 {@link com.example.s3upload.dto.S3UploadResponse}
+ * 一致的错误代码，由服务层转换为失败响应。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Getter
+public class UploadRequestException extends RuntimeException {
+
+    /**
+     * 错误代码
+     */
+    private final String errorCode;
+
+    /**
+     * 创建上传请求无效异常
+     *
+     * @param message 错误消息
+     * @param errorCode 错误代码
+     */
+    public UploadRequestException(String message, String errorCode) {
+        super(message);
+        this.errorCode = errorCode;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.s3upload.support;
+
+import lombok.Getter;
+
+/**
+ * 上传请求未通过准入控制异常
+ *
+ * 由 {@link S3UploadAdmissionInterceptor} 在读取请求体之前抛出，
+ * 由控制器的异常处理器转换为错误代码为 UPLOAD_THROTTLED 的失败响应（429）。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+@Getter
+public class UploadThrottledException extends RuntimeException {
+
+    /**
+     * 建议客户端等待的秒数（Retry-After）
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * 创建上传请求未通过准入控制异常
+     *
+     * @param message 错误消息
+     * @param retryAfterSeconds 建议客户端等待的秒数
+     */
+    public UploadThrottledException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
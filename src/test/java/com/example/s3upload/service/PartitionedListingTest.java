@@ -0,0 +1,230 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link PartitionedListing} 单元测试
+ *
+ * 存储桶由内存中按字典序排列的键模拟，列出请求按S3的语义处理prefix、startAfter、continuationToken和maxKeys。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+class PartitionedListingTest {
+
+    private static final String BUCKET = "test-bucket";
+    private static final LocalDate DAY = LocalDate.of(2024, 1, 1);
+    private static final String DAY_PREFIX = "uploads/2024/01/01/";
+
+    private final NavigableSet<String> objects = new ConcurrentSkipListSet<>();
+    private final List<ListObjectsV2Request> requests = new CopyOnWriteArrayList<>();
+    private S3KeyLayout keyLayout;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        S3Properties s3Properties = new S3Properties();
+        s3Properties.getKeyPartitioning().setEnabled(true);
+        s3Properties.getKeyPartitioning().setShards(4);
+        keyLayout = new S3KeyLayout(s3Properties);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void mergesShardsInLogicalKeyOrder() {
+        List<String> logicalKeys = uploadPartitioned(20, DAY);
+        uploadPartitioned(5, DAY.plusDays(1));
+
+        List<String> listed = logicalKeys(drain(open(DAY_PREFIX, null, 1000)));
+
+        assertThat(listed).isEqualTo(logicalKeys.stream().sorted().toList());
+        // 每个分区和未分区的原前缀各请求一次
+        assertThat(requests).extracting(ListObjectsV2Request::prefix)
+            .containsExactlyInAnyOrder("uploads/0/2024/01/01/", "uploads/1/2024/01/01/",
+                "uploads/2/2024/01/01/", "uploads/3/2024/01/01/", DAY_PREFIX);
+    }
+
+    @Test
+    void followsTruncatedShardPages() {
+        List<String> logicalKeys = uploadPartitioned(30, DAY);
+
+        List<String> listed = logicalKeys(drain(open(DAY_PREFIX, null, 2)));
+
+        assertThat(listed).isEqualTo(logicalKeys.stream().sorted().toList());
+        assertThat(requests).anyMatch(request -> request.continuationToken() != null);
+    }
+
+    @Test
+    void resumesFromContinuationToken() {
+        List<String> logicalKeys = uploadPartitioned(25, DAY).stream().sorted().toList();
+
+        ListObjectsV2Response first = open(DAY_PREFIX, null, 3).nextPage(10);
+        assertThat(first.isTruncated()).isTrue();
+        assertThat(first.nextContinuationToken()).isEqualTo(logicalKeys.get(9));
+
+        ListObjectsV2Response second = open(DAY_PREFIX, first.nextContinuationToken(), 3).nextPage(10);
+        ListObjectsV2Response third = open(DAY_PREFIX, second.nextContinuationToken(), 3).nextPage(10);
+
+        assertThat(logicalKeys(first.contents())).isEqualTo(logicalKeys.subList(0, 10));
+        assertThat(logicalKeys(second.contents())).isEqualTo(logicalKeys.subList(10, 20));
+        assertThat(logicalKeys(third.contents())).isEqualTo(logicalKeys.subList(20, 25));
+        assertThat(third.isTruncated()).isFalse();
+        assertThat(third.nextContinuationToken()).isNull();
+    }
+
+    @Test
+    void interleavesUnpartitionedKeysWithShardKeys() {
+        List<String> logicalKeys = new ArrayList<>(uploadPartitioned(12, DAY));
+        for (String name : List.of("0_legacy.txt", "8_legacy.txt", "f_legacy.txt")) {
+            objects.add(DAY_PREFIX + name);
+            logicalKeys.add(DAY_PREFIX + name);
+        }
+
+        List<S3Object> listed = drain(open(DAY_PREFIX, null, 2));
+
+        assertThat(logicalKeys(listed)).isEqualTo(logicalKeys.stream().sorted().toList());
+        // 未分区的键原样返回，分区内的键保留物理键
+        assertThat(listed).extracting(S3Object::key)
+            .contains(DAY_PREFIX + "8_legacy.txt")
+            .anyMatch(key -> key.matches("uploads/[0-3]/2024/01/01/.*"));
+    }
+
+    @Test
+    void resumesAcrossUnpartitionedAndShardKeys() {
+        uploadPartitioned(12, DAY);
+        objects.add(DAY_PREFIX + "0_legacy.txt");
+        objects.add(DAY_PREFIX + "f_legacy.txt");
+        List<String> all = logicalKeys(drain(open(DAY_PREFIX, null, 1000)));
+        requests.clear();
+
+        List<String> resumed = new ArrayList<>();
+        String token = null;
+        do {
+            ListObjectsV2Response page = open(DAY_PREFIX, token, 2).nextPage(3);
+            resumed.addAll(logicalKeys(page.contents()));
+            token = page.nextContinuationToken();
+        } while (token != null);
+
+        assertThat(resumed).isEqualTo(all);
+    }
+
+    @Test
+    void doesNotExpandOtherPrefixes() {
+        objects.add("images/a.jpg");
+        objects.add("images/b.jpg");
+        uploadPartitioned(3, DAY);
+
+        List<String> listed = drain(open("images/", null, 1000)).stream().map(S3Object::key).toList();
+
+        assertThat(listed).containsExactly("images/a.jpg", "images/b.jpg");
+        assertThat(requests).extracting(ListObjectsV2Request::prefix).containsExactly("images/");
+    }
+
+    @Test
+    void pagesReturnsOneEmptyPageWhenNothingMatches() {
+        Iterator<ListObjectsV2Response> pages = open(DAY_PREFIX, null, 1000).pages(10);
+
+        assertThat(pages.hasNext()).isTrue();
+        ListObjectsV2Response page = pages.next();
+        assertThat(page.contents()).isEmpty();
+        assertThat(page.isTruncated()).isFalse();
+        assertThat(pages.hasNext()).isFalse();
+    }
+
+    @Test
+    void mergeKeepsSmallestKeysOfFirstPages() {
+        List<String> logicalKeys = uploadPartitioned(20, DAY).stream().sorted().toList();
+        List<ListObjectsV2Response> firstPages = keyLayout.partitions(DAY_PREFIX).stream()
+            .map(partition -> list(template(5).toBuilder().prefix(partition.prefix()).build()))
+            .toList();
+
+        ListObjectsV2Response merged = PartitionedListing.merge(keyLayout, DAY_PREFIX, BUCKET, 5, firstPages);
+
+        assertThat(logicalKeys(merged.contents())).isEqualTo(logicalKeys.subList(0, 5));
+        assertThat(merged.isTruncated()).isTrue();
+        assertThat(merged.nextContinuationToken()).isEqualTo(logicalKeys.get(4));
+    }
+
+    /**
+     * 按默认上传路径写入count个文件，返回它们的逻辑键
+     */
+    private List<String> uploadPartitioned(int count, LocalDate date) {
+        List<String> logicalKeys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = String.format("%08x-%02d_file.txt", (i * 2654435761L) & 0xffffffffL, i);
+            String key = keyLayout.defaultPrefix(name, date) + name;
+            objects.add(key);
+            logicalKeys.add(keyLayout.logicalKey(key));
+        }
+        return logicalKeys;
+    }
+
+    private PartitionedListing open(String prefix, String startAfter, int partitionPageSize) {
+        return new PartitionedListing(keyLayout, prefix, startAfter, template(partitionPageSize), this::list, executor);
+    }
+
+    private static ListObjectsV2Request template(int maxKeys) {
+        return ListObjectsV2Request.builder().bucket(BUCKET).maxKeys(maxKeys).build();
+    }
+
+    private static List<S3Object> drain(Iterator<S3Object> iterator) {
+        List<S3Object> result = new ArrayList<>();
+        iterator.forEachRemaining(result::add);
+        return result;
+    }
+
+    private List<String> logicalKeys(List<S3Object> s3Objects) {
+        return s3Objects.stream().map(s3Object -> keyLayout.logicalKey(s3Object.key())).collect(Collectors.toList());
+    }
+
+    /**
+     * 模拟listObjectsV2：继续令牌为上一页最后一个键
+     */
+    private ListObjectsV2Response list(ListObjectsV2Request request) {
+        requests.add(request);
+        String prefix = request.prefix() == null ? "" : request.prefix();
+        String after = request.continuationToken() != null ? request.continuationToken() : request.startAfter();
+        int maxKeys = request.maxKeys() == null ? 1000 : request.maxKeys();
+
+        NavigableSet<String> candidates = after == null ? objects : objects.tailSet(after, false);
+        List<String> matched = candidates.stream()
+            .filter(key -> key.startsWith(prefix))
+            .limit(maxKeys + 1L)
+            .toList();
+        boolean truncated = matched.size() > maxKeys;
+        List<String> page = truncated ? matched.subList(0, maxKeys) : matched;
+        return ListObjectsV2Response.builder()
+            .name(BUCKET)
+            .prefix(request.prefix())
+            .maxKeys(maxKeys)
+            .keyCount(page.size())
+            .contents(page.stream().map(key -> S3Object.builder().key(key).size(1L).build()).toList())
+            .isTruncated(truncated)
+            .nextContinuationToken(truncated ? page.get(page.size() - 1) : null)
+            .build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.s3upload.service;
+
+import com.example.s3upload.config.S3Properties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link S3RateLimiter} 单元测试
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+class S3RateLimiterTest {
+
+    @Test
+    void eachTenantHasOwnBuckets() {
+        S3RateLimiter rateLimiter = newRateLimiter(limit(1, 1, 0, 0));
+
+        assertThat(rateLimiter.tryAcquire("key-a", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("key-a", 0)).isPositive();
+        // 一个租户用尽限额不影响其他租户
+        assertThat(rateLimiter.tryAcquire("key-b", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("anonymous", 0)).isZero();
+    }
+
+    @Test
+    void unknownTenantsShareAggregateBuckets() {
+        S3Properties s3Properties = properties(limit(1, 1, 0, 0));
+        s3Properties.getRateLimit().setUnknownTenants(limit(1, 2, 0, 0));
+        s3Properties.getRateLimit().getTenants().put("team-a", limit(1, 1, 0, 0));
+        S3RateLimiter rateLimiter = new S3RateLimiter(s3Properties, new SimpleMeterRegistry());
+
+        assertThat(rateLimiter.tryAcquire("key-a", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("key-b", 0)).isZero();
+        // 更换API密钥得到新的满桶，但无法突破未配置租户合计的限额
+        assertThat(rateLimiter.tryAcquire("key-c", 0)).isPositive();
+        // 配置了限额的租户不受共享令牌桶的影响
+        assertThat(rateLimiter.tryAcquire("team-a", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("team-a", 0)).isPositive();
+    }
+
+    @Test
+    void aggregateRejectionDoesNotSpendTenantTokens() {
+        S3Properties s3Properties = properties(limit(1, 2, 0, 0));
+        s3Properties.getRateLimit().setUnknownTenants(limit(1, 1, 0, 0));
+        S3RateLimiter rateLimiter = new S3RateLimiter(s3Properties, new SimpleMeterRegistry());
+
+        assertThat(rateLimiter.tryAcquire("key-a", 0)).isZero();
+        // 共享令牌桶已用完，被拒绝的请求归还key-b自己的请求令牌
+        assertThat(rateLimiter.tryAcquire("key-b", 0)).isPositive();
+        s3Properties.getRateLimit().getTenants().put("key-b", limit(1, 2, 0, 0));
+        assertThat(rateLimiter.tryAcquire("key-b", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("key-b", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("key-b", 0)).isPositive();
+    }
+
+    @Test
+    void byteRejectionDoesNotSpendRequestToken() {
+        S3RateLimiter rateLimiter = newRateLimiter(limit(1, 2, 1, 1024));
+
+        assertThat(rateLimiter.tryAcquire("anonymous", 1024)).isZero();
+        // 字节令牌已用完，被拒绝的请求归还请求令牌
+        assertThat(rateLimiter.tryAcquire("anonymous", 1024)).isPositive();
+        assertThat(rateLimiter.tryAcquire("anonymous", 0)).isZero();
+        assertThat(rateLimiter.tryAcquire("anonymous", 0)).isPositive();
+    }
+
+    private static S3RateLimiter newRateLimiter(S3Properties.RateLimit.Limit defaults) {
+        return new S3RateLimiter(properties(defaults), new SimpleMeterRegistry());
+    }
+
+    private static S3Properties properties(S3Properties.RateLimit.Limit defaults) {
+        S3Properties s3Properties = new S3Properties();
+        s3Properties.getRateLimit().setEnabled(true);
+        s3Properties.getRateLimit().setDefaults(defaults);
+        return s3Properties;
+    }
+
+    private static S3Properties.RateLimit.Limit limit(double requestsPerSecond, long requestBurst,
+                                                      long bytesPerSecond, long bytesBurst) {
+        S3Properties.RateLimit.Limit limit = new S3Properties.RateLimit.Limit();
+        limit.setRequestsPerSecond(requestsPerSecond);
+        limit.setRequestBurst(requestBurst);
+        limit.setBytesPerSecond(DataSize.ofBytes(bytesPerSecond));
+        limit.setBytesBurst(DataSize.ofBytes(bytesBurst));
+        return limit;
+    }
+}
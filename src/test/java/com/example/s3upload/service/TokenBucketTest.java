@@ -0,0 +1,76 @@
+package com.example.s3upload.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * {@link TokenBucket} 单元测试
+ *
+ * 补充速率取得足够低（每秒1个令牌），测试执行期间的补充可以忽略。
+ *
+ * @author Generated
+ * @version 1.0.0
+ */
+class TokenBucketTest {
+
+    @Test
+    void allowsBurstUpToCapacityThenRejects() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isPositive();
+    }
+
+    @Test
+    void rejectedAcquireDoesNotConsumeTokens() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        assertThat(bucket.tryAcquire(2)).isZero();
+
+        // 桶中只剩1个令牌，请求2个被拒绝，剩余的1个仍然可用
+        assertThat(bucket.tryAcquire(2)).isPositive();
+        assertThat(bucket.tryAcquire(1)).isZero();
+    }
+
+    @Test
+    void oversizedAcquireIsAllowedOnFullBucketAndLeavesDebt() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+
+        assertThat(bucket.tryAcquire(10)).isZero();
+        // 欠账约7个令牌，需要等待约8秒才有1个令牌
+        assertThat(bucket.tryAcquire(1)).isGreaterThan(7_000_000_000L);
+    }
+
+    @Test
+    void zeroTokensOnlyChecksForDebt() {
+        TokenBucket bucket = new TokenBucket(1, 3);
+        assertThat(bucket.tryAcquire(0)).isZero();
+
+        bucket.consume(5);
+        assertThat(bucket.tryAcquire(0)).isPositive();
+    }
+
+    @Test
+    void refundReturnsAcquiredTokens() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isPositive();
+
+        bucket.refund(1);
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isPositive();
+    }
+
+    @Test
+    void refundNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(1, 2);
+
+        bucket.refund(5);
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isZero();
+        assertThat(bucket.tryAcquire(1)).isPositive();
+    }
+}